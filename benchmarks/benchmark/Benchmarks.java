@@ -0,0 +1,93 @@
+package benchmark;
+
+import geometries.Sphere;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.Random;
+
+/**
+ * The shared fixtures and timing of the benchmarks.
+ * The benchmarks live in their own source folder, out of the unit tests, and their classes are tagged
+ * with {@link #TAG}, so a run of the unit tests does not run them - they are run one by one, on purpose.
+ * A measured task is run once before it is measured, so the JIT compiler compiles it with its final profile.
+ */
+public final class Benchmarks {
+
+    /** The tag of the benchmark classes */
+    public static final String TAG = "benchmark";
+
+    /** Don't let anyone instantiate this class. */
+    private Benchmarks() {
+    }
+
+    /**
+     * Runs a task once to warm it up, then measures a few rounds of it.
+     * @param rounds the amount of measured rounds
+     * @param task   the task
+     * @return the time of all the measured rounds in nanoseconds
+     */
+    public static long time(int rounds, Runnable task) {
+        task.run(); // warm-up
+        long start = System.nanoTime();
+        for (int round = 0; round < rounds; ++round)
+            task.run();
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Prints the time and the throughput of a measurement.
+     * @param label  the label of the measurement
+     * @param time   the time of the measurement in nanoseconds
+     * @param amount the amount of work in the measurement (e.g. rays)
+     * @param unit   the unit of the work, in plural
+     */
+    public static void report(String label, long time, double amount, String unit) {
+        System.out.printf("%-34s %8.1f ms %12.0f %s/s%n", label, time / 1e6, amount / (time / 1e9), unit);
+    }
+
+    /**
+     * Prints how many times a measurement is faster than a baseline.
+     * @param label    the label of the measurement
+     * @param baseline the time of the baseline
+     * @param time     the time of the measurement
+     */
+    public static void reportSpeedup(String label, long baseline, long time) {
+        System.out.printf("%-34s %8.2fx%n", label, (double) baseline / time);
+    }
+
+    /**
+     * Creates random rays that start on a square facing the scene and point into it.
+     * @param rand     the random generator
+     * @param count    the amount of rays
+     * @param extent   the half size of the square, around the z axis
+     * @param distance the distance of the square from the origin, towards negative z
+     * @param spread   the maximum slope of the rays from the z axis
+     * @return the rays
+     */
+    public static Ray[] rays(Random rand, int count, double extent, double distance, double spread) {
+        Ray[] rays = new Ray[count];
+        for (int i = 0; i < count; ++i)
+            rays[i] = new Ray(new Point(rand.nextDouble(-extent, extent), rand.nextDouble(-extent, extent), -distance),
+                    new Vector(rand.nextDouble(-spread, spread), rand.nextDouble(-spread, spread), 1));
+        return rays;
+    }
+
+    /**
+     * Creates random spheres spread evenly in a cube around the origin.
+     * @param rand      the random generator
+     * @param count     the amount of spheres
+     * @param extent    the half size of the cube
+     * @param minRadius the minimum radius of a sphere
+     * @param maxRadius the maximum radius of a sphere
+     * @return the spheres
+     */
+    public static Sphere[] spheres(Random rand, int count, double extent, double minRadius, double maxRadius) {
+        Sphere[] spheres = new Sphere[count];
+        for (int i = 0; i < count; ++i)
+            spheres[i] = new Sphere(rand.nextDouble(minRadius, maxRadius), new Point(rand.nextDouble(-extent, extent),
+                    rand.nextDouble(-extent, extent), rand.nextDouble(-extent, extent)));
+        return spheres;
+    }
+}
@@ -0,0 +1,141 @@
+package geometries;
+
+import benchmark.Benchmarks;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import renderer.TeapotTest;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Benchmark of the hierarchy memory layout - traverses the same hierarchy as a tree of {@link BVHNode} objects
+ * and as the flat arrays of {@link LinearBVH}, and reports the node visits per second.
+ */
+@Tag(Benchmarks.TAG)
+public class BVHLayoutBenchmark {
+
+    /** Amount of rays in the benchmark */
+    private static final int RAYS = 200_000;
+
+    /** Amount of spheres in the synthetic scene */
+    private static final int SPHERES = 1_000_000;
+
+    /**
+     * Traverses the object tree with all the rays
+     * @param root the root of the tree
+     * @param rays the rays (origin and inverse direction of every ray)
+     * @return the amount of visited nodes
+     */
+    private static long traverse(BVHNode root, double[] rays) {
+        long visits = 0;
+        BVHNode[] stack = new BVHNode[root.depth()];
+        for (int r = 0; r < rays.length; r += 6) {
+            int top = 0;
+            stack[top++] = root;
+            while (top > 0) {
+                BVHNode node = stack[--top];
+                ++visits;
+                if (node.box.intersect(rays[r], rays[r + 1], rays[r + 2], rays[r + 3], rays[r + 4], rays[r + 5],
+                        Double.POSITIVE_INFINITY) == Double.POSITIVE_INFINITY || node.isLeaf())
+                    continue;
+                stack[top++] = node.right;
+                stack[top++] = node.left;
+            }
+        }
+        return visits;
+    }
+
+    /**
+     * Traverses the flat arrays with all the rays
+     * @param tree the flattened hierarchy
+     * @param rays the rays (origin and inverse direction of every ray)
+     * @return the amount of visited nodes
+     */
+    private static long traverse(LinearBVH tree, double[] rays) {
+        long visits = 0;
+        int[] stack = new int[tree.depth];
+        for (int r = 0; r < rays.length; r += 6) {
+            int top = 0;
+            stack[top++] = 0;
+            while (top > 0) {
+                int node = stack[--top];
+                ++visits;
+                if (tree.intersect(node, rays[r], rays[r + 1], rays[r + 2], rays[r + 3], rays[r + 4], rays[r + 5],
+                        Double.POSITIVE_INFINITY) == Double.POSITIVE_INFINITY || tree.isLeaf(node))
+                    continue;
+                stack[top++] = tree.right(node);
+                stack[top++] = node + 1;
+            }
+        }
+        return visits;
+    }
+
+    /**
+     * Builds random rays that start around the scene and point into it
+     * @param rand   the random generator
+     * @param extent the half size of the scene
+     * @return the rays (origin and inverse direction of every ray)
+     */
+    private static double[] randomRays(Random rand, double extent) {
+        double[] rays = new double[6 * RAYS];
+        int r = 0;
+        for (Ray ray : Benchmarks.rays(rand, RAYS, extent, 3 * extent, 0.3)) {
+            Point p0 = ray.getP0();
+            rays[r++] = p0.getX();
+            rays[r++] = p0.getY();
+            rays[r++] = p0.getZ();
+            rays[r++] = ray.getInvX();
+            rays[r++] = ray.getInvY();
+            rays[r++] = ray.getInvZ();
+        }
+        return rays;
+    }
+
+    /**
+     * Traverses both layouts after a warm-up and prints the node visits per second
+     * @param label the label of the measurement
+     * @param boxes the bounding boxes of the primitives
+     * @param rays  the rays (origin and inverse direction of every ray)
+     */
+    private static void measure(String label, BoundingBox[] boxes, double[] rays) {
+        BVHNode root = BVH.build(boxes, new int[boxes.length]);
+        LinearBVH tree = new LinearBVH(root);
+        long[] visits = new long[2];
+        long objectTime = Benchmarks.time(1, () -> visits[0] = traverse(root, rays));
+        long flatTime = Benchmarks.time(1, () -> visits[1] = traverse(tree, rays));
+
+        assertEquals(visits[0], visits[1], "Both layouts must visit the same nodes");
+        Benchmarks.report(label + " - objects", objectTime, visits[0], "visits");
+        Benchmarks.report(label + " - flat", flatTime, visits[1], "visits");
+        Benchmarks.reportSpeedup(label + " - speedup", objectTime, flatTime);
+    }
+
+    /**
+     * Compares the layouts on the teapot triangles
+     */
+    @Test
+    public void teapot() {
+        Geometry[] triangles = TeapotTest.teapotTriangles();
+        BoundingBox[] boxes = new BoundingBox[triangles.length];
+        for (int i = 0; i < boxes.length; ++i)
+            boxes[i] = triangles[i].getBoundingBox();
+        measure("teapot", boxes, randomRays(new Random(5783), 50));
+    }
+
+    /**
+     * Compares the layouts on a million random spheres
+     */
+    @Test
+    public void spheres() {
+        Random rand = new Random(1906);
+        Sphere[] spheres = Benchmarks.spheres(rand, SPHERES, 100, 0.05, 0.5);
+        BoundingBox[] boxes = new BoundingBox[SPHERES];
+        for (int i = 0; i < SPHERES; ++i)
+            boxes[i] = spheres[i].getBoundingBox();
+        measure("spheres", boxes, randomRays(rand, 100));
+    }
+}
@@ -0,0 +1,110 @@
+package geometries;
+
+import benchmark.Benchmarks;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Micro benchmark of the cylinder intersection - compares the analytic {@link Cylinder}
+ * with a {@link TriangleMesh} of the same cylinder, tessellated into 512 triangles.
+ */
+@Tag(Benchmarks.TAG)
+public class CylinderBenchmark {
+
+    /** Amount of segments around the tessellated cylinder */
+    private static final int SEGMENTS = 128;
+
+    /** Amount of rays in the benchmark */
+    private static final int RAYS = 200_000;
+
+    /** Radius of the cylinder */
+    private static final double RADIUS = 2;
+
+    /** Height of the cylinder */
+    private static final double HEIGHT = 5;
+
+    /**
+     * Tessellates the cylinder of the benchmark (along the z axis from the origin):
+     * two triangles for every segment of the side and a fan of triangles for every base.
+     * @return the mesh
+     */
+    private static TriangleMesh tessellate() {
+        // ring vertices of the bottom and the top, then the centers of the bases
+        double[] vertices = new double[(2 * SEGMENTS + 2) * 3];
+        for (int i = 0; i < SEGMENTS; ++i) {
+            double angle = 2 * Math.PI * i / SEGMENTS;
+            double x = RADIUS * Math.cos(angle), y = RADIUS * Math.sin(angle);
+            vertices[i * 3] = vertices[(SEGMENTS + i) * 3] = x;
+            vertices[i * 3 + 1] = vertices[(SEGMENTS + i) * 3 + 1] = y;
+            vertices[(SEGMENTS + i) * 3 + 2] = HEIGHT;
+        }
+        int bottom = 2 * SEGMENTS, top = 2 * SEGMENTS + 1;
+        vertices[top * 3 + 2] = HEIGHT;
+
+        int[] faces = new int[4 * SEGMENTS * 3];
+        int f = 0;
+        for (int i = 0; i < SEGMENTS; ++i) {
+            int j = (i + 1) % SEGMENTS;
+            int[] triangles = { i, j, SEGMENTS + j, i, SEGMENTS + j, SEGMENTS + i, bottom, j, i,
+                    top, SEGMENTS + i, SEGMENTS + j };
+            System.arraycopy(triangles, 0, faces, f, triangles.length);
+            f += triangles.length;
+        }
+        return new TriangleMesh(vertices, faces);
+    }
+
+    /**
+     * Finds the closest intersections of all the rays
+     * @param shape the shape
+     * @param rays  the rays
+     * @return the amount of rays that hit the shape
+     */
+    private static int intersectAll(Intersectable shape, Ray[] rays) {
+        int hits = 0;
+        for (Ray ray : rays)
+            if (shape.findClosestGeoIntersection(ray) != null)
+                ++hits;
+        return hits;
+    }
+
+    /**
+     * Measures the intersection time after a warm-up and prints the throughput
+     * @param label the label of the measurement
+     * @param shape the shape
+     * @param rays  the rays
+     * @return the amount of rays that hit the shape
+     */
+    private static int measure(String label, Intersectable shape, Ray[] rays) {
+        int[] hits = new int[1];
+        Benchmarks.report(label, Benchmarks.time(1, () -> hits[0] = intersectAll(shape, rays)), RAYS, "rays");
+        return hits[0];
+    }
+
+    /**
+     * Intersects random rays aimed around the cylinder with both representations
+     */
+    @Test
+    public void cylinderKernels() {
+        Random rand = new Random(5783);
+        Ray[] rays = new Ray[RAYS];
+        for (int i = 0; i < RAYS; ++i) {
+            Point head = new Point(rand.nextDouble(-10, 10), rand.nextDouble(-10, 10), rand.nextDouble(-10, 15));
+            Point target = new Point(rand.nextDouble(-3, 3), rand.nextDouble(-3, 3), rand.nextDouble(-1, 6));
+            rays[i] = new Ray(head, target.subtract(head));
+        }
+
+        int meshHits = measure("cylinder - 512 triangles", tessellate(), rays);
+        int hits = measure("cylinder - analytic", new Cylinder(new Ray(new Point(0, 0, 0),
+                new Vector(0, 0, 1)), RADIUS, HEIGHT), rays);
+        // the tessellated side is inside the analytic one, so it is hit a little less
+        assertTrue(hits >= meshHits && hits - meshHits < RAYS / 100,
+                "The representations must hit nearly the same rays");
+    }
+}
@@ -0,0 +1,247 @@
+package geometries;
+
+import benchmark.Benchmarks;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Micro benchmark of the intersection dispatch on a mix of shapes. A single call site that intersects all the shapes
+ * sees many receiver types and goes megamorphic, so the JIT compiler calls every intersection through the virtual
+ * table and inlines none of them. The benchmark compares it with a loop per type over homogeneous arrays,
+ * where the call site of every loop sees one class, and measures the leaves of a {@link BVH},
+ * which order their shapes by kind and intersect every kind in a loop of its own.
+ * <p>
+ * On a scan of all the shapes the box tests take most of the time - a ray reaches the intersection of a shape
+ * behind its box in well under 1% of the tests - so the loops per type win some 5-20% at most.
+ * The intersections of the triangle, the polygon and the cylinder are too big to inline at any call site,
+ * so in the leaves of a hierarchy only the virtual call is saved, which makes no measurable difference.
+ */
+@Tag(Benchmarks.TAG)
+public class DispatchBenchmark {
+
+    /** Amount of shapes in the benchmark */
+    private static final int SHAPES = 2000;
+
+    /** Amount of rays in the scans of all the shapes */
+    private static final int RAYS = 2000;
+
+    /** Amount of rays through the hierarchies */
+    private static final int BVH_RAYS = 200_000;
+
+    /** Amount of measured rounds of each dispatch */
+    private static final int ROUNDS = 5;
+
+    /**
+     * Finds the closest intersections of all the rays through one virtual call site
+     * @param shapes the shapes
+     * @param rays   the rays
+     * @return the amount of rays that hit a shape
+     */
+    private static int virtualCalls(Intersectable[] shapes, Ray[] rays) {
+        int hits = 0;
+        HitRecord hit = new HitRecord();
+        for (Ray ray : rays) {
+            double maxDistance = Double.POSITIVE_INFINITY;
+            hit.clear();
+            for (Intersectable shape : shapes)
+                if (shape.findClosestHit(ray, maxDistance, hit))
+                    maxDistance = hit.t;
+            if (hit.geometry != null)
+                ++hits;
+        }
+        return hits;
+    }
+
+    /**
+     * Finds the closest intersections of all the rays through a loop per type.
+     * Every loop is a method of its own, so the scan compiles as small methods as the virtual one.
+     * @param spheres   the spheres
+     * @param triangles the triangles
+     * @param polygons  the polygons
+     * @param cylinders the cylinders
+     * @param rays      the rays
+     * @return the amount of rays that hit a shape
+     */
+    private static int typedLoops(Sphere[] spheres, Triangle[] triangles, Polygon[] polygons, Cylinder[] cylinders,
+                                  Ray[] rays) {
+        int hits = 0;
+        HitRecord hit = new HitRecord();
+        for (Ray ray : rays) {
+            double maxDistance = scan(spheres, ray, Double.POSITIVE_INFINITY, hit.clear());
+            maxDistance = scan(triangles, ray, maxDistance, hit);
+            maxDistance = scan(polygons, ray, maxDistance, hit);
+            scan(cylinders, ray, maxDistance, hit);
+            if (hit.geometry != null)
+                ++hits;
+        }
+        return hits;
+    }
+
+    /**
+     * Scans the spheres, every one culled by its bounding box first, like {@link Intersectable#findClosestHit}
+     * @param spheres     the spheres
+     * @param ray         the ray
+     * @param maxDistance the distance of the closest intersection of the ray so far
+     * @param hit         the record of the closest intersection of the ray
+     * @return the distance of the closest intersection of the ray now
+     */
+    private static double scan(Sphere[] spheres, Ray ray, double maxDistance, HitRecord hit) {
+        for (Sphere sphere : spheres)
+            if (sphere.getBoundingBox().intersects(ray, maxDistance)
+                    && sphere.findClosestHitHelper(ray, maxDistance, hit))
+                maxDistance = hit.t;
+        return maxDistance;
+    }
+
+    /**
+     * Scans the triangles, every one culled by its bounding box first
+     * @param triangles   the triangles
+     * @param ray         the ray
+     * @param maxDistance the distance of the closest intersection of the ray so far
+     * @param hit         the record of the closest intersection of the ray
+     * @return the distance of the closest intersection of the ray now
+     */
+    private static double scan(Triangle[] triangles, Ray ray, double maxDistance, HitRecord hit) {
+        for (Triangle triangle : triangles)
+            if (triangle.getBoundingBox().intersects(ray, maxDistance)
+                    && triangle.findClosestHitHelper(ray, maxDistance, hit))
+                maxDistance = hit.t;
+        return maxDistance;
+    }
+
+    /**
+     * Scans the polygons, every one culled by its bounding box first
+     * @param polygons    the polygons
+     * @param ray         the ray
+     * @param maxDistance the distance of the closest intersection of the ray so far
+     * @param hit         the record of the closest intersection of the ray
+     * @return the distance of the closest intersection of the ray now
+     */
+    private static double scan(Polygon[] polygons, Ray ray, double maxDistance, HitRecord hit) {
+        for (Polygon polygon : polygons)
+            if (polygon.getBoundingBox().intersects(ray, maxDistance)
+                    && polygon.findClosestHitHelper(ray, maxDistance, hit))
+                maxDistance = hit.t;
+        return maxDistance;
+    }
+
+    /**
+     * Scans the cylinders, every one culled by its bounding box first
+     * @param cylinders   the cylinders
+     * @param ray         the ray
+     * @param maxDistance the distance of the closest intersection of the ray so far
+     * @param hit         the record of the closest intersection of the ray
+     * @return the distance of the closest intersection of the ray now
+     */
+    private static double scan(Cylinder[] cylinders, Ray ray, double maxDistance, HitRecord hit) {
+        for (Cylinder cylinder : cylinders)
+            if (cylinder.getBoundingBox().intersects(ray, maxDistance)
+                    && cylinder.findClosestHitHelper(ray, maxDistance, hit))
+                maxDistance = hit.t;
+        return maxDistance;
+    }
+
+    /**
+     * Finds the closest intersections of all the rays through a hierarchy
+     * @param bvh  the hierarchy
+     * @param rays the rays
+     * @return the amount of rays that hit a shape
+     */
+    private static int traceAll(Intersectable bvh, Ray[] rays) {
+        int hits = 0;
+        HitRecord hit = new HitRecord();
+        for (Ray ray : rays)
+            if (bvh.findClosestHit(ray, Double.POSITIVE_INFINITY, hit.clear()))
+                ++hits;
+        return hits;
+    }
+
+    /**
+     * Creates a random mix of spheres, triangles, polygons and cylinders in a cube around the origin
+     * @param rand the random generator
+     * @return the shapes, interleaved
+     */
+    private static Intersectable[] mixedShapes(Random rand) {
+        Intersectable[] shapes = new Intersectable[SHAPES];
+        for (int i = 0; i < SHAPES; ++i) {
+            Point p = new Point(rand.nextDouble(-10, 10), rand.nextDouble(-10, 10), rand.nextDouble(-10, 10));
+            Point p2 = p.add(new Vector(rand.nextDouble(0.5, 1.5), 0, 0));
+            Point p3 = p.add(new Vector(0, rand.nextDouble(0.5, 1.5), 0));
+            shapes[i] = switch (i % 4) {
+                case 0 -> new Sphere(rand.nextDouble(0.2, 0.6), p);
+                case 1 -> new Triangle(p, p2, p3);
+                case 2 -> new Polygon(p, p2, p2.add(p3.subtract(p)), p3);
+                default -> new Cylinder(new Ray(p, new Vector(rand.nextDouble(-1, 1), rand.nextDouble(-1, 1), 1)),
+                        rand.nextDouble(0.2, 0.5), rand.nextDouble(0.5, 1.5));
+            };
+        }
+        return shapes;
+    }
+
+    /**
+     * @param shapes the shapes
+     * @param type   the class of the shapes to keep
+     * @param <T>    the type of the shapes to keep
+     * @return the shapes of exactly the class, in their order
+     */
+    private static <T extends Intersectable> List<T> ofClass(Intersectable[] shapes, Class<T> type) {
+        List<T> result = new ArrayList<>();
+        for (Intersectable shape : shapes)
+            if (shape.getClass() == type)
+                result.add(type.cast(shape));
+        return result;
+    }
+
+    /**
+     * Intersects random rays with a random mix of shapes by scanning all of them with both dispatches
+     */
+    @Test
+    public void mixedScan() {
+        Random rand = new Random(5783);
+        Intersectable[] shapes = mixedShapes(rand);
+        Sphere[] spheres = ofClass(shapes, Sphere.class).toArray(new Sphere[0]);
+        Triangle[] triangles = ofClass(shapes, Triangle.class).toArray(new Triangle[0]);
+        Polygon[] polygons = ofClass(shapes, Polygon.class).toArray(new Polygon[0]);
+        Cylinder[] cylinders = ofClass(shapes, Cylinder.class).toArray(new Cylinder[0]);
+        Ray[] rays = Benchmarks.rays(rand, RAYS, 15, 30, 0.5);
+
+        assertEquals(virtualCalls(shapes, rays), typedLoops(spheres, triangles, polygons, cylinders, rays),
+                "The dispatches must find the same intersections");
+        double tests = (double) SHAPES * RAYS * ROUNDS;
+        long typed = Benchmarks.time(ROUNDS, () -> typedLoops(spheres, triangles, polygons, cylinders, rays));
+        long virtual = Benchmarks.time(ROUNDS, () -> virtualCalls(shapes, rays));
+        Benchmarks.report("mixed scan - virtual call site", virtual, tests, "tests");
+        Benchmarks.report("mixed scan - loop per type", typed, tests, "tests");
+        Benchmarks.reportSpeedup("mixed scan - loop per type", virtual, typed);
+    }
+
+    /**
+     * Traces random rays through hierarchies over the mix of shapes and over its polygons and cylinders alone,
+     * whose leaves are intersected in a loop per kind rather than by the kernels
+     */
+    @Test
+    public void mixedHierarchy() {
+        Random rand = new Random(5783);
+        Intersectable[] shapes = mixedShapes(rand);
+        List<Intersectable> others = new ArrayList<>(ofClass(shapes, Polygon.class));
+        others.addAll(ofClass(shapes, Cylinder.class));
+        Intersectable mixed = new Geometries(shapes).compile();
+        Intersectable polygonsAndCylinders = new Geometries(others.toArray(new Intersectable[0])).compile();
+        Ray[] rays = Benchmarks.rays(rand, BVH_RAYS, 15, 30, 0.5);
+
+        Benchmarks.report("mixed BVH - all the kinds",
+                Benchmarks.time(ROUNDS, () -> traceAll(mixed, rays)), (double) BVH_RAYS * ROUNDS, "rays");
+        Benchmarks.report("mixed BVH - polygons and cylinders",
+                Benchmarks.time(ROUNDS, () -> traceAll(polygonsAndCylinders, rays)), (double) BVH_RAYS * ROUNDS,
+                "rays");
+    }
+}
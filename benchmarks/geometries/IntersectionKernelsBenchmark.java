@@ -0,0 +1,114 @@
+package geometries;
+
+import benchmark.Benchmarks;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.Random;
+
+/**
+ * Micro benchmark of the intersection kernels - the kernels of the JVM (the SIMD kernels when the JVM runs
+ * with {@code --add-modules jdk.incubator.vector} and the {@code simd} folder is on the class path)
+ * against the scalar kernels, on ranges of the size of a leaf of a {@link BVH} and on long ranges.
+ */
+@Tag(Benchmarks.TAG)
+public class IntersectionKernelsBenchmark {
+
+    /** Amount of shapes in the benchmark */
+    private static final int SHAPES = 4096;
+
+    /** Amount of rays in the benchmark */
+    private static final int RAYS = 2000;
+
+    /** Amount of measured rounds of each kernel */
+    private static final int ROUNDS = 5;
+
+    /** The kernels of the JVM */
+    private final IntersectionKernels kernels = IntersectionKernels.load();
+
+    /** The scalar kernels */
+    private final IntersectionKernels scalar = new ScalarKernels();
+
+    /**
+     * Intersects all the rays with all the shapes in ranges
+     * @param kernels the kernels
+     * @param shapes  the shapes
+     * @param kind    the kind of the shapes
+     * @param range   the amount of shapes in a kernel call
+     * @param rays    the rays, 6 values per ray (origin and direction)
+     * @return the amount of intersections
+     */
+    private static int run(IntersectionKernels kernels, ShapeArrays shapes, byte kind, int range, double[] rays) {
+        double[] t = new double[range + kernels.padding()];
+        int hits = 0;
+        for (int r = 0; r < rays.length; r += 6) {
+            for (int from = 0; from < SHAPES; from += range) {
+                if (kind == ShapeArrays.SPHERE)
+                    kernels.spheres(shapes, from, from + range, rays[r], rays[r + 1], rays[r + 2],
+                            rays[r + 3], rays[r + 4], rays[r + 5], Double.POSITIVE_INFINITY, t);
+                else
+                    kernels.triangles(shapes, from, from + range, rays[r], rays[r + 1], rays[r + 2],
+                            rays[r + 3], rays[r + 4], rays[r + 5], Double.POSITIVE_INFINITY, t);
+                for (int i = 0; i < range; ++i)
+                    if (t[i] != Double.POSITIVE_INFINITY)
+                        ++hits;
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * Measures the kernels against the scalar kernels and prints the throughput of both
+     * @param label  the label of the measurement
+     * @param shapes the shapes
+     * @param kind   the kind of the shapes
+     * @param range  the amount of shapes in a kernel call
+     * @param rays   the rays, 6 values per ray (origin and direction)
+     */
+    private void measure(String label, ShapeArrays shapes, byte kind, int range, double[] rays) {
+        if (run(kernels, shapes, kind, range, rays) != run(scalar, shapes, kind, range, rays))
+            throw new AssertionError("The kernels must find the same intersections");
+        long plain = Benchmarks.time(ROUNDS, () -> run(scalar, shapes, kind, range, rays));
+        long vector = Benchmarks.time(ROUNDS, () -> run(kernels, shapes, kind, range, rays));
+        double tests = (double) SHAPES * (rays.length / 6) * ROUNDS;
+        String name = label + " - " + kernels.getClass().getSimpleName();
+        Benchmarks.report(label + " - scalar", plain, tests, "tests");
+        Benchmarks.report(name, vector, tests, "tests");
+        Benchmarks.reportSpeedup(label + " - speedup", plain, vector);
+    }
+
+    /**
+     * Intersects random rays with random spheres and triangles in ranges of 4 and 64 shapes
+     */
+    @Test
+    public void kernels() {
+        Random rand = new Random(5783);
+        Intersectable[] spheres = new Intersectable[SHAPES];
+        Intersectable[] triangles = new Intersectable[SHAPES];
+        for (int i = 0; i < SHAPES; ++i) {
+            Point p = new Point(rand.nextDouble(-10, 10), rand.nextDouble(-10, 10), rand.nextDouble(-10, 10));
+            spheres[i] = new Sphere(rand.nextDouble(0.1, 1), p);
+            triangles[i] = new Triangle(p, p.add(new Vector(rand.nextDouble(1, 3), 0, 0)),
+                    p.add(new Vector(0, rand.nextDouble(1, 3), 0)));
+        }
+        double[] rays = new double[6 * RAYS];
+        int r = 0;
+        for (Ray ray : Benchmarks.rays(rand, RAYS, 15, 30, 0.5)) {
+            rays[r++] = ray.getP0().getX();
+            rays[r++] = ray.getP0().getY();
+            rays[r++] = ray.getP0().getZ();
+            rays[r++] = ray.getDir().getX();
+            rays[r++] = ray.getDir().getY();
+            rays[r++] = ray.getDir().getZ();
+        }
+        ShapeArrays sphereArrays = new ShapeArrays(spheres, kernels.padding());
+        ShapeArrays triangleArrays = new ShapeArrays(triangles, kernels.padding());
+        for (int range : new int[]{BVH.MAX_LEAF_SIZE, 64}) {
+            measure("spheres by " + range, sphereArrays, ShapeArrays.SPHERE, range, rays);
+            measure("triangles by " + range, triangleArrays, ShapeArrays.TRIANGLE, range, rays);
+        }
+    }
+}
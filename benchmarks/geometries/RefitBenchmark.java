@@ -0,0 +1,96 @@
+package geometries;
+
+import benchmark.Benchmarks;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Transform;
+import primitives.Vector;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Benchmark of animated scenes - moves many shapes through a sequence of frames and updates the hierarchy
+ * every frame by building it again or by refitting it, and reports the update time and the ray throughput.
+ */
+@Tag(Benchmarks.TAG)
+public class RefitBenchmark {
+
+    /** Amount of frames in the sequence */
+    private static final int FRAMES = 120;
+
+    /** Amount of moving shapes */
+    private static final int SHAPES = 20_000;
+
+    /** Amount of rays traced every frame */
+    private static final int RAYS = 20_000;
+
+    /**
+     * Animates the scene and prints the average update and tracing times per frame
+     * @param label the label of the measurement
+     * @param refit whether the hierarchy is refitted, or built again every frame
+     * @return the amount of rays that hit a shape, in all the frames
+     */
+    private static long animate(String label, boolean refit) {
+        Random rand = new Random(1906);
+        Sphere unit = new Sphere(1d, new Point(0, 0, 0));
+        Instance[] instances = new Instance[SHAPES];
+        double[] motion = new double[6 * SHAPES];
+        Geometries geometries = new Geometries();
+        for (int i = 0; i < SHAPES; ++i) {
+            for (int k = 0; k < 3; ++k) {
+                motion[6 * i + k] = rand.nextDouble(-200, 200);
+                motion[6 * i + k + 3] = rand.nextDouble(-0.5, 0.5);
+            }
+            instances[i] = new Instance(unit,
+                    Transform.translation(new Vector(motion[6 * i], motion[6 * i + 1], motion[6 * i + 2])));
+            geometries.add(instances[i]);
+        }
+        geometries.buildBVH();
+        BuildStatistics built = geometries.getBuildStatistics();
+        Ray[] rays = Benchmarks.rays(rand, RAYS, 200, 400, 0.3);
+
+        long update = 0, trace = 0, hits = 0;
+        int builds = 0;
+        for (int frame = 0; frame < FRAMES; ++frame) {
+            for (int i = 0; i < SHAPES; ++i) {
+                for (int k = 0; k < 3; ++k)
+                    motion[6 * i + k] += motion[6 * i + k + 3];
+                instances[i].setTransform(
+                        Transform.translation(new Vector(motion[6 * i], motion[6 * i + 1], motion[6 * i + 2])));
+            }
+            long start = System.nanoTime();
+            if (refit)
+                geometries.refit();
+            else
+                geometries.buildBVH();
+            update += System.nanoTime() - start;
+            if (geometries.getBuildStatistics() != built) {
+                built = geometries.getBuildStatistics();
+                ++builds;
+            }
+
+            start = System.nanoTime();
+            for (Ray ray : rays)
+                if (geometries.findClosestGeoIntersection(ray) != null)
+                    ++hits;
+            trace += System.nanoTime() - start;
+        }
+        System.out.printf("%-20s update %8.2f ms/frame, trace %8.2f ms/frame, %d builds in %d frames%n",
+                label, update / 1e6 / FRAMES, trace / 1e6 / FRAMES, builds, FRAMES);
+        return hits;
+    }
+
+    /**
+     * Compares building the hierarchy every frame with refitting it
+     */
+    @Test
+    public void movingSpheres() {
+        animate("warm-up", true);
+        assertEquals(animate("rebuild", false), animate("refit", true),
+                "The refitted hierarchy must find the same intersections");
+    }
+}
@@ -0,0 +1,123 @@
+package geometries;
+
+import benchmark.Benchmarks;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
+
+/**
+ * Micro benchmark of the triangle intersection - compares the precomputed-edge kernel
+ * of {@link Triangle} with the former kernel that intersected the plane and then tested the edges.
+ */
+@Tag(Benchmarks.TAG)
+public class TriangleBenchmark {
+
+    /** Amount of triangles in the benchmark */
+    private static final int TRIANGLES = 1000;
+
+    /** Amount of rays in the benchmark */
+    private static final int RAYS = 1000;
+
+    /**
+     * A triangle with the former intersection kernel - the plane is intersected first,
+     * then three edge normals are calculated for every ray.
+     */
+    private static class PlaneTriangle extends Triangle {
+
+        /**
+         * Constructs the triangle.
+         * @param p1 the first vertex of the triangle
+         * @param p2 the second vertex of the triangle
+         * @param p3 the third vertex of the triangle
+         */
+        PlaneTriangle(Point p1, Point p2, Point p3) {
+            super(p1, p2, p3);
+        }
+
+        @Override
+        public List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+            List<GeoPoint> intersections = plane.findGeoIntersections(ray, maxDistance);
+            if (intersections == null) {
+                return null;
+            }
+            Vector v = ray.getDir();
+            Point p0 = ray.getP0();
+            Vector v1 = this.vertices.get(0).subtract(p0);
+            Vector v2 = this.vertices.get(1).subtract(p0);
+            Vector v3 = this.vertices.get(2).subtract(p0);
+            Vector n1 = v1.crossProduct(v2).normalize();
+            Vector n2 = v2.crossProduct(v3).normalize();
+            Vector n3 = v3.crossProduct(v1).normalize();
+            double res1 = alignZero(v.dotProduct(n1));
+            double res2 = alignZero(v.dotProduct(n2));
+            double res3 = alignZero(v.dotProduct(n3));
+            if (isZero(res1) || isZero(res2) || isZero(res3)) {
+                return null;
+            }
+            if ((res1 > 0 && res2 > 0 && res3 > 0) || (res1 < 0 && res2 < 0 && res3 < 0)) {
+                return List.of(new GeoPoint(this, intersections.get(0).point, intersections.get(0).t));
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Intersects all the rays with all the triangles
+     * @param triangles the triangles
+     * @param rays      the rays
+     * @return the amount of intersections
+     */
+    private static int intersectAll(Triangle[] triangles, Ray[] rays) {
+        int hits = 0;
+        for (Ray ray : rays)
+            for (Triangle triangle : triangles)
+                if (triangle.findGeoIntersections(ray) != null)
+                    ++hits;
+        return hits;
+    }
+
+    /**
+     * Measures the intersection time after a warm-up and prints the throughput
+     * @param label     the label of the measurement
+     * @param triangles the triangles
+     * @param rays      the rays
+     * @return the amount of intersections
+     */
+    private static int measure(String label, Triangle[] triangles, Ray[] rays) {
+        int[] hits = new int[1];
+        long time = Benchmarks.time(1, () -> hits[0] = intersectAll(triangles, rays));
+        Benchmarks.report(label, time, (double) TRIANGLES * RAYS, "tests");
+        return hits[0];
+    }
+
+    /**
+     * Intersects random rays with random triangles with both kernels
+     */
+    @Test
+    public void triangleKernels() {
+        Random rand = new Random(5783);
+        Triangle[] triangles = new Triangle[TRIANGLES];
+        Triangle[] planeTriangles = new Triangle[TRIANGLES];
+        for (int i = 0; i < TRIANGLES; ++i) {
+            Point p = new Point(rand.nextDouble(-10, 10), rand.nextDouble(-10, 10), rand.nextDouble(-10, 10));
+            Point p2 = p.add(new Vector(rand.nextDouble(1, 3), 0, rand.nextDouble(-1, 1)));
+            Point p3 = p.add(new Vector(0, rand.nextDouble(1, 3), rand.nextDouble(-1, 1)));
+            triangles[i] = new Triangle(p, p2, p3);
+            planeTriangles[i] = new PlaneTriangle(p, p2, p3);
+        }
+        Ray[] rays = Benchmarks.rays(rand, RAYS, 15, 30, 0.5);
+
+        int planeHits = measure("triangle - plane and edges", planeTriangles, rays);
+        int hits = measure("triangle - precomputed edges", triangles, rays);
+        assertEquals(planeHits, hits, "The kernels must find the same intersections");
+    }
+}
@@ -0,0 +1,295 @@
+package renderer;
+
+import benchmark.Benchmarks;
+import geometries.BVH;
+import geometries.Geometries;
+import geometries.Geometry;
+import geometries.Instance;
+import lighting.PointLight;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+import primitives.Point;
+import primitives.Transform;
+import primitives.Vector;
+import scene.Scene;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Benchmarks of the acceleration structures - renders the same scene with and without them
+ * and reports the ray throughput. The images are not written to files.
+ */
+@Tag(Benchmarks.TAG)
+public class AccelerationBenchmark {
+
+    /** Resolution of the benchmark images */
+    private static final int RESOLUTION = 200;
+
+    /** Amount of spheres in the synthetic scene */
+    private static final int SPHERES = 1_000_000;
+
+    /**
+     * Builds the teapot scene
+     * @return the teapot scene
+     */
+    private static Scene teapotScene() {
+        Scene scene = new Scene.SceneBuilder("Teapot benchmark").build();
+        scene.getGeometries().add(TeapotTest.teapotTriangles());
+        scene.getLights().add(new PointLight(new Color(500, 500, 500), new Point(100, 0, -100)).setKq(0.000001));
+        return scene;
+    }
+
+    /**
+     * Renders the scene and measures the rendering time
+     * @param scene      the scene to render
+     * @param resolution the amount of pixels in each axis
+     * @return the rendering time in nanoseconds
+     */
+    private static long render(Scene scene, int resolution) {
+        Camera camera = new Camera(new Point(0, 0, -1000), new Vector(0, 0, 1), new Vector(0, 1, 0)) //
+                .setVPDistance(1000).setVPSize(200, 200) //
+                .setImageWriter(new ImageWriter("benchmark", resolution, resolution)) //
+                .setRayTracer(new RayTracerBasic(scene));
+        long start = System.nanoTime();
+        camera.renderImage();
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Renders the scene after a warm-up and prints the primary ray throughput
+     * @param label the label of the measurement
+     * @param scene the scene to render
+     * @return the rendering time in nanoseconds
+     */
+    private static long measure(String label, Scene scene) {
+        render(scene, RESOLUTION / 4); // warm-up
+        long time = render(scene, RESOLUTION);
+        Benchmarks.report(label, time, (double) RESOLUTION * RESOLUTION, "primary rays");
+        return time;
+    }
+
+    /**
+     * Renders the teapot scene with a linear scan and with a bounding volume hierarchy
+     */
+    @Test
+    public void teapotBVH() {
+        Scene scene = teapotScene();
+        long linear = measure("teapot - linear scan", scene);
+
+        Geometries geometries = scene.getGeometries();
+        long start = System.nanoTime();
+        geometries.buildBVH();
+        System.out.printf("%-34s %8.1f ms%n", "teapot - BVH build", (System.nanoTime() - start) / 1e6);
+        System.out.printf("%-34s %s%n", "teapot - BVH", scene.getBuildStatistics());
+        long bvh = measure("teapot - BVH", scene);
+
+        scene.freeze(BVH.Quality.FAST);
+        System.out.printf("%-34s %s%n", "teapot - LBVH", scene.getBuildStatistics());
+        measure("teapot - LBVH", scene);
+
+        Benchmarks.reportSpeedup("teapot - speedup", linear, bvh);
+    }
+
+    /**
+     * Renders the teapot as separate triangles and as a single mesh with shared vertices
+     */
+    @Test
+    public void teapotMesh() {
+        Scene triangles = teapotScene();
+        triangles.getGeometries().buildBVH();
+        long bvh = measure("teapot - triangles BVH", triangles);
+
+        Scene mesh = new Scene.SceneBuilder("Teapot mesh benchmark").build();
+        long start = System.nanoTime();
+        mesh.getGeometries().add(TeapotTest.teapotMesh());
+        System.out.printf("%-34s %8.1f ms%n", "teapot - mesh build", (System.nanoTime() - start) / 1e6);
+        mesh.getLights().add(new PointLight(new Color(500, 500, 500), new Point(100, 0, -100)).setKq(0.000001));
+        long time = measure("teapot - mesh", mesh);
+
+        Benchmarks.reportSpeedup("teapot - mesh speedup", bvh, time);
+    }
+
+    /**
+     * Renders the teapot with a binary hierarchy and with 4-wide and 8-wide hierarchies
+     */
+    @Test
+    public void teapotWideBVH() {
+        Scene scene = teapotScene();
+        Geometries geometries = scene.getGeometries();
+        geometries.buildBVH();
+        System.out.printf("%-34s %s%n", "teapot - BVH", scene.getBuildStatistics());
+        long bvh = measure("teapot - BVH", scene);
+        for (int width : new int[]{4, 8}) {
+            geometries.buildWideBVH(width);
+            System.out.printf("%-34s %s%n", "teapot - BVH" + width, scene.getBuildStatistics());
+            long time = measure("teapot - BVH" + width, scene);
+            Benchmarks.reportSpeedup("teapot - BVH" + width + " speedup", bvh, time);
+        }
+    }
+
+    /**
+     * Renders a hundred teapots as instances of a single shared mesh, with a hierarchy over the instances
+     */
+    @Test
+    public void teapotInstances() {
+        Scene scene = new Scene.SceneBuilder("Teapot instances benchmark").build();
+        Geometry teapot = TeapotTest.teapotMesh();
+        Geometries geometries = scene.getGeometries();
+        for (int i = 0; i < 10; ++i)
+            for (int j = 0; j < 10; ++j)
+                geometries.add(new Instance(teapot, Transform.scaling(0.2, 0.2, 0.2)
+                        .then(Transform.rotation(new Vector(0, 1, 0), 36 * (i + j)))
+                        .then(Transform.translation(new Vector(20 * i - 90, 20 * j - 90, 0)))));
+        scene.getLights().add(new PointLight(new Color(500, 500, 500), new Point(100, 0, -100)).setKq(0.000001));
+        scene.freeze(BVH.Quality.HIGH);
+        measure("teapot - 100 instances", scene);
+    }
+
+    /**
+     * Renders a cloud of evenly spread particles with a bounding volume hierarchy and with a uniform grid
+     */
+    @Test
+    public void particlesGrid() {
+        Scene scene = new Scene.SceneBuilder("Particles benchmark").build();
+        Geometries geometries = scene.getGeometries();
+        geometries.add(Benchmarks.spheres(new Random(2165), SPHERES / 10, 100, 0.2, 0.4));
+        scene.getLights().add(new PointLight(new Color(500, 500, 500), new Point(100, 0, -200)).setKq(0.000001));
+
+        long start = System.nanoTime();
+        geometries.buildBVH();
+        System.out.printf("%-34s %8.1f ms%n", "particles - BVH build", (System.nanoTime() - start) / 1e6);
+        long bvh = measure("particles - BVH", scene);
+
+        start = System.nanoTime();
+        geometries.buildGrid();
+        System.out.printf("%-34s %8.1f ms%n", "particles - grid build", (System.nanoTime() - start) / 1e6);
+        long grid = measure("particles - grid", scene);
+
+        Benchmarks.reportSpeedup("particles - grid speedup", bvh, grid);
+    }
+
+    /**
+     * Builds a hierarchy over a million random spheres and prints the build statistics
+     */
+    @Test
+    public void spheresBuild() {
+        Geometries geometries = new Geometries(Benchmarks.spheres(new Random(5783), SPHERES, 100, 0.05, 0.5));
+        geometries.buildBVH();
+        System.out.printf("%-34s %s%n", "spheres - BVH", geometries.getBuildStatistics());
+        geometries.buildBVH(BVH.Quality.FAST);
+        System.out.printf("%-34s %s%n", "spheres - LBVH", geometries.getBuildStatistics());
+        geometries.buildWideBVH(4);
+        System.out.printf("%-34s %s%n", "spheres - BVH4", geometries.getBuildStatistics());
+        geometries.buildWideBVH(8);
+        System.out.printf("%-34s %s%n", "spheres - BVH8", geometries.getBuildStatistics());
+    }
+
+    /**
+     * Builds a hierarchy over a million random spheres into a cache directory, and loads it back
+     * the way the next start of the program would
+     */
+    @Test
+    public void spheresCache() throws IOException {
+        Path cache = Files.createTempDirectory("bvh");
+        try {
+            for (String run : new String[]{"spheres - cold build", "spheres - cached load"}) {
+                Geometries geometries = new Geometries(Benchmarks.spheres(new Random(5783), SPHERES, 100, 0.05, 0.5));
+                geometries.buildBVH(BVH.Quality.HIGH, cache);
+                System.out.printf("%-34s %s%n", run, geometries.getBuildStatistics());
+            }
+        } finally {
+            try (Stream<Path> files = Files.list(cache)) {
+                for (Path file : files.toList())
+                    Files.delete(file);
+            }
+            Files.delete(cache);
+        }
+    }
+
+    /**
+     * An image writer that keeps the colors of the pixels in memory, so images can be compared
+     */
+    private static final class PixelsWriter extends ImageWriter {
+        /** The colors of the pixels, row by row */
+        private final int[] pixels;
+
+        /**
+         * Constructs a writer of an image of the given resolution
+         * @param resolution the amount of pixels in each axis
+         */
+        private PixelsWriter(int resolution) {
+            super("benchmark", resolution, resolution);
+            pixels = new int[resolution * resolution];
+        }
+
+        @Override
+        public void writePixel(int xIndex, int yIndex, Color color) {
+            pixels[yIndex * getNx() + xIndex] = color.getColor().getRGB();
+        }
+    }
+
+    /**
+     * Renders the scene in packets of primary rays and measures the rendering time
+     * @param camera     the camera of the scene, without an image writer
+     * @param scene      the scene to render
+     * @param packetSize the amount of primary rays in a packet
+     * @param pixels     filled with the colors of the pixels, row by row
+     * @return the rendering time in nanoseconds
+     */
+    private static long renderPackets(Camera camera, Scene scene, int packetSize, int[] pixels) {
+        PixelsWriter writer = new PixelsWriter(RESOLUTION);
+        camera.setImageWriter(writer).setRayTracer(new RayTracerBasic(scene)).setPacketSize(packetSize);
+        long start = System.nanoTime();
+        camera.renderImage();
+        long time = System.nanoTime() - start;
+        System.arraycopy(writer.pixels, 0, pixels, 0, pixels.length);
+        return time;
+    }
+
+    /**
+     * Renders the scene by single primary rays and by packets of 4 and 8 rays, after a warm-up of every mode,
+     * prints the primary ray throughput of every mode and checks the images are the same
+     * @param label  the label of the scene
+     * @param scene  the scene to render
+     * @param camera creates the camera of the scene
+     */
+    private static void measurePackets(String label, Scene scene, Supplier<Camera> camera) {
+        int[] single = new int[RESOLUTION * RESOLUTION], packet = new int[RESOLUTION * RESOLUTION];
+        long time = 0;
+        for (int packetSize : new int[]{1, 4, 8}) {
+            renderPackets(camera.get(), scene, packetSize, packet); // warm-up
+            long packetTime = renderPackets(camera.get(), scene, packetSize, packetSize == 1 ? single : packet);
+            double rays = (double) RESOLUTION * RESOLUTION;
+            Benchmarks.report(label + " - packets of " + packetSize, packetTime, rays, "primary rays");
+            if (packetSize == 1) {
+                time = packetTime;
+            } else {
+                System.out.printf("%-34s %8.2fx%s%n", label + " - packets of " + packetSize + " speedup",
+                        (double) time / packetTime, Arrays.equals(single, packet) ? "" : " (IMAGE DIFFERS)");
+            }
+        }
+    }
+
+    /**
+     * Renders the teapot scene and the room scene by single primary rays and by packets of primary rays
+     */
+    @Test
+    public void packets() {
+        Scene teapot = teapotScene();
+        teapot.getGeometries().buildBVH();
+        measurePackets("teapot", teapot, () -> new Camera(new Point(0, 0, -1000), new Vector(0, 0, 1),
+                new Vector(0, 1, 0)).setVPDistance(1000).setVPSize(200, 200));
+
+        Scene room = RenderTests.roomScene();
+        room.getGeometries().buildBVH();
+        measurePackets("room", room, () -> new Camera(new Point(0, 0, 350), new Vector(0, 0, -1),
+                new Vector(0, 1, 0)).setVPSize(150, 150).setVPDistance(150));
+    }
+}
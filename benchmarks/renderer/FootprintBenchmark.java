@@ -0,0 +1,67 @@
+package renderer;
+
+import benchmark.Benchmarks;
+import geometries.Geometries;
+import geometries.Intersectable;
+import geometries.Triangle;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Benchmark of the heap footprint of the scenes - the heap used after a full garbage collection,
+ * before and after the shapes of a scene (and their hierarchy) are created.
+ */
+@Tag(Benchmarks.TAG)
+public class FootprintBenchmark {
+
+    /** Amount of triangles in the synthetic scene */
+    private static final int TRIANGLES = 1_000_000;
+
+    /**
+     * @return the heap used after a full garbage collection, in bytes
+     */
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; ++i)
+            System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Creates the shapes of a scene, builds their hierarchy and prints the heap they use
+     * @param label  the label of the measurement
+     * @param shapes creates the shapes
+     */
+    private static void measure(String label, Supplier<Intersectable[]> shapes) {
+        long before = usedHeap();
+        Intersectable[] created = shapes.get();
+        long geometries = usedHeap() - before;
+        Geometries scene = new Geometries(created).buildBVH();
+        long total = usedHeap() - before;
+        System.out.printf("%-34s %8d shapes %8.1f MB %6.0f bytes/shape, %8.1f MB with the BVH%n", label,
+                created.length, geometries / 1e6, (double) geometries / created.length, total / 1e6);
+        if (scene.getBuildStatistics() == null) // keeps the scene alive until it is measured
+            throw new AssertionError("The scene has no hierarchy");
+    }
+
+    /**
+     * Measures the teapot and a million random triangles
+     */
+    @Test
+    public void footprint() {
+        measure("teapot", TeapotTest::teapotTriangles);
+        measure("random triangles", () -> {
+            Random rand = new Random(5783);
+            Intersectable[] triangles = new Intersectable[TRIANGLES];
+            for (int i = 0; i < TRIANGLES; ++i) {
+                double x = rand.nextDouble(-100, 100), y = rand.nextDouble(-100, 100), z = rand.nextDouble(-100, 100);
+                triangles[i] = new Triangle(new Point(x, y, z), new Point(x + 1, y, z), new Point(x, y + 1, z + 0.5));
+            }
+            return triangles;
+        });
+    }
+}
@@ -0,0 +1,90 @@
+package renderer;
+
+import benchmark.Benchmarks;
+import lighting.AmbientLight;
+import lighting.DirectionalLight;
+import lighting.PointLight;
+import lighting.SpotLight;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+import scene.Scene;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Benchmark of the shading path - traces the primary rays of a camera in the current thread
+ * and reports the bytes allocated per pixel (by the thread allocation counter of the JVM) and the time per pixel.
+ * The rays are constructed before the measurement, so only the tracing and the shading are counted.
+ */
+@Tag(Benchmarks.TAG)
+public class ShadingBenchmark {
+
+    /** Resolution of the benchmark images */
+    private static final int RESOLUTION = 200;
+
+    /** Amount of measured rounds of each scene */
+    private static final int ROUNDS = 5;
+
+    /**
+     * Constructs the primary rays of a camera through all the pixels
+     * @param camera the camera
+     * @return the rays
+     */
+    private static Ray[] primaryRays(Camera camera) {
+        Ray[] rays = new Ray[RESOLUTION * RESOLUTION];
+        for (int i = 0; i < RESOLUTION; ++i)
+            for (int j = 0; j < RESOLUTION; ++j)
+                rays[i * RESOLUTION + j] = camera.constructRay(RESOLUTION, RESOLUTION, j, i);
+        return rays;
+    }
+
+    /**
+     * Traces the rays after a warm-up and prints the time per pixel, and the bytes allocated per pixel
+     * by one more pass over the rays
+     * @param label  the label of the measurement
+     * @param scene  the scene
+     * @param camera the camera
+     */
+    private static void measure(String label, Scene scene, Camera camera) {
+        Ray[] rays = primaryRays(camera);
+        RayTracerBase tracer = new RayTracerBasic(scene).compile();
+        Runnable trace = () -> {
+            for (Ray ray : rays)
+                tracer.traceRay(ray);
+        };
+        long time = Benchmarks.time(ROUNDS, trace);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long bytes = threads.getThreadAllocatedBytes(thread);
+        trace.run();
+        bytes = threads.getThreadAllocatedBytes(thread) - bytes;
+        System.out.printf("%-34s %10.0f bytes/pixel %10.0f ns/pixel%n", label, (double) bytes / rays.length,
+                time / ((double) rays.length * ROUNDS));
+    }
+
+    /**
+     * Measures the room scene (reflections, refractions and two spotlights)
+     * and the teapot (diffuse and specular shading under three kinds of lights)
+     */
+    @Test
+    public void allocations() {
+        measure("room", RenderTests.roomScene(),
+                new Camera(new Point(0, 0, 350), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                        .setVPSize(150, 150).setVPDistance(150));
+
+        Scene teapot = new Scene.SceneBuilder("Teapot shading benchmark")
+                .setAmbientLight(new AmbientLight(new Color(255, 255, 255), 0.05)).build();
+        teapot.getGeometries().add(TeapotTest.teapotTriangles());
+        teapot.getGeometries().buildBVH();
+        teapot.getLights().add(new PointLight(new Color(500, 500, 500), new Point(100, 0, -100)).setKq(0.000001));
+        teapot.getLights().add(new SpotLight(new Color(400, 300, 300), new Point(-100, 100, -200),
+                new Vector(1, -1, 2)).setKl(0.0004));
+        teapot.getLights().add(new DirectionalLight(new Color(100, 100, 150), new Vector(0, -1, 1)));
+        measure("teapot", teapot, new Camera(new Point(0, 0, -1000), new Vector(0, 0, 1), new Vector(0, 1, 0))
+                .setVPDistance(1000).setVPSize(200, 200));
+    }
+}
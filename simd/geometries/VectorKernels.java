@@ -0,0 +1,169 @@
+package geometries;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+import static jdk.incubator.vector.VectorOperators.B2D;
+import static jdk.incubator.vector.VectorOperators.GE;
+import static jdk.incubator.vector.VectorOperators.GT;
+import static jdk.incubator.vector.VectorOperators.LE;
+import static jdk.incubator.vector.VectorOperators.LT;
+
+/**
+ * The intersection kernels in SIMD code over the Java Vector API - every lane of a vector intersects the ray
+ * with another shape. The branches of the scalar code become masks, and the kernels calculate the same
+ * operations in the same order (with no fused multiply-add), so they find bit for bit the same distances
+ * as the {@link ScalarKernels}.
+ * <p>
+ * The Vector API is an incubator module, so this class is kept apart from the other sources:
+ * it is compiled with {@code --add-modules jdk.incubator.vector} onto the class path of the other classes,
+ * and used when the JVM runs with {@code --add-modules jdk.incubator.vector} (see {@link IntersectionKernels#load()}).
+ */
+final class VectorKernels implements IntersectionKernels {
+
+    /** The vectors of the spheres and the triangles - the widest the processor supports */
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    /** The vectors of the boxes - 8 lanes for the 8 children of a node if the processor supports them */
+    private static final VectorSpecies<Double> BOX_SPECIES =
+            SPECIES.length() >= 8 ? DoubleVector.SPECIES_512 : DoubleVector.SPECIES_256;
+
+    /** The bytes of the quantized coordinates of up to 8 boxes */
+    private static final VectorSpecies<Byte> BYTE_SPECIES = ByteVector.SPECIES_64;
+
+    /** The largest magnitude that {@link primitives.Util#isZero(double)} considers zero (exclusive) */
+    private static final double ZERO = 0x1p-40;
+
+    /** The kernels of the spheres of a run shorter than a vector - the scalar code skips the misses early */
+    private final IntersectionKernels scalar = new ScalarKernels();
+
+    @Override
+    public int padding() {
+        return SPECIES.length();
+    }
+
+    /*
+     * The JIT compiler inlines every operation of a kernel, and stops inlining (and allocates the vectors) when
+     * a kernel grows too big. So the broadcasts are hoisted out of the loops, and the comparisons of aligned values
+     * are made directly on the values: alignZero(x) <= 0 is x < ZERO, alignZero(x) > 0 is x >= ZERO
+     * and alignZero(x) >= 0 is x > -ZERO, and an aligned value that passes them is the value itself.
+     */
+
+    @Override
+    public void spheres(ShapeArrays shapes, int from, int to, double ox, double oy, double oz,
+                        double dx, double dy, double dz, double maxDistance, double[] t) {
+        if (to - from < SPECIES.length()) {
+            scalar.spheres(shapes, from, to, ox, oy, oz, dx, dy, dz, maxDistance, t);
+            return;
+        }
+        DoubleVector vox = DoubleVector.broadcast(SPECIES, ox);
+        DoubleVector voy = DoubleVector.broadcast(SPECIES, oy);
+        DoubleVector voz = DoubleVector.broadcast(SPECIES, oz);
+        DoubleVector zero = DoubleVector.broadcast(SPECIES, ZERO);
+        DoubleVector max = DoubleVector.broadcast(SPECIES, maxDistance);
+        DoubleVector infinity = DoubleVector.broadcast(SPECIES, Double.POSITIVE_INFINITY);
+        for (int i = from; i < to; i += SPECIES.length()) {
+            DoubleVector ux = DoubleVector.fromArray(SPECIES, shapes.x, i).sub(vox);
+            DoubleVector uy = DoubleVector.fromArray(SPECIES, shapes.y, i).sub(voy);
+            DoubleVector uz = DoubleVector.fromArray(SPECIES, shapes.z, i).sub(voz);
+            DoubleVector radius = DoubleVector.fromArray(SPECIES, shapes.w, i);
+            DoubleVector tm = ux.mul(dx).add(uy.mul(dy)).add(uz.mul(dz));
+            DoubleVector thSquared = radius.mul(radius).sub(ux.mul(ux).add(uy.mul(uy)).add(uz.mul(uz))
+                    .sub(tm.mul(tm)));
+            DoubleVector th = thSquared.sqrt();
+            DoubleVector t1 = tm.sub(th);
+            DoubleVector distance = t1.blend(tm.add(th), t1.compare(LT, zero));
+            VectorMask<Double> miss = thSquared.compare(LE, 0.0).or(distance.compare(LT, zero))
+                    .or(distance.sub(max).compare(GE, zero));
+            // The ray starts at the center - the only intersection is at distance radius
+            VectorMask<Double> centered = ux.abs().max(uy.abs()).max(uz.abs()).compare(LT, zero);
+            if (centered.anyTrue()) {
+                distance = distance.blend(radius, centered);
+                miss = miss.andNot(centered).or(centered.and(radius.sub(max).compare(GE, zero)));
+            }
+            distance.blend(infinity, miss).intoArray(t, i - from);
+        }
+    }
+
+    @Override
+    public void triangles(ShapeArrays shapes, int from, int to, double ox, double oy, double oz,
+                          double dx, double dy, double dz, double maxDistance, double[] t) {
+        DoubleVector vox = DoubleVector.broadcast(SPECIES, ox);
+        DoubleVector voy = DoubleVector.broadcast(SPECIES, oy);
+        DoubleVector voz = DoubleVector.broadcast(SPECIES, oz);
+        DoubleVector one = DoubleVector.broadcast(SPECIES, 1.0);
+        DoubleVector zero = DoubleVector.broadcast(SPECIES, ZERO);
+        DoubleVector max = DoubleVector.broadcast(SPECIES, maxDistance);
+        DoubleVector infinity = DoubleVector.broadcast(SPECIES, Double.POSITIVE_INFINITY);
+        for (int i = from; i < to; i += SPECIES.length()) {
+            DoubleVector e1x = DoubleVector.fromArray(SPECIES, shapes.e1x, i);
+            DoubleVector e1y = DoubleVector.fromArray(SPECIES, shapes.e1y, i);
+            DoubleVector e1z = DoubleVector.fromArray(SPECIES, shapes.e1z, i);
+            DoubleVector e2x = DoubleVector.fromArray(SPECIES, shapes.e2x, i);
+            DoubleVector e2y = DoubleVector.fromArray(SPECIES, shapes.e2y, i);
+            DoubleVector e2z = DoubleVector.fromArray(SPECIES, shapes.e2z, i);
+            // p = d x e2
+            DoubleVector px = e2z.mul(dy).sub(e2y.mul(dz));
+            DoubleVector py = e2x.mul(dz).sub(e2z.mul(dx));
+            DoubleVector pz = e2y.mul(dx).sub(e2x.mul(dy));
+            DoubleVector det = e1x.mul(px).add(e1y.mul(py)).add(e1z.mul(pz));
+            // the ray is parallel to the triangle
+            VectorMask<Double> miss = det.mul(DoubleVector.fromArray(SPECIES, shapes.w, i)).abs().compare(LT, zero);
+            DoubleVector inv = one.div(det);
+
+            DoubleVector sx = vox.sub(DoubleVector.fromArray(SPECIES, shapes.x, i));
+            DoubleVector sy = voy.sub(DoubleVector.fromArray(SPECIES, shapes.y, i));
+            DoubleVector sz = voz.sub(DoubleVector.fromArray(SPECIES, shapes.z, i));
+            DoubleVector u = sx.mul(px).add(sy.mul(py)).add(sz.mul(pz)).mul(inv);
+            miss = miss.or(u.compare(LT, zero)).or(u.sub(one).compare(GT, zero.neg()));
+            // q = s x e1
+            DoubleVector qx = sy.mul(e1z).sub(sz.mul(e1y));
+            DoubleVector qy = sz.mul(e1x).sub(sx.mul(e1z));
+            DoubleVector qz = sx.mul(e1y).sub(sy.mul(e1x));
+            DoubleVector v = qx.mul(dx).add(qy.mul(dy)).add(qz.mul(dz)).mul(inv);
+            miss = miss.or(v.compare(LT, zero)).or(one.sub(u).sub(v).compare(LT, zero));
+            DoubleVector distance = e2x.mul(qx).add(e2y.mul(qy)).add(e2z.mul(qz)).mul(inv);
+            miss = miss.or(distance.compare(LT, zero)).or(distance.sub(max).compare(GE, zero));
+            distance.blend(infinity, miss).intoArray(t, i - from);
+        }
+    }
+
+    @Override
+    public void quantizedBoxes(byte[] bounds, int nearX, int farX, int nearY, int farY, int nearZ, int farZ,
+                               int count, double ax, double ay, double az, double sx, double sy, double sz,
+                               double tMax, double[] near) {
+        for (int j = 0; j < count; j += BOX_SPECIES.length()) {
+            VectorMask<Byte> lanes = BYTE_SPECIES.indexInRange(j, count);
+            DoubleVector tNear = plane(bounds, nearX + j, lanes).mul(sx).add(ax);
+            DoubleVector tFar = plane(bounds, farX + j, lanes).mul(sx).add(ax);
+            DoubleVector t = plane(bounds, nearY + j, lanes).mul(sy).add(ay);
+            tNear = tNear.blend(t, t.compare(GT, tNear));
+            t = plane(bounds, farY + j, lanes).mul(sy).add(ay);
+            tFar = tFar.blend(t, t.compare(LT, tFar));
+            t = plane(bounds, nearZ + j, lanes).mul(sz).add(az);
+            tNear = tNear.blend(t, t.compare(GT, tNear));
+            t = plane(bounds, farZ + j, lanes).mul(sz).add(az);
+            tFar = tFar.blend(t, t.compare(LT, tFar));
+            // The same tolerance as the slab test of a single box
+            DoubleVector eps = tFar.abs().add(1.0).mul(BoundingBox.EPSILON);
+            VectorMask<Double> hit = tNear.compare(LE, tFar.add(eps)).and(tFar.compare(GE, eps.neg()))
+                    .and(tNear.compare(LE, eps.add(tMax)));
+            tNear.blend(Double.POSITIVE_INFINITY, hit.not()).intoArray(near, j, BOX_SPECIES.indexInRange(j, count));
+        }
+    }
+
+    /**
+     * Loads quantized coordinates of a plane of boxes.
+     * @param bounds the quantized coordinates (unsigned bytes)
+     * @param offset the first coordinate to load
+     * @param lanes  the coordinates that belong to the plane
+     * @return the coordinates
+     */
+    private static DoubleVector plane(byte[] bounds, int offset, VectorMask<Byte> lanes) {
+        DoubleVector q = (DoubleVector) ByteVector.fromArray(BYTE_SPECIES, bounds, offset, lanes)
+                .convertShape(B2D, BOX_SPECIES, 0);
+        return q.blend(q.add(256.0), q.compare(LT, 0.0));
+    }
+}
@@ -0,0 +1,998 @@
+package geometries;
+
+import primitives.Double3;
+import primitives.Point;
+import primitives.Ray;
+import primitives.RayBatch;
+import primitives.Vector;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * BVH class represents a bounding volume hierarchy over a collection of intersectable shapes.
+ * The hierarchy is built in parallel with the binned surface area heuristic (SAH), flattened into
+ * a {@link LinearBVH} and traversed with a small stack of node indices,
+ * so a ray is tested only against the shapes whose bounding boxes it hits.
+ * Shapes without a finite bounding box (e.g. planes) are kept aside and tested for every ray.
+ */
+public class BVH extends Intersectable {
+
+    /** The maximum amount of primitives in a leaf */
+    static final int MAX_LEAF_SIZE = 4;
+
+    /** The cost of traversing an inner node relative to the cost of intersecting a primitive */
+    static final double TRAVERSAL_COST = 0.125;
+
+    /** The maximum amount of rays traced together, one bit of a mask per ray */
+    static final int PACKET_SIZE = Integer.SIZE;
+
+    /** The kernels that intersect the spheres and the triangles of a leaf together */
+    private static final IntersectionKernels KERNELS = IntersectionKernels.load();
+
+    /**
+     * The bounded shapes, ordered so every leaf references a contiguous range.
+     * The shapes of a leaf are ordered by their kind (see {@link ShapeArrays}).
+     */
+    private final Intersectable[] primitives;
+
+    /** The spheres and the triangles among the bounded shapes, for the kernels */
+    private final ShapeArrays shapes;
+
+    /** The amount of shapes in the largest leaf */
+    private final int largestLeaf;
+
+    /** The shapes without a finite bounding box */
+    private final Intersectable[] unbounded;
+
+    /** The hierarchy over the bounded shapes (null if there are no bounded shapes) */
+    private final LinearBVH tree;
+
+    /** The statistics of the hierarchy build */
+    private final BuildStatistics statistics;
+
+    /** The scratch arrays of the traversal of every thread, so tracing a ray creates no objects */
+    private final ThreadLocal<Traversal> traversals = ThreadLocal.withInitial(Traversal::new);
+
+    /** The scratch of the packets of every thread, created when the thread traces its first packet */
+    private final ThreadLocal<Packet> packets = ThreadLocal.withInitial(Packet::new);
+
+    /** The result of the intersection of a leaf that recorded none of its shapes */
+    private static final int NOT_RECORDED = -2;
+
+    /**
+     * The trade-off between the quality of a hierarchy and the time it takes to build it.
+     */
+    public enum Quality {
+        /** Binned surface area heuristic - the fastest traversal */
+        HIGH,
+        /** Linear hierarchy over Morton codes - the fastest build, for scenes that are rebuilt every frame */
+        FAST
+    }
+
+    /**
+     * Builds a high quality hierarchy over the given shapes.
+     * @param intersectables the shapes to be included in the hierarchy
+     */
+    public BVH(List<Intersectable> intersectables) {
+        this(intersectables, Quality.HIGH);
+    }
+
+    /**
+     * Builds a hierarchy over the given shapes.
+     * @param intersectables the shapes to be included in the hierarchy
+     * @param quality        the build method
+     */
+    public BVH(List<Intersectable> intersectables, Quality quality) {
+        this(intersectables, quality, null);
+    }
+
+    /**
+     * Loads the hierarchy over the given shapes from a cache directory, or builds it and stores it there.
+     * A cached hierarchy is found by the bounding boxes of the shapes, so any change of the shapes
+     * or of their order builds a new one.
+     * @param intersectables the shapes to be included in the hierarchy
+     * @param quality        the build method
+     * @param cache          the directory of the cache, or null to always build the hierarchy
+     * @throws IllegalStateException if the cache cannot be read
+     *                               (a hierarchy that cannot be stored is not cached)
+     */
+    public BVH(List<Intersectable> intersectables, Quality quality, Path cache) {
+        long start = System.nanoTime();
+        List<Intersectable> bounded = new LinkedList<>();
+        List<Intersectable> others = new LinkedList<>();
+        List<BoundingBox> boxes = new LinkedList<>();
+        for (Intersectable item : intersectables) {
+            BoundingBox box = item.getBoundingBox();
+            if (box == null || !box.isFinite()) {
+                others.add(item);
+            } else {
+                bounded.add(item);
+                boxes.add(box);
+            }
+        }
+        unbounded = others.toArray(new Intersectable[0]);
+
+        Intersectable[] items = bounded.toArray(new Intersectable[0]);
+        int[] order = new int[items.length];
+        BoundingBox[] bounds = boxes.toArray(new BoundingBox[0]);
+        long key = 0;
+        LinearBVH cached = null;
+        if (cache != null && items.length > 0) {
+            key = BVHCache.key(bounds, quality);
+            cached = BVHCache.load(BVHCache.file(cache, key), key, order);
+        }
+        if (cached != null) {
+            tree = cached;
+        } else {
+            BVHNode root = quality == Quality.FAST ? LBVHBuilder.build(bounds, order) : build(bounds, order);
+            tree = root == null ? null : new LinearBVH(root);
+            if (cache != null && tree != null)
+                BVHCache.store(BVHCache.file(cache, key), key, order, tree);
+        }
+
+        primitives = new Intersectable[items.length];
+        for (int i = 0; i < order.length; ++i) {
+            primitives[i] = items[order[i]];
+        }
+        largestLeaf = sortLeaves();
+        shapes = new ShapeArrays(primitives, KERNELS.padding());
+        statistics = BuildStatistics.of(tree, System.nanoTime() - start);
+    }
+
+    /**
+     * Orders the shapes of every leaf by their kind - the spheres, the triangles, the polygons, the cylinders,
+     * then the others - so the kernels intersect the spheres and the triangles of a leaf as two contiguous ranges,
+     * and every other kind is a contiguous range for a loop of its own.
+     * @return the amount of shapes in the largest leaf
+     */
+    private int sortLeaves() {
+        int largest = 0;
+        for (int node = 0; tree != null && node < tree.size(); ++node) {
+            if (tree.isLeaf(node)) {
+                int start = tree.start(node), count = tree.count(node);
+                largest = Math.max(largest, count);
+                Arrays.sort(primitives, start, start + count, Comparator.comparingInt(ShapeArrays::kind));
+            }
+        }
+        return largest;
+    }
+
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        BoundingBox result = tree == null ? null : tree.box(0);
+        for (Intersectable item : unbounded) {
+            BoundingBox box = item.getBoundingBox();
+            if (box == null)
+                return null;
+            result = result == null ? box : result.union(box);
+        }
+        return result;
+    }
+
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+        List<GeoPoint> result = null;
+        for (Intersectable item : unbounded) {
+            List<GeoPoint> listItem = item.findGeoIntersections(ray, maxDistance);
+            if (listItem != null) {
+                if (result == null)
+                    result = new LinkedList<>();
+                result.addAll(listItem);
+            }
+        }
+        if (tree == null) {
+            return result;
+        }
+
+        Point p0 = ray.getP0();
+        double ox = p0.getX(), oy = p0.getY(), oz = p0.getZ();
+        double invX = ray.getInvX(), invY = ray.getInvY(), invZ = ray.getInvZ();
+        int octant = ray.getOctant();
+
+        int[] stack = new int[tree.depth];
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            if (tree.intersect(node, ox, oy, oz, invX, invY, invZ, octant, maxDistance) == Double.POSITIVE_INFINITY) {
+                continue;
+            }
+            if (tree.isLeaf(node)) {
+                for (int i = tree.start(node), end = i + tree.count(node); i < end; ++i) {
+                    List<GeoPoint> listItem = primitives[i].findGeoIntersections(ray, maxDistance);
+                    if (listItem != null) {
+                        if (result == null)
+                            result = new LinkedList<>();
+                        result.addAll(listItem);
+                    }
+                }
+            } else {
+                stack[top++] = tree.right(node);
+                stack[top++] = node + 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The children of a node are visited nearest first and nodes farther than
+     * the closest intersection found so far are skipped.
+     * The traversal reuses the scratch arrays of the thread, so it creates no objects
+     * (unless shapes other than spheres and triangles create them).
+     * The barycentric coordinates of a triangle intersected by the kernels are calculated
+     * once the triangle is known to be the closest.
+     */
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, double maxDistance, HitRecord hit) {
+        boolean found = false;
+        for (Intersectable item : unbounded) {
+            if (item.findClosestHit(ray, maxDistance, hit)) {
+                found = true;
+                maxDistance = hit.t;
+            }
+        }
+        if (tree == null) {
+            return found;
+        }
+
+        Point p0 = ray.getP0();
+        Vector v = ray.getDir();
+        double ox = p0.getX(), oy = p0.getY(), oz = p0.getZ();
+        double dx = v.getX(), dy = v.getY(), dz = v.getZ();
+        double invX = ray.getInvX(), invY = ray.getInvY(), invZ = ray.getInvZ();
+        int octant = ray.getOctant();
+
+        double tRoot = tree.intersect(0, ox, oy, oz, invX, invY, invZ, octant, maxDistance);
+        if (tRoot == Double.POSITIVE_INFINITY) {
+            return found;
+        }
+        Traversal traversal = traversals.get();
+        int[] stack = traversal.stack;
+        double[] entries = traversal.entries;
+        int triangle = -1; // the triangle of the kernels that was recorded last
+        int top = 0;
+        stack[top] = 0;
+        entries[top++] = tRoot;
+        while (top > 0) {
+            int node = stack[--top];
+            if (entries[top] > maxDistance) { // a closer intersection was found after the node was pushed
+                continue;
+            }
+            if (tree.isLeaf(node)) {
+                int recorded = intersectLeaf(node, ray, ox, oy, oz, dx, dy, dz, maxDistance, hit, traversal);
+                if (recorded != NOT_RECORDED) {
+                    found = true;
+                    maxDistance = hit.t;
+                    triangle = recorded;
+                }
+            } else {
+                double tLeft = tree.intersect(node + 1, ox, oy, oz, invX, invY, invZ, octant, maxDistance);
+                double tRight = tree.intersect(tree.right(node), ox, oy, oz, invX, invY, invZ, octant, maxDistance);
+                // Push the farther child first so the nearer one is visited first
+                int near = node + 1, far = tree.right(node);
+                if (tRight < tLeft) {
+                    near = far;
+                    far = node + 1;
+                    double t = tLeft;
+                    tLeft = tRight;
+                    tRight = t;
+                }
+                if (tRight != Double.POSITIVE_INFINITY) {
+                    stack[top] = far;
+                    entries[top++] = tRight;
+                }
+                if (tLeft != Double.POSITIVE_INFINITY) {
+                    stack[top] = near;
+                    entries[top++] = tLeft;
+                }
+            }
+        }
+        keepBarycentric(triangle, ox, oy, oz, dx, dy, dz, hit);
+        return found;
+    }
+
+    /**
+     * Intersects a ray with the shapes of a leaf, and records the shapes that are closer than the recorded one.
+     * The spheres and the triangles of the leaf are intersected together by the kernels, the others one by one.
+     * @param node        the leaf
+     * @param ray         the ray, for the shapes other than spheres and triangles
+     * @param ox          the x coordinate of the head of the ray
+     * @param oy          the y coordinate of the head of the ray
+     * @param oz          the z coordinate of the head of the ray
+     * @param dx          the x component of the direction of the ray
+     * @param dy          the y component of the direction of the ray
+     * @param dz          the z component of the direction of the ray
+     * @param maxDistance the distance of the closest intersection of the ray so far
+     * @param hit         the record of the closest intersection of the ray
+     * @param traversal   the scratch arrays of the thread, for the results of the kernels
+     * @return the index of the triangle of the kernels that was recorded last, -1 if the shape that was recorded
+     *         last is not such a triangle, or {@link #NOT_RECORDED} if no shape was recorded
+     */
+    private int intersectLeaf(int node, Ray ray, double ox, double oy, double oz, double dx, double dy, double dz,
+                              double maxDistance, HitRecord hit, Traversal traversal) {
+        double[] sphereHits = traversal.sphereHits;
+        double[] triangleHits = traversal.triangleHits;
+        int first = tree.start(node), end = first + tree.count(node);
+        int triangles = shapes.end(first, end, ShapeArrays.SPHERE);
+        int others = shapes.end(triangles, end, ShapeArrays.TRIANGLE);
+        KERNELS.spheres(shapes, first, triangles, ox, oy, oz, dx, dy, dz, maxDistance, sphereHits);
+        KERNELS.triangles(shapes, triangles, others, ox, oy, oz, dx, dy, dz, maxDistance, triangleHits);
+        int result = NOT_RECORDED;
+        for (int i = first; i < others; ++i) {
+            double t = i < triangles ? sphereHits[i - first] : triangleHits[i - triangles];
+            if (t != Double.POSITIVE_INFINITY && hit.record((Geometry) primitives[i], ox, oy, oz, dx, dy, dz, t)) {
+                maxDistance = hit.t;
+                result = i >= triangles ? i : -1;
+            }
+        }
+        if (others < end && intersectOthers(others, end, ray, maxDistance, hit))
+            result = -1;
+        return result;
+    }
+
+    /**
+     * Intersects a ray with the shapes of a leaf after its triangles, and records the shapes that are closer than
+     * the recorded one. A single call site for all the kinds goes megamorphic and calls every intersection through
+     * the virtual table, so the polygons and the cylinders have loops of their own, whose call sites see one class
+     * each - the JIT compiler binds and inlines their intersections. The others are intersected one by one.
+     * @param from        the first shape after the triangles of the leaf
+     * @param to          the end of the leaf (exclusive)
+     * @param ray         the ray
+     * @param maxDistance the distance of the closest intersection of the ray so far
+     * @param hit         the record of the closest intersection of the ray
+     * @return true if a shape was recorded, false otherwise
+     */
+    private boolean intersectOthers(int from, int to, Ray ray, double maxDistance, HitRecord hit) {
+        int cylinders = shapes.end(from, to, ShapeArrays.POLYGON);
+        int others = shapes.end(cylinders, to, ShapeArrays.CYLINDER);
+        boolean recorded = false;
+        // Every shape is culled by its box first, as in findClosestHit
+        for (int i = from; i < cylinders; ++i) {
+            Polygon polygon = (Polygon) primitives[i];
+            if (polygon.getBoundingBox().intersects(ray, maxDistance)
+                    && polygon.findClosestHitHelper(ray, maxDistance, hit)) {
+                recorded = true;
+                maxDistance = hit.t;
+            }
+        }
+        for (int i = cylinders; i < others; ++i) {
+            Cylinder cylinder = (Cylinder) primitives[i];
+            if (cylinder.getBoundingBox().intersects(ray, maxDistance)
+                    && cylinder.findClosestHitHelper(ray, maxDistance, hit)) {
+                recorded = true;
+                maxDistance = hit.t;
+            }
+        }
+        for (int i = others; i < to; ++i) {
+            if (primitives[i].findClosestHit(ray, maxDistance, hit)) {
+                recorded = true;
+                maxDistance = hit.t;
+            }
+        }
+        return recorded;
+    }
+
+    /**
+     * Calculates the barycentric coordinates of the recorded triangle, if the kernels intersected it.
+     * The kernels find the distances only, so the coordinates are calculated once the triangle is known to be
+     * the closest.
+     * @param triangle the index of the triangle of the kernels that was recorded last, or a negative number
+     * @param ox       the x coordinate of the head of the ray
+     * @param oy       the y coordinate of the head of the ray
+     * @param oz       the z coordinate of the head of the ray
+     * @param dx       the x component of the direction of the ray
+     * @param dy       the y component of the direction of the ray
+     * @param dz       the z component of the direction of the ray
+     * @param hit      the record of the closest intersection of the ray
+     */
+    private void keepBarycentric(int triangle, double ox, double oy, double oz, double dx, double dy, double dz,
+                                 HitRecord hit) {
+        if (triangle >= 0 && ((Triangle) primitives[triangle]).intersect(ox, oy, oz, dx, dy, dz,
+                Double.POSITIVE_INFINITY, hit.barycentric) != Double.POSITIVE_INFINITY) {
+            hit.keepBarycentric();
+        }
+    }
+
+    /**
+     * The rays of a packet share the traversal: a node is visited once for the whole packet, its box is tested
+     * against every ray that is still active, and the rays that miss it are masked off below it.
+     * The children of a node are visited nearest first for the first active ray.
+     * Coherent rays (e.g. primary rays of neighbouring pixels) visit almost the same nodes, so the packet loads
+     * every node once instead of once per ray. Divergent rays still get the right result - their masks part early.
+     */
+    @Override
+    public void findClosestGeoIntersections(Ray[] rays, GeoPoint[] closest) {
+        for (int from = 0; from < rays.length; from += PACKET_SIZE)
+            tracePacket(rays, from, Math.min(rays.length, from + PACKET_SIZE), closest);
+    }
+
+    /**
+     * Finds the closest intersections of a packet of rays through the hierarchy.
+     * The rays are kept as structure of arrays in the scratch of the thread, with a record for every ray,
+     * and the active rays below a node as a bit mask.
+     * The shapes of a leaf are intersected with every active ray like a single ray intersects them,
+     * so a geometric point is created only for the closest intersection of every ray.
+     * @param rays    the rays
+     * @param from    the first ray of the packet (inclusive)
+     * @param to      the last ray of the packet (exclusive), at most {@link #PACKET_SIZE} rays after the first one
+     * @param closest filled with the closest intersection of every ray of the packet, or null if there is none
+     */
+    private void tracePacket(Ray[] rays, int from, int to, GeoPoint[] closest) {
+        int n = to - from;
+        Packet packet = packets.get();
+        double[] maxDistances = packet.maxDistances;
+        double[] ox = packet.ox, oy = packet.oy, oz = packet.oz;
+        double[] dx = packet.dx, dy = packet.dy, dz = packet.dz;
+        double[] invX = packet.invX, invY = packet.invY, invZ = packet.invZ;
+        int[] triangles = packet.triangles;
+        HitRecord[] hits = packet.hits;
+        for (int k = 0; k < n; ++k) {
+            Ray ray = rays[from + k];
+            Point p0 = ray.getP0();
+            Vector v = ray.getDir();
+            ox[k] = p0.getX();
+            oy[k] = p0.getY();
+            oz[k] = p0.getZ();
+            dx[k] = v.getX();
+            dy[k] = v.getY();
+            dz[k] = v.getZ();
+            invX[k] = ray.getInvX();
+            invY[k] = ray.getInvY();
+            invZ[k] = ray.getInvZ();
+            maxDistances[k] = Double.POSITIVE_INFINITY;
+            triangles[k] = -1;
+            hits[k].clear();
+            for (Intersectable item : unbounded)
+                if (item.findClosestHit(ray, maxDistances[k], hits[k]))
+                    maxDistances[k] = hits[k].t;
+        }
+
+        if (tree != null) {
+            Traversal traversal = traversals.get();
+            int[] stack = traversal.stack;
+            int[] masks = packet.masks;
+            int top = 0;
+            stack[top] = 0;
+            masks[top++] = n == Integer.SIZE ? -1 : (1 << n) - 1;
+            while (top > 0) {
+                int node = stack[--top];
+                int active = 0;
+                for (int mask = masks[top]; mask != 0; mask &= mask - 1) {
+                    int k = Integer.numberOfTrailingZeros(mask);
+                    if (tree.intersect(node, ox[k], oy[k], oz[k], invX[k], invY[k], invZ[k], maxDistances[k])
+                            != Double.POSITIVE_INFINITY)
+                        active |= 1 << k;
+                }
+                if (active == 0) {
+                    continue;
+                }
+                if (tree.isLeaf(node)) {
+                    for (int mask = active; mask != 0; mask &= mask - 1) {
+                        int k = Integer.numberOfTrailingZeros(mask);
+                        int recorded = intersectLeaf(node, rays[from + k], ox[k], oy[k], oz[k], dx[k], dy[k], dz[k],
+                                maxDistances[k], hits[k], traversal);
+                        if (recorded != NOT_RECORDED) {
+                            maxDistances[k] = hits[k].t;
+                            triangles[k] = recorded;
+                        }
+                    }
+                } else {
+                    // Push the farther child first (for the first active ray) so the nearer one is visited first
+                    int k = Integer.numberOfTrailingZeros(active);
+                    double tLeft = tree.intersect(node + 1, ox[k], oy[k], oz[k], invX[k], invY[k], invZ[k],
+                            maxDistances[k]);
+                    double tRight = tree.intersect(tree.right(node), ox[k], oy[k], oz[k], invX[k], invY[k], invZ[k],
+                            maxDistances[k]);
+                    boolean rightFirst = tRight < tLeft;
+                    stack[top] = rightFirst ? node + 1 : tree.right(node);
+                    masks[top++] = active;
+                    stack[top] = rightFirst ? tree.right(node) : node + 1;
+                    masks[top++] = active;
+                }
+            }
+        }
+
+        for (int k = 0; k < n; ++k) {
+            keepBarycentric(triangles[k], ox[k], oy[k], oz[k], dx[k], dy[k], dz[k], hits[k]);
+            closest[from + k] = hits[k].toGeoPoint();
+        }
+    }
+
+    /**
+     * The rays of the batch are traced one after the other with the scratch arrays of the thread and one record,
+     * in the same order as {@link #findClosestHitHelper(Ray, double, HitRecord)}.
+     * The spheres and the triangles are intersected by the kernels straight from the arrays of the batch,
+     * so no objects are created for them - a ray object is created only for the other shapes it reaches.
+     */
+    @Override
+    public void findClosest(RayBatch batch) {
+        Traversal traversal = traversals.get();
+        int[] stack = traversal.stack;
+        double[] entries = traversal.entries;
+        double[] sphereHits = traversal.sphereHits;
+        double[] triangleHits = traversal.triangleHits;
+        HitRecord hit = new HitRecord();
+        for (int k = 0; k < batch.size(); ++k) {
+            // The ray starts at its start, the distances along it are shifted back when a hit is recorded
+            double tMin = batch.tMin[k];
+            double dx = batch.dx[k], dy = batch.dy[k], dz = batch.dz[k];
+            double ox = batch.ox[k] + tMin * dx, oy = batch.oy[k] + tMin * dy, oz = batch.oz[k] + tMin * dz;
+            double maxDistance = batch.tMax[k] - tMin;
+            Ray ray = null;
+            hit.clear();
+            for (Intersectable item : unbounded) {
+                if (ray == null)
+                    ray = batch.ray(k);
+                if (item.findClosestHit(ray, maxDistance, hit))
+                    maxDistance = hit.t;
+            }
+            double invX = 1 / dx, invY = 1 / dy, invZ = 1 / dz;
+            double tRoot = tree == null ? Double.POSITIVE_INFINITY
+                    : tree.intersect(0, ox, oy, oz, invX, invY, invZ, maxDistance);
+            int top = 0;
+            if (tRoot != Double.POSITIVE_INFINITY) {
+                stack[top] = 0;
+                entries[top++] = tRoot;
+            }
+            while (top > 0) {
+                int node = stack[--top];
+                if (entries[top] > maxDistance) { // a closer intersection was found after the node was pushed
+                    continue;
+                }
+                if (tree.isLeaf(node)) {
+                    int first = tree.start(node), end = first + tree.count(node);
+                    int triangles = shapes.end(first, end, ShapeArrays.SPHERE);
+                    int others = shapes.end(triangles, end, ShapeArrays.TRIANGLE);
+                    KERNELS.spheres(shapes, first, triangles, ox, oy, oz, dx, dy, dz, maxDistance, sphereHits);
+                    KERNELS.triangles(shapes, triangles, others, ox, oy, oz, dx, dy, dz, maxDistance, triangleHits);
+                    for (int i = first; i < others; ++i) {
+                        double t = i < triangles ? sphereHits[i - first] : triangleHits[i - triangles];
+                        if (t != Double.POSITIVE_INFINITY
+                                && hit.record((Geometry) primitives[i], ox, oy, oz, dx, dy, dz, t))
+                            maxDistance = hit.t;
+                    }
+                    if (others < end) {
+                        if (ray == null)
+                            ray = batch.ray(k);
+                        if (intersectOthers(others, end, ray, maxDistance, hit))
+                            maxDistance = hit.t;
+                    }
+                } else {
+                    double tLeft = tree.intersect(node + 1, ox, oy, oz, invX, invY, invZ, maxDistance);
+                    double tRight = tree.intersect(tree.right(node), ox, oy, oz, invX, invY, invZ, maxDistance);
+                    // Push the farther child first so the nearer one is visited first
+                    int near = node + 1, far = tree.right(node);
+                    if (tRight < tLeft) {
+                        near = far;
+                        far = node + 1;
+                        double t = tLeft;
+                        tLeft = tRight;
+                        tRight = t;
+                    }
+                    if (tRight != Double.POSITIVE_INFINITY) {
+                        stack[top] = far;
+                        entries[top++] = tRight;
+                    }
+                    if (tLeft != Double.POSITIVE_INFINITY) {
+                        stack[top] = near;
+                        entries[top++] = tLeft;
+                    }
+                }
+            }
+            if (hit.isHit())
+                batch.hit(k, hit.geometry, tMin + hit.t);
+        }
+    }
+
+    /**
+     * The traversal stops at the first shape that blocks the ray.
+     */
+    @Override
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance, Double3 ktr, double minK) {
+        for (Intersectable item : unbounded) {
+            ktr = item.findTransparency(ray, maxDistance, ktr, minK);
+            if (ktr.lowerThan(minK))
+                return Double3.ZERO;
+        }
+        if (tree == null) {
+            return ktr;
+        }
+
+        Point p0 = ray.getP0();
+        double ox = p0.getX(), oy = p0.getY(), oz = p0.getZ();
+        double invX = ray.getInvX(), invY = ray.getInvY(), invZ = ray.getInvZ();
+        int octant = ray.getOctant();
+
+        int[] stack = traversals.get().stack;
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            if (tree.intersect(node, ox, oy, oz, invX, invY, invZ, octant, maxDistance) == Double.POSITIVE_INFINITY) {
+                continue;
+            }
+            if (tree.isLeaf(node)) {
+                for (int i = tree.start(node), end = i + tree.count(node); i < end; ++i) {
+                    ktr = primitives[i].findTransparency(ray, maxDistance, ktr, minK);
+                    if (ktr.lowerThan(minK))
+                        return Double3.ZERO;
+                }
+            } else {
+                stack[top++] = tree.right(node);
+                stack[top++] = node + 1;
+            }
+        }
+        return ktr;
+    }
+
+    /**
+     * Updates the hierarchy after the shapes moved (e.g. between the frames of an animation), instead of
+     * building it again: the boxes of the nodes are recalculated bottom-up, and the structure is kept.
+     * The quality of the hierarchy degrades as the shapes move away from where it was built,
+     * the returned cost tells when it is time to build it again.
+     * @return the surface area heuristic cost of the updated hierarchy (comparable to
+     * {@link BuildStatistics#sahCost()} of the build), or positive infinity if a shape lost its finite bounding box
+     */
+    public double refit() {
+        resetBoundingBox();
+        return tree == null ? 0 : tree.refit(primitives);
+    }
+
+    /**
+     * @return the statistics of the hierarchy build
+     */
+    public BuildStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Builds a hierarchy over primitives given by their bounding boxes.
+     * Big ranges of primitives are split in parallel on the common fork-join pool.
+     * @param boxes the bounding boxes of the primitives
+     * @param order filled with the primitive indices, ordered so every leaf references a contiguous range
+     * @return the root of the hierarchy, or null if there are no primitives
+     */
+    static BVHNode build(BoundingBox[] boxes, int[] order) {
+        if (boxes.length == 0) {
+            return null;
+        }
+        double[] bounds = new double[6 * boxes.length];
+        for (int i = 0; i < order.length; ++i) {
+            order[i] = i;
+            BoundingBox box = boxes[i];
+            bounds[6 * i] = box.minX;
+            bounds[6 * i + 1] = box.minY;
+            bounds[6 * i + 2] = box.minZ;
+            bounds[6 * i + 3] = box.maxX;
+            bounds[6 * i + 4] = box.maxY;
+            bounds[6 * i + 5] = box.maxZ;
+        }
+        return ForkJoinPool.commonPool().invoke(new BuildTask(bounds, order, 0, boxes.length));
+    }
+
+    /**
+     * The scratch arrays of the traversal of a single thread, allocated once and reused for every ray.
+     * A nested search (e.g. of an instance of a shape in this hierarchy) uses its own hierarchy and arrays,
+     * and the search of a ray ends before the next ray is traced by the thread, so they are never shared.
+     */
+    private final class Traversal {
+
+        /** The stack of the nodes to visit */
+        final int[] stack = new int[tree == null ? 0 : tree.depth];
+
+        /** The distances at which the ray enters the nodes of the stack */
+        final double[] entries = new double[stack.length];
+
+        /** The distances of the spheres of a leaf, by the kernels */
+        final double[] sphereHits = new double[largestLeaf + KERNELS.padding()];
+
+        /** The distances of the triangles of a leaf, by the kernels */
+        final double[] triangleHits = new double[largestLeaf + KERNELS.padding()];
+    }
+
+    /**
+     * The scratch of the packet traversal of a single thread, allocated once and reused for every packet.
+     * The nodes of the packet traversal are kept in the stack of the {@link Traversal} of the thread.
+     */
+    private final class Packet {
+
+        /** The heads of the rays */
+        final double[] ox = new double[PACKET_SIZE], oy = new double[PACKET_SIZE], oz = new double[PACKET_SIZE];
+
+        /** The directions of the rays */
+        final double[] dx = new double[PACKET_SIZE], dy = new double[PACKET_SIZE], dz = new double[PACKET_SIZE];
+
+        /** The inverses of the directions of the rays */
+        final double[] invX = new double[PACKET_SIZE], invY = new double[PACKET_SIZE], invZ = new double[PACKET_SIZE];
+
+        /** The distance of the closest intersection of every ray so far */
+        final double[] maxDistances = new double[PACKET_SIZE];
+
+        /** The triangle of the kernels that was recorded last for every ray, -1 if none */
+        final int[] triangles = new int[PACKET_SIZE];
+
+        /** The record of the closest intersection of every ray */
+        final HitRecord[] hits = new HitRecord[PACKET_SIZE];
+
+        /** The active rays below the nodes of the stack */
+        final int[] masks = new int[tree == null ? 0 : tree.depth];
+
+        /**
+         * Creates the scratch of a thread, with empty records.
+         */
+        Packet() {
+            for (int k = 0; k < PACKET_SIZE; ++k)
+                hits[k] = new HitRecord();
+        }
+    }
+
+    /**
+     * A task that builds the hierarchy over a range of the primitives with the binned surface area heuristic.
+     * The centers of the primitives are distributed into bins along each axis and only the
+     * borders between the bins are evaluated as split positions.
+     * The two halves of a big range are built as separate tasks, small ranges are built recursively
+     * by the same task, reusing its scratch arrays.
+     * The bounds of the primitives are kept in a flat array that is reordered together with the indices,
+     * so every pass over a range reads the memory sequentially.
+     */
+    private static final class BuildTask extends RecursiveTask<BVHNode> {
+
+        /** The version of the serialized form (tasks are never serialized) */
+        private static final long serialVersionUID = 1L;
+
+        /** The bounds of the primitives (min x,y,z, max x,y,z of every primitive), in the order of the indices */
+        private final double[] bounds;
+
+        /** The primitive indices, the range is reordered in place */
+        private final int[] order;
+
+        /** The first index of the range (inclusive) */
+        private final int start;
+
+        /** The last index of the range (exclusive) */
+        private final int end;
+
+        /** Scratch array for the amount of primitives in every bin */
+        private final int[] counts = new int[BIN_COUNT];
+
+        /** Scratch array for the bounds of every bin (min x,y,z, max x,y,z of every bin) */
+        private final double[] bins = new double[6 * BIN_COUNT];
+
+        /** Scratch array for the areas of the right sides of the borders between the bins */
+        private final double[] areas = new double[BIN_COUNT];
+
+        /** Scratch bounds for the sweeps */
+        private final double[] left = new double[6], right = new double[6];
+
+        /**
+         * Constructs a task over a range of the primitives.
+         * @param bounds the bounds of the primitives, in the order of the indices
+         * @param order  the primitive indices
+         * @param start  the first index of the range (inclusive)
+         * @param end    the last index of the range (exclusive)
+         */
+        BuildTask(double[] bounds, int[] order, int start, int end) {
+            this.bounds = bounds;
+            this.order = order;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected BVHNode compute() {
+            return build(start, end);
+        }
+
+        /**
+         * Builds the hierarchy over a range of the primitives.
+         * @param start the first index of the range (inclusive)
+         * @param end   the last index of the range (exclusive)
+         * @return the root of the sub-hierarchy
+         */
+        private BVHNode build(int start, int end) {
+            double[] total = emptyBounds();
+            double[] centers = emptyBounds();
+            for (int i = start; i < end; ++i) {
+                grow(total, bounds, i);
+                for (int axis = 0; axis < 3; ++axis) {
+                    double c = center(i, axis);
+                    if (c < centers[axis]) centers[axis] = c;
+                    if (c > centers[axis + 3]) centers[axis + 3] = c;
+                }
+            }
+            BoundingBox box = new BoundingBox(total[0], total[1], total[2], total[3], total[4], total[5]);
+            int n = end - start;
+            if (n == 1) {
+                return new BVHNode(box, start, n);
+            }
+
+            double area = area(total);
+            double bestCost = Double.POSITIVE_INFINITY;
+            int bestAxis = -1, bestSplit = -1;
+            for (int axis = 0; axis < 3; ++axis) {
+                double min = centers[axis], extent = centers[axis + 3] - min;
+                if (!(extent > 0)) { // all the centers are at the same position on this axis
+                    continue;
+                }
+                Arrays.fill(counts, 0);
+                for (int b = 0; b < BIN_COUNT; ++b)
+                    clear(bins, b);
+                double scale = BIN_COUNT / extent;
+                for (int i = start; i < end; ++i) {
+                    int b = bin(center(i, axis), min, scale);
+                    ++counts[b];
+                    grow(bins, b, bounds, i);
+                }
+
+                // Sweep from the right to collect the areas of the right sides
+                clear(right, 0);
+                int rightCount = 0;
+                for (int b = BIN_COUNT - 1; b > 0; --b) {
+                    rightCount += counts[b];
+                    if (counts[b] > 0)
+                        grow(right, 0, bins, b);
+                    areas[b] = rightCount == 0 ? 0 : area(right);
+                }
+                // Sweep from the left and evaluate the border before every bin
+                clear(left, 0);
+                int leftCount = 0;
+                for (int b = 1; b < BIN_COUNT; ++b) {
+                    leftCount += counts[b - 1];
+                    if (counts[b - 1] > 0)
+                        grow(left, 0, bins, b - 1);
+                    if (leftCount == 0 || leftCount == n)
+                        continue;
+                    double cost = TRAVERSAL_COST + (area(left) * leftCount + areas[b] * (n - leftCount)) / area;
+                    if (cost < bestCost) {
+                        bestCost = cost;
+                        bestAxis = axis;
+                        bestSplit = b;
+                    }
+                }
+            }
+
+            // Stop when splitting does not pay off, unless the leaf would be too big
+            if (n <= MAX_LEAF_SIZE && !(bestCost < n)) {
+                return new BVHNode(box, start, n);
+            }
+            int mid = start + n / 2; // all the centers coincide (or the box has no area) - split the range in the middle
+            if (bestAxis >= 0) {
+                mid = partition(start, end, bestAxis, centers[bestAxis],
+                        BIN_COUNT / (centers[bestAxis + 3] - centers[bestAxis]), bestSplit);
+            }
+
+            if (n < PARALLEL_THRESHOLD) {
+                return new BVHNode(build(start, mid), build(mid, end));
+            }
+            BuildTask leftTask = new BuildTask(bounds, order, start, mid);
+            leftTask.fork();
+            BVHNode rightNode = new BuildTask(bounds, order, mid, end).compute();
+            return new BVHNode(leftTask.join(), rightNode);
+        }
+
+        /**
+         * Reorders a range so the primitives of the bins before the split come first.
+         * @param start the first index of the range (inclusive)
+         * @param end   the last index of the range (exclusive)
+         * @param axis  the axis of the split
+         * @param min   the minimum center on the axis
+         * @param scale the amount of bins per unit on the axis
+         * @param split the first bin of the right side
+         * @return the first index of the right side
+         */
+        private int partition(int start, int end, int axis, double min, double scale, int split) {
+            int i = start, j = end - 1;
+            while (i <= j) {
+                if (bin(center(i, axis), min, scale) < split) {
+                    ++i;
+                } else {
+                    swap(i, j--);
+                }
+            }
+            return i;
+        }
+
+        /**
+         * Swaps two primitives in the order.
+         * @param i the position of the first primitive
+         * @param j the position of the second primitive
+         */
+        private void swap(int i, int j) {
+            int t = order[i];
+            order[i] = order[j];
+            order[j] = t;
+            for (int k = 0; k < 6; ++k) {
+                double b = bounds[6 * i + k];
+                bounds[6 * i + k] = bounds[6 * j + k];
+                bounds[6 * j + k] = b;
+            }
+        }
+
+        /**
+         * @param i    the position of the primitive in the order
+         * @param axis the axis (0 - x, 1 - y, 2 - z)
+         * @return the center of the primitive bounds along the axis
+         */
+        private double center(int i, int axis) {
+            return (bounds[6 * i + axis] + bounds[6 * i + axis + 3]) / 2;
+        }
+    }
+
+    /** The amount of bins per axis in the binned SAH build */
+    static final int BIN_COUNT = 16;
+
+    /** Ranges of at least this amount of primitives are split in parallel */
+    static final int PARALLEL_THRESHOLD = 4096;
+
+    /**
+     * Finds the bin of a primitive center.
+     * @param center the center of the primitive on the axis
+     * @param min    the minimum center on the axis
+     * @param scale  the amount of bins per unit on the axis
+     * @return the index of the bin
+     */
+    private static int bin(double center, double min, double scale) {
+        int b = (int) ((center - min) * scale);
+        return Math.min(b, BIN_COUNT - 1);
+    }
+
+    /**
+     * @return bounds (min x,y,z, max x,y,z) that contain nothing
+     */
+    private static double[] emptyBounds() {
+        return new double[]{Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+                Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+    }
+
+    /**
+     * Empties bounds in a flat array so they contain nothing.
+     * @param b the flat array of bounds (min x,y,z, max x,y,z of every bounds)
+     * @param i the index of the bounds in the flat array
+     */
+    private static void clear(double[] b, int i) {
+        Arrays.fill(b, 6 * i, 6 * i + 3, Double.POSITIVE_INFINITY);
+        Arrays.fill(b, 6 * i + 3, 6 * i + 6, Double.NEGATIVE_INFINITY);
+    }
+
+    /**
+     * Grows bounds in a flat array to contain bounds from another flat array.
+     * @param b   the flat array of the bounds to grow
+     * @param i   the index of the bounds to grow
+     * @param src the flat array of the bounds to contain
+     * @param j   the index of the bounds to contain
+     */
+    private static void grow(double[] b, int i, double[] src, int j) {
+        i *= 6;
+        j *= 6;
+        // Plain comparisons are cheaper than Math.min and Math.max, which also handle NaN and negative zero
+        for (int k = 0; k < 3; ++k) {
+            if (src[j + k] < b[i + k]) b[i + k] = src[j + k];
+            if (src[j + k + 3] > b[i + k + 3]) b[i + k + 3] = src[j + k + 3];
+        }
+    }
+
+    /**
+     * Grows bounds to contain bounds from a flat array.
+     * @param b   the bounds (min x,y,z, max x,y,z)
+     * @param src the flat array of the bounds to contain
+     * @param j   the index of the bounds to contain
+     */
+    private static void grow(double[] b, double[] src, int j) {
+        grow(b, 0, src, j);
+    }
+
+    /**
+     * @param b the bounds (min x,y,z, max x,y,z)
+     * @return the surface area of the bounds
+     */
+    private static double area(double[] b) {
+        double dx = b[3] - b[0], dy = b[4] - b[1], dz = b[5] - b[2];
+        return 2 * (dx * dy + dy * dz + dz * dx);
+    }
+}
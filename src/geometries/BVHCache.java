@@ -0,0 +1,230 @@
+package geometries;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A cache of built bounding volume hierarchies in binary files, so a big scene is not built again
+ * on every start of the program.
+ * A hierarchy depends only on the bounding boxes of its primitives and on the build method,
+ * so a file is keyed by a hash of both and holds the flattened node arrays and the order of the primitives.
+ * A file is memory mapped on load (and written from a heap buffer, see {@link #store}) and its arrays are copied in bulk from the mapping into heap arrays,
+ * which the traversal reads like the arrays of a built hierarchy - the load costs about as much as reading the file.
+ * The copies are validated before they are used, so a damaged file is ignored and the hierarchy is built again.
+ * A file is mapped at once, so hierarchies over 2 GB are not cached.
+ * <p>
+ * The layout of a file (little endian): a header of {@link #HEADER} bytes - magic, version, key,
+ * amount of primitives, amount of nodes and depth - followed by the order of the primitives,
+ * the two values of every node, padding to 8 bytes, and the bounds of every node.
+ */
+final class BVHCache {
+
+    /** The first bytes of a cache file ("BVHC") */
+    private static final int MAGIC = 0x43485642;
+
+    /** The version of the file layout, a file of another version is ignored */
+    private static final int VERSION = 1;
+
+    /** The size of the header in bytes */
+    private static final int HEADER = 32;
+
+    /** Don't let anyone instantiate this class. */
+    private BVHCache() {
+    }
+
+    /**
+     * Hashes the bounding boxes of the primitives, in their order, together with the build method.
+     * @param boxes   the bounding boxes of the primitives
+     * @param quality the build method
+     * @return the key of the hierarchy
+     */
+    static long key(BoundingBox[] boxes, BVH.Quality quality) {
+        long hash = mix(VERSION, boxes.length);
+        hash = mix(hash, quality.ordinal());
+        for (BoundingBox box : boxes) {
+            hash = mix(hash, Double.doubleToLongBits(box.minX));
+            hash = mix(hash, Double.doubleToLongBits(box.minY));
+            hash = mix(hash, Double.doubleToLongBits(box.minZ));
+            hash = mix(hash, Double.doubleToLongBits(box.maxX));
+            hash = mix(hash, Double.doubleToLongBits(box.maxY));
+            hash = mix(hash, Double.doubleToLongBits(box.maxZ));
+        }
+        return hash;
+    }
+
+    /**
+     * @param hash  the hash so far
+     * @param value the next value
+     * @return the hash including the value
+     */
+    private static long mix(long hash, long value) {
+        return Long.rotateLeft(hash ^ value * 0x9E3779B97F4A7C15L, 29) * 0xBF58476D1CE4E5B9L;
+    }
+
+    /**
+     * @param directory the directory of the cache
+     * @param key       the key of the hierarchy
+     * @return the file of the hierarchy in the cache
+     */
+    static Path file(Path directory, long key) {
+        return directory.resolve(String.format("%016x.bvh", key));
+    }
+
+    /**
+     * @param primitives the amount of primitives
+     * @param nodes      the amount of nodes
+     * @return the offset of the bounds in a file
+     */
+    private static long boundsOffset(int primitives, int nodes) {
+        long ints = HEADER + 4L * primitives + 8L * nodes;
+        return (ints + 7) & ~7L;
+    }
+
+    /**
+     * Loads a hierarchy from the cache.
+     * @param file  the file of the hierarchy
+     * @param key   the key of the hierarchy
+     * @param order filled with the primitive indices, ordered so every leaf references a contiguous range
+     *              (left as it is if no hierarchy is loaded)
+     * @return the hierarchy, or null if the file does not exist, holds another hierarchy or is damaged
+     * @throws IllegalStateException if the file cannot be read
+     */
+    static LinearBVH load(Path file, long key, int[] order) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER || size > Integer.MAX_VALUE) {
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            int count = buffer.getInt(20);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || buffer.getLong(8) != key
+                    || buffer.getInt(16) != order.length || count <= 0
+                    || size != boundsOffset(order.length, count) + 48L * count) {
+                return null;
+            }
+            int[] loaded = new int[order.length];
+            int[] nodes = new int[2 * count];
+            double[] bounds = new double[6 * count];
+            buffer.position(HEADER).asIntBuffer().get(loaded).get(nodes);
+            buffer.position((int) boundsOffset(order.length, count)).asDoubleBuffer().get(bounds);
+            int depth = buffer.getInt(24);
+            if (!isValid(loaded, nodes, bounds, depth)) {
+                return null;
+            }
+            System.arraycopy(loaded, 0, order, 0, order.length);
+            return new LinearBVH(bounds, nodes, depth);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new IllegalStateException("I/O error reading the hierarchy cache " + file, e);
+        }
+    }
+
+    /**
+     * Checks that the arrays of a loaded hierarchy describe a hierarchy that the traversal can use:
+     * the order is a permutation of the primitives, the nodes are in depth-first order with every right child
+     * after its left sub-hierarchy, the leaves cover the primitives one after the other,
+     * the bounds of every node are ordered, and the depth is the amount of levels.
+     * @param order  the primitive indices
+     * @param nodes  the two values of every node
+     * @param bounds the bounds of the nodes
+     * @param depth  the amount of levels in the hierarchy
+     * @return true if the hierarchy is valid, false otherwise
+     */
+    private static boolean isValid(int[] order, int[] nodes, double[] bounds, int depth) {
+        int n = order.length, count = nodes.length / 2;
+        boolean[] seen = new boolean[n];
+        for (int index : order) {
+            if (index < 0 || index >= n || seen[index])
+                return false;
+            seen[index] = true;
+        }
+        for (int i = 0; i < bounds.length; i += 6) {
+            if (!(bounds[i] <= bounds[i + 3] && bounds[i + 1] <= bounds[i + 4] && bounds[i + 2] <= bounds[i + 5]))
+                return false;
+        }
+        if (depth < 1 || depth > count)
+            return false;
+
+        // Walk the nodes in the order they were flattened, every node must be the next one
+        int[] stack = new int[depth], levels = new int[depth];
+        int top = 0, next = 0, covered = 0, levelsFound = 0;
+        stack[top] = 0;
+        levels[top++] = 1;
+        while (top > 0) {
+            int node = stack[--top], level = levels[top];
+            if (node != next++)
+                return false;
+            levelsFound = Math.max(levelsFound, level);
+            int first = nodes[2 * node], size = nodes[2 * node + 1];
+            if (size > 0) { // a leaf
+                if (first != covered || size > n - covered)
+                    return false;
+                covered += size;
+            } else if (size < 0 || first <= node + 1 || first >= count || level == depth) {
+                return false;
+            } else {
+                stack[top] = first;
+                levels[top++] = level + 1;
+                stack[top] = node + 1;
+                levels[top++] = level + 1;
+            }
+        }
+        return next == count && covered == n && levelsFound == depth;
+    }
+
+    /**
+     * Stores a hierarchy in the cache. The file is written aside and moved into place,
+     * so a concurrent load never sees a partial file. A hierarchy over 2 GB is not stored.
+     * The file is written from a heap buffer rather than through a mapping: a mapping is released only
+     * when it is collected, and some systems (e.g. Windows) cannot move or replace a mapped file.
+     * Storing is best effort - if the file cannot be written (or a file that is still mapped by a load
+     * cannot be replaced), the hierarchy is not cached and is built again by the next run.
+     * @param file  the file of the hierarchy
+     * @param key   the key of the hierarchy
+     * @param order the primitive indices, ordered so every leaf references a contiguous range
+     * @param tree  the hierarchy
+     */
+    static void store(Path file, long key, int[] order, LinearBVH tree) {
+        int count = tree.size();
+        long offset = boundsOffset(order.length, count);
+        if (offset + 48L * count > Integer.MAX_VALUE) {
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) (offset + 48L * count)).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putLong(key).putInt(order.length).putInt(count).putInt(tree.depth);
+        buffer.position(HEADER).asIntBuffer().put(order).put(tree.nodes);
+        buffer.position((int) offset).asDoubleBuffer().put(tree.bounds);
+        buffer.position(0);
+        Path temp = null;
+        try {
+            Path directory = file.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            temp = Files.createTempFile(directory, "bvh", ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining())
+                    channel.write(buffer);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ignored) {
+            // the cache is an optimization only, the hierarchy is built again next time
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // the file was already moved, or it is only an orphan temporary file
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package geometries;
+
+/**
+ * A node of a bounding volume hierarchy, as produced by the builders.
+ * An inner node has two children, a leaf node references a range of ordered primitives.
+ * A built hierarchy is flattened into a {@link LinearBVH} for the traversal.
+ */
+final class BVHNode {
+
+    /** The bounding box of everything below the node */
+    final BoundingBox box;
+
+    /** The children of an inner node (null in a leaf) */
+    final BVHNode left, right;
+
+    /** The first primitive of a leaf in the ordered primitives */
+    final int start;
+
+    /** The amount of primitives in a leaf (0 in an inner node) */
+    final int count;
+
+    /**
+     * Constructs a leaf node.
+     * @param box   the bounding box of the primitives
+     * @param start the first primitive in the ordered primitives
+     * @param count the amount of primitives
+     */
+    BVHNode(BoundingBox box, int start, int count) {
+        this.box = box;
+        this.left = null;
+        this.right = null;
+        this.start = start;
+        this.count = count;
+    }
+
+    /**
+     * Constructs an inner node.
+     * @param left  the left child
+     * @param right the right child
+     */
+    BVHNode(BVHNode left, BVHNode right) {
+        this.box = left.box.union(right.box);
+        this.left = left;
+        this.right = right;
+        this.start = 0;
+        this.count = 0;
+    }
+
+    /**
+     * @return true if the node is a leaf, false otherwise
+     */
+    boolean isLeaf() {
+        return left == null;
+    }
+
+    /**
+     * @return the amount of levels below and including the node
+     */
+    int depth() {
+        return isLeaf() ? 1 : 1 + Math.max(left.depth(), right.depth());
+    }
+}
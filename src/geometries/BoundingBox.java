@@ -0,0 +1,233 @@
+package geometries;
+
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+/**
+ * BoundingBox class represents an axis-aligned bounding box (AABB) in 3D Cartesian coordinate system.
+ * It is used by the acceleration structures to reject rays before running the full intersection math.
+ */
+public class BoundingBox {
+
+    /** The minimum corner of the box */
+    final double minX, minY, minZ;
+
+    /** The maximum corner of the box */
+    final double maxX, maxY, maxZ;
+
+    /**
+     * Constructs a bounding box from its minimum and maximum coordinates.
+     * @param minX the minimum x coordinate
+     * @param minY the minimum y coordinate
+     * @param minZ the minimum z coordinate
+     * @param maxX the maximum x coordinate
+     * @param maxY the maximum y coordinate
+     * @param maxZ the maximum z coordinate
+     */
+    public BoundingBox(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.maxZ = maxZ;
+    }
+
+    /**
+     * Constructs the smallest bounding box that contains all the given points.
+     * @param points the points to be bounded
+     * @throws IllegalArgumentException if no points are given
+     */
+    public BoundingBox(Point... points) {
+        if (points.length == 0)
+            throw new IllegalArgumentException("A bounding box must contain at least one point");
+        double x0 = Double.POSITIVE_INFINITY, y0 = Double.POSITIVE_INFINITY, z0 = Double.POSITIVE_INFINITY;
+        double x1 = Double.NEGATIVE_INFINITY, y1 = Double.NEGATIVE_INFINITY, z1 = Double.NEGATIVE_INFINITY;
+        for (Point p : points) {
+            x0 = Math.min(x0, p.getX());
+            y0 = Math.min(y0, p.getY());
+            z0 = Math.min(z0, p.getZ());
+            x1 = Math.max(x1, p.getX());
+            y1 = Math.max(y1, p.getY());
+            z1 = Math.max(z1, p.getZ());
+        }
+        minX = x0;
+        minY = y0;
+        minZ = z0;
+        maxX = x1;
+        maxY = y1;
+        maxZ = z1;
+    }
+
+    /**
+     * @return the minimum corner of the box
+     */
+    public Point getMin() {
+        return new Point(minX, minY, minZ);
+    }
+
+    /**
+     * @return the maximum corner of the box
+     */
+    public Point getMax() {
+        return new Point(maxX, maxY, maxZ);
+    }
+
+    /**
+     * Checks whether the box is bounded on all the axes.
+     * @return true if all the coordinates of the box are finite, false otherwise
+     */
+    public boolean isFinite() {
+        return Double.isFinite(minX) && Double.isFinite(minY) && Double.isFinite(minZ)
+                && Double.isFinite(maxX) && Double.isFinite(maxY) && Double.isFinite(maxZ);
+    }
+
+    /**
+     * Returns the smallest bounding box that contains both this box and the given box.
+     * @param other the box to unite with
+     * @return the united bounding box
+     */
+    public BoundingBox union(BoundingBox other) {
+        return new BoundingBox(Math.min(minX, other.minX), Math.min(minY, other.minY), Math.min(minZ, other.minZ),
+                Math.max(maxX, other.maxX), Math.max(maxY, other.maxY), Math.max(maxZ, other.maxZ));
+    }
+
+    /**
+     * Calculates the surface area of the box, used by the surface area heuristic.
+     * @return the surface area of the box
+     */
+    public double surfaceArea() {
+        double dx = maxX - minX, dy = maxY - minY, dz = maxZ - minZ;
+        return 2 * (dx * dy + dy * dz + dz * dx);
+    }
+
+    /**
+     * Returns the center of the box along the given axis.
+     * @param axis the axis (0 - x, 1 - y, 2 - z)
+     * @return the center coordinate of the box along the axis
+     */
+    public double center(int axis) {
+        return switch (axis) {
+            case 0 -> (minX + maxX) / 2;
+            case 1 -> (minY + maxY) / 2;
+            default -> (minZ + maxZ) / 2;
+        };
+    }
+
+    /**
+     * Checks whether the ray hits the box within the given distance.
+     * @param ray         the ray to test
+     * @param maxDistance the maximum distance along the ray
+     * @return true if the ray hits the box, false otherwise
+     */
+    public boolean intersects(Ray ray, double maxDistance) {
+        Point p0 = ray.getP0();
+        int octant = ray.getOctant();
+        boolean negX = (octant & 1) != 0, negY = (octant & 2) != 0, negZ = (octant & 4) != 0;
+        return intersectSorted(negX ? maxX : minX, negY ? maxY : minY, negZ ? maxZ : minZ,
+                negX ? minX : maxX, negY ? minY : maxY, negZ ? minZ : maxZ,
+                p0.getX(), p0.getY(), p0.getZ(), ray.getInvX(), ray.getInvY(), ray.getInvZ(), maxDistance)
+                != Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Slab test of a ray against the box. The ray is given by its origin and inverse direction
+     * so that the caller can compute them once per ray and reuse them for many boxes.
+     * @param ox   the x coordinate of the ray origin
+     * @param oy   the y coordinate of the ray origin
+     * @param oz   the z coordinate of the ray origin
+     * @param invX the inverse of the x component of the ray direction
+     * @param invY the inverse of the y component of the ray direction
+     * @param invZ the inverse of the z component of the ray direction
+     * @param tMax the maximum distance along the ray
+     * @return the entry distance into the box, or positive infinity if the ray misses it
+     */
+    double intersect(double ox, double oy, double oz, double invX, double invY, double invZ, double tMax) {
+        return intersect(minX, minY, minZ, maxX, maxY, maxZ, ox, oy, oz, invX, invY, invZ, tMax);
+    }
+
+    /**
+     * Slab test of a ray against a box given by its coordinates,
+     * for acceleration structures that keep their boxes in flat arrays.
+     * @param minX the minimum x coordinate of the box
+     * @param minY the minimum y coordinate of the box
+     * @param minZ the minimum z coordinate of the box
+     * @param maxX the maximum x coordinate of the box
+     * @param maxY the maximum y coordinate of the box
+     * @param maxZ the maximum z coordinate of the box
+     * @param ox   the x coordinate of the ray origin
+     * @param oy   the y coordinate of the ray origin
+     * @param oz   the z coordinate of the ray origin
+     * @param invX the inverse of the x component of the ray direction
+     * @param invY the inverse of the y component of the ray direction
+     * @param invZ the inverse of the z component of the ray direction
+     * @param tMax the maximum distance along the ray
+     * @return the entry distance into the box, or positive infinity if the ray misses it
+     */
+    static double intersect(double minX, double minY, double minZ, double maxX, double maxY, double maxZ,
+                            double ox, double oy, double oz, double invX, double invY, double invZ, double tMax) {
+        return intersectSorted(invX < 0 ? maxX : minX, invY < 0 ? maxY : minY, invZ < 0 ? maxZ : minZ,
+                invX < 0 ? minX : maxX, invY < 0 ? minY : maxY, invZ < 0 ? minZ : maxZ,
+                ox, oy, oz, invX, invY, invZ, tMax);
+    }
+
+    /**
+     * Slab test of a ray against a box given by its planes sorted by the direction of the ray -
+     * on every axis the plane the ray enters the slab through comes first (see {@link Ray#getOctant()}).
+     * Once the planes are sorted the test only multiplies and compares.
+     * @param nearX the x coordinate of the plane where the ray enters the x slab
+     * @param nearY the y coordinate of the plane where the ray enters the y slab
+     * @param nearZ the z coordinate of the plane where the ray enters the z slab
+     * @param farX  the x coordinate of the plane where the ray leaves the x slab
+     * @param farY  the y coordinate of the plane where the ray leaves the y slab
+     * @param farZ  the z coordinate of the plane where the ray leaves the z slab
+     * @param ox    the x coordinate of the ray origin
+     * @param oy    the y coordinate of the ray origin
+     * @param oz    the z coordinate of the ray origin
+     * @param invX  the inverse of the x component of the ray direction
+     * @param invY  the inverse of the y component of the ray direction
+     * @param invZ  the inverse of the z component of the ray direction
+     * @param tMax  the maximum distance along the ray
+     * @return the entry distance into the box, or positive infinity if the ray misses it
+     */
+    static double intersectSorted(double nearX, double nearY, double nearZ, double farX, double farY, double farZ,
+                                  double ox, double oy, double oz, double invX, double invY, double invZ,
+                                  double tMax) {
+        double tNear = Double.NEGATIVE_INFINITY, tFar = Double.POSITIVE_INFINITY;
+
+        // NaN (0 * infinity) comparisons are false, so a ray lying in a slab plane is not rejected
+        double t = (nearX - ox) * invX;
+        if (t > tNear) tNear = t;
+        t = (farX - ox) * invX;
+        if (t < tFar) tFar = t;
+
+        t = (nearY - oy) * invY;
+        if (t > tNear) tNear = t;
+        t = (farY - oy) * invY;
+        if (t < tFar) tFar = t;
+
+        t = (nearZ - oz) * invZ;
+        if (t > tNear) tNear = t;
+        t = (farZ - oz) * invZ;
+        if (t < tFar) tFar = t;
+
+        // A small tolerance keeps hits on flat boxes and box faces from being lost to rounding
+        double scale = Math.abs(tFar);
+        double eps = EPSILON * (1 + (scale < Double.POSITIVE_INFINITY ? scale : 0));
+        if (tNear > tFar + eps || tFar < -eps || tNear > tMax + eps)
+            return Double.POSITIVE_INFINITY;
+        return tNear;
+    }
+
+    /** Relative tolerance of the slab test */
+    static final double EPSILON = 1e-9;
+
+    @Override
+    public String toString() {
+        return "BoundingBox{" +
+                "min=(" + minX + "," + minY + "," + minZ + ")" +
+                ", max=(" + maxX + "," + maxY + "," + maxZ + ")" +
+                '}';
+    }
+}
@@ -0,0 +1,65 @@
+package geometries;
+
+/**
+ * Statistics of an acceleration structure build, for tuning and for reporting the scene startup time.
+ * @param nodes     the amount of nodes in the hierarchy (inner nodes and leaves)
+ * @param leaves    the amount of leaves in the hierarchy
+ * @param depth     the amount of levels in the hierarchy
+ * @param sahCost   the surface area heuristic cost of the hierarchy, relative to the cost of intersecting
+ *                  a primitive - the expected amount of primitive intersections per ray that hits the root
+ * @param memory    the size of the node arrays in bytes
+ * @param buildTime the wall time of the build in nanoseconds
+ */
+public record BuildStatistics(int nodes, int leaves, int depth, double sahCost, long memory, long buildTime) {
+
+    /**
+     * Collects the statistics of a hierarchy.
+     * @param root      the root of the hierarchy (null if it is empty)
+     * @param memory    the size of the node arrays in bytes
+     * @param buildTime the wall time of the build in nanoseconds
+     * @return the statistics
+     */
+    static BuildStatistics of(BVHNode root, long memory, long buildTime) {
+        if (root == null) {
+            return new BuildStatistics(0, 0, 0, 0, memory, buildTime);
+        }
+        int[] counts = new int[2];
+        double cost = cost(root, counts) / root.box.surfaceArea();
+        return new BuildStatistics(counts[0], counts[1], root.depth(), cost, memory, buildTime);
+    }
+
+    /**
+     * Collects the statistics of a flattened hierarchy.
+     * @param tree      the hierarchy (null if it is empty)
+     * @param buildTime the wall time of the build (or of the load) in nanoseconds
+     * @return the statistics
+     */
+    static BuildStatistics of(LinearBVH tree, long buildTime) {
+        if (tree == null) {
+            return new BuildStatistics(0, 0, 0, 0, 0, buildTime);
+        }
+        return new BuildStatistics(tree.size(), tree.leaves(), tree.depth, tree.cost(), tree.memory(), buildTime);
+    }
+
+    /**
+     * Sums the surface area heuristic cost of a sub-hierarchy and counts its nodes.
+     * @param node   the root of the sub-hierarchy
+     * @param counts the amounts of nodes and leaves, increased by the nodes of the sub-hierarchy
+     * @return the cost of the sub-hierarchy, not yet divided by the area of the root
+     */
+    private static double cost(BVHNode node, int[] counts) {
+        ++counts[0];
+        double area = node.box.surfaceArea();
+        if (node.isLeaf()) {
+            ++counts[1];
+            return area * node.count;
+        }
+        return area * BVH.TRAVERSAL_COST + cost(node.left, counts) + cost(node.right, counts);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d nodes, %d leaves, depth %d, SAH cost %.2f, %.1f KB, built in %.1f ms",
+                nodes, leaves, depth, sahCost, memory / 1024.0, buildTime / 1e6);
+    }
+}
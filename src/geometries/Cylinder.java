@@ -4,8 +4,6 @@ import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
 
-import java.util.List;
-
 import static primitives.Util.*;
 
 /**
@@ -55,8 +53,106 @@ public class Cylinder extends Tube {
         return super.getNormal(point);
     }
 
+    /**
+     * The box bounds the two base disks. A disk of radius r with unit normal v
+     * extends r * sqrt(1 - v_i^2) from its center along axis i.
+     */
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        Vector v = axisRay.getDir();
+        Point bottom = axisRay.getP0();
+        Point top = bottom.add(v.scale(height));
+        double ex = radius * Math.sqrt(Math.max(0, 1 - v.getX() * v.getX()));
+        double ey = radius * Math.sqrt(Math.max(0, 1 - v.getY() * v.getY()));
+        double ez = radius * Math.sqrt(Math.max(0, 1 - v.getZ() * v.getZ()));
+        return new BoundingBox(Math.min(bottom.getX(), top.getX()) - ex,
+                Math.min(bottom.getY(), top.getY()) - ey,
+                Math.min(bottom.getZ(), top.getZ()) - ez,
+                Math.max(bottom.getX(), top.getX()) + ex,
+                Math.max(bottom.getY(), top.getY()) + ey,
+                Math.max(bottom.getZ(), top.getZ()) + ez);
+    }
+
+    /**
+     * The intersections are the crossings of the side of the tube between the bases and the crossings of the planes
+     * of the bases within their disks - a crossing of the edge of a base is found on the base only.
+     * The terms that the side and the bases share, and the discriminant of the side, are calculated once,
+     * and a ray crosses the surface of the (convex) cylinder at most twice, so the two nearest candidates are kept.
+     */
     @Override
-    public List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
-        return null;
+    double intersect(Ray ray, double maxDistance, double[] farther) {
+        Point p0 = ray.getP0(), a = axisRay.getP0();
+        Vector d = ray.getDir(), v = axisRay.getDir();
+        double dx = d.getX(), dy = d.getY(), dz = d.getZ();
+        double vx = v.getX(), vy = v.getY(), vz = v.getZ();
+        double wx = p0.getX() - a.getX(), wy = p0.getY() - a.getY(), wz = p0.getZ() - a.getZ();
+        double dv = dx * vx + dy * vy + dz * vz;
+        double wv = wx * vx + wy * vy + wz * vz;
+
+        // The side, where the crossings of the tube are between the bases along the axis
+        double side1 = Double.POSITIVE_INFINITY, side2 = Double.POSITIVE_INFINITY;
+        double qa = alignZero(1 - dv * dv);
+        if (qa > 0) { // the ray is not parallel to the axis
+            double qb = dx * wx + dy * wy + dz * wz - dv * wv;
+            double qc = wx * wx + wy * wy + wz * wz - wv * wv - radius * radius;
+            double discriminant = alignZero(qb * qb - qa * qc);
+            if (discriminant > 0) { // the line crosses the tube
+                double root = Math.sqrt(discriminant);
+                side1 = between(within(alignZero((-qb - root) / qa), maxDistance), wv, dv);
+                side2 = between(within(alignZero((-qb + root) / qa), maxDistance), wv, dv);
+            }
+        }
+
+        // The bases, where the crossings of their planes are within their disks
+        double bottom = Double.POSITIVE_INFINITY, top = Double.POSITIVE_INFINITY;
+        if (!isZero(dv)) { // the ray is not parallel to the bases
+            bottom = within(base(0, wx, wy, wz, dx, dy, dz, vx, vy, vz, wv, dv), maxDistance);
+            top = within(base(height, wx, wy, wz, dx, dy, dz, vx, vy, vz, wv, dv), maxDistance);
+        }
+
+        // The nearest and the second nearest of the two sorted pairs
+        double nearSide = Math.min(side1, side2), farSide = Math.max(side1, side2);
+        double nearBase = Math.min(bottom, top), farBase = Math.max(bottom, top);
+        if (farther != null) {
+            farther[0] = Math.min(Math.max(nearSide, nearBase), Math.min(farSide, farBase));
+        }
+        return Math.min(nearSide, nearBase);
+    }
+
+    /**
+     * Keeps a crossing of the side of the tube if it is between the bases along the axis
+     * @param t  the distance of the crossing along the ray, positive infinity if there is none
+     * @param wv the projection on the axis of the vector from the head of the axis to the head of the ray
+     * @param dv the projection of the direction of the ray on the axis
+     * @return the distance if the crossing is strictly between the bases, positive infinity otherwise
+     */
+    private double between(double t, double wv, double dv) {
+        double axial = wv + t * dv;
+        return alignZero(axial) > 0 && alignZero(axial - height) < 0 ? t : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Calculates the crossing of the plane of a base, if it is within the disk of the base
+     * @param base the height of the base along the axis (0 for the bottom)
+     * @param wx   the x component of the vector from the head of the axis to the head of the ray
+     * @param wy   the y component of the vector from the head of the axis to the head of the ray
+     * @param wz   the z component of the vector from the head of the axis to the head of the ray
+     * @param dx   the x component of the direction of the ray
+     * @param dy   the y component of the direction of the ray
+     * @param dz   the z component of the direction of the ray
+     * @param vx   the x component of the direction of the axis
+     * @param vy   the y component of the direction of the axis
+     * @param vz   the z component of the direction of the axis
+     * @param wv   the projection of w on the axis
+     * @param dv   the projection of the direction of the ray on the axis (not zero)
+     * @return the distance of the crossing along the ray, or NaN if it is outside the disk
+     */
+    private double base(double base, double wx, double wy, double wz, double dx, double dy, double dz,
+                        double vx, double vy, double vz, double wv, double dv) {
+        double t = alignZero((base - wv) / dv);
+        double qx = wx + t * dx - base * vx;
+        double qy = wy + t * dy - base * vy;
+        double qz = wz + t * dz - base * vz;
+        return alignZero(qx * qx + qy * qy + qz * qz - radius * radius) <= 0 ? t : Double.NaN;
     }
-}
\ No newline at end of file
+}
@@ -1,9 +1,14 @@
 package geometries;
-import primitives.Point;
+import primitives.Double3;
+import primitives.Material;
 import primitives.Ray;
+import primitives.RayBatch;
+import java.nio.file.Path;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 /**
  * A class for a collection of geometric shapes
@@ -15,6 +20,24 @@ public class Geometries extends Intersectable {
      */
     private List<Intersectable> intersectables;
 
+    /**
+     * The acceleration structure built over the shapes,
+     * null while the shapes are scanned one by one.
+     */
+    private Intersectable accelerator = null;
+
+    /**
+     * Builds the acceleration structure over the shapes again (used when the shapes move),
+     * null while the shapes are scanned one by one.
+     */
+    private Function<List<Intersectable>, Intersectable> builder = null;
+
+    /**
+     * A refitted hierarchy is built again once its surface area heuristic cost grows by this factor
+     * over the cost of its build.
+     */
+    static final double REBUILD_THRESHOLD = 1.5;
+
     /**
      * Constructs a new, empty Geometries shape.
      */
@@ -34,14 +57,186 @@ public class Geometries extends Intersectable {
 
     /**
      * Adds one or more Intersectable shapes to the list of geometries.
+     * Adding shapes drops the acceleration structure (it has to be built again) and the bounding box.
      * @param geometries
      */
     public void add(Intersectable... geometries) {
         Collections.addAll(intersectables, geometries);
+        accelerator = null;
+        builder = null;
+        resetBoundingBox();
+    }
+
+    /**
+     * Builds a bounding volume hierarchy over all the shapes, including the shapes of nested collections.
+     * From now on rays are intersected through the hierarchy instead of scanning every shape.
+     * @return this (Builder design pattern)
+     */
+    public Geometries buildBVH() {
+        return buildBVH(BVH.Quality.HIGH);
+    }
+
+    /**
+     * Builds a bounding volume hierarchy over all the shapes, including the shapes of nested collections.
+     * From now on rays are intersected through the hierarchy instead of scanning every shape.
+     * @param quality the build method - a faster traversal or a faster build
+     * @return this (Builder design pattern)
+     */
+    public Geometries buildBVH(BVH.Quality quality) {
+        return build(shapes -> new BVH(shapes, quality));
+    }
+
+    /**
+     * Loads a bounding volume hierarchy over all the shapes from a cache directory, or builds it
+     * and stores it there, so the next start of the program with the same shapes skips the build.
+     * A hierarchy built again by {@link #refit()} is not cached - moving shapes would store a new one every frame.
+     * @param quality the build method - a faster traversal or a faster build
+     * @param cache   the directory of the cache
+     * @return this (Builder design pattern)
+     * @throws IllegalStateException if the cache cannot be read
+     *                               (a hierarchy that cannot be stored is not cached)
+     */
+    public Geometries buildBVH(BVH.Quality quality, Path cache) {
+        resetBoundingBox();
+        accelerator = new BVH(flatten(), quality, cache);
+        builder = shapes -> new BVH(shapes, quality);
+        return this;
+    }
+
+    /**
+     * Builds a wide bounding volume hierarchy over all the shapes, including the shapes of nested collections.
+     * The nodes of a wide hierarchy have 4 or 8 children with compressed boxes, which saves memory bandwidth
+     * on big meshes.
+     * @param width the amount of children per node (4 or 8)
+     * @return this (Builder design pattern)
+     * @throws IllegalArgumentException if the width is not 4 or 8
+     */
+    public Geometries buildWideBVH(int width) {
+        return build(shapes -> new WideBVH(shapes, width));
+    }
+
+    /**
+     * Builds a uniform grid over all the shapes, including the shapes of nested collections.
+     * A grid suits dense scenes of many similar-sized shapes spread evenly through a volume.
+     * From now on rays are intersected through the grid instead of scanning every shape.
+     * @return this (Builder design pattern)
+     */
+    public Geometries buildGrid() {
+        return build(UniformGrid::new);
+    }
+
+    /**
+     * Builds an acceleration structure over all the shapes, including the shapes of nested collections.
+     * The bounding box is calculated again as well, the shapes may have moved since it was calculated.
+     * @param builder builds the acceleration structure over a list of shapes
+     * @return this (Builder design pattern)
+     */
+    private Geometries build(Function<List<Intersectable>, Intersectable> builder) {
+        resetBoundingBox();
+        accelerator = builder.apply(flatten());
+        this.builder = builder;
+        return this;
+    }
+
+    /**
+     * Updates the acceleration structure after the shapes moved (e.g. between the frames of an animation).
+     * A bounding volume hierarchy is refitted - the boxes of its nodes are recalculated and its structure is kept,
+     * which is much faster than a build. Once the quality of the refitted hierarchy degrades too much
+     * (its surface area heuristic cost grows by {@link #REBUILD_THRESHOLD} over the cost of its build),
+     * it is built again. Other acceleration structures are always built again.
+     * @return this (Builder design pattern)
+     */
+    public Geometries refit() {
+        resetBoundingBox();
+        if (accelerator instanceof BVH bvh) {
+            double cost = bvh.refit();
+            if (cost <= bvh.getStatistics().sahCost() * REBUILD_THRESHOLD)
+                return this;
+        }
+        if (builder != null)
+            accelerator = builder.apply(flatten());
+        return this;
+    }
+
+    /**
+     * @return the statistics of the acceleration structure build, or null if there is no acceleration structure
+     */
+    public BuildStatistics getBuildStatistics() {
+        if (accelerator instanceof WideBVH wide)
+            return wide.getStatistics();
+        return accelerator instanceof BVH bvh ? bvh.getStatistics() : null;
+    }
+
+    /**
+     * Compiles the collection for rendering: the acceleration structure if one was built,
+     * otherwise a bounding volume hierarchy over the shapes of this collection and of all the nested collections.
+     * Shapes added to the collection afterwards do not change the result.
+     * @return the shapes to intersect the rays with
+     */
+    public Intersectable compile() {
+        return accelerator != null ? accelerator : new BVH(flatten());
+    }
+
+    /**
+     * Checks the materials of the shapes, including the shapes of nested collections and of instances.
+     * A shape whose material is unknown counts as matching.
+     * @param predicate the condition on a material
+     * @return true if the material of any shape matches the condition, false otherwise
+     */
+    public boolean anyMaterial(Predicate<Material> predicate) {
+        for (Intersectable item : intersectables)
+            if (anyMaterial(item, predicate))
+                return true;
+        return false;
+    }
+
+    /**
+     * @param item      a shape
+     * @param predicate the condition on a material
+     * @return true if the material of the shape, or of any shape it consists of, matches the condition
+     */
+    private static boolean anyMaterial(Intersectable item, Predicate<Material> predicate) {
+        if (item instanceof Geometry geometry)
+            return predicate.test(geometry.getMaterial());
+        if (item instanceof Geometries geometries)
+            return geometries.anyMaterial(predicate);
+        if (item instanceof Instance instance)
+            return anyMaterial(instance.getShape(), predicate);
+        return true;
+    }
+
+    /**
+     * Collects the shapes of this collection and of all the nested collections.
+     * @return the list of the shapes that are not collections
+     */
+    List<Intersectable> flatten() {
+        List<Intersectable> result = new LinkedList<>();
+        for (Intersectable item : intersectables) {
+            if (item instanceof Geometries geometries)
+                result.addAll(geometries.flatten());
+            else
+                result.add(item);
+        }
+        return result;
+    }
+
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        BoundingBox result = null;
+        for (Intersectable item : intersectables) {
+            BoundingBox box = item.getBoundingBox();
+            if (box == null)
+                return null;
+            result = result == null ? box : result.union(box);
+        }
+        return result;
     }
 
     @Override
     public List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+        if (accelerator != null)
+            return accelerator.findGeoIntersections(ray, maxDistance);
+
         List<GeoPoint> result = null;
         for (Intersectable item : intersectables) {
             List<GeoPoint> listItem = item.findGeoIntersections(ray, maxDistance);
@@ -53,4 +248,50 @@ public class Geometries extends Intersectable {
         }
         return result;
     }
+
+    @Override
+    public void findClosestGeoIntersections(Ray[] rays, GeoPoint[] closest) {
+        if (accelerator != null)
+            accelerator.findClosestGeoIntersections(rays, closest);
+        else
+            super.findClosestGeoIntersections(rays, closest);
+    }
+
+    @Override
+    public void findClosest(RayBatch batch) {
+        if (accelerator != null)
+            accelerator.findClosest(batch);
+        else
+            super.findClosest(batch);
+    }
+
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, double maxDistance, HitRecord hit) {
+        if (accelerator != null)
+            return accelerator.findClosestHit(ray, maxDistance, hit);
+
+        boolean found = false;
+        for (Intersectable item : intersectables) {
+            // Every shape is searched only up to the closest intersection found so far
+            if (item.findClosestHit(ray, maxDistance, hit)) {
+                found = true;
+                maxDistance = hit.t;
+            }
+        }
+        return found;
+    }
+
+    @Override
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance, Double3 ktr, double minK) {
+        if (accelerator != null)
+            return accelerator.findTransparency(ray, maxDistance, ktr, minK);
+
+        for (Intersectable item : intersectables) {
+            ktr = item.findTransparency(ray, maxDistance, ktr, minK);
+            // No need to look further once the ray is blocked
+            if (ktr.lowerThan(minK))
+                return Double3.ZERO;
+        }
+        return ktr;
+    }
 }
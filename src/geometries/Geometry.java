@@ -1,8 +1,10 @@
 package geometries;
 
 import primitives.Color;
+import primitives.Double3;
 import primitives.Material;
 import primitives.Point;
+import primitives.Ray;
 import primitives.Vector;
 
 /**
@@ -63,5 +65,16 @@ public abstract class Geometry extends Intersectable {
      * @return the normal vector of the point
      */
     public abstract Vector getNormal(Point point);
-}
 
+    /**
+     * A shape that blocks the light by a single intersection only has to be hit,
+     * so the search stops at the nearest intersection.
+     */
+    @Override
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance, Double3 ktr, double minK) {
+        if (!material.kT.productLowerThan(ktr, minK)) {
+            return super.findTransparencyHelper(ray, maxDistance, ktr, minK);
+        }
+        return findGeoIntersectionsHelper(ray, maxDistance) == null ? ktr : Double3.ZERO;
+    }
+}
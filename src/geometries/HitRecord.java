@@ -0,0 +1,179 @@
+package geometries;
+
+import geometries.Intersectable.GeoPoint;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import static primitives.Util.isZero;
+
+/**
+ * A mutable record of the closest intersection of a ray, for the hot paths of the renderer.
+ * The same record is passed down the whole search (see {@link Intersectable#findClosestHit(Ray, double, HitRecord)})
+ * and every shape writes its intersection into it only if it is closer than the one recorded so far,
+ * so the search creates no objects - a {@link GeoPoint} is created only for the final intersection.
+ * A record is reused from ray to ray (e.g. one for every rendering thread), it is cleared before every search.
+ */
+public final class HitRecord {
+
+    /** The intersected geometry, null if nothing was hit */
+    public Geometry geometry;
+
+    /** The distance of the intersection from the head of the ray */
+    public double t;
+
+    /** The coordinates of the intersection point */
+    public double x, y, z;
+
+    /**
+     * The barycentric coordinates of the intersection relative to the second and the third vertices
+     * of an intersected triangle, NaN for the other shapes
+     */
+    public double u, v;
+
+    /** The normal at the intersection, calculated on first use */
+    private Vector normal;
+
+    /** Scratch for the barycentric coordinates of a triangle, until it is known to be the closest */
+    final double[] barycentric = new double[2];
+
+    /**
+     * Constructs an empty record.
+     */
+    public HitRecord() {
+        clear();
+    }
+
+    /**
+     * Empties the record before a new search.
+     * @return this
+     */
+    public HitRecord clear() {
+        geometry = null;
+        t = Double.POSITIVE_INFINITY;
+        u = v = Double.NaN;
+        normal = null;
+        return this;
+    }
+
+    /**
+     * @return whether an intersection was recorded
+     */
+    public boolean isHit() {
+        return geometry != null;
+    }
+
+    /**
+     * Records an intersection at a distance along a ray, if it is the first one or closer than the recorded one.
+     * The point is calculated like {@link Ray#getPoint(double)}, and the distance is the distance along the ray
+     * as is - the directions of the rays are normalized, so it is the distance of the point from the head of the ray.
+     * @param geometry the intersected geometry
+     * @param ox       the x coordinate of the head of the ray
+     * @param oy       the y coordinate of the head of the ray
+     * @param oz       the z coordinate of the head of the ray
+     * @param dx       the x component of the direction of the ray
+     * @param dy       the y component of the direction of the ray
+     * @param dz       the z component of the direction of the ray
+     * @param t        the distance of the intersection along the ray
+     * @return whether the intersection was recorded
+     */
+    boolean record(Geometry geometry, double ox, double oy, double oz, double dx, double dy, double dz, double t) {
+        // A farther candidate (most of them) is rejected before its point is calculated
+        if (this.geometry != null && t >= this.t) {
+            return false;
+        }
+        this.geometry = geometry;
+        this.t = t;
+        x = ox;
+        y = oy;
+        z = oz;
+        if (!isZero(t)) {
+            x += dx * t;
+            y += dy * t;
+            z += dz * t;
+        }
+        u = v = Double.NaN;
+        normal = null;
+        return true;
+    }
+
+    /**
+     * Records an intersection at a distance along a ray, if it is the first one or closer than the recorded one.
+     * @param geometry the intersected geometry
+     * @param ray      the ray
+     * @param t        the distance of the intersection along the ray
+     * @return whether the intersection was recorded
+     */
+    boolean record(Geometry geometry, Ray ray, double t) {
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        return record(geometry, p0.getX(), p0.getY(), p0.getZ(), dir.getX(), dir.getY(), dir.getZ(), t);
+    }
+
+    /**
+     * Records an intersection point, if it is the first one or closer to the head of the ray than the recorded one.
+     * @param gp the intersection, keeping its distance along the ray
+     * @return whether the intersection was recorded
+     */
+    boolean record(GeoPoint gp) {
+        if (geometry != null && gp.t >= t) {
+            return false;
+        }
+        geometry = gp.geometry;
+        t = gp.t;
+        x = gp.point.getX();
+        y = gp.point.getY();
+        z = gp.point.getZ();
+        u = v = Double.NaN;
+        normal = null;
+        return true;
+    }
+
+    /**
+     * Replaces the recorded intersection by the same intersection in another coordinate system
+     * (e.g. an intersection with a shared shape, placed in the scene by an {@link Instance}).
+     * The barycentric coordinates are kept - an affine transform does not change them.
+     * @param geometry the intersected geometry in the other coordinate system
+     * @param point    the intersection point in the other coordinate system
+     * @param t        the distance of the intersection along the ray in the other coordinate system
+     */
+    void place(Geometry geometry, Point point, double t) {
+        this.geometry = geometry;
+        this.t = t;
+        x = point.getX();
+        y = point.getY();
+        z = point.getZ();
+        normal = null;
+    }
+
+    /**
+     * Keeps the barycentric coordinates of the recorded triangle from the scratch.
+     */
+    void keepBarycentric() {
+        u = barycentric[0];
+        v = barycentric[1];
+    }
+
+    /**
+     * @return a new point at the recorded intersection
+     */
+    public Point point() {
+        return new Point(x, y, z);
+    }
+
+    /**
+     * @return the normal of the geometry at the recorded intersection
+     */
+    public Vector normal() {
+        if (normal == null)
+            normal = geometry.getNormal(point());
+        return normal;
+    }
+
+    /**
+     * @return the recorded intersection as a geometric point, or null if nothing was hit
+     */
+    public GeoPoint toGeoPoint() {
+        return geometry == null ? null : new GeoPoint(geometry, point(), t, normal);
+    }
+}
@@ -0,0 +1,202 @@
+package geometries;
+
+import primitives.Color;
+import primitives.Double3;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Transform;
+import primitives.Vector;
+
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Instance class represents a copy of a shared shape (e.g. a mesh that repeats many times in a scene)
+ * placed in the scene by an affine transform.
+ * The shape is kept once, in its own coordinate system and with its own acceleration structure,
+ * and every instance only keeps the transform - the memory grows with the unique shapes, not with the copies.
+ * Rays are transformed into the coordinate system of the shape, and the intersections back into the scene.
+ * Instances are collected into a {@link Geometries} with its own acceleration structure over them,
+ * which makes a two-level structure.
+ */
+public class Instance extends Intersectable {
+
+    /** The shared shape, in its own coordinate system */
+    private final Intersectable shape;
+
+    /** The transform from the coordinate system of the shape into the scene */
+    private Transform transform;
+
+    /** The transform from the scene into the coordinate system of the shape */
+    private Transform inverse;
+
+    /**
+     * A shape of the shared shape as seen in the scene - transforms its normals and shares its material.
+     */
+    private final class Placed extends Geometry {
+
+        /** The shape in the coordinate system of the shared shape */
+        private final Geometry geometry;
+
+        /**
+         * Constructs a placed shape.
+         * @param geometry the shape in the coordinate system of the shared shape
+         */
+        private Placed(Geometry geometry) {
+            this.geometry = geometry;
+        }
+
+        @Override
+        public Vector getNormal(Point point) {
+            return transform.applyToNormal(geometry.getNormal(inverse.apply(point)));
+        }
+
+        @Override
+        public Material getMaterial() {
+            return geometry.getMaterial();
+        }
+
+        @Override
+        public Color getEmission() {
+            return geometry.getEmission();
+        }
+
+        @Override
+        protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+            Vector v = inverse.applyToVector(ray.getDir());
+            double length = v.length();
+            List<GeoPoint> intersections = geometry.findGeoIntersections(toShape(ray, v), maxDistance * length);
+            return intersections == null ? null : intersections.stream()
+                    .map(gp -> new GeoPoint(this, transform.apply(gp.point), gp.t / length)).toList();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            return o instanceof Placed placed && instance() == placed.instance() && geometry == placed.geometry;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(geometry) * 31 + System.identityHashCode(instance());
+        }
+
+        /**
+         * @return the instance of the shape
+         */
+        private Instance instance() {
+            return Instance.this;
+        }
+    }
+
+    /**
+     * Constructs an instance of a shared shape.
+     * @param shape     the shared shape, in its own coordinate system
+     * @param transform the transform from the coordinate system of the shape into the scene
+     */
+    public Instance(Intersectable shape, Transform transform) {
+        this.shape = shape;
+        setTransform(transform);
+    }
+
+    /**
+     * Moves the instance (e.g. between the frames of an animation).
+     * A collection with an acceleration structure over the instance has to be refitted afterwards
+     * (see {@link Geometries#refit()}).
+     * @param transform the transform from the coordinate system of the shape into the scene
+     * @return this (Builder design pattern)
+     */
+    public Instance setTransform(Transform transform) {
+        this.transform = transform;
+        this.inverse = transform.inverse();
+        resetBoundingBox();
+        return this;
+    }
+
+    /**
+     * @return the shared shape, in its own coordinate system
+     */
+    Intersectable getShape() {
+        return shape;
+    }
+
+    /**
+     * The box of the shape is transformed by its 8 corners.
+     * An instance of an unbounded shape is unbounded.
+     */
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        BoundingBox box = shape.getBoundingBox();
+        if (box == null || !box.isFinite()) {
+            return null;
+        }
+        Point[] corners = new Point[8];
+        for (int c = 0; c < 8; ++c) {
+            corners[c] = transform.apply(new Point((c & 1) == 0 ? box.minX : box.maxX,
+                    (c & 2) == 0 ? box.minY : box.maxY, (c & 4) == 0 ? box.minZ : box.maxZ));
+        }
+        return new BoundingBox(corners);
+    }
+
+    /**
+     * Transforms a ray into the coordinate system of the shape.
+     * The direction of the ray is normalized, so the distances along the ray are multiplied
+     * by the length of the transformed direction - an affine transform scales all of them by the same factor.
+     * @param ray the ray in the scene
+     * @param v   the direction of the ray, transformed into the coordinate system of the shape
+     * @return the ray in the coordinate system of the shape
+     */
+    private Ray toShape(Ray ray, Vector v) {
+        return new Ray(inverse.apply(ray.getP0()), v);
+    }
+
+    /**
+     * Transforms an intersection from the coordinate system of the shape into the scene.
+     * @param gp     the intersection in the coordinate system of the shape
+     * @param length the length of the direction of the scene ray in the coordinate system of the shape
+     * @return the intersection in the scene
+     */
+    private GeoPoint toScene(GeoPoint gp, double length) {
+        return new GeoPoint(new Placed(gp.geometry), transform.apply(gp.point), gp.t / length);
+    }
+
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+        Vector v = inverse.applyToVector(ray.getDir());
+        double length = v.length();
+        List<GeoPoint> intersections = shape.findGeoIntersections(toShape(ray, v), maxDistance * length);
+        if (intersections == null) {
+            return null;
+        }
+        List<GeoPoint> result = new LinkedList<>();
+        for (GeoPoint gp : intersections)
+            result.add(toScene(gp, length));
+        return result;
+    }
+
+    /**
+     * The shape is searched with the same record, its distance scaled into the coordinate system of the shape,
+     * so the shapes of the shape record only the intersections that are closer than the recorded one.
+     * An intersection of the shape is transformed into the scene (with its placed shape) only once it is recorded.
+     */
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, double maxDistance, HitRecord hit) {
+        Vector v = inverse.applyToVector(ray.getDir());
+        double length = v.length();
+        double t = hit.t;
+        hit.t = t * length;
+        if (!shape.findClosestHit(toShape(ray, v), maxDistance * length, hit)) {
+            hit.t = t;
+            return false;
+        }
+        hit.place(new Placed(hit.geometry), transform.apply(hit.point()), hit.t / length);
+        return true;
+    }
+
+    @Override
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance, Double3 ktr, double minK) {
+        Vector v = inverse.applyToVector(ray.getDir());
+        return shape.findTransparency(toShape(ray, v), maxDistance * v.length(), ktr, minK);
+    }
+}
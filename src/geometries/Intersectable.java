@@ -1,6 +1,9 @@
 package geometries;
+import primitives.Double3;
 import primitives.Point;
 import primitives.Ray;
+import primitives.RayBatch;
+import primitives.Vector;
 import java.util.List;
 import java.util.Objects;
 
@@ -11,6 +14,8 @@ public abstract class Intersectable {
 
     /**
      * Represents a geometric point associated with a specific geometry.
+     * An intersection point also keeps its distance along the ray, and the normal of the geometry at the point
+     * once it is calculated, so the renderer calculates it only once for every point it shades.
      */
     public static class GeoPoint {
 
@@ -25,13 +30,56 @@ public abstract class Intersectable {
         public Point point;
 
         /**
-         * Constructs a new GeoPoint object with the specified geometry and point.
+         * The distance of the point along the intersecting ray, NaN if it is not known.
+         */
+        public double t;
+
+        /**
+         * The normal of the geometry at the point, calculated on first use.
+         */
+        private Vector normal;
+
+        /**
+         * Constructs a new GeoPoint object with the specified geometry and point, with an unknown distance.
          * @param geometry the geometry associated with the point
          * @param point    the geometric point
          */
         public GeoPoint(Geometry geometry, Point point) {
+            this(geometry, point, Double.NaN);
+        }
+
+        /**
+         * Constructs a new GeoPoint object of an intersection with the specified geometry.
+         * @param geometry the geometry associated with the point
+         * @param point    the geometric point
+         * @param t        the distance of the point along the intersecting ray
+         */
+        public GeoPoint(Geometry geometry, Point point, double t) {
             this.geometry = geometry;
             this.point = point;
+            this.t = t;
+        }
+
+        /**
+         * Constructs a new GeoPoint object of an intersection with the specified geometry and its normal.
+         * @param geometry the geometry associated with the point
+         * @param point    the geometric point
+         * @param t        the distance of the point along the intersecting ray
+         * @param normal   the normal of the geometry at the point
+         */
+        public GeoPoint(Geometry geometry, Point point, double t, Vector normal) {
+            this(geometry, point, t);
+            this.normal = normal;
+        }
+
+        /**
+         * Returns the normal of the geometry at the point, it is calculated on the first call only.
+         * @return the normal of the geometry at the point
+         */
+        public Vector getNormal() {
+            if (normal == null)
+                normal = geometry.getNormal(point);
+            return normal;
         }
 
         @Override
@@ -56,6 +104,46 @@ public abstract class Intersectable {
         }
     }
 
+    /**
+     * The bounding box of the object, computed on first use.
+     */
+    private BoundingBox boundingBox = null;
+
+    /**
+     * Whether the bounding box has been computed.
+     */
+    private boolean boundingBoxReady = false;
+
+    /**
+     * Returns the axis-aligned bounding box of the object.
+     * The box may have infinite coordinates on some of the axes (e.g. an axis-aligned plane).
+     * @return the bounding box, or null if the object is unbounded on every axis
+     */
+    public final BoundingBox getBoundingBox() {
+        if (!boundingBoxReady) {
+            boundingBox = calcBoundingBox();
+            boundingBoxReady = true;
+        }
+        return boundingBox;
+    }
+
+    /**
+     * Calculates the axis-aligned bounding box of the object.
+     * This method is meant to be implemented by bounded subclasses.
+     * @return the bounding box, or null if the object is unbounded on every axis
+     */
+    protected BoundingBox calcBoundingBox() {
+        return null;
+    }
+
+    /**
+     * Drops the computed bounding box, it will be calculated again on next use.
+     * Called by objects whose shape changes.
+     */
+    protected void resetBoundingBox() {
+        boundingBoxReady = false;
+    }
+
     /**
      * Finds the intersections between a ray and the geometry objects.
      * @param ray The ray to find intersections with.
@@ -78,17 +166,158 @@ public abstract class Intersectable {
 
     /**
      * Finds the intersections between a ray and the geometry objects within a maximum distance.
+     * Rays that miss the bounding box of the object are rejected before the intersection is calculated.
      * @param ray         The ray to find intersections with.
      * @param maxDistance The maximum distance to consider for intersections.
      * @return A list of geometric intersection points.
      */
     public final List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance) {
+        BoundingBox box = getBoundingBox();
+        if (box != null && !box.intersects(ray, maxDistance)) {
+            return null;
+        }
         return findGeoIntersectionsHelper(ray, maxDistance);
     }
 
+    /**
+     * Finds the closest intersection between a ray and the geometry objects.
+     * The maximum distance is considered as positive infinity.
+     * @param ray The ray to find the intersection with.
+     * @return The closest geometric intersection point, or null if there is none.
+     */
+    public final GeoPoint findClosestGeoIntersection(Ray ray) {
+        return findClosestGeoIntersection(ray, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Finds the closest intersection between a ray and the geometry objects within a maximum distance.
+     * The intersection is searched like {@link #findClosestHit(Ray, double, HitRecord)} does,
+     * and a geometric point is created for the closest intersection only.
+     * @param ray         The ray to find the intersection with.
+     * @param maxDistance The maximum distance to consider for the intersection.
+     * @return The closest geometric intersection point, or null if there is none.
+     */
+    public final GeoPoint findClosestGeoIntersection(Ray ray, double maxDistance) {
+        HitRecord hit = new HitRecord();
+        return findClosestHit(ray, maxDistance, hit) ? hit.toGeoPoint() : null;
+    }
+
+    /**
+     * Finds the closest intersection between a ray and the geometry objects within a maximum distance,
+     * and writes it into a record if it is the first one or closer than the recorded one.
+     * This is the search of all the closest intersection queries - of a single ray, of a packet and of a batch.
+     * No objects are created for the intersections.
+     * Rays that miss the bounding box of the object are rejected before the intersection is calculated.
+     * @param ray         The ray to find the intersection with.
+     * @param maxDistance The maximum distance to consider for the intersection.
+     * @param hit         The record of the closest intersection found so far (empty at the start of a search).
+     * @return Whether an intersection was written into the record.
+     */
+    public final boolean findClosestHit(Ray ray, double maxDistance, HitRecord hit) {
+        BoundingBox box = getBoundingBox();
+        if (box != null && !box.intersects(ray, maxDistance)) {
+            return false;
+        }
+        return findClosestHitHelper(ray, maxDistance, hit);
+    }
+
+    /**
+     * Finds the closest intersections of a packet of rays (e.g. the coherent primary rays of neighbouring pixels).
+     * The default implementation finds the closest intersection of every ray by itself,
+     * acceleration structures may trace the rays of a packet together.
+     * @param rays    The rays to find the intersections with.
+     * @param closest Filled with the closest geometric intersection point of every ray, or null if there is none.
+     */
+    public void findClosestGeoIntersections(Ray[] rays, GeoPoint[] closest) {
+        for (int k = 0; k < rays.length; ++k)
+            closest[k] = findClosestGeoIntersection(rays[k]);
+    }
+
+    /**
+     * Finds the closest intersections of a batch of rays, between the start and the end of every ray.
+     * The geometry of the closest hit of every ray that hits the object is recorded in the batch,
+     * and the end of the ray is moved to the hit (see {@link RayBatch#hit(int, Geometry, double)}).
+     * The default implementation creates a ray object for every ray of the batch, and searches it with one record,
+     * acceleration structures may trace the rays straight from the arrays of the batch.
+     * @param batch The rays to find the intersections with.
+     */
+    public void findClosest(RayBatch batch) {
+        HitRecord hit = new HitRecord();
+        for (int k = 0; k < batch.size(); ++k) {
+            if (findClosestHit(batch.ray(k), batch.tMax[k] - batch.tMin[k], hit.clear()))
+                batch.hit(k, hit.geometry, batch.tMin[k] + hit.t);
+        }
+    }
+
+    /**
+     * Finds the closest intersection between a ray and the geometry objects within a maximum distance,
+     * and writes it into a record if it is the first one or closer than the recorded one.
+     * Collections pass the distance of the closest intersection found so far as the maximum distance,
+     * so farther objects are rejected without calculating their intersections.
+     * The default implementation records the closest of all the intersections of the object,
+     * shapes and collections on the hot paths write into the record without creating objects.
+     * @param ray         The ray to find the intersection with.
+     * @param maxDistance The maximum distance to consider for the intersection.
+     * @param hit         The record of the closest intersection found so far.
+     * @return Whether an intersection was written into the record.
+     */
+    protected boolean findClosestHitHelper(Ray ray, double maxDistance, HitRecord hit) {
+        List<GeoPoint> intersections = findGeoIntersectionsHelper(ray, maxDistance);
+        if (intersections == null) {
+            return false;
+        }
+        boolean found = false;
+        for (GeoPoint gp : intersections)
+            found |= hit.record(gp);
+        return found;
+    }
+
+    /**
+     * Finds how much light passes along a ray up to a maximum distance (e.g. from a point towards a light source).
+     * The transparency coefficients of the intersected shapes are multiplied, and the search stops
+     * at the first blocker that brings the product below the minimum coefficient.
+     * Rays that miss the bounding box of the object are rejected before the intersections are calculated.
+     * @param ray         The ray to follow.
+     * @param maxDistance The maximum distance to consider for intersections.
+     * @param ktr         The transparency coefficient accumulated so far.
+     * @param minK        The minimum coefficient, below which the ray is considered blocked.
+     * @return The accumulated transparency coefficient, or Double3.ZERO if the ray is blocked.
+     */
+    public final Double3 findTransparency(Ray ray, double maxDistance, Double3 ktr, double minK) {
+        BoundingBox box = getBoundingBox();
+        if (box != null && !box.intersects(ray, maxDistance)) {
+            return ktr;
+        }
+        return findTransparencyHelper(ray, maxDistance, ktr, minK);
+    }
+
+    /**
+     * Finds how much light passes along a ray up to a maximum distance.
+     * The default implementation multiplies the coefficients of all the intersections, subclasses may do better.
+     * @param ray         The ray to follow.
+     * @param maxDistance The maximum distance to consider for intersections.
+     * @param ktr         The transparency coefficient accumulated so far.
+     * @param minK        The minimum coefficient, below which the ray is considered blocked.
+     * @return The accumulated transparency coefficient, or Double3.ZERO if the ray is blocked.
+     */
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance, Double3 ktr, double minK) {
+        List<GeoPoint> intersections = findGeoIntersectionsHelper(ray, maxDistance);
+        if (intersections == null) {
+            return ktr;
+        }
+        for (GeoPoint gp : intersections) {
+            ktr = gp.geometry.getMaterial().kT.product(ktr);
+            if (ktr.lowerThan(minK)) {
+                return Double3.ZERO;
+            }
+        }
+        return ktr;
+    }
+
     /**
      * Finds the intersections between a ray and the geometry objects within a maximum distance.
      * This method is meant to be implemented by subclasses.
+     * The intersections keep their distance along the ray, the collections compare the intersections by it.
      * @param ray         The ray to find intersections with.
      * @param maxDistance The maximum distance to consider for intersections.
      * @return A list of geometric intersection points.
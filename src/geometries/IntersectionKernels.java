@@ -0,0 +1,101 @@
+package geometries;
+
+/**
+ * Kernels that intersect one ray with many shapes of the same kind in one call -
+ * the spheres or the triangles of a range of {@link ShapeArrays}, or the quantized boxes of the children
+ * of a {@link WideBVH} node. The kernels find the same distances as the shapes do one by one.
+ * <p>
+ * The kernels are SIMD code over the Java Vector API when it is available. The Vector API is an incubator module,
+ * so its kernels ({@value #VECTOR_KERNELS}) are kept in the optional source folder {@code simd}, which is compiled
+ * with {@code --add-modules jdk.incubator.vector}. They are used when that folder is on the class path
+ * and the JVM runs with {@code --add-modules jdk.incubator.vector}, otherwise (or when the system property
+ * {@value #SCALAR_PROPERTY} is true) the {@link ScalarKernels} are used.
+ */
+interface IntersectionKernels {
+
+    /** The class of the SIMD kernels */
+    String VECTOR_KERNELS = "geometries.VectorKernels";
+
+    /** The system property that forces the scalar kernels */
+    String SCALAR_PROPERTY = "geometries.scalarKernels";
+
+    /**
+     * Loads the SIMD kernels if they are available, otherwise the scalar kernels.
+     * @return the kernels
+     */
+    static IntersectionKernels load() {
+        if (!Boolean.getBoolean(SCALAR_PROPERTY)) {
+            try {
+                return (IntersectionKernels) Class.forName(VECTOR_KERNELS).getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // the SIMD kernels are not on the class path, or the incubator module is not resolved
+            }
+        }
+        return new ScalarKernels();
+    }
+
+    /**
+     * @return the amount of unused slots the kernels may read past the last shape of {@link ShapeArrays},
+     * and write past the last distance of a range
+     */
+    int padding();
+
+    /**
+     * Intersects a ray with a range of spheres, like {@link Sphere} finds its closest intersection.
+     * @param shapes      the shapes
+     * @param from        the first sphere of the range
+     * @param to          the end of the range (exclusive)
+     * @param ox          the x coordinate of the ray origin
+     * @param oy          the y coordinate of the ray origin
+     * @param oz          the z coordinate of the ray origin
+     * @param dx          the x component of the (unit) ray direction
+     * @param dy          the y component of the (unit) ray direction
+     * @param dz          the z component of the (unit) ray direction
+     * @param maxDistance the maximum distance along the ray
+     * @param t           filled from index 0 with the distance of the closest intersection with every sphere,
+     *                    or positive infinity if there is none; it must have room for {@link #padding()} more values
+     */
+    void spheres(ShapeArrays shapes, int from, int to, double ox, double oy, double oz,
+                 double dx, double dy, double dz, double maxDistance, double[] t);
+
+    /**
+     * Intersects a ray with a range of triangles, like {@link Triangle} does.
+     * @param shapes      the shapes
+     * @param from        the first triangle of the range
+     * @param to          the end of the range (exclusive)
+     * @param ox          the x coordinate of the ray origin
+     * @param oy          the y coordinate of the ray origin
+     * @param oz          the z coordinate of the ray origin
+     * @param dx          the x component of the (unit) ray direction
+     * @param dy          the y component of the (unit) ray direction
+     * @param dz          the z component of the (unit) ray direction
+     * @param maxDistance the maximum distance along the ray
+     * @param t           filled from index 0 with the distance of the intersection with every triangle,
+     *                    or positive infinity if there is none; it must have room for {@link #padding()} more values
+     */
+    void triangles(ShapeArrays shapes, int from, int to, double ox, double oy, double oz,
+                   double dx, double dy, double dz, double maxDistance, double[] t);
+
+    /**
+     * Slab test of a ray against quantized boxes kept in planes (all the min x, all the min y, ...).
+     * A quantized coordinate q of an axis is at distance a + q * s along the ray.
+     * @param bounds the quantized coordinates (unsigned bytes)
+     * @param nearX  the first coordinate of the plane of the boxes the ray enters along x
+     * @param farX   the first coordinate of the plane of the boxes the ray leaves along x
+     * @param nearY  the first coordinate of the plane of the boxes the ray enters along y
+     * @param farY   the first coordinate of the plane of the boxes the ray leaves along y
+     * @param nearZ  the first coordinate of the plane of the boxes the ray enters along z
+     * @param farZ   the first coordinate of the plane of the boxes the ray leaves along z
+     * @param count  the amount of boxes
+     * @param ax     the distance to the quantized coordinate 0 along x
+     * @param ay     the distance to the quantized coordinate 0 along y
+     * @param az     the distance to the quantized coordinate 0 along z
+     * @param sx     the distance between following quantized coordinates along x
+     * @param sy     the distance between following quantized coordinates along y
+     * @param sz     the distance between following quantized coordinates along z
+     * @param tMax   the maximum distance along the ray
+     * @param near   filled with the entry distance into every box, or positive infinity if the ray misses it
+     */
+    void quantizedBoxes(byte[] bounds, int nearX, int farX, int nearY, int farY, int nearZ, int farZ, int count,
+                        double ax, double ay, double az, double sx, double sy, double sz, double tMax, double[] near);
+}
@@ -0,0 +1,258 @@
+package geometries;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.IntStream;
+
+/**
+ * Builds a linear bounding volume hierarchy (LBVH) - a fast build for scenes that are rebuilt every frame.
+ * The primitives are sorted along a Morton (Z-order) curve of their centers with a parallel radix sort,
+ * and the hierarchy is split where the Morton codes of neighbouring primitives first differ.
+ * The build is much faster than the SAH build, the traversal is somewhat slower.
+ */
+final class LBVHBuilder {
+
+    /** The amount of bits per axis in the Morton codes (3 * 21 = 63 bits) */
+    private static final int BITS_PER_AXIS = 21;
+
+    /** The amount of bits sorted in every pass of the radix sort */
+    private static final int RADIX_BITS = 8;
+
+    /** The amount of buckets in every pass of the radix sort */
+    private static final int RADIX = 1 << RADIX_BITS;
+
+    /** The amount of primitives sorted by a single task of the radix sort */
+    private static final int CHUNK_SIZE = 1 << 16;
+
+    /** Don't let anyone instantiate this class. */
+    private LBVHBuilder() {}
+
+    /**
+     * Builds a hierarchy over primitives given by their bounding boxes.
+     * @param boxes the bounding boxes of the primitives
+     * @param order filled with the primitive indices, ordered so every leaf references a contiguous range
+     * @return the root of the hierarchy, or null if there are no primitives
+     */
+    static BVHNode build(BoundingBox[] boxes, int[] order) {
+        int n = boxes.length;
+        if (n == 0) {
+            return null;
+        }
+
+        // The bounds of the centers, the Morton codes are quantized relative to them
+        double[] min = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY};
+        double[] max = {Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        for (BoundingBox box : boxes) {
+            for (int axis = 0; axis < 3; ++axis) {
+                double c = box.center(axis);
+                if (c < min[axis]) min[axis] = c;
+                if (c > max[axis]) max[axis] = c;
+            }
+        }
+        double[] scale = new double[3];
+        for (int axis = 0; axis < 3; ++axis) {
+            double extent = max[axis] - min[axis];
+            scale[axis] = extent > 0 ? ((1 << BITS_PER_AXIS) - 1) / extent : 0;
+        }
+
+        long[] codes = new long[n];
+        IntStream.range(0, n).parallel().forEach(i -> {
+            BoundingBox box = boxes[i];
+            codes[i] = mortonCode((long) ((box.center(0) - min[0]) * scale[0]),
+                    (long) ((box.center(1) - min[1]) * scale[1]),
+                    (long) ((box.center(2) - min[2]) * scale[2]));
+            order[i] = i;
+        });
+        radixSort(codes, order);
+
+        return ForkJoinPool.commonPool().invoke(new EmitTask(boxes, codes, order, 0, n));
+    }
+
+    /**
+     * Interleaves the bits of three coordinates into a Morton code (x in the lowest bit of every triple).
+     * @param x the quantized x coordinate (21 bits)
+     * @param y the quantized y coordinate (21 bits)
+     * @param z the quantized z coordinate (21 bits)
+     * @return the 63-bit Morton code
+     */
+    static long mortonCode(long x, long y, long z) {
+        return spread(x) | spread(y) << 1 | spread(z) << 2;
+    }
+
+    /**
+     * Spreads the lowest 21 bits of a number so there are two zero bits between every two bits.
+     * @param v the number
+     * @return the spread bits
+     */
+    private static long spread(long v) {
+        v &= 0x1fffffL;
+        v = (v | v << 32) & 0x1f00000000ffffL;
+        v = (v | v << 16) & 0x1f0000ff0000ffL;
+        v = (v | v << 8) & 0x100f00f00f00f00fL;
+        v = (v | v << 4) & 0x10c30c30c30c30c3L;
+        v = (v | v << 2) & 0x1249249249249249L;
+        return v;
+    }
+
+    /**
+     * Sorts the codes together with the primitive indices (least significant digit radix sort).
+     * Every pass counts the digits of chunks of the codes in parallel and then scatters the chunks in parallel.
+     * Passes over digits that are the same for all the codes are skipped.
+     * @param codes the Morton codes, sorted in place
+     * @param order the primitive indices, reordered together with the codes
+     */
+    static void radixSort(long[] codes, int[] order) {
+        int n = codes.length;
+        long all = 0, common = -1L;
+        for (long code : codes) {
+            all |= code;
+            common &= code;
+        }
+        long varying = all & ~common; // the bits that differ between the codes
+
+        int chunks = (n + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        int[][] counts = new int[chunks][RADIX];
+        long[] codes2 = new long[n];
+        int[] order2 = new int[n];
+        long[] srcCodes = codes, dstCodes = codes2;
+        int[] srcOrder = order, dstOrder = order2;
+        for (int shift = 0; shift < Long.SIZE; shift += RADIX_BITS) {
+            if ((varying >>> shift & RADIX - 1) == 0) {
+                continue;
+            }
+            final int s = shift;
+            final long[] fromCodes = srcCodes, toCodes = dstCodes;
+            final int[] fromOrder = srcOrder, toOrder = dstOrder;
+
+            IntStream.range(0, chunks).parallel().forEach(c -> {
+                int[] count = counts[c];
+                Arrays.fill(count, 0);
+                for (int i = c * CHUNK_SIZE, end = Math.min(n, i + CHUNK_SIZE); i < end; ++i)
+                    ++count[(int) (fromCodes[i] >>> s) & RADIX - 1];
+            });
+            // Turn the counts into the first destination of every digit in every chunk
+            int offset = 0;
+            for (int digit = 0; digit < RADIX; ++digit) {
+                for (int c = 0; c < chunks; ++c) {
+                    int count = counts[c][digit];
+                    counts[c][digit] = offset;
+                    offset += count;
+                }
+            }
+            IntStream.range(0, chunks).parallel().forEach(c -> {
+                int[] next = counts[c];
+                for (int i = c * CHUNK_SIZE, end = Math.min(n, i + CHUNK_SIZE); i < end; ++i) {
+                    int j = next[(int) (fromCodes[i] >>> s) & RADIX - 1]++;
+                    toCodes[j] = fromCodes[i];
+                    toOrder[j] = fromOrder[i];
+                }
+            });
+
+            srcCodes = toCodes;
+            dstCodes = fromCodes;
+            srcOrder = toOrder;
+            dstOrder = fromOrder;
+        }
+        if (srcCodes != codes) {
+            System.arraycopy(srcCodes, 0, codes, 0, n);
+            System.arraycopy(srcOrder, 0, order, 0, n);
+        }
+    }
+
+    /**
+     * A task that emits the hierarchy over a range of the sorted primitives.
+     * The range is split at the first position where the highest differing bit of the codes changes,
+     * the two halves of a big range are emitted as separate tasks.
+     */
+    private static final class EmitTask extends RecursiveTask<BVHNode> {
+
+        /** The version of the serialized form (tasks are never serialized) */
+        private static final long serialVersionUID = 1L;
+
+        /** The bounding boxes of the primitives (by the original indices) */
+        private final BoundingBox[] boxes;
+
+        /** The sorted Morton codes */
+        private final long[] codes;
+
+        /** The primitive indices, sorted by their codes */
+        private final int[] order;
+
+        /** The first index of the range (inclusive) */
+        private final int start;
+
+        /** The last index of the range (exclusive) */
+        private final int end;
+
+        /**
+         * Constructs a task over a range of the sorted primitives.
+         * @param boxes the bounding boxes of the primitives
+         * @param codes the sorted Morton codes
+         * @param order the primitive indices, sorted by their codes
+         * @param start the first index of the range (inclusive)
+         * @param end   the last index of the range (exclusive)
+         */
+        EmitTask(BoundingBox[] boxes, long[] codes, int[] order, int start, int end) {
+            this.boxes = boxes;
+            this.codes = codes;
+            this.order = order;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected BVHNode compute() {
+            return emit(start, end);
+        }
+
+        /**
+         * Emits the hierarchy over a range of the sorted primitives.
+         * @param start the first index of the range (inclusive)
+         * @param end   the last index of the range (exclusive)
+         * @return the root of the sub-hierarchy
+         */
+        private BVHNode emit(int start, int end) {
+            int n = end - start;
+            if (n <= BVH.MAX_LEAF_SIZE) {
+                BoundingBox box = boxes[order[start]];
+                for (int i = start + 1; i < end; ++i)
+                    box = box.union(boxes[order[i]]);
+                return new BVHNode(box, start, n);
+            }
+            int mid = split(start, end);
+            if (n < BVH.PARALLEL_THRESHOLD) {
+                return new BVHNode(emit(start, mid), emit(mid, end));
+            }
+            EmitTask left = new EmitTask(boxes, codes, order, start, mid);
+            left.fork();
+            BVHNode right = new EmitTask(boxes, codes, order, mid, end).compute();
+            return new BVHNode(left.join(), right);
+        }
+
+        /**
+         * Finds the split position of a range - the first code with the highest differing bit set.
+         * Equal codes are split in the middle.
+         * @param start the first index of the range (inclusive)
+         * @param end   the last index of the range (exclusive)
+         * @return the first index of the right side
+         */
+        private int split(int start, int end) {
+            long first = codes[start], last = codes[end - 1];
+            if (first == last) {
+                return (start + end) >>> 1;
+            }
+            long highest = Long.highestOneBit(first ^ last);
+            // Binary search for the first code that has the highest differing bit set
+            int lo = start, hi = end - 1;
+            while (lo < hi) {
+                int m = (lo + hi) >>> 1;
+                if ((codes[m] & highest) != 0)
+                    hi = m;
+                else
+                    lo = m + 1;
+            }
+            return lo;
+        }
+    }
+}
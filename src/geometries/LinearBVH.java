@@ -0,0 +1,248 @@
+package geometries;
+
+/**
+ * A bounding volume hierarchy stored in flat arrays in depth-first order.
+ * The left child of an inner node directly follows it, so only the index of the right child is kept.
+ * Compared to a tree of {@link BVHNode} objects the boxes of neighbouring nodes share cache lines,
+ * the traversal needs only a small stack of indices, and the garbage collector has two arrays to scan
+ * instead of two objects per node.
+ */
+final class LinearBVH {
+
+    /** The bounds of the nodes (min x,y,z, max x,y,z of every node) */
+    final double[] bounds;
+
+    /**
+     * Two values per node: for a leaf the first primitive and the amount of primitives,
+     * for an inner node the index of the right child and 0.
+     */
+    final int[] nodes;
+
+    /** The amount of levels in the hierarchy, bounds the traversal stack */
+    final int depth;
+
+    /**
+     * Flattens a hierarchy.
+     * @param root the root of the hierarchy
+     */
+    LinearBVH(BVHNode root) {
+        int count = count(root);
+        bounds = new double[6 * count];
+        nodes = new int[2 * count];
+        depth = root.depth();
+
+        // Depth-first order: push the right child first so the left one is visited (and placed) right after its parent
+        BVHNode[] stack = new BVHNode[depth];
+        int[] parents = new int[depth];
+        int top = 0, next = 0;
+        stack[top] = root;
+        parents[top++] = -1;
+        while (top > 0) {
+            BVHNode node = stack[--top];
+            int parent = parents[top];
+            int index = next++;
+            if (parent >= 0) { // a right child - the parent keeps its index
+                nodes[2 * parent] = index;
+            }
+            BoundingBox box = node.box;
+            bounds[6 * index] = box.minX;
+            bounds[6 * index + 1] = box.minY;
+            bounds[6 * index + 2] = box.minZ;
+            bounds[6 * index + 3] = box.maxX;
+            bounds[6 * index + 4] = box.maxY;
+            bounds[6 * index + 5] = box.maxZ;
+            if (node.isLeaf()) {
+                nodes[2 * index] = node.start;
+                nodes[2 * index + 1] = node.count;
+            } else {
+                stack[top] = node.right;
+                parents[top++] = index;
+                stack[top] = node.left;
+                parents[top++] = -1;
+            }
+        }
+    }
+
+    /**
+     * Wraps node arrays that were already flattened (e.g. loaded by {@link BVHCache}).
+     * @param bounds the bounds of the nodes
+     * @param nodes  the two values of every node
+     * @param depth  the amount of levels in the hierarchy
+     */
+    LinearBVH(double[] bounds, int[] nodes, int depth) {
+        this.bounds = bounds;
+        this.nodes = nodes;
+        this.depth = depth;
+    }
+
+    /**
+     * @param node the root of a sub-hierarchy
+     * @return the amount of nodes in the sub-hierarchy
+     */
+    private static int count(BVHNode node) {
+        return node.isLeaf() ? 1 : 1 + count(node.left) + count(node.right);
+    }
+
+    /**
+     * @param node the index of the node
+     * @return true if the node is a leaf, false otherwise
+     */
+    boolean isLeaf(int node) {
+        return nodes[2 * node + 1] > 0;
+    }
+
+    /**
+     * @param node the index of a leaf
+     * @return the first primitive of the leaf
+     */
+    int start(int node) {
+        return nodes[2 * node];
+    }
+
+    /**
+     * @param node the index of a leaf
+     * @return the amount of primitives in the leaf
+     */
+    int count(int node) {
+        return nodes[2 * node + 1];
+    }
+
+    /**
+     * @param node the index of an inner node
+     * @return the index of the right child (the left child is the next node)
+     */
+    int right(int node) {
+        return nodes[2 * node];
+    }
+
+    /**
+     * Recalculates the bounds of all the nodes from the current bounding boxes of the primitives,
+     * keeping the structure of the hierarchy. The children of a node follow it, so the nodes are updated
+     * from the last to the first.
+     * @param primitives the ordered primitives
+     * @return the surface area heuristic cost of the updated hierarchy (see {@link BuildStatistics#sahCost()}),
+     * or positive infinity if a primitive has no finite bounding box anymore
+     */
+    double refit(Intersectable[] primitives) {
+        for (int node = nodes.length / 2 - 1; node >= 0; --node) {
+            int i = 6 * node;
+            if (isLeaf(node)) {
+                bounds[i] = bounds[i + 1] = bounds[i + 2] = Double.POSITIVE_INFINITY;
+                bounds[i + 3] = bounds[i + 4] = bounds[i + 5] = Double.NEGATIVE_INFINITY;
+                for (int p = start(node), end = p + count(node); p < end; ++p) {
+                    BoundingBox box = primitives[p].getBoundingBox();
+                    if (box == null || !box.isFinite())
+                        return Double.POSITIVE_INFINITY;
+                    if (box.minX < bounds[i]) bounds[i] = box.minX;
+                    if (box.minY < bounds[i + 1]) bounds[i + 1] = box.minY;
+                    if (box.minZ < bounds[i + 2]) bounds[i + 2] = box.minZ;
+                    if (box.maxX > bounds[i + 3]) bounds[i + 3] = box.maxX;
+                    if (box.maxY > bounds[i + 4]) bounds[i + 4] = box.maxY;
+                    if (box.maxZ > bounds[i + 5]) bounds[i + 5] = box.maxZ;
+                }
+            } else {
+                int l = 6 * (node + 1), r = 6 * right(node);
+                for (int k = 0; k < 3; ++k) {
+                    bounds[i + k] = Math.min(bounds[l + k], bounds[r + k]);
+                    bounds[i + k + 3] = Math.max(bounds[l + k + 3], bounds[r + k + 3]);
+                }
+            }
+        }
+        return cost();
+    }
+
+    /**
+     * @return the surface area heuristic cost of the hierarchy (see {@link BuildStatistics#sahCost()})
+     */
+    double cost() {
+        double cost = 0;
+        for (int node = 0; node < size(); ++node)
+            cost += area(node) * (isLeaf(node) ? count(node) : BVH.TRAVERSAL_COST);
+        return cost / area(0);
+    }
+
+    /**
+     * @return the amount of nodes
+     */
+    int size() {
+        return nodes.length / 2;
+    }
+
+    /**
+     * @return the amount of leaves
+     */
+    int leaves() {
+        int leaves = 0;
+        for (int node = 0; node < size(); ++node)
+            if (isLeaf(node))
+                ++leaves;
+        return leaves;
+    }
+
+    /**
+     * @param node the index of the node
+     * @return the surface area of the box of the node
+     */
+    private double area(int node) {
+        int i = 6 * node;
+        double dx = bounds[i + 3] - bounds[i], dy = bounds[i + 4] - bounds[i + 1], dz = bounds[i + 5] - bounds[i + 2];
+        return 2 * (dx * dy + dy * dz + dz * dx);
+    }
+
+    /**
+     * @return the size of the node arrays in bytes
+     */
+    long memory() {
+        return 8L * bounds.length + 4L * nodes.length;
+    }
+
+    /**
+     * @param node the index of the node
+     * @return the bounding box of the node
+     */
+    BoundingBox box(int node) {
+        int i = 6 * node;
+        return new BoundingBox(bounds[i], bounds[i + 1], bounds[i + 2], bounds[i + 3], bounds[i + 4], bounds[i + 5]);
+    }
+
+    /**
+     * Slab test of a ray against the box of a node.
+     * @param node the index of the node
+     * @param ox   the x coordinate of the ray origin
+     * @param oy   the y coordinate of the ray origin
+     * @param oz   the z coordinate of the ray origin
+     * @param invX the inverse of the x component of the ray direction
+     * @param invY the inverse of the y component of the ray direction
+     * @param invZ the inverse of the z component of the ray direction
+     * @param tMax the maximum distance along the ray
+     * @return the entry distance into the box, or positive infinity if the ray misses it
+     */
+    double intersect(int node, double ox, double oy, double oz, double invX, double invY, double invZ, double tMax) {
+        int i = 6 * node;
+        return BoundingBox.intersect(bounds[i], bounds[i + 1], bounds[i + 2], bounds[i + 3], bounds[i + 4],
+                bounds[i + 5], ox, oy, oz, invX, invY, invZ, tMax);
+    }
+
+    /**
+     * Slab test of a ray against the box of a node, with the planes of the box picked by the octant of the ray
+     * (see {@link primitives.Ray#getOctant()}), so the test only multiplies and compares.
+     * @param node   the index of the node
+     * @param ox     the x coordinate of the ray origin
+     * @param oy     the y coordinate of the ray origin
+     * @param oz     the z coordinate of the ray origin
+     * @param invX   the inverse of the x component of the ray direction
+     * @param invY   the inverse of the y component of the ray direction
+     * @param invZ   the inverse of the z component of the ray direction
+     * @param octant the octant of the ray direction
+     * @param tMax   the maximum distance along the ray
+     * @return the entry distance into the box, or positive infinity if the ray misses it
+     */
+    double intersect(int node, double ox, double oy, double oz, double invX, double invY, double invZ, int octant,
+                     double tMax) {
+        int i = 6 * node;
+        // The offset of the entry plane of every axis: 0 for the minimum, 3 for the maximum
+        int x = 3 * (octant & 1), y = 3 * (octant >> 1 & 1), z = 3 * (octant >> 2 & 1);
+        return BoundingBox.intersectSorted(bounds[i + x], bounds[i + 1 + y], bounds[i + 2 + z],
+                bounds[i + 3 - x], bounds[i + 4 - y], bounds[i + 5 - z], ox, oy, oz, invX, invY, invZ, tMax);
+    }
+}
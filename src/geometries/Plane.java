@@ -75,37 +75,72 @@ public class Plane extends Geometry {
         return normal;
     }
 
+    /**
+     * An axis-aligned plane is bounded along its normal (a flat box, infinite on the other two axes).
+     * Any other plane is unbounded on every axis.
+     */
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        double inf = Double.POSITIVE_INFINITY;
+        if (isZero(normal.getY()) && isZero(normal.getZ()))
+            return new BoundingBox(q0.getX(), -inf, -inf, q0.getX(), inf, inf);
+        if (isZero(normal.getX()) && isZero(normal.getZ()))
+            return new BoundingBox(-inf, q0.getY(), -inf, inf, q0.getY(), inf);
+        if (isZero(normal.getX()) && isZero(normal.getY()))
+            return new BoundingBox(-inf, -inf, q0.getZ(), inf, inf, q0.getZ());
+        return null;
+    }
+
     @Override
     public List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+        double t = intersect(ray, maxDistance);
+        return t == Double.POSITIVE_INFINITY ? null : List.of(new GeoPoint(this, ray.getPoint(t), t));
+    }
+
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, double maxDistance, HitRecord hit) {
+        double t = intersect(ray, maxDistance);
+        return t != Double.POSITIVE_INFINITY && hit.record(this, ray, t);
+    }
+
+    /**
+     * Intersects a ray with the plane, without creating objects.
+     * @param ray         the ray
+     * @param maxDistance the maximum distance along the ray
+     * @return the distance of the intersection along the ray, or positive infinity if there is none
+     */
+    double intersect(Ray ray, double maxDistance) {
         Vector v = ray.getDir();
         Point p0 = ray.getP0();
         Vector n = normal;
 
         // Check if the point of the ray is the reference point of the plane
         if (q0.equals(p0)){
-            return null;
+            return Double.POSITIVE_INFINITY;
         }
 
         double nv = alignZero(n.dotProduct(v)); // Denominator
 
         // Ray's lying in the plane axis
         if (isZero(nv)) {
-            return null;
+            return Double.POSITIVE_INFINITY;
         }
 
-        double nP0Q0 = alignZero(n.dotProduct(q0.subtract(p0))); // Numerator
+        // Numerator - the dot product of the normal with the vector from p0 to q0
+        double nP0Q0 = alignZero(n.getX() * (q0.getX() - p0.getX()) + n.getY() * (q0.getY() - p0.getY())
+                + n.getZ() * (q0.getZ() - p0.getZ()));
 
         // Ray's parallel to the plane
         if (isZero(nP0Q0)) {
-            return null;
+            return Double.POSITIVE_INFINITY;
         }
 
         double t = alignZero(nP0Q0 / nv);
 
         if (t < 0 || alignZero(t - maxDistance) > 0) {
-            return null;
+            return Double.POSITIVE_INFINITY;
         }
 
-        return List.of(new GeoPoint(this, ray.getPoint(t)));
+        return t;
     }
-}
\ No newline at end of file
+}
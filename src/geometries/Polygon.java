@@ -90,47 +90,69 @@ public class Polygon extends Geometry {
         return plane.getNormal();
     }
 
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        return new BoundingBox(vertices.toArray(new Point[0]));
+    }
+
     @Override
     public List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
-        List<GeoPoint> planeIntersections = plane.findGeoIntersections(ray);
+        double t = intersect(ray, maxDistance);
+        return t == Double.POSITIVE_INFINITY ? null : List.of(new GeoPoint(this, ray.getPoint(t), t));
+    }
 
-        if (planeIntersections == null) {
-            return null;
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, double maxDistance, HitRecord hit) {
+        double t = intersect(ray, maxDistance);
+        return t != Double.POSITIVE_INFINITY && hit.record(this, ray, t);
+    }
+
+    /**
+     * Intersects a ray with the polygon, without creating objects.
+     * The ray hits the polygon if it passes on the same side of all the edges, the side of an edge is the sign
+     * of the triple product of the direction of the ray and the vectors from the vertices of the edge to the head.
+     * @param ray         the ray
+     * @param maxDistance the maximum distance along the ray
+     * @return the distance of the intersection along the ray, or positive infinity if there is none
+     */
+    private double intersect(Ray ray, double maxDistance) {
+        double t = plane.intersect(ray, maxDistance);
+        if (t == Double.POSITIVE_INFINITY) {
+            return t;
         }
 
-        Point P0 = ray.getP0();
+        Point p0 = ray.getP0();
         Vector v = ray.getDir();
+        double ox = p0.getX(), oy = p0.getY(), oz = p0.getZ();
+        double dx = v.getX(), dy = v.getY(), dz = v.getZ();
 
-        Point P1 = vertices.get(1);
-        Point P2 = vertices.get(0);
-
-        Vector v1 = P0.subtract(P1);
-        Vector v2 = P0.subtract(P2);
-
-        double sign = alignZero(v.dotProduct(v1.crossProduct(v2)));
+        Point p1 = vertices.get(1);
+        Point p2 = vertices.get(0);
+        double x1 = ox - p1.getX(), y1 = oy - p1.getY(), z1 = oz - p1.getZ();
+        double x2 = ox - p2.getX(), y2 = oy - p2.getY(), z2 = oz - p2.getZ();
 
+        double sign = alignZero(dx * (y1 * z2 - z1 * y2) + dy * (z1 * x2 - x1 * z2) + dz * (x1 * y2 - y1 * x2));
         if (isZero(sign)) {
-            return null;
+            return Double.POSITIVE_INFINITY;
         }
 
         boolean positive = sign > 0;
 
         // Iterate through all vertices of the polygon
-        for (int i = vertices.size() - 1; i > 0; --i) {
-            v1 = v2;
-            v2 = P0.subtract(vertices.get(i));
-
-            sign = alignZero(v.dotProduct(v1.crossProduct(v2)));
-            if (isZero(sign)) {
-                return null;
-            }
-
-            if (positive != (sign > 0)) {
-                return null;
+        for (int i = size - 1; i > 0; --i) {
+            x1 = x2;
+            y1 = y2;
+            z1 = z2;
+            Point p = vertices.get(i);
+            x2 = ox - p.getX();
+            y2 = oy - p.getY();
+            z2 = oz - p.getZ();
+
+            sign = alignZero(dx * (y1 * z2 - z1 * y2) + dy * (z1 * x2 - x1 * z2) + dz * (x1 * y2 - y1 * x2));
+            if (isZero(sign) || positive != (sign > 0)) {
+                return Double.POSITIVE_INFINITY;
             }
         }
-        Point point = planeIntersections.get(0).point;
-
-        return List.of(new GeoPoint(this, point));
+        return t;
     }
 }
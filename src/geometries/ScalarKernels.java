@@ -0,0 +1,72 @@
+package geometries;
+
+import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
+
+/**
+ * The intersection kernels in plain scalar code, one shape after the other.
+ * They are used on JVMs without the Vector API, and they are the reference of the SIMD kernels.
+ */
+final class ScalarKernels implements IntersectionKernels {
+
+    @Override
+    public int padding() {
+        return 0;
+    }
+
+    @Override
+    public void spheres(ShapeArrays shapes, int from, int to, double ox, double oy, double oz,
+                        double dx, double dy, double dz, double maxDistance, double[] t) {
+        for (int i = from; i < to; ++i) {
+            double ux = shapes.x[i] - ox, uy = shapes.y[i] - oy, uz = shapes.z[i] - oz;
+            double radius = shapes.w[i];
+            // The ray starts at the center - the only intersection is at distance radius
+            if (isZero(ux) && isZero(uy) && isZero(uz)) {
+                t[i - from] = alignZero(radius - maxDistance) > 0 ? Double.POSITIVE_INFINITY : radius;
+                continue;
+            }
+            double tm = dx * ux + dy * uy + dz * uz;
+            double thSquared = radius * radius - ((ux * ux + uy * uy + uz * uz) - tm * tm);
+            double distance = Double.POSITIVE_INFINITY;
+            if (thSquared > 0) {
+                double th = Math.sqrt(thSquared);
+                double t1 = alignZero(tm - th);
+                distance = t1 > 0 ? t1 : alignZero(tm + th);
+                if (distance <= 0 || alignZero(distance - maxDistance) > 0)
+                    distance = Double.POSITIVE_INFINITY;
+            }
+            t[i - from] = distance;
+        }
+    }
+
+    @Override
+    public void triangles(ShapeArrays shapes, int from, int to, double ox, double oy, double oz,
+                          double dx, double dy, double dz, double maxDistance, double[] t) {
+        for (int i = from; i < to; ++i) {
+            t[i - from] = Triangle.intersect(shapes.x[i], shapes.y[i], shapes.z[i],
+                    shapes.e1x[i], shapes.e1y[i], shapes.e1z[i], shapes.e2x[i], shapes.e2y[i], shapes.e2z[i],
+                    shapes.w[i], ox, oy, oz, dx, dy, dz, maxDistance, null);
+        }
+    }
+
+    @Override
+    public void quantizedBoxes(byte[] bounds, int nearX, int farX, int nearY, int farY, int nearZ, int farZ,
+                               int count, double ax, double ay, double az, double sx, double sy, double sz,
+                               double tMax, double[] near) {
+        for (int j = 0; j < count; ++j) {
+            double tNear = ax + (bounds[nearX + j] & 0xFF) * sx, tFar = ax + (bounds[farX + j] & 0xFF) * sx;
+            double t = ay + (bounds[nearY + j] & 0xFF) * sy;
+            tNear = t > tNear ? t : tNear;
+            t = ay + (bounds[farY + j] & 0xFF) * sy;
+            tFar = t < tFar ? t : tFar;
+            t = az + (bounds[nearZ + j] & 0xFF) * sz;
+            tNear = t > tNear ? t : tNear;
+            t = az + (bounds[farZ + j] & 0xFF) * sz;
+            tFar = t < tFar ? t : tFar;
+            // The same tolerance as the slab test of a single box
+            double eps = BoundingBox.EPSILON * (1 + Math.abs(tFar));
+            boolean hit = tNear <= tFar + eps && tFar >= -eps && tNear <= tMax + eps;
+            near[j] = hit ? tNear : Double.POSITIVE_INFINITY;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package geometries;
+
+/**
+ * The spheres and the triangles of a hierarchy kept as structure of arrays - every field of the shapes
+ * in an array of its own, so the {@link IntersectionKernels} load the same field of neighbouring shapes together.
+ * The shapes keep the order of the primitives of the hierarchy, a primitive of another kind
+ * (or a subclass of a sphere or a triangle, which may intersect differently) has an unused slot.
+ * The kinds of the other primitives only order the leaves, so the polygons and the cylinders of a leaf
+ * are intersected in loops of their own (see {@link BVH}).
+ * A sphere and a triangle share the arrays: the first point is the center of a sphere or the first vertex
+ * of a triangle, the weight is the radius of a sphere or the inverse length of the normal of a triangle.
+ * The arrays are padded past the last shape, so a kernel may load whole vectors at any shape.
+ */
+final class ShapeArrays {
+
+    /** The kind of a sphere */
+    static final byte SPHERE = 0;
+
+    /** The kind of a triangle */
+    static final byte TRIANGLE = 1;
+
+    /** The kind of a polygon (but not of a triangle), intersected in a loop of its own */
+    static final byte POLYGON = 2;
+
+    /** The kind of a cylinder, intersected in a loop of its own */
+    static final byte CYLINDER = 3;
+
+    /** The kind of a primitive that is intersected through a virtual call */
+    static final byte OTHER = 4;
+
+    /** The kind of every primitive */
+    final byte[] kinds;
+
+    /** The first point (the center of a sphere, the first vertex of a triangle) */
+    final double[] x, y, z;
+
+    /** The edge of a triangle from the first vertex to the second one */
+    final double[] e1x, e1y, e1z;
+
+    /** The edge of a triangle from the first vertex to the third one */
+    final double[] e2x, e2y, e2z;
+
+    /** The weight (the radius of a sphere, the inverse of the length of e1 x e2 of a triangle) */
+    final double[] w;
+
+    /**
+     * Copies the spheres and the triangles among the primitives into arrays.
+     * @param primitives the primitives
+     * @param padding    the amount of unused slots after the last primitive
+     */
+    ShapeArrays(Intersectable[] primitives, int padding) {
+        int length = primitives.length + padding;
+        kinds = new byte[primitives.length];
+        x = new double[length];
+        y = new double[length];
+        z = new double[length];
+        e1x = new double[length];
+        e1y = new double[length];
+        e1z = new double[length];
+        e2x = new double[length];
+        e2y = new double[length];
+        e2z = new double[length];
+        w = new double[length];
+        for (int i = 0; i < primitives.length; ++i) {
+            kinds[i] = kind(primitives[i]);
+            if (kinds[i] == SPHERE) {
+                Sphere sphere = (Sphere) primitives[i];
+                x[i] = sphere.getCenter().getX();
+                y[i] = sphere.getCenter().getY();
+                z[i] = sphere.getCenter().getZ();
+                w[i] = sphere.radius;
+            } else if (kinds[i] == TRIANGLE) {
+                ((Triangle) primitives[i]).store(this, i);
+            }
+        }
+    }
+
+    /**
+     * @param primitive a primitive
+     * @return the kind of the primitive
+     */
+    static byte kind(Intersectable primitive) {
+        if (primitive.getClass() == Sphere.class)
+            return SPHERE;
+        if (primitive.getClass() == Triangle.class)
+            return TRIANGLE;
+        if (primitive.getClass() == Polygon.class)
+            return POLYGON;
+        if (primitive.getClass() == Cylinder.class)
+            return CYLINDER;
+        return OTHER;
+    }
+
+    /**
+     * Finds the end of a run of primitives of the same kind.
+     * @param from the first primitive of the run
+     * @param to   the end of the range of the run (exclusive)
+     * @param kind the kind of the run
+     * @return the first primitive from the first one on that is not of the kind, or the end of the range
+     */
+    int end(int from, int to, byte kind) {
+        while (from < to && kinds[from] == kind)
+            ++from;
+        return from;
+    }
+}
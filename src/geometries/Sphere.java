@@ -38,6 +38,12 @@ public class Sphere extends RadialGeometry {
         return v.normalize();
     }
 
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        return new BoundingBox(center.getX() - radius, center.getY() - radius, center.getZ() - radius,
+                center.getX() + radius, center.getY() + radius, center.getZ() + radius);
+    }
+
     @Override
     public List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
         double tm = 0, d = 0;
@@ -67,18 +73,62 @@ public class Sphere extends RadialGeometry {
         // There are two points intersecting
         if (t1 > 0 && t2 > 0 && alignZero(t1 - maxDistance) <= 0 && alignZero(t2 - maxDistance) <= 0) {
             return List.of(
-                    new GeoPoint(this, ray.getPoint(t1)),
-                    new GeoPoint(this, ray.getPoint(t2))
+                    new GeoPoint(this, ray.getPoint(t1), t1),
+                    new GeoPoint(this, ray.getPoint(t2), t2)
             );
         }
         if (t1 > 0 && t2 <= 0 && alignZero(t1 - maxDistance) <= 0) { // There is only one point intersecting (p1)
-            return List.of(new GeoPoint(this, ray.getPoint(t1)));
+            return List.of(new GeoPoint(this, ray.getPoint(t1), t1));
         }
         if (t2 > 0 && t1 <= 0 && alignZero(t2 - maxDistance) <= 0) { // There is only one point intersecting (p2)
-            return List.of(new GeoPoint(this, ray.getPoint(t2)));
+            return List.of(new GeoPoint(this, ray.getPoint(t2), t2));
         }
 
         return null;
     }
-}
 
+    /**
+     * Only the nearer root in front of the ray is calculated.
+     */
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, double maxDistance, HitRecord hit) {
+        double t = closest(ray, maxDistance);
+        return t != Double.POSITIVE_INFINITY && hit.record(this, ray, t);
+    }
+
+    /**
+     * Calculates the nearer root in front of the ray, without creating objects.
+     * @param ray         the ray
+     * @param maxDistance the maximum distance along the ray
+     * @return the distance of the intersection along the ray, or positive infinity if there is none
+     */
+    private double closest(Ray ray, double maxDistance) {
+        Point p0 = ray.getP0();
+
+        // The ray starts at the center - the only intersection is at distance radius
+        if (center.equals(p0)) {
+            return alignZero(radius - maxDistance) > 0 ? Double.POSITIVE_INFINITY : radius;
+        }
+
+        Vector dir = ray.getDir();
+        double ux = center.getX() - p0.getX(), uy = center.getY() - p0.getY(), uz = center.getZ() - p0.getZ();
+        double tm = dir.getX() * ux + dir.getY() * uy + dir.getZ() * uz;
+        double dSquared = (ux * ux + uy * uy + uz * uz) - tm * tm;
+        double thSquared = radius * radius - dSquared;
+
+        // Check if the distance from ray to center is not smaller than the radius
+        if (thSquared <= 0) {
+            return Double.POSITIVE_INFINITY; // There are no intersections
+        }
+
+        double th = Math.sqrt(thSquared);
+        double t = alignZero(tm - th);
+        if (t <= 0) { // The ray starts inside the sphere (or the sphere is behind it)
+            t = alignZero(tm + th);
+            if (t <= 0) {
+                return Double.POSITIVE_INFINITY;
+            }
+        }
+        return alignZero(t - maxDistance) > 0 ? Double.POSITIVE_INFINITY : t;
+    }
+}
@@ -12,6 +12,18 @@ import java.util.List;
  */
 public class Triangle extends Polygon {
 
+    /** The first vertex of the triangle */
+    private final double ax, ay, az;
+
+    /** The edge from the first vertex to the second one */
+    private final double e1x, e1y, e1z;
+
+    /** The edge from the first vertex to the third one */
+    private final double e2x, e2y, e2z;
+
+    /** The inverse of the length of the (non-normalized) normal, e1 x e2 */
+    private final double invNormalLength;
+
     /**
      * Constructs a Triangle object with the given three vertices.
      * @param p1 the first vertex of the triangle
@@ -20,47 +32,135 @@ public class Triangle extends Polygon {
      */
     public Triangle(Point p1, Point p2, Point p3) {
         super(p1, p2, p3);
+        ax = p1.getX();
+        ay = p1.getY();
+        az = p1.getZ();
+        e1x = p2.getX() - ax;
+        e1y = p2.getY() - ay;
+        e1z = p2.getZ() - az;
+        e2x = p3.getX() - ax;
+        e2y = p3.getY() - ay;
+        e2z = p3.getZ() - az;
+        double nx = e1y * e2z - e1z * e2y, ny = e1z * e2x - e1x * e2z, nz = e1x * e2y - e1y * e2x;
+        invNormalLength = 1 / Math.sqrt(nx * nx + ny * ny + nz * nz);
     }
 
     @Override
     public List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
-        List<GeoPoint> intersections = plane.findGeoIntersections(ray, maxDistance);
-        if (intersections == null) {
-            return null;
-        }
-
-        Vector v = ray.getDir();
         Point p0 = ray.getP0();
+        Vector v = ray.getDir();
+        double t = intersect(p0.getX(), p0.getY(), p0.getZ(), v.getX(), v.getY(), v.getZ(), maxDistance, null);
+        return t == Double.POSITIVE_INFINITY ? null : List.of(new GeoPoint(this, ray.getPoint(t), t));
+    }
 
-        // Calculate the vectors from the starting point of the ray to each vertex of the triangle
-        Vector v1 = this.vertices.get(0).subtract(p0);
-        Vector v2 = this.vertices.get(1).subtract(p0);
-        Vector v3 = this.vertices.get(2).subtract(p0);
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, double maxDistance, HitRecord hit) {
+        Point p0 = ray.getP0();
+        Vector v = ray.getDir();
+        double t = intersect(p0.getX(), p0.getY(), p0.getZ(), v.getX(), v.getY(), v.getZ(), maxDistance,
+                hit.barycentric);
+        if (t == Double.POSITIVE_INFINITY || !hit.record(this, ray, t)) {
+            return false;
+        }
+        hit.keepBarycentric();
+        return true;
+    }
 
-        // Calculate the normal vectors of each edge of the triangle
-        Vector n1 = v1.crossProduct(v2).normalize();
-        Vector n2 = v2.crossProduct(v3).normalize();
-        Vector n3 = v3.crossProduct(v1).normalize();
+    /**
+     * Intersects a ray with the triangle using the precomputed edges.
+     * Nothing is allocated, so a miss costs only the arithmetic.
+     * @param ox          the x coordinate of the ray origin
+     * @param oy          the y coordinate of the ray origin
+     * @param oz          the z coordinate of the ray origin
+     * @param dx          the x component of the (unit) ray direction
+     * @param dy          the y component of the (unit) ray direction
+     * @param dz          the z component of the (unit) ray direction
+     * @param maxDistance the maximum distance along the ray
+     * @param barycentric if not null and there is an intersection, filled with the barycentric coordinates
+     *                    of the point relative to the second and the third vertices
+     * @return the distance of the intersection along the ray, or positive infinity if there is none
+     */
+    public double intersect(double ox, double oy, double oz, double dx, double dy, double dz, double maxDistance,
+                            double[] barycentric) {
+        return intersect(ax, ay, az, e1x, e1y, e1z, e2x, e2y, e2z, invNormalLength,
+                ox, oy, oz, dx, dy, dz, maxDistance, barycentric);
+    }
 
-        // Calculate the dot product between each edge's
-        // normal vector and the ray's direction vector
-        double res1 = alignZero(v.dotProduct(n1));
-        double res2 = alignZero(v.dotProduct(n2));
-        double res3 = alignZero(v.dotProduct(n3));
+    /**
+     * Copies the first vertex, the edges and the inverse length of the normal into the arrays of shapes.
+     * @param shapes the arrays of shapes
+     * @param index  the slot of the triangle in the arrays
+     */
+    void store(ShapeArrays shapes, int index) {
+        shapes.x[index] = ax;
+        shapes.y[index] = ay;
+        shapes.z[index] = az;
+        shapes.e1x[index] = e1x;
+        shapes.e1y[index] = e1y;
+        shapes.e1z[index] = e1z;
+        shapes.e2x[index] = e2x;
+        shapes.e2y[index] = e2y;
+        shapes.e2z[index] = e2z;
+        shapes.w[index] = invNormalLength;
+    }
 
-        // If any dot product is zero, the ray is parallel to the
-        // triangle's plane and there is no intersection
-        if (isZero(res1) || isZero(res2) || isZero(res3)){
-            return null;
+    /**
+     * Intersects a ray with a triangle given by a vertex and two edges (Moller-Trumbore algorithm).
+     * A ray that hits an edge or a vertex of the triangle, or lies in its plane, is considered as missing it.
+     * @param ax              the x coordinate of the first vertex
+     * @param ay              the y coordinate of the first vertex
+     * @param az              the z coordinate of the first vertex
+     * @param e1x             the x component of the edge from the first vertex to the second one
+     * @param e1y             the y component of the edge from the first vertex to the second one
+     * @param e1z             the z component of the edge from the first vertex to the second one
+     * @param e2x             the x component of the edge from the first vertex to the third one
+     * @param e2y             the y component of the edge from the first vertex to the third one
+     * @param e2z             the z component of the edge from the first vertex to the third one
+     * @param invNormalLength the inverse of the length of e1 x e2
+     * @param ox              the x coordinate of the ray origin
+     * @param oy              the y coordinate of the ray origin
+     * @param oz              the z coordinate of the ray origin
+     * @param dx              the x component of the (unit) ray direction
+     * @param dy              the y component of the (unit) ray direction
+     * @param dz              the z component of the (unit) ray direction
+     * @param maxDistance     the maximum distance along the ray
+     * @param barycentric     if not null and there is an intersection, filled with the barycentric coordinates
+     *                        of the point relative to the second and the third vertices
+     * @return the distance of the intersection along the ray, or positive infinity if there is none
+     */
+    static double intersect(double ax, double ay, double az, double e1x, double e1y, double e1z,
+                            double e2x, double e2y, double e2z, double invNormalLength,
+                            double ox, double oy, double oz, double dx, double dy, double dz,
+                            double maxDistance, double[] barycentric) {
+        // p = d x e2
+        double px = dy * e2z - dz * e2y, py = dz * e2x - dx * e2z, pz = dx * e2y - dy * e2x;
+        double det = e1x * px + e1y * py + e1z * pz;
+        // det is the cosine between the ray and the normal, scaled by the length of the normal
+        if (isZero(det * invNormalLength)) { // the ray is parallel to the triangle
+            return Double.POSITIVE_INFINITY;
         }
+        double inv = 1 / det;
 
-        // If all three dot products have the same sign, the ray
-        // intersects the triangle's plane at a point inside the triangle
-        if ((res1 > 0 && res2 > 0 && res3 > 0) || (res1 < 0 && res2 < 0 && res3 < 0)){
-            return List.of(new GeoPoint(this, intersections.get(0).point));
+        double sx = ox - ax, sy = oy - ay, sz = oz - az;
+        double u = (sx * px + sy * py + sz * pz) * inv;
+        if (alignZero(u) <= 0 || alignZero(u - 1) >= 0) {
+            return Double.POSITIVE_INFINITY;
         }
-
-        return null;
+        // q = s x e1
+        double qx = sy * e1z - sz * e1y, qy = sz * e1x - sx * e1z, qz = sx * e1y - sy * e1x;
+        double v = (dx * qx + dy * qy + dz * qz) * inv;
+        if (alignZero(v) <= 0 || alignZero(1 - u - v) <= 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double t = alignZero((e2x * qx + e2y * qy + e2z * qz) * inv);
+        // written to fail for a NaN too, so a degenerate triangle (with no normal) is never hit
+        if (!(t > 0) || alignZero(t - maxDistance) > 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        if (barycentric != null) {
+            barycentric[0] = u;
+            barycentric[1] = v;
+        }
+        return t;
     }
 }
-
@@ -0,0 +1,443 @@
+package geometries;
+
+import primitives.Color;
+import primitives.Double3;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
+
+/**
+ * TriangleMesh class represents a surface made of many triangles that share their vertices.
+ * The vertex positions are stored in a flat array and the faces in an index array,
+ * so a triangle costs three indices instead of a whole {@link Triangle} object.
+ * All the faces share the material and the emission of the mesh.
+ * The faces are intersected through an internal bounding volume hierarchy.
+ */
+public class TriangleMesh extends Geometry {
+
+    /** The vertex positions (x, y, z of every vertex) */
+    private final double[] vertices;
+
+    /** The vertex indices of the faces (three per face), ordered so every leaf references a contiguous range */
+    private final int[] faces;
+
+    /** The inverse of the length of the (non-normalized) normal of every face, in the order of the faces */
+    private final double[] invNormalLengths;
+
+    /** The hierarchy over the faces */
+    private final LinearBVH tree;
+
+    /** The traversal stacks of every thread, so intersecting a ray allocates no scratch arrays */
+    private final ThreadLocal<Traversal> traversals = ThreadLocal.withInitial(Traversal::new);
+
+    /**
+     * The scratch arrays of the traversal of a single thread, allocated once and reused for every ray.
+     */
+    private final class Traversal {
+
+        /** The stack of the nodes to visit */
+        final int[] stack = new int[tree.depth];
+
+        /** The distances at which the ray enters the nodes of the stack */
+        final double[] entries = new double[tree.depth];
+
+        /** The distance of the closest face found by the last search */
+        double distance;
+    }
+
+    /**
+     * A face of the mesh, the geometry of the intersection points with the mesh.
+     * It is created only for an intersection and takes the material and the emission from the mesh.
+     */
+    private final class Face extends Geometry {
+
+        /** The index of the face in the ordered faces */
+        private final int index;
+
+        /**
+         * Constructs a face of the mesh.
+         * @param index the index of the face in the ordered faces
+         */
+        private Face(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public Vector getNormal(Point point) {
+            return faceNormal(index);
+        }
+
+        @Override
+        public Material getMaterial() {
+            return TriangleMesh.this.getMaterial();
+        }
+
+        @Override
+        public Color getEmission() {
+            return TriangleMesh.this.getEmission();
+        }
+
+        @Override
+        protected BoundingBox calcBoundingBox() {
+            return faceBox(vertices, faces, index);
+        }
+
+        @Override
+        protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+            Point p0 = ray.getP0();
+            Vector v = ray.getDir();
+            double t = intersectFace(index, p0.getX(), p0.getY(), p0.getZ(), v.getX(), v.getY(), v.getZ(),
+                    maxDistance);
+            return t == Double.POSITIVE_INFINITY ? null : List.of(new GeoPoint(this, ray.getPoint(t), t));
+        }
+    }
+
+    /**
+     * Constructs a mesh from a flat array of vertex positions and an array of face indices.
+     * Degenerate faces (with collinear or repeated vertices, common in imported meshes) have no plane
+     * and are dropped.
+     * @param vertices the vertex positions (x, y, z of every vertex)
+     * @param faces    the vertex indices of the faces (three per face)
+     * @throws IllegalArgumentException if there are no faces, if the arrays are not made of triples,
+     *                                  if a face references a vertex that does not exist
+     *                                  or if all the faces are degenerate
+     */
+    public TriangleMesh(double[] vertices, int[] faces) {
+        if (vertices.length % 3 != 0)
+            throw new IllegalArgumentException("The vertex positions must be made of x, y, z triples");
+        if (faces.length == 0 || faces.length % 3 != 0)
+            throw new IllegalArgumentException("A mesh must have at least one face of three vertices");
+        int vertexCount = vertices.length / 3;
+        for (int index : faces) {
+            if (index < 0 || index >= vertexCount)
+                throw new IllegalArgumentException("A face references a vertex that does not exist");
+        }
+        faces = dropDegenerate(vertices, faces);
+        if (faces.length == 0)
+            throw new IllegalArgumentException("A mesh must have at least one face that is not degenerate");
+        this.vertices = vertices.clone();
+
+        int faceCount = faces.length / 3;
+        BoundingBox[] boxes = new BoundingBox[faceCount];
+        for (int i = 0; i < faceCount; ++i) {
+            boxes[i] = faceBox(vertices, faces, i);
+        }
+        int[] order = new int[faceCount];
+        tree = new LinearBVH(BVH.build(boxes, order));
+
+        int[] ordered = new int[faces.length];
+        for (int i = 0; i < faceCount; ++i) {
+            System.arraycopy(faces, 3 * order[i], ordered, 3 * i, 3);
+        }
+        this.faces = ordered;
+
+        invNormalLengths = new double[faceCount];
+        for (int i = 0; i < faceCount; ++i) {
+            invNormalLengths[i] = 1 / normalLength(vertices, ordered, i);
+        }
+    }
+
+    /**
+     * @param vertices the vertex positions
+     * @param faces    the vertex indices of the faces
+     * @param face     the index of the face
+     * @return the length of the (non-normalized) normal of the face, zero if the face is degenerate
+     */
+    private static double normalLength(double[] vertices, int[] faces, int face) {
+        int a = 3 * faces[3 * face], b = 3 * faces[3 * face + 1], c = 3 * faces[3 * face + 2];
+        double e1x = vertices[b] - vertices[a], e1y = vertices[b + 1] - vertices[a + 1];
+        double e1z = vertices[b + 2] - vertices[a + 2];
+        double e2x = vertices[c] - vertices[a], e2y = vertices[c + 1] - vertices[a + 1];
+        double e2z = vertices[c + 2] - vertices[a + 2];
+        double nx = e1y * e2z - e1z * e2y, ny = e1z * e2x - e1x * e2z, nz = e1x * e2y - e1y * e2x;
+        return Math.sqrt(nx * nx + ny * ny + nz * nz);
+    }
+
+    /**
+     * Drops the degenerate faces - the faces whose normal is zero, as their vertices are collinear or repeated.
+     * @param vertices the vertex positions
+     * @param faces    the vertex indices of the faces
+     * @return the vertex indices of the other faces, in their order
+     */
+    private static int[] dropDegenerate(double[] vertices, int[] faces) {
+        int[] result = new int[faces.length];
+        int length = 0;
+        for (int i = 0; i < faces.length / 3; ++i) {
+            if (normalLength(vertices, faces, i) != 0) {
+                System.arraycopy(faces, 3 * i, result, length, 3);
+                length += 3;
+            }
+        }
+        return Arrays.copyOf(result, length);
+    }
+
+    /**
+     * Constructs a mesh from an array of vertices and an array of face indices.
+     * @param vertices the vertices
+     * @param faces    the vertex indices of the faces (three per face)
+     * @throws IllegalArgumentException if there are no faces, if the faces are not made of triples
+     *                                  or if a face references a vertex that does not exist
+     */
+    public TriangleMesh(Point[] vertices, int[] faces) {
+        this(flatten(vertices), faces);
+    }
+
+    /**
+     * Copies the coordinates of the vertices into a flat array.
+     * @param vertices the vertices
+     * @return the vertex positions (x, y, z of every vertex)
+     */
+    private static double[] flatten(Point[] vertices) {
+        double[] result = new double[3 * vertices.length];
+        for (int i = 0; i < vertices.length; ++i) {
+            result[3 * i] = vertices[i].getX();
+            result[3 * i + 1] = vertices[i].getY();
+            result[3 * i + 2] = vertices[i].getZ();
+        }
+        return result;
+    }
+
+    /**
+     * @return the amount of faces in the mesh
+     */
+    public int getFaceCount() {
+        return faces.length / 3;
+    }
+
+    /**
+     * Returns the normal of the face that contains the point.
+     * The faces are searched one by one, the normal of an intersection point
+     * is better taken from the geometry of the intersection.
+     * @param point a point on the mesh
+     * @return the normal of the face that contains the point
+     * @throws IllegalArgumentException if the point is not on the mesh
+     */
+    @Override
+    public Vector getNormal(Point point) {
+        for (int i = 0; i < getFaceCount(); ++i) {
+            if (faceContains(i, point))
+                return faceNormal(i);
+        }
+        throw new IllegalArgumentException("The point is not on the mesh");
+    }
+
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        return tree.box(0);
+    }
+
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+        Point p0 = ray.getP0();
+        Vector v = ray.getDir();
+        double ox = p0.getX(), oy = p0.getY(), oz = p0.getZ();
+        double dx = v.getX(), dy = v.getY(), dz = v.getZ();
+        double invX = ray.getInvX(), invY = ray.getInvY(), invZ = ray.getInvZ();
+        int octant = ray.getOctant();
+
+        List<GeoPoint> result = null;
+        int[] stack = traversals.get().stack;
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            if (tree.intersect(node, ox, oy, oz, invX, invY, invZ, octant, maxDistance) == Double.POSITIVE_INFINITY) {
+                continue;
+            }
+            if (tree.isLeaf(node)) {
+                for (int i = tree.start(node), end = i + tree.count(node); i < end; ++i) {
+                    double t = intersectFace(i, ox, oy, oz, dx, dy, dz, maxDistance);
+                    if (t != Double.POSITIVE_INFINITY) {
+                        if (result == null)
+                            result = new LinkedList<>();
+                        result.add(new GeoPoint(new Face(i), ray.getPoint(t), t));
+                    }
+                }
+            } else {
+                stack[top++] = tree.right(node);
+                stack[top++] = node + 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * No object is allocated until the closest face is known, and it is recorded.
+     */
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, double maxDistance, HitRecord hit) {
+        Traversal traversal = traversals.get();
+        int face = closestFace(ray, maxDistance, traversal);
+        return face >= 0 && hit.record(new Face(face), ray, traversal.distance);
+    }
+
+    /**
+     * An opaque mesh blocks the light by any of its faces, so the search stops at the nearest one.
+     */
+    @Override
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance, Double3 ktr, double minK) {
+        if (!getMaterial().kT.productLowerThan(ktr, minK)) {
+            return super.findTransparencyHelper(ray, maxDistance, ktr, minK);
+        }
+        return closestFace(ray, maxDistance, traversals.get()) < 0 ? ktr : Double3.ZERO;
+    }
+
+    /**
+     * Finds the closest face that a ray intersects.
+     * The children of a node are visited nearest first and nodes farther than
+     * the closest intersection found so far are skipped.
+     * @param ray         the ray
+     * @param maxDistance the maximum distance along the ray
+     * @param traversal   the scratch of the thread, its distance is set to the distance of the closest face
+     * @return the index of the closest face in the ordered faces, or -1 if the ray intersects none
+     */
+    private int closestFace(Ray ray, double maxDistance, Traversal traversal) {
+        Point p0 = ray.getP0();
+        Vector v = ray.getDir();
+        double ox = p0.getX(), oy = p0.getY(), oz = p0.getZ();
+        double dx = v.getX(), dy = v.getY(), dz = v.getZ();
+        double invX = ray.getInvX(), invY = ray.getInvY(), invZ = ray.getInvZ();
+        int octant = ray.getOctant();
+
+        double tRoot = tree.intersect(0, ox, oy, oz, invX, invY, invZ, octant, maxDistance);
+        if (tRoot == Double.POSITIVE_INFINITY) {
+            return -1;
+        }
+        int closest = -1;
+        int[] stack = traversal.stack;
+        double[] entries = traversal.entries;
+        int top = 0;
+        stack[top] = 0;
+        entries[top++] = tRoot;
+        while (top > 0) {
+            int node = stack[--top];
+            if (entries[top] > maxDistance) { // a closer intersection was found after the node was pushed
+                continue;
+            }
+            if (tree.isLeaf(node)) {
+                for (int i = tree.start(node), end = i + tree.count(node); i < end; ++i) {
+                    double t = intersectFace(i, ox, oy, oz, dx, dy, dz, maxDistance);
+                    if (t != Double.POSITIVE_INFINITY) {
+                        closest = i;
+                        maxDistance = t;
+                    }
+                }
+            } else {
+                double tLeft = tree.intersect(node + 1, ox, oy, oz, invX, invY, invZ, octant, maxDistance);
+                double tRight = tree.intersect(tree.right(node), ox, oy, oz, invX, invY, invZ, octant, maxDistance);
+                // Push the farther child first so the nearer one is visited first
+                int near = node + 1, far = tree.right(node);
+                if (tRight < tLeft) {
+                    near = far;
+                    far = node + 1;
+                    double t = tLeft;
+                    tLeft = tRight;
+                    tRight = t;
+                }
+                if (tRight != Double.POSITIVE_INFINITY) {
+                    stack[top] = far;
+                    entries[top++] = tRight;
+                }
+                if (tLeft != Double.POSITIVE_INFINITY) {
+                    stack[top] = near;
+                    entries[top++] = tLeft;
+                }
+            }
+        }
+        traversal.distance = maxDistance;
+        return closest;
+    }
+
+    /**
+     * Intersects a ray with a face, like {@link Triangle} does, with the precomputed length of its normal.
+     * @param face        the index of the face in the ordered faces
+     * @param ox          the x coordinate of the ray origin
+     * @param oy          the y coordinate of the ray origin
+     * @param oz          the z coordinate of the ray origin
+     * @param dx          the x component of the ray direction
+     * @param dy          the y component of the ray direction
+     * @param dz          the z component of the ray direction
+     * @param maxDistance the maximum distance along the ray
+     * @return the distance of the intersection along the ray, or positive infinity if there is none
+     */
+    private double intersectFace(int face, double ox, double oy, double oz, double dx, double dy, double dz,
+                                 double maxDistance) {
+        int a = 3 * faces[3 * face], b = 3 * faces[3 * face + 1], c = 3 * faces[3 * face + 2];
+        double ax = vertices[a], ay = vertices[a + 1], az = vertices[a + 2];
+        double e1x = vertices[b] - ax, e1y = vertices[b + 1] - ay, e1z = vertices[b + 2] - az;
+        double e2x = vertices[c] - ax, e2y = vertices[c + 1] - ay, e2z = vertices[c + 2] - az;
+        return Triangle.intersect(ax, ay, az, e1x, e1y, e1z, e2x, e2y, e2z, invNormalLengths[face],
+                ox, oy, oz, dx, dy, dz, maxDistance, null);
+    }
+
+    /**
+     * @param face the index of the face in the ordered faces
+     * @return the unit normal of the face (right hand rule on the order of its vertices)
+     */
+    private Vector faceNormal(int face) {
+        Point a = vertex(faces[3 * face]), b = vertex(faces[3 * face + 1]), c = vertex(faces[3 * face + 2]);
+        return a.subtract(b).crossProduct(a.subtract(c)).normalize();
+    }
+
+    /**
+     * @param vertices the vertex positions
+     * @param faces    the vertex indices of the faces
+     * @param face     the index of the face
+     * @return the bounding box of the face
+     */
+    private static BoundingBox faceBox(double[] vertices, int[] faces, int face) {
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY, minZ = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY, maxZ = Double.NEGATIVE_INFINITY;
+        for (int i = 3 * face; i < 3 * face + 3; ++i) {
+            int v = 3 * faces[i];
+            minX = Math.min(minX, vertices[v]);
+            minY = Math.min(minY, vertices[v + 1]);
+            minZ = Math.min(minZ, vertices[v + 2]);
+            maxX = Math.max(maxX, vertices[v]);
+            maxY = Math.max(maxY, vertices[v + 1]);
+            maxZ = Math.max(maxZ, vertices[v + 2]);
+        }
+        return new BoundingBox(minX, minY, minZ, maxX, maxY, maxZ);
+    }
+
+    /**
+     * Checks whether a point lies on a face, including its edges.
+     * @param face  the index of the face in the ordered faces
+     * @param point the point
+     * @return true if the point is on the face, false otherwise
+     */
+    private boolean faceContains(int face, Point point) {
+        int a = 3 * faces[3 * face], b = 3 * faces[3 * face + 1], c = 3 * faces[3 * face + 2];
+        double ax = vertices[a], ay = vertices[a + 1], az = vertices[a + 2];
+        double e1x = vertices[b] - ax, e1y = vertices[b + 1] - ay, e1z = vertices[b + 2] - az;
+        double e2x = vertices[c] - ax, e2y = vertices[c + 1] - ay, e2z = vertices[c + 2] - az;
+        double px = point.getX() - ax, py = point.getY() - ay, pz = point.getZ() - az;
+
+        // n = e1 x e2
+        double nx = e1y * e2z - e1z * e2y, ny = e1z * e2x - e1x * e2z, nz = e1x * e2y - e1y * e2x;
+        double nn = nx * nx + ny * ny + nz * nz;
+        if (!isZero((px * nx + py * ny + pz * nz) / Math.sqrt(nn))) // not on the plane of the face
+            return false;
+
+        // Barycentric coordinates of the point: u = (p x e2).n / n.n, w = (e1 x p).n / n.n
+        double u = ((py * e2z - pz * e2y) * nx + (pz * e2x - px * e2z) * ny + (px * e2y - py * e2x) * nz) / nn;
+        double w = ((e1y * pz - e1z * py) * nx + (e1z * px - e1x * pz) * ny + (e1x * py - e1y * px) * nz) / nn;
+        return alignZero(u) >= 0 && alignZero(w) >= 0 && alignZero(1 - u - w) >= 0;
+    }
+
+    /**
+     * @param index the index of the vertex
+     * @return the vertex as a point
+     */
+    private Point vertex(int index) {
+        return new Point(vertices[3 * index], vertices[3 * index + 1], vertices[3 * index + 2]);
+    }
+}
@@ -50,8 +50,98 @@ public class Tube extends RadialGeometry {
         return N.normalize();
     }
 
+    /**
+     * A tube whose axis is parallel to a coordinate axis is bounded on the other two axes.
+     * Any other tube is unbounded on every axis.
+     */
     @Override
-    public List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+    protected BoundingBox calcBoundingBox() {
+        Vector v = axisRay.getDir();
+        Point p0 = axisRay.getP0();
+        double inf = Double.POSITIVE_INFINITY;
+        if (isZero(v.getY()) && isZero(v.getZ()))
+            return new BoundingBox(-inf, p0.getY() - radius, p0.getZ() - radius,
+                    inf, p0.getY() + radius, p0.getZ() + radius);
+        if (isZero(v.getX()) && isZero(v.getZ()))
+            return new BoundingBox(p0.getX() - radius, -inf, p0.getZ() - radius,
+                    p0.getX() + radius, inf, p0.getZ() + radius);
+        if (isZero(v.getX()) && isZero(v.getY()))
+            return new BoundingBox(p0.getX() - radius, p0.getY() - radius, -inf,
+                    p0.getX() + radius, p0.getY() + radius, inf);
         return null;
     }
-}
\ No newline at end of file
+
+    @Override
+    public List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+        double[] farther = new double[1];
+        double t1 = intersect(ray, maxDistance, farther);
+        if (t1 == Double.POSITIVE_INFINITY) {
+            return null;
+        }
+        double t2 = farther[0];
+        return t2 == Double.POSITIVE_INFINITY ? List.of(new GeoPoint(this, ray.getPoint(t1), t1))
+                : List.of(new GeoPoint(this, ray.getPoint(t1), t1), new GeoPoint(this, ray.getPoint(t2), t2));
+    }
+
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, double maxDistance, HitRecord hit) {
+        double t = intersect(ray, maxDistance, null);
+        return t != Double.POSITIVE_INFINITY && hit.record(this, ray, t);
+    }
+
+    /**
+     * Calculates the intersections in front of the ray, without creating objects.
+     * Both the ray and the axis are split into their parts along the axis and across it, and only the parts
+     * across the axis matter: the line of the ray crosses the surface where the distance across the axis equals
+     * the radius, a quadratic equation a*t^2 + 2*b*t + c = 0 with a = |d - (d.v)v|^2, b = (d - (d.v)v).(w - (w.v)v)
+     * and c = |w - (w.v)v|^2 - r^2, where d is the direction of the ray, v is the direction of the axis
+     * and w is the vector from the head of the axis to the head of the ray.
+     * The equation is solved once, both crossings are derived from the same discriminant.
+     * A ray parallel to the axis or tangent to the surface does not cross it.
+     * @param ray         the ray
+     * @param maxDistance the maximum distance along the ray
+     * @param farther     filled with the distance of the farther intersection (positive infinity if there is none),
+     *                    or null if only the nearer intersection is needed
+     * @return the distance of the nearer intersection, or positive infinity if there is none
+     */
+    double intersect(Ray ray, double maxDistance, double[] farther) {
+        if (farther != null) {
+            farther[0] = Double.POSITIVE_INFINITY;
+        }
+        Point p0 = ray.getP0(), a = axisRay.getP0();
+        Vector d = ray.getDir(), v = axisRay.getDir();
+        double wx = p0.getX() - a.getX(), wy = p0.getY() - a.getY(), wz = p0.getZ() - a.getZ();
+        double dv = d.getX() * v.getX() + d.getY() * v.getY() + d.getZ() * v.getZ();
+        double wv = wx * v.getX() + wy * v.getY() + wz * v.getZ();
+        double qa = alignZero(1 - dv * dv);
+        if (qa <= 0) { // the ray is parallel to the axis
+            return Double.POSITIVE_INFINITY;
+        }
+        double qb = d.getX() * wx + d.getY() * wy + d.getZ() * wz - dv * wv;
+        double qc = wx * wx + wy * wy + wz * wz - wv * wv - radius * radius;
+        double discriminant = alignZero(qb * qb - qa * qc);
+        if (discriminant <= 0) { // the line misses the tube or is tangent to it
+            return Double.POSITIVE_INFINITY;
+        }
+        double root = Math.sqrt(discriminant);
+        double t1 = within(alignZero((-qb - root) / qa), maxDistance);
+        double t2 = within(alignZero((-qb + root) / qa), maxDistance);
+        if (t1 == Double.POSITIVE_INFINITY) {
+            return t2;
+        }
+        if (farther != null) {
+            farther[0] = t2;
+        }
+        return t1;
+    }
+
+    /**
+     * Keeps a distance along a ray if it is in front of its head and within a maximum distance
+     * @param t           the distance
+     * @param maxDistance the maximum distance along the ray
+     * @return the distance if it is positive and not beyond the maximum distance, positive infinity otherwise
+     */
+    static double within(double t, double maxDistance) {
+        return t > 0 && alignZero(t - maxDistance) <= 0 ? t : Double.POSITIVE_INFINITY;
+    }
+}
@@ -0,0 +1,414 @@
+package geometries;
+
+import primitives.Double3;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * UniformGrid class represents a uniform grid of cells over a collection of intersectable shapes,
+ * for dense scenes of many similar-sized shapes spread evenly through a volume (e.g. particles).
+ * Every cell lists the shapes whose bounding boxes overlap it, and a ray walks through the cells
+ * it crosses in order with the 3D-DDA of Amanatides and Woo.
+ * A shape that spans several cells is tested once per ray - every thread keeps a mailbox with the last ray
+ * that tested every shape.
+ * Shapes without a finite bounding box (e.g. planes) are kept aside and tested for every ray.
+ */
+public class UniformGrid extends Intersectable {
+
+    /** The amount of cells per shape the resolution aims at */
+    private static final double DENSITY = 2;
+
+    /** The maximum amount of cells along an axis */
+    private static final int MAX_RESOLUTION = 256;
+
+    /** The bounded shapes */
+    private final Intersectable[] primitives;
+
+    /** The shapes without a finite bounding box */
+    private final Intersectable[] unbounded;
+
+    /** The bounding box of the bounded shapes (null if there are no bounded shapes) */
+    private final BoundingBox box;
+
+    /** The amount of cells along x, y and z */
+    private final int nx, ny, nz;
+
+    /** The size of a cell along x, y and z */
+    private final double cellX, cellY, cellZ;
+
+    /** The first reference of every cell in {@link #references}, and the end of the last cell */
+    private final int[] cells;
+
+    /** The indices of the shapes of every cell, cell after cell */
+    private final int[] references;
+
+    /** The mailboxes of the threads */
+    private final ThreadLocal<Mailbox> mailboxes;
+
+    /**
+     * The last ray that tested every shape, one per thread.
+     * Rays are numbered per thread, so the mailbox never has to be cleared between rays.
+     */
+    private static final class Mailbox {
+
+        /** The number of the last ray that tested every shape */
+        private final int[] rays;
+
+        /** The number of the current ray */
+        private int ray = 0;
+
+        /**
+         * Constructs an empty mailbox.
+         * @param size the amount of shapes
+         */
+        Mailbox(int size) {
+            rays = new int[size];
+        }
+
+        /**
+         * Starts a new ray.
+         */
+        void next() {
+            if (++ray == Integer.MAX_VALUE) { // the numbers wrapped around - forget the old rays
+                Arrays.fill(rays, 0);
+                ray = 1;
+            }
+        }
+
+        /**
+         * Marks a shape as tested by the current ray.
+         * @param primitive the index of the shape
+         * @return true if the shape was not tested by the current ray before, false otherwise
+         */
+        boolean check(int primitive) {
+            if (rays[primitive] == ray)
+                return false;
+            rays[primitive] = ray;
+            return true;
+        }
+    }
+
+    /**
+     * Builds a grid over the given shapes. The resolution is chosen so there are about
+     * {@link #DENSITY} cells per shape, with cells as close to cubes as possible.
+     * @param intersectables the shapes to be included in the grid
+     */
+    public UniformGrid(List<Intersectable> intersectables) {
+        List<Intersectable> bounded = new LinkedList<>();
+        List<Intersectable> others = new LinkedList<>();
+        BoundingBox total = null;
+        for (Intersectable item : intersectables) {
+            BoundingBox itemBox = item.getBoundingBox();
+            if (itemBox == null || !itemBox.isFinite()) {
+                others.add(item);
+            } else {
+                bounded.add(item);
+                total = total == null ? itemBox : total.union(itemBox);
+            }
+        }
+        unbounded = others.toArray(new Intersectable[0]);
+        primitives = bounded.toArray(new Intersectable[0]);
+        box = total;
+        int n = primitives.length;
+        mailboxes = ThreadLocal.withInitial(() -> new Mailbox(n));
+
+        if (box == null) {
+            nx = ny = nz = 0;
+            cellX = cellY = cellZ = 0;
+            cells = new int[1];
+            references = new int[0];
+            return;
+        }
+
+        // Flat axes get a thickness so the volume of the box is not zero
+        double dx = box.maxX - box.minX, dy = box.maxY - box.minY, dz = box.maxZ - box.minZ;
+        double thickness = Math.max(dx, Math.max(dy, dz)) / MAX_RESOLUTION;
+        if (thickness == 0) {
+            thickness = 1;
+        }
+        double ex = Math.max(dx, thickness), ey = Math.max(dy, thickness), ez = Math.max(dz, thickness);
+        double perUnit = Math.cbrt(DENSITY * n / (ex * ey * ez));
+        nx = resolution(ex * perUnit);
+        ny = resolution(ey * perUnit);
+        nz = resolution(ez * perUnit);
+        cellX = ex / nx;
+        cellY = ey / ny;
+        cellZ = ez / nz;
+
+        // Count the references of every cell, turn the counts into offsets and fill the references
+        int[] counts = new int[nx * ny * nz + 1];
+        int[] ranges = new int[6 * n];
+        for (int i = 0; i < n; ++i) {
+            BoundingBox itemBox = primitives[i].getBoundingBox();
+            ranges[6 * i] = clamp((int) ((itemBox.minX - box.minX) / cellX), nx);
+            ranges[6 * i + 1] = clamp((int) ((itemBox.minY - box.minY) / cellY), ny);
+            ranges[6 * i + 2] = clamp((int) ((itemBox.minZ - box.minZ) / cellZ), nz);
+            ranges[6 * i + 3] = clamp((int) ((itemBox.maxX - box.minX) / cellX), nx);
+            ranges[6 * i + 4] = clamp((int) ((itemBox.maxY - box.minY) / cellY), ny);
+            ranges[6 * i + 5] = clamp((int) ((itemBox.maxZ - box.minZ) / cellZ), nz);
+            for (int z = ranges[6 * i + 2]; z <= ranges[6 * i + 5]; ++z)
+                for (int y = ranges[6 * i + 1]; y <= ranges[6 * i + 4]; ++y)
+                    for (int x = ranges[6 * i]; x <= ranges[6 * i + 3]; ++x)
+                        ++counts[cell(x, y, z) + 1];
+        }
+        for (int c = 1; c < counts.length; ++c)
+            counts[c] += counts[c - 1];
+        cells = counts.clone();
+        references = new int[counts[counts.length - 1]];
+        for (int i = 0; i < n; ++i) {
+            for (int z = ranges[6 * i + 2]; z <= ranges[6 * i + 5]; ++z)
+                for (int y = ranges[6 * i + 1]; y <= ranges[6 * i + 4]; ++y)
+                    for (int x = ranges[6 * i]; x <= ranges[6 * i + 3]; ++x)
+                        references[counts[cell(x, y, z)]++] = i;
+        }
+    }
+
+    /**
+     * @param cells the ideal amount of cells along an axis
+     * @return the amount of cells along the axis, between 1 and {@link #MAX_RESOLUTION}
+     */
+    private static int resolution(double cells) {
+        return Math.max(1, Math.min(MAX_RESOLUTION, (int) Math.round(cells)));
+    }
+
+    /**
+     * @param index an index of a cell along an axis
+     * @param n     the amount of cells along the axis
+     * @return the index, clamped into the grid
+     */
+    private static int clamp(int index, int n) {
+        return index < 0 ? 0 : Math.min(index, n - 1);
+    }
+
+    /**
+     * @param x the index of the cell along x
+     * @param y the index of the cell along y
+     * @param z the index of the cell along z
+     * @return the index of the cell in {@link #cells}
+     */
+    private int cell(int x, int y, int z) {
+        return (z * ny + y) * nx + x;
+    }
+
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        BoundingBox result = box;
+        for (Intersectable item : unbounded) {
+            BoundingBox itemBox = item.getBoundingBox();
+            if (itemBox == null)
+                return null;
+            result = result == null ? itemBox : result.union(itemBox);
+        }
+        return result;
+    }
+
+    /**
+     * Walks a ray through the cells of the grid, nearest first.
+     */
+    private final class Walk {
+
+        /** The index of the current cell along x, y and z */
+        private int x, y, z;
+
+        /** The step to the next cell along x, y and z (1 or -1) */
+        private final int stepX, stepY, stepZ;
+
+        /** The distance along the ray to the next cell border on x, y and z */
+        private double nextX, nextY, nextZ;
+
+        /** The distance along the ray between two cell borders on x, y and z */
+        private final double deltaX, deltaY, deltaZ;
+
+        /** Whether the ray misses the grid */
+        private final boolean miss;
+
+        /**
+         * Starts a walk at the cell where a ray enters the grid.
+         * @param ray         the ray
+         * @param maxDistance the maximum distance along the ray
+         */
+        Walk(Ray ray, double maxDistance) {
+            Point p0 = ray.getP0();
+            Vector v = ray.getDir();
+            double ox = p0.getX(), oy = p0.getY(), oz = p0.getZ();
+            double vx = v.getX(), vy = v.getY(), vz = v.getZ();
+            double t = box.intersect(ox, oy, oz, ray.getInvX(), ray.getInvY(), ray.getInvZ(), maxDistance);
+            miss = t == Double.POSITIVE_INFINITY;
+            if (t < 0) {
+                t = 0;
+            }
+            x = clamp((int) ((ox + t * vx - box.minX) / cellX), nx);
+            y = clamp((int) ((oy + t * vy - box.minY) / cellY), ny);
+            z = clamp((int) ((oz + t * vz - box.minZ) / cellZ), nz);
+
+            stepX = vx < 0 ? -1 : 1;
+            stepY = vy < 0 ? -1 : 1;
+            stepZ = vz < 0 ? -1 : 1;
+            deltaX = vx == 0 ? Double.POSITIVE_INFINITY : cellX / Math.abs(vx);
+            deltaY = vy == 0 ? Double.POSITIVE_INFINITY : cellY / Math.abs(vy);
+            deltaZ = vz == 0 ? Double.POSITIVE_INFINITY : cellZ / Math.abs(vz);
+            nextX = vx == 0 ? Double.POSITIVE_INFINITY : (box.minX + (x + (vx > 0 ? 1 : 0)) * cellX - ox) / vx;
+            nextY = vy == 0 ? Double.POSITIVE_INFINITY : (box.minY + (y + (vy > 0 ? 1 : 0)) * cellY - oy) / vy;
+            nextZ = vz == 0 ? Double.POSITIVE_INFINITY : (box.minZ + (z + (vz > 0 ? 1 : 0)) * cellZ - oz) / vz;
+        }
+
+        /**
+         * @return the index of the current cell in {@link #cells}
+         */
+        int cell() {
+            return UniformGrid.this.cell(x, y, z);
+        }
+
+        /**
+         * @return the distance along the ray where it leaves the current cell
+         */
+        double exit() {
+            return Math.min(nextX, Math.min(nextY, nextZ));
+        }
+
+        /**
+         * Steps to the next cell along the ray.
+         * @param maxDistance the maximum distance along the ray
+         * @return false if the ray leaves the grid or passes the maximum distance, true otherwise
+         */
+        boolean advance(double maxDistance) {
+            if (exit() > maxDistance)
+                return false;
+            if (nextX <= nextY && nextX <= nextZ) {
+                x += stepX;
+                nextX += deltaX;
+                return x >= 0 && x < nx;
+            }
+            if (nextY <= nextZ) {
+                y += stepY;
+                nextY += deltaY;
+                return y >= 0 && y < ny;
+            }
+            z += stepZ;
+            nextZ += deltaZ;
+            return z >= 0 && z < nz;
+        }
+    }
+
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+        List<GeoPoint> result = null;
+        for (Intersectable item : unbounded) {
+            List<GeoPoint> listItem = item.findGeoIntersections(ray, maxDistance);
+            if (listItem != null) {
+                if (result == null)
+                    result = new LinkedList<>();
+                result.addAll(listItem);
+            }
+        }
+        if (box == null) {
+            return result;
+        }
+
+        Walk walk = new Walk(ray, maxDistance);
+        if (walk.miss) {
+            return result;
+        }
+        Mailbox mailbox = mailboxes.get();
+        mailbox.next();
+        do {
+            int cell = walk.cell();
+            for (int r = cells[cell], end = cells[cell + 1]; r < end; ++r) {
+                int i = references[r];
+                if (!mailbox.check(i))
+                    continue;
+                List<GeoPoint> listItem = primitives[i].findGeoIntersections(ray, maxDistance);
+                if (listItem != null) {
+                    if (result == null)
+                        result = new LinkedList<>();
+                    result.addAll(listItem);
+                }
+            }
+        } while (walk.advance(maxDistance));
+        return result;
+    }
+
+    /**
+     * The cells are visited nearest first, so the walk stops at the first cell
+     * that the closest intersection found so far is not beyond.
+     * A shape is tested in the first cell of the shape that the ray crosses, even if it hits the shape in a later cell.
+     */
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, double maxDistance, HitRecord hit) {
+        boolean found = false;
+        for (Intersectable item : unbounded) {
+            if (item.findClosestHit(ray, maxDistance, hit)) {
+                found = true;
+                maxDistance = hit.t;
+            }
+        }
+        if (box == null) {
+            return found;
+        }
+
+        Walk walk = new Walk(ray, maxDistance);
+        if (walk.miss) {
+            return found;
+        }
+        Mailbox mailbox = mailboxes.get();
+        mailbox.next();
+        do {
+            int cell = walk.cell();
+            for (int r = cells[cell], end = cells[cell + 1]; r < end; ++r) {
+                int i = references[r];
+                if (!mailbox.check(i))
+                    continue;
+                if (primitives[i].findClosestHit(ray, maxDistance, hit)) {
+                    found = true;
+                    maxDistance = hit.t;
+                }
+            }
+        } while (walk.advance(maxDistance));
+        return found;
+    }
+
+    /**
+     * The walk stops at the first shape that blocks the ray.
+     */
+    @Override
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance, Double3 ktr, double minK) {
+        for (Intersectable item : unbounded) {
+            ktr = item.findTransparency(ray, maxDistance, ktr, minK);
+            if (ktr.lowerThan(minK))
+                return Double3.ZERO;
+        }
+        if (box == null) {
+            return ktr;
+        }
+
+        Walk walk = new Walk(ray, maxDistance);
+        if (walk.miss) {
+            return ktr;
+        }
+        Mailbox mailbox = mailboxes.get();
+        mailbox.next();
+        do {
+            int cell = walk.cell();
+            for (int r = cells[cell], end = cells[cell + 1]; r < end; ++r) {
+                int i = references[r];
+                if (!mailbox.check(i))
+                    continue;
+                ktr = primitives[i].findTransparency(ray, maxDistance, ktr, minK);
+                if (ktr.lowerThan(minK))
+                    return Double3.ZERO;
+            }
+        } while (walk.advance(maxDistance));
+        return ktr;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("UniformGrid{%d x %d x %d cells, %d shapes, %d references}",
+                nx, ny, nz, primitives.length, references.length);
+    }
+}
@@ -0,0 +1,465 @@
+package geometries;
+
+import primitives.Double3;
+import primitives.Point;
+import primitives.Ray;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * WideBVH class represents a bounding volume hierarchy with 4 or 8 children per node, for big meshes
+ * where the traversal is dominated by memory bandwidth.
+ * The hierarchy is built as a binary {@link BVH} and collapsed, so every node replaces a few levels of the binary tree.
+ * The boxes of the children are quantized to 8 bits per coordinate relative to the box of their parent,
+ * so a node takes several times less memory than the binary nodes it replaces.
+ * The boxes of all the children of a node are kept in planes (all min x, all min y, ...)
+ * and tested together in one fixed-width loop.
+ * Shapes without a finite bounding box (e.g. planes) are kept aside and tested for every ray.
+ */
+public class WideBVH extends Intersectable {
+
+    /** The largest quantized coordinate */
+    private static final int QUANT_MAX = 255;
+
+    /** The child reference of an unused child slot */
+    private static final int EMPTY = -1;
+
+    /** The kernels that test the boxes of all the children of a node together */
+    private static final IntersectionKernels KERNELS = IntersectionKernels.load();
+
+    /** The amount of children per node */
+    private final int width;
+
+    /** The bounded shapes, ordered so every leaf references a contiguous range */
+    private final Intersectable[] primitives;
+
+    /** The shapes without a finite bounding box */
+    private final Intersectable[] unbounded;
+
+    /** The bounding box of the bounded shapes (null if there are no bounded shapes) */
+    private final BoundingBox box;
+
+    /**
+     * The quantization frames of the nodes (min x,y,z and the size of a quantization step along x,y,z of every node).
+     * A quantized coordinate q stands for min + q * step. The frames are rounded outwards to floats.
+     */
+    private float[] frames;
+
+    /**
+     * The quantized boxes of the children, 6 * width per node:
+     * the min x of all the children, then the min y of all the children, ..., then the max z of all the children
+     */
+    private byte[] bounds;
+
+    /**
+     * A value per child: the index of the child node, the first primitive of a leaf,
+     * or {@link #EMPTY} for an unused slot
+     */
+    private int[] children;
+
+    /** A value per child: the amount of primitives of a leaf, 0 for a child node or an unused slot */
+    private byte[] counts;
+
+    /** The amount of nodes */
+    private int size = 0;
+
+    /** The amount of levels in the hierarchy */
+    private int depth = 0;
+
+    /** The amount of leaves, counted while collapsing */
+    private int leaves = 0;
+
+    /** The surface area heuristic cost, not yet divided by the area of the root, accumulated while collapsing */
+    private double cost = 0;
+
+    /** The statistics of the hierarchy build */
+    private final BuildStatistics statistics;
+
+    /**
+     * Builds a hierarchy over the given shapes.
+     * @param intersectables the shapes to be included in the hierarchy
+     * @param width          the amount of children per node (4 or 8)
+     * @throws IllegalArgumentException if the width is not 4 or 8
+     */
+    public WideBVH(List<Intersectable> intersectables, int width) {
+        if (width != 4 && width != 8)
+            throw new IllegalArgumentException("The width of a wide hierarchy must be 4 or 8");
+        this.width = width;
+
+        long start = System.nanoTime();
+        List<Intersectable> bounded = new LinkedList<>();
+        List<Intersectable> others = new LinkedList<>();
+        List<BoundingBox> boxes = new LinkedList<>();
+        for (Intersectable item : intersectables) {
+            BoundingBox itemBox = item.getBoundingBox();
+            if (itemBox == null || !itemBox.isFinite()) {
+                others.add(item);
+            } else {
+                bounded.add(item);
+                boxes.add(itemBox);
+            }
+        }
+        unbounded = others.toArray(new Intersectable[0]);
+
+        Intersectable[] items = bounded.toArray(new Intersectable[0]);
+        int[] order = new int[items.length];
+        BVHNode root = BVH.build(boxes.toArray(new BoundingBox[0]), order);
+        primitives = new Intersectable[items.length];
+        for (int i = 0; i < order.length; ++i) {
+            primitives[i] = items[order[i]];
+        }
+
+        if (root == null) {
+            box = null;
+            statistics = new BuildStatistics(0, 0, 0, 0, 0, System.nanoTime() - start);
+            return;
+        }
+        box = root.box;
+        // Every node but the root replaces at least one inner binary node, and a leaf root takes one node
+        int capacity = Math.max(1, BuildStatistics.of(root, 0, 0).leaves());
+        frames = new float[6 * capacity];
+        bounds = new byte[6 * width * capacity];
+        children = new int[width * capacity];
+        counts = new byte[width * capacity];
+        collapse(root, 1);
+        frames = Arrays.copyOf(frames, 6 * size);
+        bounds = Arrays.copyOf(bounds, 6 * width * size);
+        children = Arrays.copyOf(children, width * size);
+        counts = Arrays.copyOf(counts, width * size);
+
+        long memory = 4L * frames.length + bounds.length + 4L * children.length + counts.length;
+        statistics = new BuildStatistics(size, leaves, depth, cost / box.surfaceArea(), memory,
+                System.nanoTime() - start);
+    }
+
+    /**
+     * Collapses a binary sub-hierarchy into a wide node and its descendants.
+     * The children of the node are collected by repeatedly opening the inner child with the largest surface area.
+     * @param node  the root of the binary sub-hierarchy
+     * @param level the level of the wide node (1 for the root)
+     * @return the index of the wide node
+     */
+    private int collapse(BVHNode node, int level) {
+        int index = size++;
+        depth = Math.max(depth, level);
+        cost += node.box.surfaceArea() * BVH.TRAVERSAL_COST;
+
+        BVHNode[] lanes = new BVHNode[width];
+        int n = 0;
+        lanes[n++] = node;
+        while (n < width) {
+            int open = -1;
+            for (int j = 0; j < n; ++j) {
+                if (!lanes[j].isLeaf() && (open < 0 || lanes[j].box.surfaceArea() > lanes[open].box.surfaceArea()))
+                    open = j;
+            }
+            if (open < 0) {
+                break;
+            }
+            BVHNode opened = lanes[open];
+            lanes[open] = opened.left;
+            lanes[n++] = opened.right;
+        }
+
+        // The quantization frame is the box of the node, the step is rounded up so the max coordinate is reachable
+        BoundingBox frame = node.box;
+        double[] min = {frame.minX, frame.minY, frame.minZ};
+        double[] max = {frame.maxX, frame.maxY, frame.maxZ};
+        double[] step = new double[3];
+        for (int axis = 0; axis < 3; ++axis) {
+            float m = (float) min[axis];
+            if (m > min[axis])
+                m = Math.nextDown(m);
+            float s = (float) ((max[axis] - m) / QUANT_MAX);
+            while ((double) m + QUANT_MAX * (double) s < max[axis])
+                s = Math.nextUp(s);
+            min[axis] = m;
+            step[axis] = s;
+            frames[6 * index + axis] = m;
+            frames[6 * index + axis + 3] = s;
+        }
+
+        int first = width * index;
+        for (int j = 0; j < width; ++j) {
+            if (j >= n) {
+                children[first + j] = EMPTY;
+                continue;
+            }
+            BoundingBox child = lanes[j].box;
+            double[] childMin = {child.minX, child.minY, child.minZ};
+            double[] childMax = {child.maxX, child.maxY, child.maxZ};
+            for (int axis = 0; axis < 3; ++axis) {
+                bounds[6 * first + axis * width + j] = (byte) quantizeMin(childMin[axis], min[axis], step[axis]);
+                bounds[6 * first + (axis + 3) * width + j] = (byte) quantizeMax(childMax[axis], min[axis], step[axis]);
+            }
+            if (lanes[j].isLeaf()) {
+                children[first + j] = lanes[j].start;
+                counts[first + j] = (byte) lanes[j].count;
+                ++leaves;
+                cost += child.surfaceArea() * lanes[j].count;
+            }
+        }
+        // The child nodes are placed after the quantized boxes of their parent are written
+        for (int j = 0; j < n; ++j) {
+            if (!lanes[j].isLeaf())
+                children[first + j] = collapse(lanes[j], level + 1);
+        }
+        return index;
+    }
+
+    /**
+     * Quantizes a min coordinate, rounding down so the quantized box contains the exact one.
+     * @param value the coordinate
+     * @param min   the min coordinate of the frame
+     * @param step  the size of a quantization step
+     * @return the quantized coordinate
+     */
+    private static int quantizeMin(double value, double min, double step) {
+        int q = step == 0 ? 0 : Math.max(0, Math.min(QUANT_MAX, (int) Math.floor((value - min) / step)));
+        while (q > 0 && min + q * step > value)
+            --q;
+        return q;
+    }
+
+    /**
+     * Quantizes a max coordinate, rounding up so the quantized box contains the exact one.
+     * @param value the coordinate
+     * @param min   the min coordinate of the frame
+     * @param step  the size of a quantization step
+     * @return the quantized coordinate
+     */
+    private static int quantizeMax(double value, double min, double step) {
+        int q = step == 0 ? 0 : Math.max(0, Math.min(QUANT_MAX, (int) Math.ceil((value - min) / step)));
+        while (q < QUANT_MAX && min + q * step < value)
+            ++q;
+        return q;
+    }
+
+    /**
+     * Slab test of a ray against the boxes of all the children of a node.
+     * The near and the far plane of every axis are chosen once by the direction of the ray,
+     * so the kernel tests all the children together with no data dependent branches.
+     * @param node the index of the node
+     * @param ox   the x coordinate of the ray origin
+     * @param oy   the y coordinate of the ray origin
+     * @param oz   the z coordinate of the ray origin
+     * @param invX the inverse of the x component of the ray direction, finite (see {@link #finite(double)})
+     * @param invY the inverse of the y component of the ray direction, finite
+     * @param invZ the inverse of the z component of the ray direction, finite
+     * @param tMax the maximum distance along the ray
+     * @param near filled with the entry distance into the box of every child,
+     *             or positive infinity if the ray misses it or the slot is unused
+     */
+    private void intersect(int node, double ox, double oy, double oz, double invX, double invY, double invZ,
+                           double tMax, double[] near) {
+        int f = 6 * node, b = 6 * width * node, c = width * node;
+        // The distance to a quantized plane q along an axis is a + q * s
+        double ax = (frames[f] - ox) * invX, ay = (frames[f + 1] - oy) * invY, az = (frames[f + 2] - oz) * invZ;
+        double sx = frames[f + 3] * invX, sy = frames[f + 4] * invY, sz = frames[f + 5] * invZ;
+        int maxPlanes = 3 * width;
+        int nearX = b + (invX < 0 ? maxPlanes : 0), farX = b + (invX < 0 ? 0 : maxPlanes);
+        int nearY = b + width + (invY < 0 ? maxPlanes : 0), farY = b + width + (invY < 0 ? 0 : maxPlanes);
+        int nearZ = b + 2 * width + (invZ < 0 ? maxPlanes : 0), farZ = b + 2 * width + (invZ < 0 ? 0 : maxPlanes);
+        KERNELS.quantizedBoxes(bounds, nearX, farX, nearY, farY, nearZ, farZ, width, ax, ay, az, sx, sy, sz, tMax,
+                near);
+        for (int j = 0; j < width; ++j) {
+            if (children[c + j] == EMPTY)
+                near[j] = Double.POSITIVE_INFINITY;
+        }
+    }
+
+    /**
+     * Bounds the inverse of a component of a ray direction. A zero component gets a huge finite inverse of the same
+     * sign instead of an infinite one, so the distances to the planes never become NaN (0 * infinity).
+     * @param inv the inverse of the component of the direction (see {@link Ray#getInvX()})
+     * @return the bounded inverse of the component
+     */
+    private static double finite(double inv) {
+        return Double.isInfinite(inv) ? Math.copySign(HUGE, inv) : inv;
+    }
+
+    /** The inverse of a zero direction component */
+    private static final double HUGE = 1e100;
+
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        BoundingBox result = box;
+        for (Intersectable item : unbounded) {
+            BoundingBox itemBox = item.getBoundingBox();
+            if (itemBox == null)
+                return null;
+            result = result == null ? itemBox : result.union(itemBox);
+        }
+        return result;
+    }
+
+    /**
+     * The traversal stack holds children (node * width + slot), so leaves are pushed like child nodes.
+     */
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+        List<GeoPoint> result = null;
+        for (Intersectable item : unbounded) {
+            List<GeoPoint> listItem = item.findGeoIntersections(ray, maxDistance);
+            if (listItem != null) {
+                if (result == null)
+                    result = new LinkedList<>();
+                result.addAll(listItem);
+            }
+        }
+        if (box == null) {
+            return result;
+        }
+
+        Point p0 = ray.getP0();
+        double ox = p0.getX(), oy = p0.getY(), oz = p0.getZ();
+        double invX = finite(ray.getInvX()), invY = finite(ray.getInvY()), invZ = finite(ray.getInvZ());
+
+        double[] near = new double[width];
+        int[] stack = new int[depth * width];
+        int top = 0;
+        int node = 0;
+        while (node >= 0) {
+            intersect(node, ox, oy, oz, invX, invY, invZ, maxDistance, near);
+            for (int j = 0; j < width; ++j) {
+                if (near[j] != Double.POSITIVE_INFINITY)
+                    stack[top++] = width * node + j;
+            }
+            node = -1;
+            while (node < 0 && top > 0) {
+                int child = stack[--top];
+                if (counts[child] == 0) {
+                    node = children[child];
+                    continue;
+                }
+                for (int i = children[child], end = i + counts[child]; i < end; ++i) {
+                    List<GeoPoint> listItem = primitives[i].findGeoIntersections(ray, maxDistance);
+                    if (listItem != null) {
+                        if (result == null)
+                            result = new LinkedList<>();
+                        result.addAll(listItem);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The children of a node are visited nearest first and children farther than
+     * the closest intersection found so far are skipped.
+     */
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, double maxDistance, HitRecord hit) {
+        Point p0 = ray.getP0();
+        boolean found = false;
+        for (Intersectable item : unbounded) {
+            if (item.findClosestHit(ray, maxDistance, hit)) {
+                found = true;
+                maxDistance = hit.t;
+            }
+        }
+        if (box == null) {
+            return found;
+        }
+
+        double ox = p0.getX(), oy = p0.getY(), oz = p0.getZ();
+        double invX = finite(ray.getInvX()), invY = finite(ray.getInvY()), invZ = finite(ray.getInvZ());
+
+        double[] near = new double[width];
+        int[] stack = new int[depth * width];
+        double[] entries = new double[depth * width];
+        int top = 0;
+        int node = 0;
+        while (node >= 0) {
+            intersect(node, ox, oy, oz, invX, invY, invZ, maxDistance, near);
+            // Insert the hit children sorted by distance, the nearest on top of the stack
+            int first = top;
+            for (int j = 0; j < width; ++j) {
+                double t = near[j];
+                if (t == Double.POSITIVE_INFINITY)
+                    continue;
+                int k = top++;
+                while (k > first && entries[k - 1] < t) {
+                    stack[k] = stack[k - 1];
+                    entries[k] = entries[k - 1];
+                    --k;
+                }
+                stack[k] = width * node + j;
+                entries[k] = t;
+            }
+            node = -1;
+            while (node < 0 && top > 0) {
+                int child = stack[--top];
+                if (entries[top] > maxDistance) { // a closer intersection was found after the child was pushed
+                    continue;
+                }
+                if (counts[child] == 0) {
+                    node = children[child];
+                    continue;
+                }
+                for (int i = children[child], end = i + counts[child]; i < end; ++i) {
+                    if (primitives[i].findClosestHit(ray, maxDistance, hit)) {
+                        found = true;
+                        maxDistance = hit.t;
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * The traversal stops at the first shape that blocks the ray.
+     */
+    @Override
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance, Double3 ktr, double minK) {
+        for (Intersectable item : unbounded) {
+            ktr = item.findTransparency(ray, maxDistance, ktr, minK);
+            if (ktr.lowerThan(minK))
+                return Double3.ZERO;
+        }
+        if (box == null) {
+            return ktr;
+        }
+
+        Point p0 = ray.getP0();
+        double ox = p0.getX(), oy = p0.getY(), oz = p0.getZ();
+        double invX = finite(ray.getInvX()), invY = finite(ray.getInvY()), invZ = finite(ray.getInvZ());
+
+        double[] near = new double[width];
+        int[] stack = new int[depth * width];
+        int top = 0;
+        int node = 0;
+        while (node >= 0) {
+            intersect(node, ox, oy, oz, invX, invY, invZ, maxDistance, near);
+            for (int j = 0; j < width; ++j) {
+                if (near[j] != Double.POSITIVE_INFINITY)
+                    stack[top++] = width * node + j;
+            }
+            node = -1;
+            while (node < 0 && top > 0) {
+                int child = stack[--top];
+                if (counts[child] == 0) {
+                    node = children[child];
+                    continue;
+                }
+                for (int i = children[child], end = i + counts[child]; i < end; ++i) {
+                    ktr = primitives[i].findTransparency(ray, maxDistance, ktr, minK);
+                    if (ktr.lowerThan(minK))
+                        return Double3.ZERO;
+                }
+            }
+        }
+        return ktr;
+    }
+
+    /**
+     * @return the statistics of the hierarchy build
+     */
+    public BuildStatistics getStatistics() {
+        return statistics;
+    }
+}
@@ -1,5 +1,6 @@
 package lighting;
 import primitives.Color;
+import primitives.MutableDouble3;
 import primitives.Point;
 import primitives.Vector;
 
@@ -22,6 +23,28 @@ public interface LightSource {
      */
     public Vector getL(Point p);
 
+    /**
+     * Retrieves the intensity of the light at the specified point into a triad, for the shading path.
+     * The default implementation copies {@link #getIntensity(Point)}, light sources that calculate the intensity
+     * calculate it in place, with no objects created on the way.
+     * @param p         the point at which to retrieve the intensity
+     * @param intensity set to the intensity of the light at the specified point
+     */
+    default void getIntensity(Point p, MutableDouble3 intensity) {
+        intensity.set(getIntensity(p));
+    }
+
+    /**
+     * Retrieves the direction vector from the light source to the specified point into a triad, for the shading path.
+     * The default implementation copies {@link #getL(Point)}, light sources that calculate the direction
+     * calculate it in place.
+     * @param p the point for which to retrieve the direction vector
+     * @param l set to the direction vector from the light source to the specified point
+     */
+    default void getL(Point p, MutableDouble3 l) {
+        l.set(getL(p));
+    }
+
     /**
      * Calculates the distance between the light source and the given point.
      * @param point the point for which to calculate the distance
@@ -1,6 +1,7 @@
 package lighting;
 
 import primitives.Color;
+import primitives.MutableDouble3;
 import primitives.Point;
 import primitives.Vector;
 
@@ -70,11 +71,25 @@ public class PointLight extends Light implements LightSource {
         return I0.reduce(factor);
     }
 
+    @Override
+    public void getIntensity(Point p, MutableDouble3 intensity) {
+        double distance = p.distance(position);
+        double distanceSquared = distance * distance;
+        double factor = kC + (kL * distance) + (kQ * distanceSquared);
+        if (factor < 1) throw new IllegalArgumentException("Can't scale a color by a number lower than 1");
+        intensity.set(getIntensity()).reduce(factor);
+    }
+
     @Override
     public Vector getL(Point p) {
         return p.subtract(position).normalize();
     }
 
+    @Override
+    public void getL(Point p, MutableDouble3 l) {
+        l.setDifference(p, position).normalize();
+    }
+
     @Override
     public double getDistance(Point point) {
         return point.distance(this.position);
@@ -1,6 +1,7 @@
 package lighting;
 
 import primitives.Color;
+import primitives.MutableDouble3;
 import primitives.Point;
 import primitives.Vector;
 
@@ -45,5 +46,14 @@ public class SpotLight extends PointLight {
         projection = Math.pow(projection, narrowBeam); // for a narrow beam
         return Il.scale(projection);
     }
+
+    @Override
+    public void getIntensity(Point p, MutableDouble3 intensity) {
+        getL(p, intensity); // the triad holds the direction until the projection is calculated
+        double projection = Math.max(0, intensity.dotProduct(direction));
+        projection = Math.pow(projection, narrowBeam); // for a narrow beam
+        super.getIntensity(p, intensity);
+        intensity.scale(projection);
+    }
 }
 
@@ -9,9 +9,9 @@ package primitives;
 public class Color {
     /**
      * The internal fields maintain RGB components as double numbers from 0 to
-     * whatever...
+     * whatever... (in the color itself, so a color is a single object)
      */
-    private final Double3 rgb;
+    final double r, g, b;
 
     /**
      * Black color = (0,0,0)
@@ -22,7 +22,7 @@ public class Color {
      * Default constructor - to generate Black Color (privately)
      */
     private Color() {
-        rgb = Double3.ZERO;
+        r = g = b = 0;
     }
 
     /**
@@ -36,20 +36,9 @@ public class Color {
      */
     public Color(double r, double g, double b) {
         if (r < 0 || g < 0 || b < 0) throw new IllegalArgumentException("Negative color component is illegal");
-        rgb = new Double3(r, g, b);
-    }
-
-    /**
-     * Constructor to generate a color according to RGB components Each component
-     * in
-     * range 0..255 (for printed white color) or more [for lights]
-     *
-     * @param rgb triad of Red/Green/Blue components
-     */
-    private Color(Double3 rgb) {
-        if (rgb.d1 < 0 || rgb.d2 < 0 || rgb.d3 < 0)
-            throw new IllegalArgumentException("Negative color component is illegal");
-        this.rgb = rgb;
+        this.r = r;
+        this.g = g;
+        this.b = b;
     }
 
     /**
@@ -58,7 +47,9 @@ public class Color {
      * @param other java.awt.Color's source object
      */
     public Color(java.awt.Color other) {
-        rgb = new Double3(other.getRed(), other.getGreen(), other.getBlue());
+        r = other.getRed();
+        g = other.getGreen();
+        b = other.getBlue();
     }
 
     /**
@@ -68,9 +59,9 @@ public class Color {
      * @return java.awt.Color object based on this Color RGB components
      */
     public java.awt.Color getColor() {
-        int ir = (int) rgb.d1;
-        int ig = (int) rgb.d2;
-        int ib = (int) rgb.d3;
+        int ir = (int) r;
+        int ig = (int) g;
+        int ib = (int) b;
         return new java.awt.Color(ir > 255 ? 255 : ir, ig > 255 ? 255 : ig, ib > 255 ? 255 : ib);
     }
 
@@ -81,13 +72,13 @@ public class Color {
      * @return new Color object which is a result of the operation
      */
     public Color add(Color... colors) {
-        double rr = rgb.d1;
-        double rg = rgb.d2;
-        double rb = rgb.d3;
+        double rr = r;
+        double rg = g;
+        double rb = b;
         for (Color c : colors) {
-            rr += c.rgb.d1;
-            rg += c.rgb.d2;
-            rb += c.rgb.d3;
+            rr += c.r;
+            rg += c.g;
+            rb += c.b;
         }
         return new Color(rr, rg, rb);
     }
@@ -101,7 +92,7 @@ public class Color {
     public Color scale(Double3 k) {
         if (k.d1 < 0.0 || k.d2 < 0.0 || k.d3 < 0.0)
             throw new IllegalArgumentException("Can't scale a color by a negative number");
-        return new Color(rgb.product(k));
+        return new Color(r * k.d1, g * k.d2, b * k.d3);
     }
 
     /**
@@ -112,7 +103,7 @@ public class Color {
      */
     public Color scale(double k) {
         if (k < 0.0) throw new IllegalArgumentException("Can't scale a color by a negative number");
-        return new Color(rgb.scale(k));
+        return new Color(r * k, g * k, b * k);
     }
 
     /**
@@ -123,7 +114,7 @@ public class Color {
      */
     public Color reduce(double k) {
         if (k < 1) throw new IllegalArgumentException("Can't scale a color by a by a number lower than 1");
-        return new Color(rgb.reduce(k));
+        return new Color(r / k, g / k, b / k);
     }
 
     /**
@@ -135,11 +126,11 @@ public class Color {
     public Color reduce(Double3 k) {
         if (k.d1 < 1.0 || k.d2 < 1.0 || k.d3 < 1.0)
             throw new IllegalArgumentException("Can't scale a color by a by a number lower than 1");
-        return new Color(rgb.d1 / k.d1, rgb.d2 / k.d2, rgb.d3 / k.d3);
+        return new Color(r / k.d1, g / k.d2, b / k.d3);
     }
 
     @Override
     public String toString() {
-        return "rgb:" + rgb;
+        return "rgb:(" + r + "," + g + "," + b + ")";
     }
 }
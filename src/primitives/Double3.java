@@ -104,6 +104,15 @@ public class Double3 {
       return d1 < k && d2 < k && d3 < k;
    }
 
+   /** Checks whether all the products of the numbers with the numbers of another triad are lower than a test
+    * number, without creating the product triad
+    * @param  rhs right handle side triad
+    * @param  k   the test number
+    * @return     true if all the products are lower than the test number */
+   public boolean productLowerThan(Double3 rhs, double k) {
+      return d1 * rhs.d1 < k && d2 * rhs.d2 < k && d3 * rhs.d3 < k;
+   }
+
    /** Checks whether all the numbers are lower than three numbers in another triad
     * @param  other other triad
     * @return       true if all the numbers are less that appropriate numbers in
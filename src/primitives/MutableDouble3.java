@@ -0,0 +1,170 @@
+package primitives;
+
+/**
+ * A mutable triad of numbers for the hot paths of the renderer (e.g. the shading of every light at every point):
+ * the operations update the triad in place, so a calculation of several steps creates no objects.
+ * It serves the same roles as {@link Double3} - a point, a vector or a color - and calculates with the same
+ * operations in the same order as {@link Point}, {@link Vector} and {@link Color}, so it finds the same numbers.
+ * Unlike a {@link Vector} it may be zero, and unlike a {@link Color} it may be negative -
+ * the checks are made when it is turned into one of them.
+ */
+public final class MutableDouble3 {
+
+    /** First number */
+    public double d1;
+
+    /** Second number */
+    public double d2;
+
+    /** Third number */
+    public double d3;
+
+    /**
+     * Sets the numbers of the triad.
+     * @param d1 first number value
+     * @param d2 second number value
+     * @param d3 third number value
+     * @return this
+     */
+    public MutableDouble3 set(double d1, double d2, double d3) {
+        this.d1 = d1;
+        this.d2 = d2;
+        this.d3 = d3;
+        return this;
+    }
+
+    /**
+     * Sets the numbers of the triad.
+     * @param triad the numbers
+     * @return this
+     */
+    public MutableDouble3 set(Double3 triad) {
+        return set(triad.d1, triad.d2, triad.d3);
+    }
+
+    /**
+     * Sets the triad to the coordinates of a point (or a vector).
+     * @param point the point
+     * @return this
+     */
+    public MutableDouble3 set(Point point) {
+        return set(point.x, point.y, point.z);
+    }
+
+    /**
+     * Sets the triad to the components of a color.
+     * @param color the color
+     * @return this
+     */
+    public MutableDouble3 set(Color color) {
+        return set(color.r, color.g, color.b);
+    }
+
+    /**
+     * Sets the triad to the vector between two points, like {@link Point#subtract(Point)}.
+     * @param head the head of the vector
+     * @param tail the tail of the vector
+     * @return this
+     */
+    public MutableDouble3 setDifference(Point head, Point tail) {
+        return set(head.x - tail.x, head.y - tail.y, head.z - tail.z);
+    }
+
+    /**
+     * Scales (multiplies) the numbers by a number.
+     * @param k the factor
+     * @return this
+     */
+    public MutableDouble3 scale(double k) {
+        return set(d1 * k, d2 * k, d3 * k);
+    }
+
+    /**
+     * Reduces (divides) the numbers by a number.
+     * @param k the divisor
+     * @return this
+     */
+    public MutableDouble3 reduce(double k) {
+        return set(d1 / k, d2 / k, d3 / k);
+    }
+
+    /**
+     * Multiplies every number by the matching number of another triad.
+     * @param k the factors
+     * @return this
+     */
+    public MutableDouble3 product(Double3 k) {
+        return set(d1 * k.d1, d2 * k.d2, d3 * k.d3);
+    }
+
+    /**
+     * Subtracts a scaled vector, like {@code subtract(vector.scale(k))} of a {@link Vector}.
+     * @param vector the vector
+     * @param k      the scale of the vector
+     * @return this
+     */
+    public MutableDouble3 subtractScaled(Vector vector, double k) {
+        return set(d1 - vector.x * k, d2 - vector.y * k, d3 - vector.z * k);
+    }
+
+    /**
+     * Adds a triad scaled by the numbers of another triad scaled by a number -
+     * like {@code add(a.scale(k.scale(s)))} of a {@link Color}.
+     * @param a the triad to add
+     * @param k the factors of the triad
+     * @param s the scale of the factors
+     * @return this
+     */
+    public MutableDouble3 addProduct(MutableDouble3 a, Double3 k, double s) {
+        return set(d1 + a.d1 * (k.d1 * s), d2 + a.d2 * (k.d2 * s), d3 + a.d3 * (k.d3 * s));
+    }
+
+    /**
+     * Normalizes the triad as a vector, like {@link Vector#normalize()}.
+     * @return this
+     */
+    public MutableDouble3 normalize() {
+        return reduce(length());
+    }
+
+    /**
+     * @return the length of the triad as a vector
+     */
+    public double length() {
+        return Math.sqrt(d1 * d1 + d2 * d2 + d3 * d3);
+    }
+
+    /**
+     * Calculates the dot product with a vector, like {@link Vector#dotProduct(Vector)}.
+     * @param vector the vector
+     * @return the dot product
+     */
+    public double dotProduct(Vector vector) {
+        return d1 * vector.x + d2 * vector.y + d3 * vector.z;
+    }
+
+    /**
+     * Checks whether all the numbers are lower than a test number
+     * @param k the test number
+     * @return true if all the numbers are less than k, false otherwise
+     */
+    public boolean lowerThan(double k) {
+        return d1 < k && d2 < k && d3 < k;
+    }
+
+    /**
+     * @return a vector of the numbers
+     * @throws IllegalArgumentException if the numbers are all zero
+     */
+    public Vector toVector() {
+        return new Vector(d1, d2, d3);
+    }
+
+    /**
+     * @return a color of the numbers
+     * @throws IllegalArgumentException if a number is negative
+     */
+    public Color toColor() {
+        return new Color(d1, d2, d3);
+    }
+}
@@ -2,7 +2,6 @@ package primitives;
 import static primitives.Util.*;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Objects;
 import java.util.Random;
 
 /**
@@ -10,8 +9,11 @@ import java.util.Random;
  */
 public class Point {
 
-    /** Double3 to represent a point with 3 double type coordinates */
-    final Double3 xyz;
+    /**
+     * The coordinates of the point, kept in the point itself (and not in a {@link Double3}),
+     * so a point is a single object and its coordinates are read without following a reference
+     */
+    final double x, y, z;
 
     /**
      * Constructs a new point with the specified coordinates.
@@ -20,7 +22,9 @@ public class Point {
      * @param z the z-coordinate of the point
      */
     public Point(double x, double y, double z){
-        xyz = new Double3(x,y,z);
+        this.x = x;
+        this.y = y;
+        this.z = z;
     }
 
     /**
@@ -35,27 +39,27 @@ public class Point {
      * @return the X coordinate of the point
      */
     public double getX() {
-        return xyz.d1;
+        return x;
     }
 
     /**
      * @return the Y coordinate of the point
      */
     public double getY() {
-        return xyz.d2;
+        return y;
     }
 
     /**
      * @return the Z coordinate of the point
      */
     public double getZ() {
-        return xyz.d3;
+        return z;
     }
 
     /**
-     * @return this point
+     * @return the coordinates of this point
      */
-    public Double3 getXyz() { return xyz;}
+    public Double3 getXyz() { return new Double3(x, y, z);}
 
     /**
      * Returns the vector from this point to the specified point.
@@ -63,7 +67,7 @@ public class Point {
      * @return the vector from this point to the specified point
      */
     public Vector subtract(Point point){
-        return new Vector(this.xyz.subtract(point.xyz));
+        return new Vector(this.x - point.x, this.y - point.y, this.z - point.z);
     }
 
     /**
@@ -72,7 +76,7 @@ public class Point {
      * @return the new point that is the result of adding the specified vector to this point
      */
     public Point add(Vector vector){
-        return new Point(this.xyz.add(vector.xyz));
+        return new Point(this.x + vector.x, this.y + vector.y, this.z + vector.z);
     }
 
     /**
@@ -81,9 +85,9 @@ public class Point {
      * @return the square of the distance between this point and the specified point
      */
     public double distanceSquared(Point point){
-        return  (this.xyz.d1 - point.xyz.d1) * (this.xyz.d1 - point.xyz.d1) +
-                (this.xyz.d2 - point.xyz.d2) * (this.xyz.d2 - point.xyz.d2) +
-                (this.xyz.d3 - point.xyz.d3) * (this.xyz.d3 - point.xyz.d3);
+        return  (this.x - point.x) * (this.x - point.x) +
+                (this.y - point.y) * (this.y - point.y) +
+                (this.z - point.z) * (this.z - point.z);
     }
 
     /**
@@ -99,17 +103,18 @@ public class Point {
     public boolean equals(Object obj) {
         if (this == obj) return true;
         if (!(obj instanceof Point other)) return false;
-        return xyz.equals(other.xyz);
+        return isZero(x - other.x) && isZero(y - other.y) && isZero(z - other.z);
     }
 
     @Override
     public int hashCode(){
-        return Objects.hash(this.xyz);
+        // coarse, as equal points may differ a little
+        return (int) Math.round(x + y + z);
     }
 
     @Override
     public String toString(){
-        return "Point: " + this.xyz;
+        return "Point: (" + x + "," + y + "," + z + ")";
     }
 
     /**
@@ -18,6 +18,12 @@ public class Ray {
     /** Vector of the ray */
     final private Vector dir;
 
+    /** The inverses of the components of the direction, so the slab tests of boxes only multiply */
+    final private double invX, invY, invZ;
+
+    /** The signs of the components of the direction - bit 0, 1 or 2 is set if x, y or z is negative */
+    final private int octant;
+
     /** The delta value used for moving ray's point. */
     private static final double DELTA = 0.1;
 
@@ -27,13 +33,27 @@ public class Ray {
      * @param dir the direction vector of the ray
      */
     public Ray(Point p0, Vector dir) {
+        this(p0, dir, false);
+    }
+
+    /**
+     * Constructs a Ray object with the given origin point and direction vector.
+     * A direction the caller knows to be normalized (e.g. a reflected vector, or the direction of another ray)
+     * is taken as it is, without checking its length.
+     * @param p0         the origin point of the ray
+     * @param dir        the direction vector of the ray
+     * @param normalized whether the direction is known to be normalized
+     */
+    public Ray(Point p0, Vector dir, boolean normalized) {
         this.p0 = p0;
-        double d = alignZero(dir.length() - 1);
-        if (!isZero(d)) { // if the vector is not normalized
-            this.dir = dir.normalize();
+        if (!normalized && !isZero(alignZero(dir.length() - 1))) { // if the vector is not normalized
+            dir = dir.normalize();
         }
-        else
-            this.dir = dir;
+        this.dir = dir;
+        invX = 1 / dir.x;
+        invY = 1 / dir.y;
+        invZ = 1 / dir.z;
+        octant = octant(invX, invY, invZ);
     }
 
     /**
@@ -43,15 +63,42 @@ public class Ray {
      * @param normal    the normal vector used for calculations
      */
     public Ray(Point head, Vector direction, Vector normal) {
-        this.dir = direction.normalize();
+        this(head, direction, normal, false);
+    }
+
+    /**
+     * Constructs a Ray object with the given head, direction, and normal vectors.
+     * A direction the caller knows to be normalized is taken as it is.
+     * @param head       the starting point of the ray
+     * @param direction  the direction vector of the ray
+     * @param normal     the normal vector used for calculations
+     * @param normalized whether the direction is known to be normalized
+     */
+    public Ray(Point head, Vector direction, Vector normal, boolean normalized) {
+        this.dir = normalized ? direction : direction.normalize();
         double nv = normal.dotProduct(this.dir);
         if (isZero(nv)) {
            this.p0 = head;
         }
-        else {
-            Vector delta = normal.scale(nv > 0 ? DELTA : -DELTA);
-            this.p0 = head.add(delta);
+        else { // the head moved by the normal scaled by the delta, with no intermediate vector
+            double delta = nv > 0 ? DELTA : -DELTA;
+            this.p0 = new Point(head.x + normal.x * delta, head.y + normal.y * delta, head.z + normal.z * delta);
         }
+        invX = 1 / dir.x;
+        invY = 1 / dir.y;
+        invZ = 1 / dir.z;
+        octant = octant(invX, invY, invZ);
+    }
+
+    /**
+     * @param invX the inverse of the x component of a direction
+     * @param invY the inverse of the y component of a direction
+     * @param invZ the inverse of the z component of a direction
+     * @return the octant of the direction (see {@link #getOctant()})
+     */
+    private static int octant(double invX, double invY, double invZ) {
+        // The inverses keep the sign of a zero component (1 / -0.0 is negative infinity)
+        return (invX < 0 ? 1 : 0) | (invY < 0 ? 2 : 0) | (invZ < 0 ? 4 : 0);
     }
 
     /**
@@ -68,6 +115,36 @@ public class Ray {
         return dir;
     }
 
+    /**
+     * @return the inverse of the x component of the direction
+     */
+    public double getInvX() {
+        return invX;
+    }
+
+    /**
+     * @return the inverse of the y component of the direction
+     */
+    public double getInvY() {
+        return invY;
+    }
+
+    /**
+     * @return the inverse of the z component of the direction
+     */
+    public double getInvZ() {
+        return invZ;
+    }
+
+    /**
+     * Returns the octant of the direction - bit 0, 1 or 2 is set if the x, y or z component is negative.
+     * The slab test of a box and the traversal order of a hierarchy depend on the signs only.
+     * @return the octant of the direction
+     */
+    public int getOctant() {
+        return octant;
+    }
+
     /***
      * Returns a new point that is located at a distance of delta along the direction
      * of this line segment, starting from point p0.
@@ -113,18 +190,32 @@ public class Ray {
 
         // Initialize the closest point to the first point in the list
         GeoPoint closest = geoPoints.get(0);
+        double minDistance = distance(closest);
 
         // Iterate through all the points in the list
         for (var point : geoPoints) {
             // if the distance between the current point and the reference point p0 is less than the distance
             // between the closest point and the reference point p0, set the current point as the closest point
-            if (point.point.distance(p0) < closest.point.distance(p0))
+            double distance = distance(point);
+            if (distance < minDistance) {
                 closest = point;
+                minDistance = distance;
+            }
         }
         // return the closest point
         return closest;
     }
 
+    /**
+     * Returns the distance of a point from the head of the ray - the distance kept by an intersection point,
+     * calculated only for points that do not keep it.
+     * @param geoPoint the point
+     * @return the distance of the point
+     */
+    private double distance(GeoPoint geoPoint) {
+        return Double.isNaN(geoPoint.t) ? geoPoint.point.distance(p0) : geoPoint.t;
+    }
+
     /**
      * Finds the closest point from the given list of points.
      * @param points the list of points to search from
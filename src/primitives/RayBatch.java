@@ -0,0 +1,149 @@
+package primitives;
+
+import geometries.Geometry;
+
+import java.util.Arrays;
+
+/**
+ * RayBatch class represents many rays as structure of arrays - the coordinates of the origins and the directions,
+ * the range of distances along every ray and its closest hit, each in an array of its own.
+ * A batch is allocated once and refilled, so the stages of a renderer can pass thousands of rays
+ * (e.g. all the rays of a bounce) without creating a {@link Ray} with its points and vectors for every one of them.
+ * The directions must be normalized, so the distances along the rays are their parameters.
+ */
+public final class RayBatch {
+
+    /** The coordinates of the origins of the rays */
+    public final double[] ox, oy, oz;
+
+    /** The coordinates of the normalized directions of the rays */
+    public final double[] dx, dy, dz;
+
+    /** The distance along every ray where it starts - intersections up to it are ignored */
+    public final double[] tMin;
+
+    /** The distance along every ray where it ends, set to the distance of the closest hit when one is found */
+    public final double[] tMax;
+
+    /** The geometry of the closest hit of every ray, or null if the ray hits nothing */
+    public final Geometry[] hit;
+
+    /** The amount of rays in the batch */
+    private int size = 0;
+
+    /**
+     * Constructs an empty batch.
+     * @param capacity the maximum amount of rays in the batch
+     */
+    public RayBatch(int capacity) {
+        ox = new double[capacity];
+        oy = new double[capacity];
+        oz = new double[capacity];
+        dx = new double[capacity];
+        dy = new double[capacity];
+        dz = new double[capacity];
+        tMin = new double[capacity];
+        tMax = new double[capacity];
+        hit = new Geometry[capacity];
+    }
+
+    /**
+     * @return the maximum amount of rays in the batch
+     */
+    public int capacity() {
+        return hit.length;
+    }
+
+    /**
+     * @return the amount of rays in the batch
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes all the rays of the batch.
+     */
+    public void clear() {
+        Arrays.fill(hit, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * Adds a ray to the batch, with no hit yet.
+     * @param ox   the x coordinate of the origin
+     * @param oy   the y coordinate of the origin
+     * @param oz   the z coordinate of the origin
+     * @param dx   the x coordinate of the normalized direction
+     * @param dy   the y coordinate of the normalized direction
+     * @param dz   the z coordinate of the normalized direction
+     * @param tMin the distance along the ray where it starts
+     * @param tMax the distance along the ray where it ends (positive infinity for an endless ray)
+     * @return the index of the ray in the batch
+     * @throws IllegalStateException if the batch is full
+     */
+    public int add(double ox, double oy, double oz, double dx, double dy, double dz, double tMin, double tMax) {
+        if (size == hit.length)
+            throw new IllegalStateException("The batch is full");
+        int k = size++;
+        this.ox[k] = ox;
+        this.oy[k] = oy;
+        this.oz[k] = oz;
+        this.dx[k] = dx;
+        this.dy[k] = dy;
+        this.dz[k] = dz;
+        this.tMin[k] = tMin;
+        this.tMax[k] = tMax;
+        hit[k] = null;
+        return k;
+    }
+
+    /**
+     * Adds an endless ray to the batch, with no hit yet.
+     * @param ray the ray
+     * @return the index of the ray in the batch
+     * @throws IllegalStateException if the batch is full
+     */
+    public int add(Ray ray) {
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        return add(p0.getX(), p0.getY(), p0.getZ(), dir.getX(), dir.getY(), dir.getZ(), 0, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Records a hit of a ray if it is the closest one so far.
+     * @param k        the index of the ray
+     * @param geometry the geometry of the hit
+     * @param t        the distance of the hit along the ray
+     */
+    public void hit(int k, Geometry geometry, double t) {
+        if (hit[k] == null || t < tMax[k]) {
+            hit[k] = geometry;
+            tMax[k] = t;
+        }
+    }
+
+    /**
+     * Creates a ray object of a ray of the batch, for the code that works on ray objects.
+     * The ray starts at the start of the ray of the batch ({@link #tMin}), so its distances are
+     * the distances along the ray of the batch minus the start.
+     * @param k the index of the ray
+     * @return the ray from the start of the ray of the batch
+     */
+    public Ray ray(int k) {
+        double t = tMin[k];
+        return new Ray(new Point(ox[k] + t * dx[k], oy[k] + t * dy[k], oz[k] + t * dz[k]),
+                new Vector(dx[k], dy[k], dz[k]), true);
+    }
+
+    /**
+     * @param k the index of a ray
+     * @return the point of the closest hit of the ray, or null if the ray hits nothing
+     */
+    public Point hitPoint(int k) {
+        if (hit[k] == null)
+            return null;
+        double t = tMax[k];
+        return new Point(ox[k] + t * dx[k], oy[k] + t * dy[k], oz[k] + t * dz[k]);
+    }
+}
@@ -0,0 +1,202 @@
+package primitives;
+
+import static primitives.Util.isZero;
+
+/**
+ * Transform class represents an affine transformation of the 3D Cartesian coordinate system -
+ * a 4x4 matrix whose last row is (0, 0, 0, 1). The inverse matrix is calculated once on construction.
+ * Transforms are immutable, and combined with {@link #then(Transform)}.
+ */
+public final class Transform {
+
+    /** The identity transform */
+    public static final Transform IDENTITY = new Transform(new double[]{1, 0, 0, 0, 0, 1, 0, 0, 0, 0, 1, 0});
+
+    /** The first three rows of the matrix, row by row */
+    private final double[] m;
+
+    /** The first three rows of the inverse matrix, row by row */
+    private final double[] inv;
+
+    /**
+     * Constructs a transform from a 4x4 matrix.
+     * @param matrix the matrix, row by row
+     * @throws IllegalArgumentException if the matrix is not a 4x4 affine matrix, or it has no inverse
+     */
+    public Transform(double[][] matrix) {
+        this(rows(matrix));
+    }
+
+    /**
+     * Constructs a transform from the first three rows of its matrix.
+     * @param m the first three rows of the matrix, row by row
+     * @throws IllegalArgumentException if the matrix has no inverse
+     */
+    private Transform(double[] m) {
+        this(m, invert(m));
+    }
+
+    /**
+     * Constructs a transform from its matrix and the inverse matrix.
+     * @param m   the first three rows of the matrix, row by row
+     * @param inv the first three rows of the inverse matrix, row by row
+     */
+    private Transform(double[] m, double[] inv) {
+        this.m = m;
+        this.inv = inv;
+    }
+
+    /**
+     * @param matrix a 4x4 affine matrix, row by row
+     * @return the first three rows of the matrix, row by row
+     * @throws IllegalArgumentException if the matrix is not a 4x4 affine matrix
+     */
+    private static double[] rows(double[][] matrix) {
+        if (matrix.length != 4)
+            throw new IllegalArgumentException("A transform matrix must have 4 rows");
+        for (double[] row : matrix)
+            if (row.length != 4)
+                throw new IllegalArgumentException("A transform matrix must have 4 columns");
+        if (!isZero(matrix[3][0]) || !isZero(matrix[3][1]) || !isZero(matrix[3][2]) || !isZero(matrix[3][3] - 1))
+            throw new IllegalArgumentException("The last row of an affine transform matrix must be (0, 0, 0, 1)");
+        double[] m = new double[12];
+        for (int r = 0; r < 3; ++r)
+            System.arraycopy(matrix[r], 0, m, 4 * r, 4);
+        return m;
+    }
+
+    /**
+     * Inverts an affine matrix - the inverse of the linear part by its adjugate, and the translation moved back.
+     * @param m the first three rows of the matrix, row by row
+     * @return the first three rows of the inverse matrix, row by row
+     * @throws IllegalArgumentException if the matrix has no inverse
+     */
+    private static double[] invert(double[] m) {
+        double a = m[0], b = m[1], c = m[2], d = m[4], e = m[5], f = m[6], g = m[8], h = m[9], i = m[10];
+        double c00 = e * i - f * h, c01 = c * h - b * i, c02 = b * f - c * e;
+        double det = a * c00 + d * c01 + g * c02;
+        if (isZero(det))
+            throw new IllegalArgumentException("A transform must have an inverse");
+        double[] inv = new double[12];
+        inv[0] = c00 / det;
+        inv[1] = c01 / det;
+        inv[2] = c02 / det;
+        inv[4] = (f * g - d * i) / det;
+        inv[5] = (a * i - c * g) / det;
+        inv[6] = (c * d - a * f) / det;
+        inv[8] = (d * h - e * g) / det;
+        inv[9] = (b * g - a * h) / det;
+        inv[10] = (a * e - b * d) / det;
+        for (int r = 0; r < 3; ++r)
+            inv[4 * r + 3] = -(inv[4 * r] * m[3] + inv[4 * r + 1] * m[7] + inv[4 * r + 2] * m[11]);
+        return inv;
+    }
+
+    /**
+     * Creates a translation.
+     * @param offset the offset of the translation
+     * @return the translation
+     */
+    public static Transform translation(Vector offset) {
+        return new Transform(new double[]{1, 0, 0, offset.getX(), 0, 1, 0, offset.getY(), 0, 0, 1, offset.getZ()});
+    }
+
+    /**
+     * Creates a scaling about the origin.
+     * @param sx the scale along x
+     * @param sy the scale along y
+     * @param sz the scale along z
+     * @return the scaling
+     * @throws IllegalArgumentException if any of the scales is zero
+     */
+    public static Transform scaling(double sx, double sy, double sz) {
+        return new Transform(new double[]{sx, 0, 0, 0, 0, sy, 0, 0, 0, 0, sz, 0});
+    }
+
+    /**
+     * Creates a rotation about an axis through the origin (Rodrigues' rotation formula).
+     * @param axis  the axis of the rotation
+     * @param theta the angle of the rotation (degrees)
+     * @return the rotation
+     */
+    public static Transform rotation(Vector axis, double theta) {
+        Vector u = axis.normalize();
+        double x = u.getX(), y = u.getY(), z = u.getZ();
+        double thetaRad = Math.toRadians(theta);
+        double cos = Math.cos(thetaRad), sin = Math.sin(thetaRad), t = 1 - cos;
+        return new Transform(new double[]{
+                t * x * x + cos, t * x * y - sin * z, t * x * z + sin * y, 0,
+                t * x * y + sin * z, t * y * y + cos, t * y * z - sin * x, 0,
+                t * x * z - sin * y, t * y * z + sin * x, t * z * z + cos, 0});
+    }
+
+    /**
+     * Combines this transform with a following one.
+     * @param next the transform applied after this one
+     * @return the transform that applies this transform and then the next one
+     */
+    public Transform then(Transform next) {
+        return new Transform(multiply(next.m, m), multiply(inv, next.inv));
+    }
+
+    /**
+     * Multiplies two affine matrices.
+     * @param a the first three rows of the left matrix
+     * @param b the first three rows of the right matrix
+     * @return the first three rows of the product
+     */
+    private static double[] multiply(double[] a, double[] b) {
+        double[] result = new double[12];
+        for (int r = 0; r < 3; ++r) {
+            for (int c = 0; c < 4; ++c)
+                result[4 * r + c] = a[4 * r] * b[c] + a[4 * r + 1] * b[4 + c] + a[4 * r + 2] * b[8 + c];
+            result[4 * r + 3] += a[4 * r + 3];
+        }
+        return result;
+    }
+
+    /**
+     * @return the inverse transform
+     */
+    public Transform inverse() {
+        return new Transform(inv, m);
+    }
+
+    /**
+     * Transforms a point.
+     * @param point the point
+     * @return the transformed point
+     */
+    public Point apply(Point point) {
+        double x = point.getX(), y = point.getY(), z = point.getZ();
+        return new Point(m[0] * x + m[1] * y + m[2] * z + m[3],
+                m[4] * x + m[5] * y + m[6] * z + m[7],
+                m[8] * x + m[9] * y + m[10] * z + m[11]);
+    }
+
+    /**
+     * Transforms a direction - the translation does not apply to it.
+     * The length of the direction changes by the scale of the transform along it.
+     * @param vector the direction
+     * @return the transformed direction
+     */
+    public Vector applyToVector(Vector vector) {
+        double x = vector.getX(), y = vector.getY(), z = vector.getZ();
+        return new Vector(m[0] * x + m[1] * y + m[2] * z,
+                m[4] * x + m[5] * y + m[6] * z,
+                m[8] * x + m[9] * y + m[10] * z);
+    }
+
+    /**
+     * Transforms a normal of a surface, so it stays orthogonal to the transformed surface
+     * (by the transposed inverse of the matrix).
+     * @param normal the normal
+     * @return the transformed normal, normalized
+     */
+    public Vector applyToNormal(Vector normal) {
+        double x = normal.getX(), y = normal.getY(), z = normal.getZ();
+        return new Vector(inv[0] * x + inv[4] * y + inv[8] * z,
+                inv[1] * x + inv[5] * y + inv[9] * z,
+                inv[2] * x + inv[6] * y + inv[10] * z).normalize();
+    }
+}
@@ -1,5 +1,7 @@
 package primitives;
 
+import static primitives.Util.isZero;
+
 /**
  * Vector class represents a vector in 3D Cartesian coordinate system.
  * It extends the Point class, which holds the vector's (x, y, z) values.
@@ -15,7 +17,7 @@ public class Vector extends Point {
      */
     public Vector(double x, double y, double z) {
         super(x, y, z);
-        if (this.xyz.equals(Double3.ZERO)) {
+        if (isZero(x) && isZero(y) && isZero(z)) {
             throw new IllegalArgumentException("Vector ZERO is not allowed");
         }
     }
@@ -26,10 +28,7 @@ public class Vector extends Point {
      * @throws IllegalArgumentException if the vector's values are (0,0,0).
      */
     Vector(Double3 double3) {
-        super(double3);
-        if (this.xyz.equals(Double3.ZERO)) {
-            throw new IllegalArgumentException("Vector ZERO is not allowed");
-        }
+        this(double3.d1, double3.d2, double3.d3);
     }
 
     /**
@@ -38,7 +37,7 @@ public class Vector extends Point {
      * @return a new Vector object that is the sum of the two vectors.
      */
     public Vector add(Vector vector) {
-        return new Vector(this.xyz.add(vector.xyz));
+        return new Vector(this.x + vector.x, this.y + vector.y, this.z + vector.z);
     }
 
     /**
@@ -47,7 +46,7 @@ public class Vector extends Point {
      * @return a new Vector object that is the scaled vector.
      */
     public Vector scale(double d) {
-        return new Vector(this.xyz.d1 * d, this.xyz.d2 * d, this.xyz.d3 * d);
+        return new Vector(this.x * d, this.y * d, this.z * d);
     }
 
     /**
@@ -56,9 +55,9 @@ public class Vector extends Point {
      * @return the dot product of the two vectors.
      */
     public double dotProduct(Vector vector) {
-        return this.xyz.d1 * vector.xyz.d1 +
-                this.xyz.d2 * vector.xyz.d2 +
-                this.xyz.d3 * vector.xyz.d3;
+        return this.x * vector.x +
+                this.y * vector.y +
+                this.z * vector.z;
     }
 
     /**
@@ -67,9 +66,9 @@ public class Vector extends Point {
      * @return a new Vector object that is the cross product of the two vectors.
      */
     public Vector crossProduct(Vector vector) {
-        return new Vector(this.xyz.d2 * vector.xyz.d3 - this.xyz.d3 * vector.xyz.d2,
-                this.xyz.d3 * vector.xyz.d1 - this.xyz.d1 * vector.xyz.d3,
-                this.xyz.d1 * vector.xyz.d2 - this.xyz.d2 * vector.xyz.d1);
+        return new Vector(this.y * vector.z - this.z * vector.y,
+                this.z * vector.x - this.x * vector.z,
+                this.x * vector.y - this.y * vector.x);
     }
 
     /**
@@ -77,9 +76,9 @@ public class Vector extends Point {
      * @return the squared length of this vector.
      */
     public double lengthSquared() {
-        return this.xyz.d1 *this.xyz.d1
-                + this.xyz.d2 *this.xyz.d2
-                +this.xyz.d3 *this.xyz.d3;
+        return this.x * this.x
+                + this.y * this.y
+                + this.z * this.z;
     }
 
     /**
@@ -97,13 +96,13 @@ public class Vector extends Point {
      */
     public Vector normalize(){
         double len = length();
-        return new Vector(xyz.reduce(len));
+        return new Vector(x / len, y / len, z / len);
     }
 
     @Override
     public String toString() {
         return "Vector{" +
-                "xyz=" + xyz +
+                "xyz=(" + x + "," + y + "," + z + ")" +
                 '}';
     }
 
@@ -120,14 +119,11 @@ public class Vector extends Point {
     public Vector vectorRotation(Vector axis, double theta) {
 
         // Variables used in computing
-        double x, y, z;
+        double x = this.x, y = this.y, z = this.z;
         double u, v, w;
-        x = this.getXyz().d1;
-        y = this.getXyz().d2;
-        z = this.xyz.d3;
-        u = axis.xyz.d1;
-        v = axis.xyz.d2;
-        w = axis.xyz.d3;
+        u = axis.x;
+        v = axis.y;
+        w = axis.z;
         double v1 = u * x + v * y + w * z;
 
         // Convert degrees to Rad
@@ -97,6 +97,11 @@ public class Camera {
      */
     private int threadsCount = 0;
 
+    /**
+     * Amount of primary rays traced together as a packet (1 - every ray by itself)
+     */
+    private int packetSize = 1;
+
     /**
      * Maximum level for the recursion
      */
@@ -140,6 +145,21 @@ public class Camera {
         return this;
     }
 
+    /**
+     * Sets the amount of primary rays traced together as a packet - the rays of a tile of 2x2 (4 rays)
+     * or 4x2 (8 rays) neighbouring pixels are coherent and share the traversal of the acceleration structure.
+     * Depth of field and adaptive super sampling trace every ray by itself.
+     * @param packetSize 1 (every ray by itself), 4 or 8
+     * @return this (Builder design pattern)
+     * @throws IllegalArgumentException if the packet size is not 1, 4 or 8
+     */
+    public Camera setPacketSize(int packetSize) {
+        if (packetSize != 1 && packetSize != 4 && packetSize != 8)
+            throw new IllegalArgumentException("The packet size must be 1, 4 or 8");
+        this.packetSize = packetSize;
+        return this;
+    }
+
     /**
      * Sets the ImageWriter object for this camera.
      * @param imageWriter the ImageWriter object to be set
@@ -326,13 +346,30 @@ public class Camera {
             throw new UnsupportedOperationException("Not implemented yet" + e.getClass());
         }
 
+        // Compile the scene as it is now - the rays are traced against the compiled snapshot
+        rayTracer.compile();
+
         // Get the dimensions of the image from the imageWriter object
         final int nX = imageWriter.getNx();
         final int nY = imageWriter.getNy();
 
         pixelManager = new PixelManager(nY, nX, 1);
 
-        if (threadsCount == 0) { // No threads
+        if (packetSize > 1 && !dof && !adaptive) { // Packets of the primary rays of tiles of pixels
+            final int tileX = packetSize / 2;
+            final int tileY = 2;
+            final int tilesX = (nX + tileX - 1) / tileX;
+            final int tilesY = (nY + tileY - 1) / tileY;
+            if (threadsCount == 0) {
+                for (int i = 0; i < tilesY; ++i)
+                    for (int j = 0; j < tilesX; ++j)
+                        castPacket(nX, nY, j * tileX, i * tileY, tileX, tileY);
+            } else {
+                IntStream.range(0, tilesY).parallel().forEach(i -> IntStream.range(0, tilesX).parallel() // row of tiles
+                        .forEach(j -> castPacket(nX, nY, j * tileX, i * tileY, tileX, tileY))); // tile in the row
+            }
+        }
+        else if (threadsCount == 0) { // No threads
             for (int i = 0; i < nY; ++i) {
                 for (int j = 0; j < nX; ++j)
                     castRay(nX, nY, j, i);
@@ -374,6 +411,28 @@ public class Camera {
         imageWriter.writePixel(j, i, color);
     }
 
+    /**
+     * Casts the rays through a tile of pixels as a packet and writes their colors to the image.
+     * A tile at the edge of the image is cut to the pixels inside the image.
+     * @param nX    The number of pixels in the horizontal axis.
+     * @param nY    The number of pixels in the vertical axis.
+     * @param x     The horizontal coordinate of the first pixel of the tile.
+     * @param y     The vertical coordinate of the first pixel of the tile.
+     * @param tileX The width of the tile.
+     * @param tileY The height of the tile.
+     */
+    private void castPacket(int nX, int nY, int x, int y, int tileX, int tileY) {
+        int width = Math.min(tileX, nX - x), height = Math.min(tileY, nY - y);
+        Ray[] rays = new Ray[width * height];
+        for (int i = 0; i < height; ++i)
+            for (int j = 0; j < width; ++j)
+                rays[i * width + j] = constructRay(nX, nY, x + j, y + i);
+        Color[] colors = rayTracer.tracePacket(rays);
+        for (int i = 0; i < height; ++i)
+            for (int j = 0; j < width; ++j)
+                imageWriter.writePixel(x + j, y + i, colors[i * width + j]);
+    }
+
     /**
      * Casts a beam ray through a specific pixel on the view plane and traces it to calculate the color.
      * @param nX The total number of pixels along the X-axis of the image.
@@ -4,6 +4,7 @@ import primitives.Color;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
+import scene.CompiledScene;
 import scene.Scene;
 
 import java.util.List;
@@ -19,6 +20,12 @@ public abstract class RayTracerBase {
      */
     protected Scene scene;
 
+    /**
+     * The snapshot of the scene the rays are traced against (see {@link #compile()}),
+     * compiled on the first traced ray if nobody compiled it before.
+     */
+    protected CompiledScene compiled;
+
     /**
      * Constructor that takes a scene object as an argument.
      * @param scene the scene to be rendered
@@ -27,6 +34,17 @@ public abstract class RayTracerBase {
         this.scene = scene;
     }
 
+    /**
+     * Compiles the scene into the snapshot the rays are traced against.
+     * The camera compiles the scene before every rendering, so the changes of the scene made after the
+     * construction of the ray tracer are rendered.
+     * @return this
+     */
+    public RayTracerBase compile() {
+        compiled = scene.compile();
+        return this;
+    }
+
     /**
      * Abstract method that traces a given ray in the scene and returns the color at the intersection point.
      * @param ray the ray to be traced
@@ -34,6 +52,19 @@ public abstract class RayTracerBase {
      */
     public abstract Color traceRay(Ray ray);
 
+    /**
+     * Traces a packet of coherent rays (e.g. the primary rays of neighbouring pixels).
+     * The default implementation traces every ray by itself.
+     * @param rays The packet of rays to trace.
+     * @return The color of every ray, in the order of the rays.
+     */
+    public Color[] tracePacket(Ray[] rays) {
+        Color[] colors = new Color[rays.length];
+        for (int k = 0; k < rays.length; ++k)
+            colors[k] = traceRay(rays[k]);
+        return colors;
+    }
+
     /**
      * Traces a beam of rays and returns the average color of the traced rays.
      * @param rays The beam of rays to trace.
@@ -1,18 +1,18 @@
 package renderer;
 
+import geometries.HitRecord;
 import geometries.Intersectable.GeoPoint;
 import lighting.LightSource;
 import primitives.*;
 import scene.Scene;
 
-import java.util.LinkedList;
-import java.util.List;
 import static primitives.Util.alignZero;
 import static primitives.Util.isZero;
 
 /**
  * The RayTracerBasic class is a concrete implementation of the abstract RayTracerBase class.
  * This class provides a basic implementation of the ray tracing algorithm.
+ * The rays are traced against the compiled snapshot of the scene (see {@link #compile()}).
  */
 public class RayTracerBasic extends RayTracerBase {
 
@@ -44,10 +44,54 @@ public class RayTracerBasic extends RayTracerBase {
      */
     private static final Double3 INITIAL_K = Double3.ONE;
 
+    /**
+     * The record of the closest intersection for every rendering thread, reused for all the rays it traces -
+     * the search of a ray creates only the geometric point of its final intersection.
+     * The shading of the intersection still creates its normal, the shadow rays, the reflected and refracted rays
+     * and the colors it returns.
+     */
+    private final ThreadLocal<HitRecord> hits = ThreadLocal.withInitial(HitRecord::new);
+
+    /**
+     * The triads of the local effects for every rendering thread, reused for all the points it shades
+     * (the local effects of a point are summed before the global effects are traced)
+     */
+    private final ThreadLocal<LocalEffects> localEffects = ThreadLocal.withInitial(LocalEffects::new);
+
+    /**
+     * The mutable triads of the calculation of the local effects of a single thread.
+     */
+    private static final class LocalEffects {
+        /** The sum of the effects */
+        final MutableDouble3 color = new MutableDouble3();
+        /** The direction of the light */
+        final MutableDouble3 l = new MutableDouble3();
+        /** The intensity of the light */
+        final MutableDouble3 iL = new MutableDouble3();
+    }
+
     @Override
     public Color traceRay(Ray ray) {
+        if (compiled == null) // traced without the camera
+            compile();
         GeoPoint closestPoint = findClosestIntersection(ray);
-        return closestPoint == null ? scene.getBackground() : calcColor(closestPoint, ray);
+        return closestPoint == null ? compiled.getBackground() : calcColor(closestPoint, ray);
+    }
+
+    /**
+     * The closest intersections of the packet are found together, the reflected and refracted rays
+     * of every intersection diverge and are traced one by one.
+     */
+    @Override
+    public Color[] tracePacket(Ray[] rays) {
+        if (compiled == null) // traced without the camera
+            compile();
+        GeoPoint[] closest = new GeoPoint[rays.length];
+        compiled.getGeometries().findClosestGeoIntersections(rays, closest);
+        Color[] colors = new Color[rays.length];
+        for (int k = 0; k < rays.length; ++k)
+            colors[k] = closest[k] == null ? compiled.getBackground() : calcColor(closest[k], rays[k]);
+        return colors;
     }
 
     /**
@@ -59,7 +103,7 @@ public class RayTracerBasic extends RayTracerBase {
     private Color calcColor(GeoPoint gp, Ray ray) {
         //return scene.ambientLight.getIntensity().add(calcLocalEffects(gp, ray));
         return calcColor(gp, ray, MAX_CALC_COLOR_LEVEL, INITIAL_K)
-                .add(scene.getAmbientLight().getIntensity());
+                .add(compiled.getAmbientIntensity());
     }
 
     /**
@@ -72,7 +116,8 @@ public class RayTracerBasic extends RayTracerBase {
      */
     private Color calcColor(GeoPoint intersection, Ray ray, int level, Double3 k) {
         Color color = calcLocalEffects(intersection, ray, k);
-        return 1 == level ? color : color.add(calcGlobalEffects(intersection, ray, level, k));
+        return 1 == level || !compiled.isReflective() && !compiled.isTransparent() ? color
+                : color.add(calcGlobalEffects(intersection, ray, level, k));
     }
 
     /**
@@ -86,17 +131,23 @@ public class RayTracerBasic extends RayTracerBase {
     private Color calcGlobalEffects(GeoPoint gp, Ray ray, int level, Double3 k) {
         Color color = Color.BLACK;
         Vector v = ray.getDir();
-        Vector n = gp.geometry.getNormal(gp.point);
+        Vector n = gp.getNormal();
         Material material = gp.geometry.getMaterial();
-        Double3 kr = material.kR, kkr = k.product(kr);
-        Ray reflectedRay = constructReflectedRay(gp, v, n);
-        if (!kkr.lowerThan(MIN_CALC_COLOR_K)) {
-            color = color.add(calcGlobalEffect(reflectedRay, level - 1, kr, kkr)).scale(kr);
+        if (compiled.isReflective()) {
+            Double3 kr = material.kR;
+            if (!k.productLowerThan(kr, MIN_CALC_COLOR_K)) {
+                Double3 kkr = k.product(kr);
+                Ray reflectedRay = constructReflectedRay(gp, v, n);
+                color = color.add(calcGlobalEffect(reflectedRay, level - 1, kr, kkr)).scale(kr);
+            }
         }
-        Double3 kt = material.kT, kkt = k .product(kt);
-        Ray refractedRay = constructRefractedRay(gp, v, n);
-        if (!kkt.lowerThan(MIN_CALC_COLOR_K)) {
-            color = color.add(calcGlobalEffect(refractedRay, level - 1, kt, kkt)).scale(kt);
+        if (compiled.isTransparent()) {
+            Double3 kt = material.kT;
+            if (!k.productLowerThan(kt, MIN_CALC_COLOR_K)) {
+                Double3 kkt = k.product(kt);
+                Ray refractedRay = constructRefractedRay(gp, v, n);
+                color = color.add(calcGlobalEffect(refractedRay, level - 1, kt, kkt)).scale(kt);
+            }
         }
         return color;
     }
@@ -113,8 +164,8 @@ public class RayTracerBasic extends RayTracerBase {
         Double3 kkx = k.product(kx);
         if (kkx.lowerThan(MIN_CALC_COLOR_K)) return Color.BLACK;
         GeoPoint gp = findClosestIntersection(ray);
-        if (gp == null) return scene.getBackground().scale(kx);
-        return isZero(gp.geometry.getNormal(gp.point).dotProduct(ray.getDir()))
+        if (gp == null) return compiled.getBackground().scale(kx);
+        return isZero(gp.getNormal().dotProduct(ray.getDir()))
                 ? Color.BLACK : calcColor(gp, ray, level - 1, kkx);
     }
 
@@ -131,7 +182,7 @@ public class RayTracerBasic extends RayTracerBase {
             return null;
         }
         Vector r = v.subtract(n.scale(2 * vn));
-        return new Ray(gp.point, r, n);
+        return new Ray(gp.point, r, n, true);
     }
 
     /**
@@ -142,7 +193,7 @@ public class RayTracerBasic extends RayTracerBase {
      * @return The constructed refracted Ray.
      */
     private Ray constructRefractedRay(GeoPoint gp, Vector v, Vector n) {
-        return new Ray(gp.point, v, n);
+        return new Ray(gp.point, v, n, true);
     }
 
     /**
@@ -151,57 +202,59 @@ public class RayTracerBasic extends RayTracerBase {
      * @return The closest intersection GeoPoint, or null if no intersection is found.
      */
     private GeoPoint findClosestIntersection(Ray ray) {
-        List<GeoPoint> intersections = scene.getGeometries().findGeoIntersections(ray);
-        if (intersections == null) {
-            return null;
-        }
-        return ray.findClosestGeoPoint(intersections);
+        HitRecord hit = hits.get().clear();
+        return compiled.getGeometries().findClosestHit(ray, Double.POSITIVE_INFINITY, hit) ? hit.toGeoPoint() : null;
     }
 
     /**
      * Calculates the local effects for a given GeoPoint, Ray, and coefficient.
+     * The effects of the lights are summed in place in the mutable triads of the thread, so the lights create
+     * no points, vectors and colors on the way (see {@link MutableDouble3}) - only the shadow rays are created.
      * @param gp  The GeoPoint.
      * @param ray The Ray used for calculating the local effects.
      * @param k   The coefficient.
      * @return The calculated color representing the local effects.
      */
     private Color calcLocalEffects(GeoPoint gp, Ray ray, Double3 k) {
-        Color color = gp.geometry.getEmission();
+        Color emission = gp.geometry.getEmission();
         Vector v = ray.getDir();
-        Vector n = gp.geometry.getNormal(gp.point);
+        Vector n = gp.getNormal();
         double nv = alignZero(n.dotProduct(v));
-        if (nv == 0) return color;
+        if (nv == 0) return emission;
         Material material = gp.geometry.getMaterial();
-        for (LightSource lightSource : scene.getLights()) {
-            Vector l = lightSource.getL(gp.point);
-            double nl = alignZero(n.dotProduct(l));
+        LocalEffects scratch = localEffects.get();
+        MutableDouble3 color = scratch.color.set(emission), l = scratch.l, iL = scratch.iL;
+        for (LightSource lightSource : compiled.getLights()) {
+            lightSource.getL(gp.point, l);
+            double nl = alignZero(l.dotProduct(n));
             if (nl * nv > 0) { // sign(nl) == sign(nv)
-                Double3 ktr = transparency(gp,lightSource, l, n);
-                if (!ktr.product(k).lowerThan(MIN_CALC_COLOR_K)) {
-                    Color iL = lightSource.getIntensity(gp.point).scale(ktr);
-                    color = color.add(
-                            calcDiffusive(material.kD, nl, iL),
-                            calcSpecular(material.kS, n, l, nl, v, iL, material.nShininess)
-                    );
+                Double3 ktr = transparency(gp, lightSource, l, n);
+                if (!iL.set(ktr).product(k).lowerThan(MIN_CALC_COLOR_K)) {
+                    lightSource.getIntensity(gp.point, iL);
+                    iL.product(ktr);
+                    calcDiffusive(color, material.kD, nl, iL);
+                    calcSpecular(color, material.kS, n, l, nl, v, iL, material.nShininess);
                 }
             }
         }
-        return color;
+        return color.toColor();
     }
 
     /**
-     * Calculates the diffusive reflection of light on the surface.
-     * @param kD  the diffuse reflection coefficients
-     * @param nl  the dot product of the surface normal and light vector
-     * @param iL  the intensity of the light
-     * @return the calculated diffusive color
+     * Adds the diffusive reflection of light on the surface to a color.
+     * @param color the color to add to
+     * @param kD    the diffuse reflection coefficients
+     * @param nl    the dot product of the surface normal and light vector
+     * @param iL    the intensity of the light
      */
-    private Color calcDiffusive(Double3 kD, double nl, Color iL) {
-        return iL.scale(kD.scale(Math.abs(nl)));
+    private void calcDiffusive(MutableDouble3 color, Double3 kD, double nl, MutableDouble3 iL) {
+        color.addProduct(iL, kD, Math.abs(nl));
     }
 
     /**
-     * Calculates the specular reflection of light on the surface.
+     * Adds the specular reflection of light on the surface to a color.
+     * The reflected light vector is calculated in scalar locals.
+     * @param color     the color to add to
      * @param kS        the specular reflection coefficients
      * @param n         the surface normal vector
      * @param l         the light vector
@@ -209,45 +262,14 @@ public class RayTracerBasic extends RayTracerBase {
      * @param v         the view vector
      * @param iL        the intensity of the light
      * @param shininess the shininess value of the material
-     * @return the calculated specular color
      */
-    private Color calcSpecular(Double3 kS, Vector n, Vector l, double nl, Vector v, Color iL, int shininess) {
-        Vector r = l.subtract(n.scale(nl * 2));
-        double vr = -alignZero(v.dotProduct(r));
-        if (vr <= 0) return Color.BLACK;
-        Double3 shine = kS.scale(Math.pow(vr, shininess));
-        return iL.scale(shine);
-    }
-
-    /**
-     * Checks if the given point is unshaded by other objects in the scene in the direction of the light source.
-     * @param gp          the intersection point
-     * @param l           the direction vector towards the light source
-     * @param n           the surface normal vector at the intersection point
-     * @param lightSource the light source
-     * @return true if the point is unshaded, false otherwise
-     */
-    private boolean unshaded(GeoPoint gp, Vector l, Vector n, LightSource lightSource) {
-        // Calculate the direction from the point to the light source
-        Vector lightDirection = l.scale(-1); // From point to light source
-
-        // Create a ray from the offset point towards the light source
-        Ray lightRay = new Ray(gp.point, lightDirection, n);
-
-        // Find intersections of the ray with the scene geometries
-        List<GeoPoint> intersections = scene.getGeometries().findGeoIntersections(lightRay);
-
-        // If no intersections are found, the point is unshaded
-        if (intersections == null) return true;
-
-        // Check if any intersection point is closer to the light source than the current point
-        for (var geoPoint : intersections) {
-            if (geoPoint.geometry.getMaterial().kT.lowerThan(MIN_CALC_COLOR_K)) {
-                if (gp.point.distance(geoPoint.point) < lightSource.getDistance(gp.point)) return false;
-            }
-        }
-
-        return true;
+    private void calcSpecular(MutableDouble3 color, Double3 kS, Vector n, MutableDouble3 l, double nl, Vector v,
+                              MutableDouble3 iL, int shininess) {
+        double scale = nl * 2; // r = l - n * 2nl
+        double vr = -alignZero(v.getX() * (l.d1 - n.getX() * scale) + v.getY() * (l.d2 - n.getY() * scale)
+                + v.getZ() * (l.d3 - n.getZ() * scale));
+        if (vr <= 0) return;
+        color.addProduct(iL, kS, Math.pow(vr, shininess));
     }
 
     /**
@@ -258,29 +280,17 @@ public class RayTracerBasic extends RayTracerBase {
      * @param n        The surface normal vector.
      * @return The transparency coefficient.
      */
-    private Double3 transparency(GeoPoint geoPoint, LightSource ls, Vector l, Vector n) {
+    private Double3 transparency(GeoPoint geoPoint, LightSource ls, MutableDouble3 l, Vector n) {
 
-        Vector lightDirection = l.scale(-1); // From point to light source
+        Vector lightDirection = new Vector(-l.d1, -l.d2, -l.d3); // From point to light source
 
-        Ray lightRay = new Ray(geoPoint.point, lightDirection, n);
+        Ray lightRay = new Ray(geoPoint.point, lightDirection, n, true);
 
         double maxDistance = ls.getDistance(geoPoint.point);
 
-        // Find intersections of the ray with the scene geometries
-        List<GeoPoint> intersections = scene.getGeometries().findGeoIntersections(lightRay, maxDistance);
-
-        if (intersections == null) return Double3.ONE;
-
-        Double3 ktr = Double3.ONE;
-
-        for (var gp : intersections) {
-            // Accumulate the transparency coefficient based on the materials of the intersected geometries
-            ktr = gp.geometry.getMaterial().kT.product(ktr);
-            // If the accumulated transparency coefficient is lower than the threshold, return complete transparency
-            if (ktr.lowerThan(MIN_CALC_COLOR_K)) return Double3.ZERO;
-        }
-
-        return ktr; // Return the transparency coefficient
+        // Accumulate the transparency coefficients of the geometries between the point and the light source,
+        // the search stops at the first geometry that blocks the light
+        return compiled.getGeometries().findTransparency(lightRay, maxDistance, Double3.ONE, MIN_CALC_COLOR_K);
     }
 }
 
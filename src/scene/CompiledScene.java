@@ -0,0 +1,106 @@
+package scene;
+
+import geometries.Intersectable;
+import lighting.LightSource;
+import primitives.Color;
+import primitives.Double3;
+
+/**
+ * An immutable snapshot of a scene, compiled for rendering by {@link Scene#compile()}.
+ * The lights are kept in an array, the nested geometries are flattened under an acceleration structure,
+ * and the properties the ray tracer checks for every intersection are calculated once.
+ * Changes of the scene after the compilation do not affect the snapshot - the scene has to be compiled again.
+ */
+public final class CompiledScene {
+
+    /**
+     * The background color of the scene.
+     */
+    private final Color background;
+
+    /**
+     * The intensity of the ambient light of the scene.
+     */
+    private final Color ambientIntensity;
+
+    /**
+     * The light sources of the scene.
+     */
+    private final LightSource[] lights;
+
+    /**
+     * The geometries of the scene, under an acceleration structure.
+     */
+    private final Intersectable geometries;
+
+    /**
+     * Whether any geometry of the scene reflects light.
+     */
+    private final boolean reflective;
+
+    /**
+     * Whether any geometry of the scene lets light through.
+     */
+    private final boolean transparent;
+
+    /**
+     * Compiles a scene.
+     * @param scene The scene to compile.
+     */
+    CompiledScene(Scene scene) {
+        background = scene.getBackground();
+        ambientIntensity = scene.getAmbientLight().getIntensity();
+        lights = scene.getLights().toArray(new LightSource[0]);
+        geometries = scene.getGeometries().compile();
+        reflective = scene.getGeometries().anyMaterial(material -> !Double3.ZERO.equals(material.kR));
+        transparent = scene.getGeometries().anyMaterial(material -> !Double3.ZERO.equals(material.kT));
+    }
+
+    /**
+     * Returns the background color of the scene.
+     * @return The background color of the scene.
+     */
+    public Color getBackground() {
+        return background;
+    }
+
+    /**
+     * Returns the intensity of the ambient light of the scene.
+     * @return The intensity of the ambient light.
+     */
+    public Color getAmbientIntensity() {
+        return ambientIntensity;
+    }
+
+    /**
+     * Returns the light sources of the scene. The array is shared and must not be modified.
+     * @return The light sources of the scene.
+     */
+    public LightSource[] getLights() {
+        return lights;
+    }
+
+    /**
+     * Returns the geometries of the scene.
+     * @return The geometries of the scene, under an acceleration structure.
+     */
+    public Intersectable getGeometries() {
+        return geometries;
+    }
+
+    /**
+     * Returns whether any geometry of the scene reflects light.
+     * @return True if a reflected ray may contribute to the color of a point, false otherwise.
+     */
+    public boolean isReflective() {
+        return reflective;
+    }
+
+    /**
+     * Returns whether any geometry of the scene lets light through.
+     * @return True if a refracted ray may contribute to the color of a point, false otherwise.
+     */
+    public boolean isTransparent() {
+        return transparent;
+    }
+}
@@ -1,5 +1,7 @@
 package scene;
 
+import geometries.BVH;
+import geometries.BuildStatistics;
 import geometries.Geometries;
 import lighting.LightSource;
 import primitives.Color;
@@ -92,6 +94,34 @@ public class Scene {
         return geometries;
     }
 
+    /**
+     * Prepares the scene for rendering by building the acceleration structure over its geometries.
+     * Geometries added afterwards drop the acceleration structure, the scene has to be frozen again.
+     * @param quality The build method - a faster rendering or a faster build (e.g. for a scene rebuilt every frame).
+     * @return The updated Scene object.
+     */
+    public Scene freeze(BVH.Quality quality) {
+        geometries.buildBVH(quality);
+        return this;
+    }
+
+    /**
+     * Compiles the scene into an immutable snapshot for rendering.
+     * The acceleration structure built by {@link #freeze(BVH.Quality)} is reused, otherwise a hierarchy is built.
+     * @return The compiled snapshot of the scene.
+     */
+    public CompiledScene compile() {
+        return new CompiledScene(this);
+    }
+
+    /**
+     * Returns the statistics of the acceleration structure build of the scene geometries.
+     * @return The build statistics, or null if no acceleration structure was built.
+     */
+    public BuildStatistics getBuildStatistics() {
+        return geometries.getBuildStatistics();
+    }
+
     /**
      * Returns the list of light sources in the scene.
      * @return The list of light sources in the scene.
@@ -0,0 +1,640 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Double3;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.RayBatch;
+import primitives.Transform;
+import primitives.Vector;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Testing BVH */
+class BVHTests {
+
+    /**
+     * @return the scene of most of the tests, random spheres and triangles (see {@link RandomScenes})
+     */
+    private static Geometries randomScene() {
+        return RandomScenes.spheresAndTriangles(200, null);
+    }
+
+    /**
+     * Test method for {@link geometries.Intersectable#findClosestGeoIntersection(primitives.Ray)}.
+     */
+    @Test
+    void testFindClosestGeoIntersection() {
+        Geometries linear = randomScene();
+        Geometries bvh = randomScene().buildBVH();
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Random rays must find the same closest point as the closest of all intersections
+        Random rand = new Random(2165);
+        for (int i = 0; i < 500; ++i) {
+            Ray ray = RandomScenes.towardsScene(rand);
+            List<Point> all = linear.findIntersections(ray);
+            Point expected = all == null ? null : ray.findClosestPoint(all);
+            Intersectable.GeoPoint gp = linear.findClosestGeoIntersection(ray);
+            assertEquals(expected, gp == null ? null : gp.point, "Wrong closest point without hierarchy");
+            gp = bvh.findClosestGeoIntersection(ray);
+            assertEquals(expected, gp == null ? null : gp.point, "Wrong closest point with hierarchy");
+        }
+    }
+
+    /**
+     * Test method for {@link geometries.BVH#findIntersections(primitives.Ray)}.
+     */
+    @Test
+    void testFindIntersections() {
+        Geometries linear = randomScene();
+        Geometries bvh = randomScene().buildBVH();
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Random rays must find the same intersections with and without the hierarchy
+        Random rand = new Random(1906);
+        for (int i = 0; i < 500; ++i) {
+            Ray ray = RandomScenes.towardsScene(rand);
+            List<Point> expected = linear.findIntersections(ray);
+            List<Point> result = bvh.findIntersections(ray);
+            if (expected == null) {
+                assertNull(result, "Hierarchy found intersections that do not exist");
+            } else {
+                assertNotNull(result, "Hierarchy missed intersections");
+                assertEquals(expected.size(), result.size(), "Wrong number of points");
+                assertTrue(result.containsAll(expected), "Wrong intersection points");
+            }
+        }
+
+        // =============== Boundary Values Tests ==================
+
+        // TC11: Empty collection
+        assertNull(new Geometries().buildBVH().findIntersections(new Ray(new Point(0, 0, 0), new Vector(0, 0, 1))),
+                "Must not be intersections");
+
+        // TC12: Ray parallel to the axes starting on a box face
+        assertEquals(2, new Geometries(new Sphere(1d, new Point(0, 0, 2)), new Sphere(1d, new Point(3, 0, 0)))
+                        .buildBVH().findIntersections(new Ray(new Point(-1, 0, 0), new Vector(1, 0, 0))).size(),
+                "Wrong number of points");
+    }
+
+    /**
+     * Test method for {@link geometries.Intersectable#findTransparency(primitives.Ray, double, primitives.Double3, double)}.
+     */
+    @Test
+    void testFindTransparency() {
+        Geometries linear = randomScene();
+        Geometries bvh = randomScene().buildBVH();
+        // Make the spheres transparent so rays are partially blocked
+        Material glass = new Material().setKt(new Double3(0.8));
+        for (Intersectable item : linear.flatten())
+            if (item instanceof Sphere sphere) sphere.setMaterial(glass);
+        for (Intersectable item : bvh.flatten())
+            if (item instanceof Sphere sphere) sphere.setMaterial(glass);
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Random rays must pass the same amount of light with and without the hierarchy
+        Random rand = new Random(5783);
+        for (int i = 0; i < 500; ++i) {
+            Ray ray = RandomScenes.towardsScene(rand);
+            double maxDistance = rand.nextDouble(10, 60);
+            assertEquals(linear.findTransparency(ray, maxDistance, Double3.ONE, 0.001),
+                    bvh.findTransparency(ray, maxDistance, Double3.ONE, 0.001), "Wrong transparency");
+        }
+    }
+
+    /**
+     * Test method for {@link geometries.BVH#getStatistics()}.
+     */
+    @Test
+    void testGetStatistics() {
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: A big scene is built in parallel and must find the same intersections as a linear scan
+        Random rand = new Random(1906);
+        Geometries linear = new Geometries();
+        Geometries bvh = new Geometries();
+        for (int i = 0; i < 5 * BVH.PARALLEL_THRESHOLD; ++i) {
+            Sphere sphere = new Sphere(rand.nextDouble(0.01, 0.1),
+                    new Point(rand.nextDouble(-10, 10), rand.nextDouble(-10, 10), rand.nextDouble(-10, 10)));
+            linear.add(sphere);
+            bvh.add(sphere);
+        }
+        bvh.buildBVH();
+        for (int i = 0; i < 200; ++i) {
+            Ray ray = RandomScenes.towardsScene(rand);
+            Intersectable.GeoPoint expected = linear.findClosestGeoIntersection(ray);
+            Intersectable.GeoPoint result = bvh.findClosestGeoIntersection(ray);
+            assertEquals(expected == null ? null : expected.point, result == null ? null : result.point,
+                    "Wrong closest point");
+        }
+
+        // TC02: The statistics describe a binary tree with small leaves
+        BuildStatistics statistics = bvh.getBuildStatistics();
+        assertEquals(2 * statistics.leaves() - 1, statistics.nodes(), "Wrong amount of nodes");
+        assertTrue(statistics.leaves() >= 5 * BVH.PARALLEL_THRESHOLD / BVH.MAX_LEAF_SIZE, "Too few leaves");
+        assertTrue(statistics.depth() > 1, "Wrong depth");
+        assertTrue(statistics.sahCost() > 0, "Wrong SAH cost");
+
+        // =============== Boundary Values Tests ==================
+
+        // TC11: No hierarchy
+        assertNull(new Geometries().getBuildStatistics(), "Statistics without a hierarchy");
+    }
+
+    /**
+     * Test method for {@link geometries.BVH#BVH(java.util.List, geometries.BVH.Quality)}.
+     */
+    @Test
+    void testFastBuild() {
+        Geometries linear = randomScene();
+        Geometries lbvh = randomScene().buildBVH(BVH.Quality.FAST);
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Random rays must find the same intersections with and without the linear hierarchy
+        Random rand = new Random(2165);
+        for (int i = 0; i < 500; ++i) {
+            Ray ray = RandomScenes.towardsScene(rand);
+            List<Point> expected = linear.findIntersections(ray);
+            List<Point> result = lbvh.findIntersections(ray);
+            if (expected == null) {
+                assertNull(result, "Hierarchy found intersections that do not exist");
+            } else {
+                assertNotNull(result, "Hierarchy missed intersections");
+                assertEquals(expected.size(), result.size(), "Wrong number of points");
+                assertTrue(result.containsAll(expected), "Wrong intersection points");
+                assertEquals(ray.findClosestPoint(expected), lbvh.findClosestGeoIntersection(ray).point,
+                        "Wrong closest point");
+            }
+        }
+
+        // TC02: The radix sort must sort the codes together with their indices
+        long[] codes = new long[3 * 65536 + 7];
+        int[] order = new int[codes.length];
+        for (int i = 0; i < codes.length; ++i) {
+            codes[i] = rand.nextLong() >>> 1;
+            order[i] = i;
+        }
+        long[] original = codes.clone();
+        LBVHBuilder.radixSort(codes, order);
+        for (int i = 0; i < codes.length; ++i) {
+            assertEquals(original[order[i]], codes[i], "Index moved without its code");
+            if (i > 0)
+                assertTrue(codes[i - 1] <= codes[i], "Codes are not sorted");
+        }
+
+        // =============== Boundary Values Tests ==================
+
+        // TC11: All the shapes at the same position
+        Geometries same = new Geometries();
+        for (int i = 0; i < 10; ++i)
+            same.add(new Sphere(1d + i, new Point(0, 0, 0)));
+        assertEquals(new Point(0, 0, 1), same.buildBVH(BVH.Quality.FAST)
+                        .findClosestGeoIntersection(new Ray(new Point(0, 0, 0.5), new Vector(0, 0, 1))).point,
+                "Wrong closest point");
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#refit()}.
+     */
+    @Test
+    void testRefit() {
+        Random rand = new Random(2165);
+        Sphere unit = new Sphere(1d, new Point(0, 0, 0));
+        Instance[] instances = new Instance[500];
+        Vector[] positions = new Vector[instances.length];
+        Geometries linear = new Geometries();
+        Geometries bvh = new Geometries();
+        for (int i = 0; i < instances.length; ++i) {
+            positions[i] = new Vector(rand.nextDouble(-50, 50), rand.nextDouble(-50, 50), rand.nextDouble(1, 50));
+            instances[i] = new Instance(unit, Transform.translation(positions[i]));
+            linear.add(instances[i]);
+            bvh.add(instances[i]);
+        }
+        bvh.buildBVH();
+        BuildStatistics statistics = bvh.getBuildStatistics();
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: A small motion keeps the hierarchy and finds the same closest points as a linear scan
+        for (int i = 0; i < instances.length; ++i) {
+            positions[i] = positions[i].add(new Vector(rand.nextDouble(-1, 1), rand.nextDouble(-1, 1), 0.5));
+            instances[i].setTransform(Transform.translation(positions[i]));
+        }
+        bvh.refit();
+        assertSame(statistics, bvh.getBuildStatistics(), "A small motion must not build the hierarchy again");
+        for (int i = 0; i < 200; ++i) {
+            Ray ray = new Ray(new Point(rand.nextDouble(-50, 50), rand.nextDouble(-50, 50), -10),
+                    new Vector(rand.nextDouble(-0.5, 0.5), rand.nextDouble(-0.5, 0.5), 1));
+            Intersectable.GeoPoint expected = linear.findClosestGeoIntersection(ray);
+            Intersectable.GeoPoint result = bvh.findClosestGeoIntersection(ray);
+            assertEquals(expected == null ? null : expected.point, result == null ? null : result.point,
+                    "Wrong closest point");
+        }
+
+        // TC02: Shuffling the shapes degrades the hierarchy, so it is built again
+        for (Instance instance : instances)
+            instance.setTransform(Transform.translation(
+                    new Vector(rand.nextDouble(-50, 50), rand.nextDouble(-50, 50), rand.nextDouble(1, 50))));
+        bvh.refit();
+        assertNotSame(statistics, bvh.getBuildStatistics(), "A degraded hierarchy must be built again");
+
+        // TC03: Building the hierarchy again after a motion finds the same closest points as a linear scan
+        assertNotNull(bvh.getBoundingBox(), "The shapes are bounded");
+        for (int i = 0; i < instances.length; ++i)
+            instances[i].setTransform(Transform.translation(positions[i].add(new Vector(60, 0, 0))));
+        linear.refit();
+        bvh.buildBVH();
+        for (int i = 0; i < 200; ++i) {
+            Ray ray = new Ray(new Point(rand.nextDouble(-50, 110), rand.nextDouble(-50, 50), -10),
+                    new Vector(rand.nextDouble(-0.5, 0.5), rand.nextDouble(-0.5, 0.5), 1));
+            Intersectable.GeoPoint expected = linear.findClosestGeoIntersection(ray);
+            Intersectable.GeoPoint result = bvh.findClosestGeoIntersection(ray);
+            assertEquals(expected == null ? null : expected.point, result == null ? null : result.point,
+                    "Wrong closest point after the hierarchy was built again");
+        }
+
+        // =============== Boundary Values Tests ==================
+
+        // TC11: Refit without a motion keeps the cost of the build
+        BVH hierarchy = new BVH(List.of(instances));
+        assertEquals(hierarchy.getStatistics().sahCost(), hierarchy.refit(), 1e-9, "Wrong cost after refit");
+    }
+
+    /**
+     * Test method for {@link geometries.BVH#BVH(java.util.List, geometries.BVH.Quality, java.nio.file.Path)}.
+     */
+    @Test
+    void testCache() throws IOException {
+        Path cache = Files.createTempDirectory("bvh");
+        try {
+            Geometries linear = randomScene();
+            BuildStatistics built = randomScene().buildBVH(BVH.Quality.HIGH, cache).getBuildStatistics();
+            Geometries bvh = randomScene().buildBVH(BVH.Quality.HIGH, cache);
+            BuildStatistics loaded = bvh.getBuildStatistics();
+
+            // ============ Equivalence Partitions Tests ==============
+
+            // TC01: The second build loads the hierarchy of the first one
+            try (Stream<Path> files = Files.list(cache)) {
+                List<Path> list = files.toList();
+                assertEquals(1, list.size(), "Wrong number of cached hierarchies");
+                long key = Long.parseUnsignedLong(list.get(0).getFileName().toString().replace(".bvh", ""), 16);
+                assertNotNull(BVHCache.load(list.get(0), key, new int[200]), "The file must be loaded");
+            }
+            assertEquals(built.nodes(), loaded.nodes(), "Wrong number of nodes");
+            assertEquals(built.depth(), loaded.depth(), "Wrong depth");
+            assertEquals(built.sahCost(), loaded.sahCost(), 1e-9, "Wrong cost");
+
+            // TC02: Random rays must find the same closest point through the loaded hierarchy
+            assertSameClosest(linear, bvh);
+
+            // TC03: Other shapes or another build method make another hierarchy
+            randomScene().buildBVH(BVH.Quality.FAST, cache);
+            Geometries moved = randomScene();
+            moved.add(new Sphere(1d, new Point(0, 0, 100)));
+            moved.buildBVH(BVH.Quality.HIGH, cache);
+            try (Stream<Path> files = Files.list(cache)) {
+                assertEquals(3, files.count(), "Wrong number of cached hierarchies");
+            }
+
+            // =============== Boundary Values Tests ==================
+
+            // TC11: A damaged file is built again
+            try (Stream<Path> files = Files.list(cache)) {
+                for (Path file : files.toList())
+                    Files.write(file, new byte[]{1, 2, 3});
+            }
+            Geometries damaged = randomScene().buildBVH(BVH.Quality.HIGH, cache);
+            assertEquals(built.nodes(), damaged.getBuildStatistics().nodes(), "Wrong number of nodes");
+            assertEquals(built.sahCost(), damaged.getBuildStatistics().sahCost(), 1e-9, "Wrong cost");
+
+            // TC12: A file whose order is not a permutation of the primitives is built again
+            damage(cache, b -> {
+                for (int i = 0; i < b.getInt(16); i += 2)
+                    b.putInt(32 + 4 * i, b.getInt(36 + 4 * i));
+            });
+            damaged = randomScene().buildBVH(BVH.Quality.HIGH, cache);
+            assertEquals(built.sahCost(), damaged.getBuildStatistics().sahCost(), 1e-9, "Wrong cost");
+            assertSameClosest(linear, damaged);
+
+            // TC13: A file with a child out of the nodes is built again
+            damage(cache, b -> b.putInt(32 + 4 * b.getInt(16), b.getInt(20) + 5));
+            damaged = randomScene().buildBVH(BVH.Quality.HIGH, cache);
+            assertEquals(built.sahCost(), damaged.getBuildStatistics().sahCost(), 1e-9, "Wrong cost");
+            assertSameClosest(linear, damaged);
+
+            // TC14: A file with a wrong depth is built again
+            damage(cache, b -> b.putInt(24, 1));
+            damaged = randomScene().buildBVH(BVH.Quality.HIGH, cache);
+            assertEquals(built.depth(), damaged.getBuildStatistics().depth(), "Wrong depth");
+            assertSameClosest(linear, damaged);
+
+            // TC15: Shapes without bounding boxes are not cached
+            try (Stream<Path> files = Files.list(cache)) {
+                for (Path file : files.toList())
+                    Files.delete(file);
+            }
+            new Geometries(new Plane(new Point(0, 0, 0), new Vector(0, 0, 1))).buildBVH(BVH.Quality.HIGH, cache);
+            try (Stream<Path> files = Files.list(cache)) {
+                assertEquals(0, files.count(), "An empty hierarchy must not be cached");
+            }
+
+            // TC16: A hierarchy that cannot be stored (the directory of the cache is a file) is skipped
+            BoundingBox[] boxes = randomScene().flatten().stream().map(Intersectable::getBoundingBox)
+                    .filter(box -> box != null && box.isFinite()).toArray(BoundingBox[]::new);
+            int[] order = new int[boxes.length];
+            LinearBVH tree = new LinearBVH(BVH.build(boxes, order));
+            Path notDirectory = Files.createFile(cache.resolve("file"));
+            assertDoesNotThrow(() -> BVHCache.store(notDirectory.resolve("tree.bvh"), 1, order, tree),
+                    "A hierarchy that cannot be stored must be skipped");
+            assertEquals(0, Files.size(notDirectory), "The hierarchy must not be stored");
+        } finally {
+            try (Stream<Path> files = Files.list(cache)) {
+                for (Path file : files.toList())
+                    Files.delete(file);
+            }
+            Files.delete(cache);
+        }
+    }
+
+    /**
+     * Checks that random rays find the same closest point through two collections of the same shapes
+     * @param expected the collection that finds the right points
+     * @param result   the collection to check
+     */
+    private static void assertSameClosest(Geometries expected, Geometries result) {
+        Random rand = new Random(2165);
+        for (int i = 0; i < 500; ++i) {
+            Ray ray = RandomScenes.towardsScene(rand);
+            Intersectable.GeoPoint gp = expected.findClosestGeoIntersection(ray);
+            Intersectable.GeoPoint closest = result.findClosestGeoIntersection(ray);
+            assertEquals(gp == null ? null : gp.point, closest == null ? null : closest.point, "Wrong closest point");
+        }
+    }
+
+    /**
+     * Changes the content of every complete file of a hierarchy cache
+     * @param cache  the directory of the cache
+     * @param change changes the content of a file (little endian)
+     * @throws IOException if a file cannot be read or written
+     */
+    private static void damage(Path cache, Consumer<ByteBuffer> change) throws IOException {
+        try (Stream<Path> files = Files.list(cache)) {
+            for (Path file : files.toList()) {
+                byte[] bytes = Files.readAllBytes(file);
+                if (bytes.length > 32) {
+                    change.accept(ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN));
+                    Files.write(file, bytes);
+                }
+            }
+        }
+    }
+
+    /**
+     * Test method for {@link geometries.Intersectable#findClosestGeoIntersections(primitives.Ray[], geometries.Intersectable.GeoPoint[])}.
+     */
+    @Test
+    void testFindClosestGeoIntersections() {
+        Geometries linear = randomScene();
+        Geometries bvh = randomScene().buildBVH();
+        Random rand = new Random(2165);
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Coherent rays from one point must find the same closest points as single rays
+        Ray[] rays = new Ray[40];
+        for (int i = 0; i < rays.length; ++i)
+            rays[i] = new Ray(new Point(0, 0, -30),
+                    new Vector(rand.nextDouble(-0.4, 0.4), rand.nextDouble(-0.4, 0.4), 1));
+        assertPacket(linear, bvh, rays);
+
+        // TC02: Divergent rays in all directions must find the same closest points as single rays
+        for (int i = 0; i < rays.length; ++i)
+            rays[i] = RandomScenes.anyDirection(rand, 15);
+        assertPacket(linear, bvh, rays);
+
+        // =============== Boundary Values Tests ==================
+
+        // TC11: A packet of a single ray
+        assertPacket(linear, bvh, new Ray[]{rays[0]});
+
+        // TC12: A packet of rays that miss all the shapes but the plane
+        for (int i = 0; i < rays.length; ++i)
+            rays[i] = new Ray(new Point(rand.nextDouble(-15, 15), 50, 0), new Vector(0, -1, 0.1));
+        assertPacket(linear, bvh, rays);
+    }
+
+    /**
+     * Asserts a packet of rays finds the same closest points as every ray by itself
+     * @param linear the shapes without hierarchy
+     * @param bvh    the shapes with hierarchy
+     * @param rays   the rays of the packet
+     */
+    private static void assertPacket(Geometries linear, Geometries bvh, Ray[] rays) {
+        Intersectable.GeoPoint[] closest = new Intersectable.GeoPoint[rays.length];
+        Intersectable.GeoPoint[] unaccelerated = new Intersectable.GeoPoint[rays.length];
+        bvh.findClosestGeoIntersections(rays, closest);
+        linear.findClosestGeoIntersections(rays, unaccelerated);
+        for (int k = 0; k < rays.length; ++k) {
+            Intersectable.GeoPoint expected = linear.findClosestGeoIntersection(rays[k]);
+            Point point = expected == null ? null : expected.point;
+            assertEquals(point, closest[k] == null ? null : closest[k].point, "Wrong closest point with hierarchy");
+            if (expected != null)
+                assertEquals(expected.t, closest[k].t, 1e-10, "Wrong distance with hierarchy");
+            assertEquals(point, unaccelerated[k] == null ? null : unaccelerated[k].point,
+                    "Wrong closest point without hierarchy");
+        }
+    }
+
+    /**
+     * Test method for {@link geometries.Intersectable#findClosest(primitives.RayBatch)}.
+     */
+    @Test
+    void testFindClosest() {
+        Geometries linear = randomScene();
+        Geometries bvh = randomScene();
+        // a polygon is intersected by itself, not by the kernels
+        for (Geometries geometries : List.of(linear, bvh))
+            geometries.add(new Polygon(new Point(-5, -5, 12), new Point(5, -5, 12), new Point(5, 5, 12),
+                    new Point(-5, 5, 12)));
+        bvh.buildBVH();
+        Random rand = new Random(1906);
+        RayBatch batch = new RayBatch(60);
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Rays in all directions must find the same closest hits as single rays
+        for (int i = 0; i < batch.capacity(); ++i)
+            batch.add(RandomScenes.anyDirection(rand, 15));
+        assertBatch(linear, bvh, batch);
+
+        // TC02: Rays that start and end along the way must find the hits between the start and the end only
+        batch.clear();
+        for (int i = 0; i < batch.capacity(); ++i) {
+            Vector v = new Vector(rand.nextDouble(-0.4, 0.4), rand.nextDouble(-0.4, 0.4), 1).normalize();
+            batch.add(rand.nextDouble(-5, 5), rand.nextDouble(-5, 5), -30, v.getX(), v.getY(), v.getZ(),
+                    rand.nextDouble(0, 25), i % 2 == 0 ? Double.POSITIVE_INFINITY : 35);
+        }
+        assertBatch(linear, bvh, batch);
+
+        // =============== Boundary Values Tests ==================
+
+        // TC11: Rays that miss all the shapes but the plane
+        batch.clear();
+        for (int i = 0; i < batch.capacity(); ++i)
+            batch.add(new Ray(new Point(rand.nextDouble(-15, 15), 50, 0), new Vector(0, -1, 0.1)));
+        assertBatch(linear, bvh, batch);
+
+        // TC12: Rays that end before any shape
+        batch.clear();
+        for (int i = 0; i < batch.capacity(); ++i)
+            batch.add(rand.nextDouble(-5, 5), rand.nextDouble(-5, 5), -30, 0, 0, 1, 0, 5);
+        assertBatch(linear, bvh, batch);
+        for (int k = 0; k < batch.size(); ++k)
+            assertNull(batch.hit[k], "A ray that ends before the shapes must not hit them");
+    }
+
+    /**
+     * Test method for {@link geometries.Intersectable#findClosestHit(primitives.Ray, double, HitRecord)}.
+     */
+    @Test
+    void testFindClosestHit() {
+        Geometries linear = randomScene();
+        Geometries bvh = randomScene();
+        for (Geometries geometries : List.of(linear, bvh))
+            geometries.add(new Polygon(new Point(-5, -5, 12), new Point(5, -5, 12), new Point(5, 5, 12),
+                    new Point(-5, 5, 12)));
+        bvh.buildBVH();
+        Random rand = new Random(4021);
+        HitRecord hit = new HitRecord();
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Rays in all directions must record the closest intersection, with and without hierarchy
+        for (int i = 0; i < 500; ++i) {
+            Ray ray = RandomScenes.anyDirection(rand, 15);
+            for (Geometries geometries : List.of(linear, bvh)) {
+                Intersectable.GeoPoint expected = geometries.findClosestGeoIntersection(ray);
+                assertEquals(expected != null, geometries.findClosestHit(ray, Double.POSITIVE_INFINITY, hit.clear()),
+                        "Wrong result of the search");
+                assertEquals(expected, hit.toGeoPoint(), "Wrong closest hit");
+                if (expected != null) {
+                    assertEquals(expected.point.distance(ray.getP0()), hit.t, 1e-10, "Wrong distance of the hit");
+                    assertEquals(expected.geometry.getNormal(expected.point), hit.normal(), "Wrong normal of the hit");
+                    assertEquals(expected.geometry instanceof Triangle, !Double.isNaN(hit.u),
+                            "Only triangles have barycentric coordinates");
+                }
+            }
+        }
+
+        // =============== Boundary Values Tests ==================
+
+        // TC11: A closer hit that is already recorded must be kept
+        Ray ray = new Ray(new Point(0, -30, 0), new Vector(0, 1, 0));
+        bvh.findClosestHit(ray, Double.POSITIVE_INFINITY, hit.clear());
+        Geometry closest = hit.geometry;
+        double t = hit.t;
+        assertFalse(bvh.findClosestHit(new Ray(new Point(0, -40, 0), new Vector(0, 1, 0)),
+                Double.POSITIVE_INFINITY, hit), "A farther hit must not be recorded");
+        assertSame(closest, hit.geometry, "The recorded hit must be kept");
+    }
+
+    /**
+     * Builds a collection of random shapes of every kind of a leaf - spheres, triangles, polygons, cylinders
+     * and instances (which are intersected through a virtual call) - interleaved
+     * @return the collection
+     */
+    private static Geometries mixedScene() {
+        Random rand = new Random(3317);
+        Geometries geometries = new Geometries();
+        for (int i = 0; i < 250; ++i) {
+            Point p = new Point(rand.nextDouble(-10, 10), rand.nextDouble(-10, 10), rand.nextDouble(-10, 10));
+            Point p2 = p.add(new Vector(1, 0, 0)), p3 = p.add(new Vector(0, 1, 0.5));
+            geometries.add(switch (i % 5) {
+                case 0 -> new Sphere(rand.nextDouble(0.1, 1), p);
+                case 1 -> new Triangle(p, p2, p3);
+                case 2 -> new Polygon(p, p2, p2.add(p3.subtract(p)), p3);
+                case 3 -> new Cylinder(new Ray(p, new Vector(rand.nextDouble(-1, 1), 1, rand.nextDouble(-1, 1))),
+                        rand.nextDouble(0.1, 0.8), rand.nextDouble(0.5, 2));
+                default -> new Instance(new Sphere(0.5, new Point(0, 0, 0)),
+                        Transform.translation(p.subtract(new Point(0, 0, 0))));
+            });
+        }
+        return geometries;
+    }
+
+    /**
+     * Test method for {@link geometries.BVH#findClosestHit(primitives.Ray, double, HitRecord)}
+     * on leaves that mix all the kinds of shapes.
+     */
+    @Test
+    void testMixedLeaves() {
+        Geometries linear = mixedScene();
+        Geometries bvh = mixedScene().buildBVH();
+        Random rand = new Random(7741);
+        HitRecord hit = new HitRecord();
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Rays in all directions must record the same closest intersections with and without hierarchy
+        for (int i = 0; i < 500; ++i) {
+            Ray ray = RandomScenes.anyDirection(rand, 15);
+            Intersectable.GeoPoint expected = linear.findClosestGeoIntersection(ray);
+            assertEquals(expected != null, bvh.findClosestHit(ray, Double.POSITIVE_INFINITY, hit.clear()),
+                    "Wrong result of the search");
+            if (expected != null) {
+                assertEquals(expected.point, hit.point(), "Wrong closest hit");
+                assertEquals(expected.t, hit.t, 1e-10, "Wrong distance of the hit");
+            }
+        }
+
+        // TC02: A batch of rays must find the same closest hits with and without hierarchy
+        RayBatch batch = new RayBatch(60);
+        for (int i = 0; i < batch.capacity(); ++i)
+            batch.add(RandomScenes.towardsScene(rand));
+        assertBatch(linear, bvh, batch);
+    }
+
+    /**
+     * Asserts the rays of a batch find the same closest hits as every ray by itself, with and without hierarchy
+     * @param linear the shapes without hierarchy
+     * @param bvh    the shapes with hierarchy
+     * @param batch  the rays
+     */
+    private static void assertBatch(Geometries linear, Geometries bvh, RayBatch batch) {
+        double[] tMax = batch.tMax.clone();
+        RayBatch unaccelerated = new RayBatch(batch.size());
+        for (int k = 0; k < batch.size(); ++k)
+            unaccelerated.add(batch.ox[k], batch.oy[k], batch.oz[k], batch.dx[k], batch.dy[k], batch.dz[k],
+                    batch.tMin[k], batch.tMax[k]);
+        bvh.findClosest(batch);
+        linear.findClosest(unaccelerated);
+        for (int k = 0; k < batch.size(); ++k) {
+            Ray ray = batch.ray(k);
+            Intersectable.GeoPoint expected = linear.findClosestGeoIntersection(ray, tMax[k] - batch.tMin[k]);
+            Point point = expected == null ? null : expected.point;
+            assertEquals(point, batch.hitPoint(k), "Wrong closest hit with hierarchy");
+            assertEquals(point, unaccelerated.hitPoint(k), "Wrong closest hit without hierarchy");
+            assertEquals(expected == null ? null : expected.geometry, unaccelerated.hit[k],
+                    "Wrong geometry without hierarchy");
+            expected = bvh.findClosestGeoIntersection(ray, tMax[k] - batch.tMin[k]);
+            assertEquals(expected == null ? null : expected.geometry, batch.hit[k], "Wrong geometry with hierarchy");
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Testing BoundingBox */
+class BoundingBoxTests {
+
+    /**
+     * Test method for {@link geometries.BoundingBox#intersects(primitives.Ray, double)}.
+     */
+    @Test
+    void testIntersects() {
+        BoundingBox box = new BoundingBox(0, 0, 0, 1, 1, 1);
+        double inf = Double.POSITIVE_INFINITY;
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Ray crosses the box
+        assertTrue(box.intersects(new Ray(new Point(-1, 0.5, 0.5), new Vector(1, 0.1, 0)), inf),
+                "Ray crosses the box");
+
+        // TC02: Ray misses the box
+        assertFalse(box.intersects(new Ray(new Point(-1, 2, 0.5), new Vector(1, 0.1, 0)), inf),
+                "Ray misses the box");
+
+        // TC03: Box is behind the ray
+        assertFalse(box.intersects(new Ray(new Point(2, 0.5, 0.5), new Vector(1, 0, 0)), inf),
+                "Box is behind the ray");
+
+        // TC04: Ray starts inside the box
+        assertTrue(box.intersects(new Ray(new Point(0.5, 0.5, 0.5), new Vector(1, 1, 1)), inf),
+                "Ray starts inside the box");
+
+        // TC05: Box is beyond the maximum distance
+        assertFalse(box.intersects(new Ray(new Point(-3, 0.5, 0.5), new Vector(1, 0, 0)), 2),
+                "Box is beyond the maximum distance");
+
+        // TC06: Ray in the negative directions crosses the box
+        assertTrue(box.intersects(new Ray(new Point(2, 2, 2), new Vector(-1, -1, -0.9)), inf),
+                "Ray in the negative directions crosses the box");
+
+        // =============== Boundary Values Tests ==================
+
+        // TC11: Ray parallel to an axis lying on a face of the box
+        assertTrue(box.intersects(new Ray(new Point(-1, 0, 0.5), new Vector(1, 0, 0)), inf),
+                "Ray on a face of the box");
+
+        // TC12: Flat box (a triangle lying in an axis plane)
+        assertTrue(new BoundingBox(0, 0, 1, 1, 1, 1)
+                        .intersects(new Ray(new Point(0.5, 0.5, 0), new Vector(0, 0, 1)), inf),
+                "Ray crosses a flat box");
+
+        // TC13: Box with infinite coordinates (an axis-aligned plane)
+        BoundingBox plane = new Plane(new Point(0, 1, 0), new Vector(0, 1, 0)).getBoundingBox();
+        assertTrue(plane.intersects(new Ray(new Point(5, 0, 5), new Vector(1, 1, 0)), inf),
+                "Ray crosses an infinite box");
+        assertFalse(plane.intersects(new Ray(new Point(5, 0, 5), new Vector(1, -1, 0)), inf),
+                "Ray goes away from an infinite box");
+
+        // TC14: Ray lying on the far face of the box, with a negative zero component
+        assertTrue(box.intersects(new Ray(new Point(2, 1, 0.5), new Vector(-1, -0.0, 0)), inf),
+                "Ray on the far face of the box");
+    }
+
+    /**
+     * Test method for {@link geometries.Intersectable#getBoundingBox()}.
+     */
+    @Test
+    void testGetBoundingBox() {
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Sphere
+        BoundingBox box = new Sphere(1d, new Point(1, 2, 3)).getBoundingBox();
+        assertEquals(new Point(0, 1, 2), box.getMin(), "Wrong sphere box");
+        assertEquals(new Point(2, 3, 4), box.getMax(), "Wrong sphere box");
+
+        // TC02: Cylinder along the y axis
+        box = new Cylinder(new Ray(new Point(0, 0, 0), new Vector(0, 1, 0)), 1, 2).getBoundingBox();
+        assertEquals(new Point(-1, 0, -1), box.getMin(), "Wrong cylinder box");
+        assertEquals(new Point(1, 2, 1), box.getMax(), "Wrong cylinder box");
+
+        // TC03: Collection of shapes
+        box = new Geometries(new Sphere(1d, new Point(0, 0, 0)),
+                new Triangle(new Point(0, 0, 5), new Point(1, 0, 5), new Point(0, 1, 5))).getBoundingBox();
+        assertEquals(new Point(-1, -1, -1), box.getMin(), "Wrong collection box");
+        assertEquals(new Point(1, 1, 5), box.getMax(), "Wrong collection box");
+
+        // =============== Boundary Values Tests ==================
+
+        // TC11: A plane that is not axis-aligned is unbounded
+        assertNull(new Plane(new Point(0, 0, 0), new Vector(1, 1, 0)).getBoundingBox(), "Plane must be unbounded");
+
+        // TC12: A tube that is not axis-aligned is unbounded
+        assertNull(new Tube(1, new Ray(new Point(0, 0, 0), new Vector(1, 1, 1))).getBoundingBox(),
+                "Tube must be unbounded");
+
+        // TC13: A collection with an unbounded shape is unbounded
+        assertNull(new Geometries(new Sphere(1d, new Point(0, 0, 0)),
+                new Plane(new Point(0, 0, 0), new Vector(1, 1, 0))).getBoundingBox(),
+                "Collection must be unbounded");
+    }
+}
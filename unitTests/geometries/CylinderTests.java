@@ -4,6 +4,7 @@ import org.junit.jupiter.api.Test;
 import primitives.Point;
 import primitives.Vector;
 import primitives.Ray;
+import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
 
 /** Testing Cylinder */
@@ -50,4 +51,92 @@ class CylinderTests {
         assertEquals(new Vector(0, 1, 0), cyl.getNormal(new Point(0, 1, 2)),
                 "Bad normal to edge with upper base");
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link geometries.Cylinder#findIntersections(primitives.Ray)}.
+     */
+    @Test
+    void testFindIntersections() {
+        Cylinder cyl = new Cylinder(new Ray(new Point(0, 0, 0), new Vector(0, 0, 1)), 1, 2);
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Ray's line is outside the cylinder (0 points)
+        assertNull(cyl.findIntersections(new Ray(new Point(-2, 2, 1), new Vector(1, 0, 0))),
+                "Ray's line out of cylinder");
+
+        // TC02: Ray crosses the side twice (2 points)
+        assertEquals(List.of(new Point(-1, 0, 1), new Point(1, 0, 1)),
+                cyl.findIntersections(new Ray(new Point(-2, 0, 1), new Vector(1, 0, 0))), "Ray crosses the side");
+
+        // TC03: Ray crosses the bottom and the side (2 points)
+        assertEquals(List.of(new Point(0, 0, 0), new Point(1, 0, 1)),
+                cyl.findIntersections(new Ray(new Point(-1, 0, -1), new Vector(1, 0, 1))), "Ray through the bottom");
+
+        // TC04: Ray crosses the side and the top (2 points)
+        assertEquals(List.of(new Point(-1, 0, 1), new Point(0, 0, 2)),
+                cyl.findIntersections(new Ray(new Point(-2, 0, 0), new Vector(1, 0, 1))), "Ray through the top");
+
+        // TC05: Ray's line crosses the tube beyond the top (0 points)
+        assertNull(cyl.findIntersections(new Ray(new Point(-2, 0, 3), new Vector(1, 0, 0))),
+                "Ray above the cylinder");
+
+        // TC06: Ray starts inside the cylinder (1 point)
+        assertEquals(List.of(new Point(0, 0, 2)),
+                cyl.findIntersections(new Ray(new Point(0, 0, 1), new Vector(0, 0, 1))), "Ray from inside");
+
+        // TC07: Ray starts after the cylinder (0 points)
+        assertNull(cyl.findIntersections(new Ray(new Point(2, 0, 1), new Vector(1, 0, 0))),
+                "Cylinder behind Ray");
+
+        // =============== Boundary Values Tests ==================
+
+        // TC11: Ray along the axis crosses both bases (2 points)
+        assertEquals(List.of(new Point(0, 0, 0), new Point(0, 0, 2)),
+                cyl.findIntersections(new Ray(new Point(0, 0, -1), new Vector(0, 0, 1))), "Ray along the axis");
+
+        // TC12: Ray crosses the edges of both bases (2 points)
+        assertEquals(List.of(new Point(-1, 0, 0), new Point(1, 0, 2)),
+                cyl.findIntersections(new Ray(new Point(-2, 0, -1), new Vector(1, 0, 1))), "Ray through the edges");
+
+        // TC13: Ray in the plane of the bottom (0 points)
+        assertNull(cyl.findIntersections(new Ray(new Point(-2, 0, 0), new Vector(1, 0, 0))),
+                "Ray in the plane of a base");
+
+        // TC14: Ray starts on the top and goes outside (0 points)
+        assertNull(cyl.findIntersections(new Ray(new Point(0, 0, 2), new Vector(0, 1, 1))),
+                "Ray from the top outside");
+    }
+
+    /**
+     * Test method for {@link geometries.Intersectable#findClosestGeoIntersection(primitives.Ray, double)}.
+     */
+    @Test
+    void testFindClosestGeoIntersection() {
+        Cylinder cyl = new Cylinder(new Ray(new Point(0, 0, 0), new Vector(0, 0, 1)), 1, 2);
+        Ray ray = new Ray(new Point(0, 0, -1), new Vector(0, 0, 1));
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Ray crosses both bases - only the nearer point, with its distance and normal
+        Intersectable.GeoPoint gp = cyl.findClosestGeoIntersection(ray);
+        assertEquals(new Point(0, 0, 0), gp.point, "Ray crosses the bases");
+        assertEquals(1, gp.t, 1e-10, "Wrong distance of the intersection");
+        assertEquals(new Vector(0, 0, 1), gp.getNormal(), "Wrong normal of the intersection");
+
+        // TC02: Nearer point beyond the maximum distance
+        assertNull(cyl.findClosestGeoIntersection(ray, 0.5), "Cylinder beyond the maximum distance");
+
+        // TC03: The closest hit is recorded like the closest intersection
+        HitRecord hit = new HitRecord();
+        assertTrue(cyl.findClosestHit(new Ray(new Point(-2, 0, 1), new Vector(1, 0, 0)),
+                Double.POSITIVE_INFINITY, hit), "The cylinder must be recorded");
+        assertEquals(new Point(-1, 0, 1), hit.point(), "Wrong recorded point");
+
+        // =============== Boundary Values Tests ==================
+
+        // TC11: Nearer point exactly at the maximum distance
+        assertEquals(new Point(0, 0, 0), cyl.findClosestGeoIntersection(ray, 1).point,
+                "Point at the maximum distance");
+    }
+}
@@ -1,8 +1,11 @@
 package geometries;
 
+import primitives.Double3;
+import primitives.Material;
 import primitives.Point;
 import primitives.Vector;
 import primitives.Ray;
+import primitives.Transform;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -46,4 +49,72 @@ class GeometriesTests {
                         new Vector(-2,-1,0.5))).size(),
                 "Must be three intersections. (2 in sphere, 1 in plane)");
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link geometries.Intersectable#findTransparency(primitives.Ray, double, primitives.Double3, double)}.
+     */
+    @Test
+    void testFindTransparency() {
+        Material glass = new Material().setKt(new Double3(0.5));
+        Geometries geo = new Geometries(
+                new Sphere(1d, new Point(0, 0, 3)).setMaterial(glass),
+                new Triangle(new Point(-1, -1, 6), new Point(1, -1, 6), new Point(0, 1, 6)),
+                new Plane(new Point(0, 0, 9), new Vector(0, 0, 1)).setMaterial(glass));
+        Ray ray = new Ray(new Point(0, 0, 0), new Vector(0, 0, 1));
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Ray through transparent shapes only - both sides of the sphere
+        assertEquals(new Double3(0.25), geo.findTransparency(ray, 5, Double3.ONE, 0.001),
+                "Wrong transparency through the sphere");
+
+        // TC02: Ray blocked by an opaque shape
+        assertEquals(Double3.ZERO, geo.findTransparency(ray, 20, Double3.ONE, 0.001),
+                "Opaque triangle must block the ray");
+
+        // TC03: Ray missing all the shapes
+        assertEquals(Double3.ONE, geo.findTransparency(new Ray(new Point(5, 5, 0), new Vector(0, 1, 0)),
+                20, Double3.ONE, 0.001), "Ray must not be blocked");
+
+        // =============== Boundary Values Tests ==================
+
+        // TC11: Accumulated coefficient drops below the minimum
+        assertEquals(Double3.ZERO, geo.findTransparency(ray, 5, Double3.ONE, 0.3),
+                "Ray must be blocked below the minimum coefficient");
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#compile()}.
+     */
+    @Test
+    void testCompile() {
+        Sphere mirror = new Sphere(1d, new Point(0, 0, 5));
+        mirror.setMaterial(new Material().setKr(0.5));
+        Geometries nested = new Geometries(mirror);
+        Geometries geo = new Geometries(new Plane(new Point(0, 0, 10), new Vector(0, 0, 1)), nested);
+        Ray ray = new Ray(new Point(0, 0, 0), new Vector(0, 0, 1));
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: The compiled collection finds the shapes of the nested collections
+        Intersectable compiled = geo.compile();
+        assertEquals(new Point(0, 0, 4), compiled.findClosestGeoIntersection(ray).point, "Wrong closest point");
+
+        // TC02: Shapes added after the compilation do not change it
+        geo.add(new Sphere(1d, new Point(0, 0, 2)));
+        assertEquals(new Point(0, 0, 4), compiled.findClosestGeoIntersection(ray).point,
+                "The compiled collection changed");
+        assertEquals(new Point(0, 0, 1), geo.compile().findClosestGeoIntersection(ray).point,
+                "Wrong closest point after the compilation");
+
+        // TC03: A built acceleration structure is reused
+        geo.buildBVH();
+        assertSame(geo.compile(), geo.compile(), "The acceleration structure must be reused");
+
+        // TC04: The materials of nested collections and of instances are checked
+        assertTrue(geo.anyMaterial(material -> material.kR.equals(new Double3(0.5))), "Missing nested material");
+        assertFalse(geo.anyMaterial(material -> !material.kT.equals(Double3.ZERO)), "Wrong transparent material");
+        assertTrue(new Geometries(new Instance(mirror, Transform.IDENTITY))
+                .anyMaterial(material -> material.kR.equals(new Double3(0.5))), "Missing instance material");
+    }
+}
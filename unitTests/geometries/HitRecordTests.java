@@ -0,0 +1,69 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Testing HitRecord */
+class HitRecordTests {
+
+    /**
+     * Test method for {@link geometries.Intersectable#findClosestHit(primitives.Ray, double, HitRecord)}
+     * of single shapes into the same record.
+     */
+    @Test
+    void testFindClosestHit() {
+        Sphere sphere = new Sphere(1, new Point(0, 0, 5));
+        Triangle triangle = new Triangle(new Point(-1, -1, 3), new Point(3, -1, 3), new Point(-1, 3, 3));
+        Ray ray = new Ray(new Point(0, 0, 0), new Vector(0, 0, 1));
+        HitRecord hit = new HitRecord();
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: The first hit is recorded with its point, distance and normal
+        assertTrue(sphere.findClosestHit(ray, Double.POSITIVE_INFINITY, hit), "The sphere must be recorded");
+        assertSame(sphere, hit.geometry, "Wrong geometry");
+        assertEquals(4, hit.t, 1e-10, "Wrong distance");
+        assertEquals(new Point(0, 0, 4), hit.point(), "Wrong point");
+        assertEquals(new Vector(0, 0, -1), hit.normal(), "Wrong normal");
+        assertTrue(Double.isNaN(hit.u), "A sphere has no barycentric coordinates");
+
+        // TC02: A closer hit replaces the recorded one, with the barycentric coordinates of a triangle
+        assertTrue(triangle.findClosestHit(ray, hit.t, hit), "The closer triangle must be recorded");
+        assertSame(triangle, hit.geometry, "Wrong geometry");
+        assertEquals(3, hit.t, 1e-10, "Wrong distance");
+        assertEquals(0.25, hit.u, 1e-10, "Wrong barycentric coordinate of the second vertex");
+        assertEquals(0.25, hit.v, 1e-10, "Wrong barycentric coordinate of the third vertex");
+        assertEquals(new Vector(0, 0, 1), hit.normal().scale(hit.normal().getZ()), "Wrong normal");
+
+        // TC03: A farther hit does not replace the recorded one
+        assertFalse(sphere.findClosestHit(ray, Double.POSITIVE_INFINITY, hit), "The sphere must not be recorded");
+        assertSame(triangle, hit.geometry, "The closer hit must be kept");
+
+        // =============== Boundary Values Tests ==================
+
+        // TC11: A cleared record is empty, and takes the next hit
+        assertFalse(hit.clear().isHit(), "A cleared record must be empty");
+        assertNull(hit.toGeoPoint(), "An empty record has no point");
+        assertTrue(sphere.findClosestHit(ray, Double.POSITIVE_INFINITY, hit), "The sphere must be recorded");
+
+        // TC12: A miss leaves the record as it was
+        assertFalse(triangle.findClosestHit(new Ray(new Point(5, 5, 0), new Vector(0, 0, 1)),
+                Double.POSITIVE_INFINITY, hit), "A miss must not be recorded");
+        assertSame(sphere, hit.geometry, "The recorded hit must be kept");
+
+        // TC13: A polygon is recorded only inside its edges and within the maximum distance
+        Polygon square = new Polygon(new Point(-1, -1, 2), new Point(1, -1, 2), new Point(1, 1, 2),
+                new Point(-1, 1, 2));
+        assertFalse(square.findClosestHit(ray, 1.5, hit.clear()), "A polygon beyond the maximum must be missed");
+        assertFalse(square.findClosestHit(new Ray(new Point(1.5, 0, 0), new Vector(0, 0, 1)),
+                Double.POSITIVE_INFINITY, hit), "A ray outside the edges must miss the polygon");
+        assertTrue(square.findClosestHit(ray, Double.POSITIVE_INFINITY, hit), "The polygon must be recorded");
+        assertSame(square, hit.geometry, "Wrong geometry");
+        assertEquals(2, hit.t, 1e-10, "Wrong distance");
+        assertEquals(new Point(0, 0, 2), hit.point(), "Wrong point");
+    }
+}
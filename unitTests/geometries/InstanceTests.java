@@ -0,0 +1,129 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Double3;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Transform;
+import primitives.Vector;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Testing Instance */
+class InstanceTests {
+
+    /**
+     * Checks that two points are equal up to rounding errors
+     * @param expected the expected point
+     * @param actual   the actual point
+     * @param message  the message of the failure
+     */
+    private static void assertNear(Point expected, Point actual, String message) {
+        assertEquals(0, expected.distance(actual), 1e-7, message);
+    }
+
+    /**
+     * Test method for {@link geometries.Instance#findIntersections(primitives.Ray)}.
+     */
+    @Test
+    void testFindIntersections() {
+        // A unit sphere placed as a sphere of radius 2 at (5, 0, 0)
+        Sphere unit = new Sphere(1d, new Point(0, 0, 0));
+        Material material = new Material().setKd(0.5).setKt(new Double3(0.5));
+        unit.setMaterial(material);
+        Instance instance = new Instance(unit,
+                Transform.scaling(2, 2, 2).then(Transform.translation(new Vector(5, 0, 0))));
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Ray through the placed sphere
+        Ray ray = new Ray(new Point(0, 0, 0), new Vector(1, 0, 0));
+        List<Point> result = instance.findIntersections(ray);
+        assertNotNull(result, "Missed the placed sphere");
+        assertEquals(2, result.size(), "Wrong number of points");
+        Intersectable.GeoPoint closest = instance.findClosestGeoIntersection(ray);
+        assertNear(new Point(3, 0, 0), closest.point, "Wrong closest point");
+        assertSame(material, closest.geometry.getMaterial(), "Instances must share the material of the shape");
+        assertNear(new Vector(-1, 0, 0), closest.geometry.getNormal(closest.point), "Wrong normal");
+
+        // TC02: Ray that misses the placed sphere but hits the shared sphere where it is
+        assertNull(instance.findIntersections(new Ray(new Point(0, 0, -5), new Vector(0, 0, 1))),
+                "Found the shared sphere instead of the placed one");
+
+        // TC03: Distances are measured in the scene
+        assertNull(instance.findClosestGeoIntersection(ray, 2.5), "Found a point beyond the maximum distance");
+        assertNotNull(instance.findClosestGeoIntersection(ray, 3.5), "Missed a point within the maximum distance");
+        assertEquals(3, closest.t, 1e-10, "Wrong distance of the intersection");
+        assertEquals(new Double3(0.25), instance.findTransparency(ray, 10, Double3.ONE, 0.001), "Wrong transparency");
+
+        // TC04: A search through the instance compares its hits with the recorded one in the scene
+        HitRecord hit = new HitRecord();
+        assertTrue(new Sphere(0.5, new Point(1, 0, 0)).findClosestHit(ray, Double.POSITIVE_INFINITY, hit),
+                "Missed the near sphere");
+        assertFalse(instance.findClosestHit(ray, Double.POSITIVE_INFINITY, hit), "Recorded a farther hit");
+        assertEquals(0.5, hit.t, 1e-10, "The distance of the recorded hit must be kept");
+        assertTrue(new Sphere(1, new Point(20, 0, 0)).findClosestHit(ray, Double.POSITIVE_INFINITY, hit.clear()),
+                "Missed the far sphere");
+        assertTrue(instance.findClosestHit(ray, Double.POSITIVE_INFINITY, hit), "Missed a closer hit");
+        assertEquals(3, hit.t, 1e-10, "Wrong distance of the recorded hit");
+        assertNear(new Point(3, 0, 0), hit.point(), "Wrong recorded point");
+        assertSame(material, hit.geometry.getMaterial(), "Instances must share the material of the shape");
+
+        // TC05: The bounding box of the placed sphere
+        BoundingBox box = instance.getBoundingBox();
+        assertNear(new Point(3, -2, -2), box.getMin(), "Wrong bounding box");
+        assertNear(new Point(7, 2, 2), box.getMax(), "Wrong bounding box");
+
+        // =============== Boundary Values Tests ==================
+
+        // TC11: Instance of an unbounded shape
+        assertNull(new Instance(new Plane(new Point(0, 0, 0), new Vector(0, 0, 1)), Transform.IDENTITY)
+                .getBoundingBox(), "Instance of a plane must be unbounded");
+    }
+
+    /**
+     * Test method for {@link geometries.Instance#findClosestGeoIntersection(primitives.Ray)}.
+     */
+    @Test
+    void testTwoLevels() {
+        // Many rotated copies of a shared mesh, against the same triangles placed one by one
+        Point[] vertices = {new Point(0, 0, 0), new Point(1, 0, 0), new Point(0, 1, 0), new Point(0, 0, 1)};
+        int[] faces = {0, 1, 2, 0, 3, 1, 0, 2, 3, 1, 3, 2};
+        TriangleMesh mesh = new TriangleMesh(vertices, faces);
+        Random rand = new Random(1906);
+        Geometries instances = new Geometries();
+        Geometries copies = new Geometries();
+        for (int i = 0; i < 100; ++i) {
+            Transform transform = Transform.rotation(new Vector(rand.nextDouble(-1, 1), 1, 0), rand.nextDouble(360))
+                    .then(Transform.translation(new Vector(rand.nextDouble(-10, 10), rand.nextDouble(-10, 10), 0)));
+            instances.add(new Instance(mesh, transform));
+            for (int f = 0; f < faces.length; f += 3)
+                copies.add(new Triangle(transform.apply(vertices[faces[f]]), transform.apply(vertices[faces[f + 1]]),
+                        transform.apply(vertices[faces[f + 2]])));
+        }
+        instances.buildBVH();
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Random rays must find the same closest point through the instances as through the copies
+        for (int i = 0; i < 500; ++i) {
+            Ray ray = new Ray(new Point(rand.nextDouble(-12, 12), rand.nextDouble(-12, 12), -20),
+                    new Vector(rand.nextDouble(-0.2, 0.2), rand.nextDouble(-0.2, 0.2), 1));
+            Intersectable.GeoPoint expected = copies.findClosestGeoIntersection(ray);
+            Intersectable.GeoPoint result = instances.findClosestGeoIntersection(ray);
+            if (expected == null) {
+                assertNull(result, "Instances found a point that does not exist");
+            } else {
+                assertNotNull(result, "Instances missed a point");
+                assertNear(expected.point, result.point, "Wrong closest point");
+                Vector n = result.geometry.getNormal(result.point);
+                Vector m = expected.geometry.getNormal(expected.point);
+                assertEquals(1, Math.abs(n.dotProduct(m)), 1e-9, "Wrong normal");
+            }
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Testing IntersectionKernels */
+class IntersectionKernelsTests {
+
+    /** The kernels of the JVM - the SIMD kernels if they are available */
+    private final IntersectionKernels kernels = IntersectionKernels.load();
+
+    /** The scalar kernels, the reference of the SIMD kernels */
+    private final IntersectionKernels scalar = new ScalarKernels();
+
+    /** Amount of shapes - not a multiple of the vector lanes, so the last vector is partial */
+    private static final int SHAPES = 203;
+
+    /**
+     * Intersects rays with all the shapes by the kernels and by the shapes one by one
+     * @param shapes the shapes
+     * @param kind   the kind of the shapes
+     * @param ray    the ray
+     * @param max    the maximum distance along the ray
+     */
+    private void assertKernels(Intersectable[] shapes, byte kind, Ray ray, double max) {
+        ShapeArrays arrays = new ShapeArrays(shapes, kernels.padding());
+        double[] expected = new double[shapes.length];
+        double[] result = new double[shapes.length + kernels.padding()];
+        Point p0 = ray.getP0();
+        Vector v = ray.getDir();
+        // a range that starts after the first shape, so the loads are not aligned
+        if (kind == ShapeArrays.SPHERE) {
+            scalar.spheres(arrays, 1, shapes.length, p0.getX(), p0.getY(), p0.getZ(),
+                    v.getX(), v.getY(), v.getZ(), max, expected);
+            kernels.spheres(arrays, 1, shapes.length, p0.getX(), p0.getY(), p0.getZ(),
+                    v.getX(), v.getY(), v.getZ(), max, result);
+        } else {
+            scalar.triangles(arrays, 1, shapes.length, p0.getX(), p0.getY(), p0.getZ(),
+                    v.getX(), v.getY(), v.getZ(), max, expected);
+            kernels.triangles(arrays, 1, shapes.length, p0.getX(), p0.getY(), p0.getZ(),
+                    v.getX(), v.getY(), v.getZ(), max, result);
+        }
+        for (int i = 1; i < shapes.length; ++i) {
+            assertEquals(expected[i - 1], result[i - 1], 0, "The kernels must find the same distances");
+            Intersectable.GeoPoint gp = shapes[i].findClosestGeoIntersection(ray, max);
+            if (gp == null)
+                assertEquals(Double.POSITIVE_INFINITY, expected[i - 1], "Wrong intersection of a shape");
+            else
+                assertEquals(gp.point, ray.getPoint(expected[i - 1]), "Wrong intersection of a shape");
+        }
+    }
+
+    /**
+     * Test method for {@link geometries.IntersectionKernels#spheres}.
+     */
+    @Test
+    void testSpheres() {
+        Random rand = new Random(2165);
+        Intersectable[] spheres = new Intersectable[SHAPES];
+        for (int i = 0; i < SHAPES; ++i)
+            spheres[i] = new Sphere(rand.nextDouble(0.5, 3),
+                    new Point(rand.nextDouble(-10, 10), rand.nextDouble(-10, 10), rand.nextDouble(-10, 10)));
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Rays from outside, through some spheres and beside others
+        for (int r = 0; r < 50; ++r)
+            assertKernels(spheres, ShapeArrays.SPHERE, new Ray(new Point(rand.nextDouble(-5, 5), 0, -30),
+                    new Vector(rand.nextDouble(-0.3, 0.3), rand.nextDouble(-0.3, 0.3), 1)), Double.POSITIVE_INFINITY);
+
+        // TC02: Rays that start inside some of the spheres
+        for (int r = 0; r < 50; ++r)
+            assertKernels(spheres, ShapeArrays.SPHERE, new Ray(new Point(rand.nextDouble(-10, 10),
+                            rand.nextDouble(-10, 10), rand.nextDouble(-10, 10)),
+                    new Vector(rand.nextDouble(-1, 1), rand.nextDouble(-1, 1), 1)), Double.POSITIVE_INFINITY);
+
+        // TC03: A maximum distance that cuts some of the intersections
+        assertKernels(spheres, ShapeArrays.SPHERE, new Ray(new Point(0, 0, -30), new Vector(0, 0.1, 1)), 25);
+
+        // =============== Boundary Values Tests ==================
+
+        // TC11: A ray from the center of a sphere
+        Point center = ((Sphere) spheres[5]).getCenter();
+        assertKernels(spheres, ShapeArrays.SPHERE, new Ray(center, new Vector(1, 0, 0)), Double.POSITIVE_INFINITY);
+
+        // TC12: A ray from the center of a sphere, with a maximum distance shorter than the radius
+        assertKernels(spheres, ShapeArrays.SPHERE, new Ray(center, new Vector(1, 0, 0)), 0.1);
+    }
+
+    /**
+     * Test method for {@link geometries.IntersectionKernels#triangles}.
+     */
+    @Test
+    void testTriangles() {
+        Random rand = new Random(5783);
+        Intersectable[] triangles = new Intersectable[SHAPES];
+        for (int i = 0; i < SHAPES; ++i) {
+            Point p = new Point(rand.nextDouble(-10, 10), rand.nextDouble(-10, 10), rand.nextDouble(-10, 10));
+            triangles[i] = new Triangle(p, p.add(new Vector(rand.nextDouble(1, 4), 0, rand.nextDouble(-1, 1))),
+                    p.add(new Vector(0, rand.nextDouble(1, 4), rand.nextDouble(-1, 1))));
+        }
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Rays through some triangles and beside others
+        for (int r = 0; r < 100; ++r)
+            assertKernels(triangles, ShapeArrays.TRIANGLE, new Ray(new Point(rand.nextDouble(-10, 10),
+                            rand.nextDouble(-10, 10), -30),
+                    new Vector(rand.nextDouble(-0.3, 0.3), rand.nextDouble(-0.3, 0.3), 1)), Double.POSITIVE_INFINITY);
+
+        // TC02: A maximum distance that cuts some of the intersections
+        assertKernels(triangles, ShapeArrays.TRIANGLE, new Ray(new Point(0, 0, -30), new Vector(0, 0.1, 1)), 28);
+
+        // =============== Boundary Values Tests ==================
+
+        // TC11: A ray parallel to the triangles of the z = 0 plane
+        Intersectable[] flat = new Intersectable[SHAPES];
+        for (int i = 0; i < SHAPES; ++i)
+            flat[i] = new Triangle(new Point(i, 0, 0), new Point(i + 1, 0, 0), new Point(i, 1, 0));
+        assertKernels(flat, ShapeArrays.TRIANGLE, new Ray(new Point(-1, 0.2, 0), new Vector(1, 0, 0)),
+                Double.POSITIVE_INFINITY);
+
+        // TC12: A ray through a vertex
+        assertKernels(flat, ShapeArrays.TRIANGLE, new Ray(new Point(3, 0, -1), new Vector(0, 0, 1)),
+                Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Test method for {@link geometries.IntersectionKernels#quantizedBoxes}.
+     */
+    @Test
+    void testQuantizedBoxes() {
+        Random rand = new Random(1906);
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Random slabs of 4 and 8 boxes hit some of the boxes and miss others
+        for (int width : new int[]{4, 8}) {
+            // two nodes, so the planes of the second node are the last bytes of the array
+            byte[] bounds = new byte[12 * width];
+            for (int j = 0; j < bounds.length; ++j) {
+                int axis = j / width % 6;
+                int q = rand.nextInt(128);
+                bounds[j] = (byte) (axis < 3 ? q : q + 127); // the max coordinates above the min ones
+            }
+            double[] expected = new double[width], result = new double[width];
+            for (int r = 0; r < 200; ++r) {
+                int b = r % 2 * 6 * width;
+                double ax = rand.nextDouble(-50, 50), ay = rand.nextDouble(-50, 50), az = rand.nextDouble(-50, 50);
+                double sx = rand.nextDouble(-1, 1), sy = rand.nextDouble(-1, 1), sz = rand.nextDouble(-1, 1);
+                int nearX = b + (sx < 0 ? 3 * width : 0), farX = b + (sx < 0 ? 0 : 3 * width);
+                int nearY = b + width + (sy < 0 ? 3 * width : 0), farY = b + width + (sy < 0 ? 0 : 3 * width);
+                int nearZ = b + 2 * width + (sz < 0 ? 3 * width : 0), farZ = b + 2 * width + (sz < 0 ? 0 : 3 * width);
+                double tMax = r % 3 == 0 ? 20 : Double.POSITIVE_INFINITY;
+                scalar.quantizedBoxes(bounds, nearX, farX, nearY, farY, nearZ, farZ, width,
+                        ax, ay, az, sx, sy, sz, tMax, expected);
+                kernels.quantizedBoxes(bounds, nearX, farX, nearY, farY, nearZ, farZ, width,
+                        ax, ay, az, sx, sy, sz, tMax, result);
+                assertArrayEquals(expected, result, 0, "The kernels must find the same entry distances");
+            }
+        }
+    }
+}
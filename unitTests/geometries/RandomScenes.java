@@ -0,0 +1,97 @@
+package geometries;
+
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.Random;
+
+/**
+ * The random scenes and rays shared by the tests of the acceleration structures,
+ * which compare a structure with a scan of the same shapes one by one.
+ * The shapes of the scenes are spread in a cube of half size {@link #EXTENT} around the origin.
+ */
+final class RandomScenes {
+
+    /** The half size of the cube of the shapes */
+    static final double EXTENT = 10;
+
+    /** Don't let anyone instantiate this class. */
+    private RandomScenes() {
+    }
+
+    /**
+     * Builds a collection of random spheres and triangles, one after the other, of random sizes
+     * at random positions in the cube, with a plane below them.
+     * The same amount always builds the same collection, so a collection can be built twice to compare.
+     * @param count    the amount of spheres and triangles
+     * @param material the material of the spheres, or null to keep the default one
+     * @return the collection
+     */
+    static Geometries spheresAndTriangles(int count, Material material) {
+        Random rand = new Random(5783);
+        Geometries geometries = new Geometries(new Plane(new Point(0, -2 * EXTENT, 0), new Vector(0, 1, 0)));
+        for (int i = 0; i < count; ++i) {
+            Point p = new Point(rand.nextDouble(-EXTENT, EXTENT), rand.nextDouble(-EXTENT, EXTENT),
+                    rand.nextDouble(-EXTENT, EXTENT));
+            if (i % 2 == 0) {
+                Sphere sphere = new Sphere(rand.nextDouble(0.1, 1), p);
+                if (material != null)
+                    sphere.setMaterial(material);
+                geometries.add(sphere);
+            } else
+                geometries.add(new Triangle(p, p.add(new Vector(1, 0, 0)), p.add(new Vector(0, 1, 0.5))));
+        }
+        return geometries;
+    }
+
+    /**
+     * Builds a collection of similar-sized spheres spread evenly through the cube: the cube is split into
+     * cells along every axis and every cell holds one sphere at a random position inside it.
+     * @param perAxis  the amount of cells along every axis
+     * @param material the material of the spheres, or null to keep the default one
+     * @return the collection
+     */
+    static Geometries evenSpheres(int perAxis, Material material) {
+        Random rand = new Random(2165);
+        double cell = 2 * EXTENT / perAxis;
+        Geometries geometries = new Geometries();
+        for (int i = 0; i < perAxis; ++i)
+            for (int j = 0; j < perAxis; ++j)
+                for (int k = 0; k < perAxis; ++k) {
+                    double radius = cell * rand.nextDouble(0.2, 0.3);
+                    double range = cell / 2 - radius;
+                    Sphere sphere = new Sphere(radius, new Point(
+                            -EXTENT + (i + 0.5) * cell + rand.nextDouble(-range, range),
+                            -EXTENT + (j + 0.5) * cell + rand.nextDouble(-range, range),
+                            -EXTENT + (k + 0.5) * cell + rand.nextDouble(-range, range)));
+                    if (material != null)
+                        sphere.setMaterial(material);
+                    geometries.add(sphere);
+                }
+        return geometries;
+    }
+
+    /**
+     * Builds a random ray from a square in front of the cube (towards negative z) into it
+     * @param rand the random generator
+     * @return the ray
+     */
+    static Ray towardsScene(Random rand) {
+        return new Ray(new Point(rand.nextDouble(-15, 15), rand.nextDouble(-15, 15), -30),
+                new Vector(rand.nextDouble(-0.5, 0.5), rand.nextDouble(-0.5, 0.5), 1));
+    }
+
+    /**
+     * Builds a random ray in a random direction from a random point of a cube around the origin
+     * @param rand   the random generator
+     * @param extent the half size of the cube of the heads of the rays
+     * @return the ray
+     */
+    static Ray anyDirection(Random rand, double extent) {
+        return new Ray(new Point(rand.nextDouble(-extent, extent), rand.nextDouble(-extent, extent),
+                rand.nextDouble(-extent, extent)),
+                new Vector(rand.nextDouble(-1, 1), rand.nextDouble(-1, 1), rand.nextDouble(-1, 1)));
+    }
+}
@@ -117,4 +117,58 @@ class SphereTests {
         assertNull(sph.findIntersections(new Ray(new Point(-1, 0, 0), new Vector(0, 0, 1))),
                 "Ray orthogonal to ray head -> O line");
     }
+
+    /**
+     * Test method for {@link geometries.Intersectable#findClosestGeoIntersection(primitives.Ray, double)}.
+     */
+    @Test
+    void testFindClosestGeoIntersection() {
+        Sphere sph = new Sphere(1d, new Point(1, 0, 0));
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Ray crosses the sphere - only the nearer point
+        assertEquals(new Point(0, 0, 0), sph.findClosestGeoIntersection(
+                new Ray(new Point(-1, 0, 0), new Vector(1, 0, 0))).point, "Ray crosses sphere");
+
+        // TC02: Ray starts inside the sphere
+        assertEquals(new Point(2, 0, 0), sph.findClosestGeoIntersection(
+                new Ray(new Point(0.5, 0, 0), new Vector(1, 0, 0))).point, "Ray from inside sphere");
+
+        // TC03: Sphere behind the ray
+        assertNull(sph.findClosestGeoIntersection(new Ray(new Point(3, 0, 0), new Vector(1, 0, 0))),
+                "Sphere behind Ray");
+
+        // TC04: Ray's line is outside the sphere
+        assertNull(sph.findClosestGeoIntersection(new Ray(new Point(-1, 0, 0), new Vector(1, 1, 0))),
+                "Ray's line out of sphere");
+
+        // TC05: Nearer point beyond the maximum distance
+        assertNull(sph.findClosestGeoIntersection(new Ray(new Point(-1, 0, 0), new Vector(1, 0, 0)), 0.5),
+                "Sphere beyond the maximum distance");
+
+        // TC06: Farther point beyond the maximum distance
+        assertEquals(new Point(0, 0, 0), sph.findClosestGeoIntersection(
+                new Ray(new Point(-1, 0, 0), new Vector(1, 0, 0)), 2).point, "Nearer point within the distance");
+
+        // TC07: The intersection keeps its distance, and its normal once calculated
+        Intersectable.GeoPoint gp = sph.findClosestGeoIntersection(new Ray(new Point(-1, 0, 0), new Vector(1, 0, 0)));
+        assertEquals(1, gp.t, 1e-10, "Wrong distance of the intersection");
+        assertEquals(new Vector(-1, 0, 0), gp.getNormal(), "Wrong normal of the intersection");
+        assertSame(gp.getNormal(), gp.getNormal(), "The normal must be calculated once");
+
+        // =============== Boundary Values Tests ==================
+
+        // TC11: Ray starts at the center
+        assertEquals(new Point(1, 1, 0), sph.findClosestGeoIntersection(
+                new Ray(new Point(1, 0, 0), new Vector(0, 1, 0))).point, "Ray from O");
+
+        // TC12: Tangent ray
+        assertNull(sph.findClosestGeoIntersection(new Ray(new Point(0, 1, 0), new Vector(1, 0, 0))),
+                "Tangent line");
+
+        // TC13: Nearer point exactly at the maximum distance
+        assertEquals(new Point(0, 0, 0), sph.findClosestGeoIntersection(
+                new Ray(new Point(-1, 0, 0), new Vector(1, 0, 0)), 1).point, "Point at the maximum distance");
+    }
 }
\ No newline at end of file
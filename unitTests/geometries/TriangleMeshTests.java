@@ -0,0 +1,180 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Double3;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Testing TriangleMesh */
+class TriangleMeshTests {
+
+    /** Size of the random height field in each axis */
+    private static final int GRID = 20;
+
+    /**
+     * Builds the vertices of a random height field over the xy plane
+     * @return the vertices
+     */
+    private static Point[] gridVertices() {
+        Random rand = new Random(2165);
+        Point[] vertices = new Point[(GRID + 1) * (GRID + 1)];
+        for (int i = 0; i <= GRID; ++i)
+            for (int j = 0; j <= GRID; ++j)
+                vertices[i * (GRID + 1) + j] = new Point(i - GRID / 2d, j - GRID / 2d, rand.nextDouble(-1, 1));
+        return vertices;
+    }
+
+    /**
+     * Builds the faces of the height field, two triangles per grid cell
+     * @return the vertex indices of the faces
+     */
+    private static int[] gridFaces() {
+        int[] faces = new int[GRID * GRID * 6];
+        int k = 0;
+        for (int i = 0; i < GRID; ++i)
+            for (int j = 0; j < GRID; ++j) {
+                int a = i * (GRID + 1) + j, b = a + 1, c = a + GRID + 1, d = c + 1;
+                faces[k++] = a;
+                faces[k++] = b;
+                faces[k++] = d;
+                faces[k++] = a;
+                faces[k++] = d;
+                faces[k++] = c;
+            }
+        return faces;
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#TriangleMesh(primitives.Point[], int[])}.
+     */
+    @Test
+    void testConstructor() {
+        Point[] vertices = {new Point(0, 0, 0), new Point(1, 0, 0), new Point(0, 1, 0)};
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Correct mesh
+        assertDoesNotThrow(() -> new TriangleMesh(vertices, new int[]{0, 1, 2}), "Failed constructing a correct mesh");
+
+        // TC02: Face referencing a vertex that does not exist
+        assertThrows(IllegalArgumentException.class, () -> new TriangleMesh(vertices, new int[]{0, 1, 3}),
+                "Constructed a mesh with a missing vertex");
+
+        // TC03: Faces that are not made of triples
+        assertThrows(IllegalArgumentException.class, () -> new TriangleMesh(vertices, new int[]{0, 1, 2, 0}),
+                "Constructed a mesh with a partial face");
+
+        // TC04: Degenerate faces (collinear or repeated vertices) are dropped
+        Point[] line = {new Point(0, 0, 0), new Point(1, 0, 0), new Point(0, 1, 0), new Point(2, 0, 0)};
+        assertEquals(1, new TriangleMesh(line, new int[]{0, 1, 3, 0, 1, 2, 2, 2, 1}).getFaceCount(),
+                "Kept a degenerate face");
+
+        // =============== Boundary Values Tests ==================
+
+        // TC11: Mesh without faces
+        assertThrows(IllegalArgumentException.class, () -> new TriangleMesh(vertices, new int[0]),
+                "Constructed a mesh without faces");
+
+        // TC12: Mesh of degenerate faces only
+        assertThrows(IllegalArgumentException.class, () -> new TriangleMesh(line, new int[]{0, 1, 3}),
+                "Constructed a mesh of degenerate faces only");
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#getNormal(primitives.Point)}.
+     */
+    @Test
+    void testGetNormal() {
+        TriangleMesh mesh = new TriangleMesh(
+                new Point[]{new Point(0, 0, 0), new Point(1, 0, 0), new Point(0, 1, 0), new Point(0, 0, 1)},
+                new int[]{0, 1, 2, 0, 3, 1});
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Point inside the first face
+        Vector n = mesh.getNormal(new Point(0.2, 0.2, 0));
+        assertTrue(n.equals(new Vector(0, 0, 1)) || n.equals(new Vector(0, 0, -1)), "Wrong normal of the first face");
+
+        // TC02: Point inside the second face
+        n = mesh.getNormal(new Point(0.2, 0, 0.2));
+        assertTrue(n.equals(new Vector(0, 1, 0)) || n.equals(new Vector(0, -1, 0)), "Wrong normal of the second face");
+
+        // TC03: Point outside the mesh
+        assertThrows(IllegalArgumentException.class, () -> mesh.getNormal(new Point(2, 2, 2)),
+                "Found a normal of a point outside the mesh");
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#findIntersections(primitives.Ray)}.
+     */
+    @Test
+    void testFindIntersections() {
+        Point[] vertices = gridVertices();
+        int[] faces = gridFaces();
+        Material material = new Material().setKd(0.5);
+        TriangleMesh mesh = new TriangleMesh(vertices, faces);
+        mesh.setMaterial(material);
+        Geometries triangles = new Geometries();
+        for (int i = 0; i < faces.length; i += 3)
+            triangles.add(new Triangle(vertices[faces[i]], vertices[faces[i + 1]], vertices[faces[i + 2]]));
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Random rays must find the same intersections as separate triangles
+        Random rand = new Random(1906);
+        for (int i = 0; i < 500; ++i) {
+            Ray ray = new Ray(new Point(rand.nextDouble(-12, 12), rand.nextDouble(-12, 12), -5),
+                    new Vector(rand.nextDouble(-1, 1), rand.nextDouble(-1, 1), 1));
+            List<Point> expected = triangles.findIntersections(ray);
+            List<Point> result = mesh.findIntersections(ray);
+            if (expected == null) {
+                assertNull(result, "Mesh found intersections that do not exist");
+                assertNull(mesh.findClosestGeoIntersection(ray), "Mesh found a closest point that does not exist");
+                assertEquals(Double3.ONE, mesh.findTransparency(ray, Double.POSITIVE_INFINITY, Double3.ONE, 0.001),
+                        "A missed opaque mesh must let the light pass");
+            } else {
+                assertNotNull(result, "Mesh missed intersections");
+                assertEquals(expected.size(), result.size(), "Wrong number of points");
+                assertTrue(result.containsAll(expected), "Wrong intersection points");
+                Intersectable.GeoPoint closest = mesh.findClosestGeoIntersection(ray);
+                assertEquals(ray.findClosestPoint(expected), closest.point, "Wrong closest point");
+                assertSame(material, closest.geometry.getMaterial(), "Faces must share the material of the mesh");
+                assertEquals(Double3.ZERO, mesh.findTransparency(ray, Double.POSITIVE_INFINITY, Double3.ONE, 0.001),
+                        "An opaque mesh must block the light");
+            }
+        }
+
+        // =============== Boundary Values Tests ==================
+
+        // TC11: Ray parallel to a face
+        TriangleMesh single = new TriangleMesh(new Point[]{new Point(0, 0, 0), new Point(1, 0, 0), new Point(0, 1, 0)},
+                new int[]{0, 1, 2});
+        assertNull(single.findIntersections(new Ray(new Point(-1, 0.2, 0), new Vector(1, 0, 0))),
+                "Ray in the plane of the face");
+
+        // TC12: Ray through an edge
+        assertNull(single.findIntersections(new Ray(new Point(0.5, 0, -1), new Vector(0, 0, 1))),
+                "Ray through an edge");
+
+        // TC13: Ray through a vertex
+        assertNull(single.findIntersections(new Ray(new Point(1, 0, -1), new Vector(0, 0, 1))),
+                "Ray through a vertex");
+
+        // TC14: Ray through a degenerate face and a real one behind it
+        TriangleMesh degenerate = new TriangleMesh(new Point[]{new Point(0, 0, 0), new Point(1, 0, 0),
+                new Point(2, 0, 0), new Point(-1, -1, -5), new Point(2, -1, -5), new Point(0.5, 2, -5)},
+                new int[]{0, 1, 2, 3, 4, 5});
+        Ray ray = new Ray(new Point(0.5, 0, 1), new Vector(0, 0, -1));
+        assertEquals(new Point(0.5, 0, -5), degenerate.findClosestGeoIntersection(ray).point,
+                "A degenerate face must not hide the face behind it");
+        assertEquals(List.of(new Point(0.5, 0, -5)), degenerate.findIntersections(ray),
+                "A degenerate face must not be intersected");
+    }
+}
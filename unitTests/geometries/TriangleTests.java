@@ -72,4 +72,38 @@ class TriangleTests {
         assertNull(tri.findIntersections(new Ray(new Point(1.5, 0, -1), new Vector(0, 0, 1))),
                 "Ray's lying on edge's continuation, there is no intersection point");
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link geometries.Triangle#intersect(double, double, double, double, double, double, double, double[])}.
+     */
+    @Test
+    void testIntersect() {
+        Triangle tri = new Triangle(new Point(0, 0, 0), new Point(2, 0, 0), new Point(0, 2, 0));
+        double[] barycentric = new double[2];
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Inside triangle - distance and barycentric coordinates
+        assertEquals(1, tri.intersect(0.5, 0.5, -1, 0, 0, 1, Double.POSITIVE_INFINITY, barycentric), 1e-10,
+                "Wrong distance");
+        assertArrayEquals(new double[]{0.25, 0.25}, barycentric, 1e-10, "Wrong barycentric coordinates");
+
+        // TC02: Outside triangle
+        assertEquals(Double.POSITIVE_INFINITY, tri.intersect(2, 2, -1, 0, 0, 1, Double.POSITIVE_INFINITY, null),
+                "Ray outside the triangle");
+
+        // TC03: Triangle behind the ray
+        assertEquals(Double.POSITIVE_INFINITY, tri.intersect(0.5, 0.5, 1, 0, 0, 1, Double.POSITIVE_INFINITY, null),
+                "Triangle behind the ray");
+
+        // TC04: Triangle beyond the maximum distance
+        assertEquals(Double.POSITIVE_INFINITY, tri.intersect(0.5, 0.5, -1, 0, 0, 1, 0.5, null),
+                "Triangle beyond the maximum distance");
+
+        // =============== Boundary Values Tests ==================
+
+        // TC11: Ray in the plane of the triangle
+        assertEquals(Double.POSITIVE_INFINITY, tri.intersect(-1, 0.5, 0, 1, 0, 0, Double.POSITIVE_INFINITY, null),
+                "Ray in the plane of the triangle");
+    }
+}
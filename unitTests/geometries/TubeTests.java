@@ -4,6 +4,7 @@ import org.junit.jupiter.api.Test;
 import primitives.Point;
 import primitives.Vector;
 import primitives.Ray;
+import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
 import static primitives.Util.*;
 
@@ -37,4 +38,87 @@ class TubeTests {
         assertThrows(IllegalArgumentException.class, () -> tube.getNormal(new Point(0, 1, 0)),
                 "The ray of the tube is orthogonal to (P - P0)");
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link geometries.Tube#findIntersections(primitives.Ray)}.
+     */
+    @Test
+    void testFindIntersections() {
+        Tube tube = new Tube(1, new Ray(new Point(0, 0, 0), new Vector(0, 0, 1)));
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Ray's line is outside the tube (0 points)
+        assertNull(tube.findIntersections(new Ray(new Point(-2, 2, 1), new Vector(1, 0, 1))),
+                "Ray's line out of tube");
+
+        // TC02: Ray starts before and crosses the tube (2 points)
+        assertEquals(List.of(new Point(-1, 0, 2), new Point(1, 0, 4)),
+                tube.findIntersections(new Ray(new Point(-2, 0, 1), new Vector(1, 0, 1))), "Ray crosses tube");
+
+        // TC03: Ray starts inside the tube (1 point)
+        assertEquals(List.of(new Point(1, 0, 4)),
+                tube.findIntersections(new Ray(new Point(0, 0, 3), new Vector(1, 0, 1))), "Ray from inside tube");
+
+        // TC04: Ray starts after the tube (0 points)
+        assertNull(tube.findIntersections(new Ray(new Point(2, 0, 1), new Vector(1, 0, 1))),
+                "Tube behind Ray");
+
+        // =============== Boundary Values Tests ==================
+
+        // TC11: Ray starts at the tube and goes inside (1 point)
+        assertEquals(List.of(new Point(1, 0, 0)),
+                tube.findIntersections(new Ray(new Point(-1, 0, 0), new Vector(1, 0, 0))), "Ray from tube inside");
+
+        // TC12: Ray starts at the tube and goes outside (0 points)
+        assertNull(tube.findIntersections(new Ray(new Point(1, 0, 0), new Vector(1, 0, 1))),
+                "Ray from tube outside");
+
+        // TC13: Ray's line is tangent to the tube (0 points)
+        assertNull(tube.findIntersections(new Ray(new Point(-1, 1, 0), new Vector(1, 0, 0))),
+                "Tangent line");
+
+        // TC14: Ray is parallel to the axis, inside the tube (0 points)
+        assertNull(tube.findIntersections(new Ray(new Point(0.5, 0, 0), new Vector(0, 0, 1))),
+                "Ray parallel to the axis");
+
+        // TC15: Ray is parallel to the axis, on the tube (0 points)
+        assertNull(tube.findIntersections(new Ray(new Point(1, 0, 0), new Vector(0, 0, 1))),
+                "Ray along the tube");
+
+        // TC16: Ray's line crosses the axis (2 points)
+        assertEquals(List.of(new Point(0, -1, 0), new Point(0, 1, 0)),
+                tube.findIntersections(new Ray(new Point(0, -2, 0), new Vector(0, 1, 0))), "Ray through the axis");
+    }
+
+    /**
+     * Test method for {@link geometries.Intersectable#findClosestGeoIntersection(primitives.Ray, double)}.
+     */
+    @Test
+    void testFindClosestGeoIntersection() {
+        Tube tube = new Tube(1, new Ray(new Point(0, 0, 0), new Vector(0, 0, 1)));
+        Ray ray = new Ray(new Point(-3, 0, 5), new Vector(1, 0, 0));
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Ray crosses the tube - only the nearer point, with its distance and normal
+        Intersectable.GeoPoint gp = tube.findClosestGeoIntersection(ray);
+        assertEquals(new Point(-1, 0, 5), gp.point, "Ray crosses tube");
+        assertEquals(2, gp.t, 1e-10, "Wrong distance of the intersection");
+        assertEquals(new Vector(-1, 0, 0), gp.getNormal(), "Wrong normal of the intersection");
+
+        // TC02: Nearer point beyond the maximum distance
+        assertNull(tube.findClosestGeoIntersection(ray, 1), "Tube beyond the maximum distance");
+
+        // TC03: The closest hit is recorded like the closest intersection
+        HitRecord hit = new HitRecord();
+        assertTrue(tube.findClosestHit(ray, Double.POSITIVE_INFINITY, hit), "The tube must be recorded");
+        assertEquals(new Point(-1, 0, 5), hit.point(), "Wrong recorded point");
+
+        // =============== Boundary Values Tests ==================
+
+        // TC11: Nearer point exactly at the maximum distance
+        assertEquals(new Point(-1, 0, 5), tube.findClosestGeoIntersection(ray, 2).point,
+                "Point at the maximum distance");
+    }
+}
@@ -0,0 +1,94 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Double3;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Testing UniformGrid */
+class UniformGridTests {
+
+    /** The material of the spheres, so the transparency is tested through the grid */
+    private static final Material GLASS = new Material().setKt(new Double3(0.8));
+
+    /**
+     * Checks that a ray finds the same intersections, closest point and transparency through both collections
+     * @param expected    the collection scanned one by one
+     * @param grid        the collection with a grid
+     * @param ray         the ray
+     * @param maxDistance the maximum distance for the transparency
+     */
+    private static void assertSameIntersections(Geometries expected, Geometries grid, Ray ray, double maxDistance) {
+        List<Point> all = expected.findIntersections(ray);
+        List<Point> result = grid.findIntersections(ray);
+        if (all == null) {
+            assertNull(result, "Grid found intersections that do not exist");
+        } else {
+            assertNotNull(result, "Grid missed intersections");
+            assertEquals(all.size(), result.size(), "Wrong number of points");
+            assertTrue(result.containsAll(all), "Wrong intersection points");
+        }
+        Intersectable.GeoPoint gp = grid.findClosestGeoIntersection(ray);
+        assertEquals(all == null ? null : ray.findClosestPoint(all), gp == null ? null : gp.point,
+                "Wrong closest point");
+        assertEquals(expected.findTransparency(ray, maxDistance, Double3.ONE, 0.001),
+                grid.findTransparency(ray, maxDistance, Double3.ONE, 0.001), "Wrong transparency");
+    }
+
+    /**
+     * Test method for {@link geometries.UniformGrid#findIntersections(primitives.Ray)}.
+     */
+    @Test
+    void testFindIntersections() {
+        Geometries linear = RandomScenes.evenSpheres(7, GLASS);
+        Geometries grid = RandomScenes.evenSpheres(7, GLASS).buildGrid();
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Random rays from outside the grid
+        Random rand = new Random(5783);
+        for (int i = 0; i < 500; ++i) {
+            Ray ray = RandomScenes.towardsScene(rand);
+            assertSameIntersections(linear, grid, ray, rand.nextDouble(10, 60));
+        }
+
+        // TC02: Random rays from inside the grid in all directions
+        for (int i = 0; i < 500; ++i) {
+            Ray ray = RandomScenes.anyDirection(rand, RandomScenes.EXTENT);
+            assertSameIntersections(linear, grid, ray, rand.nextDouble(1, 30));
+        }
+
+        // =============== Boundary Values Tests ==================
+
+        // TC11: Rays parallel to the axes
+        assertSameIntersections(linear, grid, new Ray(new Point(-30, 0.5, 0.5), new Vector(1, 0, 0)), 100);
+        assertSameIntersections(linear, grid, new Ray(new Point(0.5, 30, 0.5), new Vector(0, -1, 0)), 100);
+        assertSameIntersections(linear, grid, new Ray(new Point(0.5, 0.5, 0.5), new Vector(0, 0, 1)), 100);
+
+        // TC12: Empty collection
+        assertNull(new Geometries().buildGrid().findIntersections(new Ray(new Point(0, 0, 0), new Vector(0, 0, 1))),
+                "Must not be intersections");
+
+        // TC13: Flat triangles in a single plane, the grid has no thickness
+        Geometries flat = new Geometries();
+        for (int i = 0; i < 20; ++i)
+            flat.add(new Triangle(new Point(i, 0, 0), new Point(i + 1, 0, 0), new Point(i, 1, 0)));
+        assertEquals(1, flat.buildGrid()
+                        .findIntersections(new Ray(new Point(7.2, 0.3, -1), new Vector(0, 0, 1))).size(),
+                "Wrong number of points");
+
+        // TC14: A shape that spans many cells is tested once
+        Geometries big = new Geometries(new Sphere(5d, new Point(0, 0, 0)));
+        for (int i = 0; i < 100; ++i)
+            big.add(new Sphere(0.1, new Point(i / 10d - 5, 6, 6)));
+        assertEquals(2, big.buildGrid().findIntersections(new Ray(new Point(-10, 0.1, 0.1), new Vector(1, 0, 0))).size(),
+                "Wrong number of points");
+    }
+}
@@ -0,0 +1,127 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Double3;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Testing WideBVH */
+class WideBVHTests {
+
+    /** The material of the spheres of the transparent scene */
+    private static final Material GLASS = new Material().setKt(new Double3(0.8));
+
+    /**
+     * Test method for {@link geometries.WideBVH#WideBVH(java.util.List, int)}.
+     */
+    @Test
+    void testConstructor() {
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Width of 4 and of 8
+        Geometries scene = RandomScenes.spheresAndTriangles(300, null);
+        assertDoesNotThrow(() -> scene.buildWideBVH(4), "Failed building a 4-wide hierarchy");
+        assertDoesNotThrow(() -> scene.buildWideBVH(8), "Failed building an 8-wide hierarchy");
+
+        // TC02: Unsupported width
+        assertThrows(IllegalArgumentException.class, () -> scene.buildWideBVH(3),
+                "Built a hierarchy of an unsupported width");
+
+        // =============== Boundary Values Tests ==================
+
+        // TC11: Empty collection
+        assertNull(new Geometries().buildWideBVH(4).findIntersections(new Ray(new Point(0, 0, 0), new Vector(0, 0, 1))),
+                "Must not be intersections");
+
+        // TC12: A single shape
+        assertEquals(2, new Geometries(new Sphere(1d, new Point(0, 0, 2))).buildWideBVH(8)
+                        .findIntersections(new Ray(new Point(0, 0, -1), new Vector(0, 0, 1))).size(),
+                "Wrong number of points");
+    }
+
+    /**
+     * Test method for {@link geometries.WideBVH#findIntersections(primitives.Ray)}.
+     */
+    @Test
+    void testFindIntersections() {
+        Geometries linear = RandomScenes.spheresAndTriangles(300, GLASS);
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Random rays must find the same intersections, closest point and transparency as a linear scan
+        for (int width : new int[]{4, 8}) {
+            Geometries wide = RandomScenes.spheresAndTriangles(300, GLASS).buildWideBVH(width);
+            Random rand = new Random(1906);
+            for (int i = 0; i < 500; ++i) {
+                Ray ray = RandomScenes.towardsScene(rand);
+                List<Point> expected = linear.findIntersections(ray);
+                List<Point> result = wide.findIntersections(ray);
+                if (expected == null) {
+                    assertNull(result, "Hierarchy found intersections that do not exist");
+                } else {
+                    assertNotNull(result, "Hierarchy missed intersections");
+                    assertEquals(expected.size(), result.size(), "Wrong number of points");
+                    assertTrue(result.containsAll(expected), "Wrong intersection points");
+                }
+                Intersectable.GeoPoint gp = wide.findClosestGeoIntersection(ray);
+                assertEquals(expected == null ? null : ray.findClosestPoint(expected), gp == null ? null : gp.point,
+                        "Wrong closest point");
+                double maxDistance = rand.nextDouble(10, 60);
+                assertEquals(linear.findTransparency(ray, maxDistance, Double3.ONE, 0.001),
+                        wide.findTransparency(ray, maxDistance, Double3.ONE, 0.001), "Wrong transparency");
+            }
+        }
+
+        // =============== Boundary Values Tests ==================
+
+        // TC11: Ray parallel to the axes starting on a box face
+        assertEquals(2, new Geometries(new Sphere(1d, new Point(0, 0, 2)), new Sphere(1d, new Point(3, 0, 0)))
+                        .buildWideBVH(4).findIntersections(new Ray(new Point(-1, 0, 0), new Vector(1, 0, 0))).size(),
+                "Wrong number of points");
+
+        // TC12: Flat triangles in a single plane, the boxes have no thickness
+        Geometries flat = new Geometries();
+        for (int i = 0; i < 20; ++i)
+            flat.add(new Triangle(new Point(i, 0, 0), new Point(i + 1, 0, 0), new Point(i, 1, 0)));
+        assertEquals(1, flat.buildWideBVH(8)
+                        .findIntersections(new Ray(new Point(7.2, 0.3, -1), new Vector(0, 0, 1))).size(),
+                "Wrong number of points");
+    }
+
+    /**
+     * Test method for {@link geometries.WideBVH#getStatistics()}.
+     */
+    @Test
+    void testGetStatistics() {
+        Random rand = new Random(2165);
+        Geometries binary = new Geometries();
+        Geometries wide = new Geometries();
+        for (int i = 0; i < 10_000; ++i) {
+            Sphere sphere = new Sphere(rand.nextDouble(0.01, 0.1),
+                    new Point(rand.nextDouble(-10, 10), rand.nextDouble(-10, 10), rand.nextDouble(-10, 10)));
+            binary.add(sphere);
+            wide.add(sphere);
+        }
+        BuildStatistics full = binary.buildBVH().getBuildStatistics();
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: A 4-wide hierarchy has fewer nodes and levels and takes at least 3 times less memory
+        BuildStatistics statistics = wide.buildWideBVH(4).getBuildStatistics();
+        assertTrue(statistics.nodes() < full.nodes() / 3, "Too many nodes");
+        assertTrue(statistics.depth() < full.depth(), "Wrong depth");
+        assertTrue(3 * statistics.memory() <= full.memory(), "Too much memory");
+
+        // TC02: An 8-wide hierarchy is even shallower and takes at least 2 times less memory
+        BuildStatistics statistics8 = wide.buildWideBVH(8).getBuildStatistics();
+        assertTrue(statistics8.depth() < statistics.depth(), "Wrong depth");
+        assertTrue(2 * statistics8.memory() <= full.memory(), "Too much memory");
+    }
+}
@@ -0,0 +1,69 @@
+package primitives;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Testing MutableDouble3 */
+class MutableDouble3Tests {
+
+    /**
+     * Test method for {@link primitives.MutableDouble3#normalize()}.
+     */
+    @Test
+    void testNormalize() {
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: The vector between two points, normalized, is the same as the one of Point and Vector
+        Point head = new Point(1, 2, 3), tail = new Point(-4, 0.5, 7);
+        MutableDouble3 v = new MutableDouble3().setDifference(head, tail).normalize();
+        assertEquals(head.subtract(tail).normalize(), v.toVector(), "Wrong normalized vector");
+        assertEquals(1, v.length(), 1e-15, "The normalized vector is not a unit vector");
+    }
+
+    /**
+     * Test method for {@link primitives.MutableDouble3#dotProduct(primitives.Vector)}.
+     */
+    @Test
+    void testDotProduct() {
+        Vector v1 = new Vector(1, 2, 3), v2 = new Vector(-2, -4, -6), v3 = new Vector(0, 3, -2);
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: The same dot product as of vectors
+        assertEquals(v1.dotProduct(v2), new MutableDouble3().set(v1).dotProduct(v2), "Wrong dot product");
+
+        // =============== Boundary Values Tests ==================
+
+        // TC11: Orthogonal vectors
+        assertEquals(0, new MutableDouble3().set(v1).dotProduct(v3), "Orthogonal vectors must have zero dot product");
+    }
+
+    /**
+     * Test method for {@link primitives.MutableDouble3#addProduct(primitives.MutableDouble3, primitives.Double3, double)}.
+     */
+    @Test
+    void testAddProduct() {
+        Color base = new Color(10, 20, 30), light = new Color(100, 50, 25);
+        Double3 k = new Double3(0.5, 0.25, 1);
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: The same color as the immutable operations
+        MutableDouble3 iL = new MutableDouble3().set(light);
+        MutableDouble3 color = new MutableDouble3().set(base).addProduct(iL, k, 0.3);
+        Color expected = base.add(light.scale(k.scale(0.3)));
+        assertEquals(expected.toString(), color.toColor().toString(), "Wrong sum of colors");
+
+        // TC02: Subtracting a scaled vector is the same as of vectors
+        Vector n = new Vector(0, 0, 1), l = new Vector(1, 1, -1).normalize();
+        MutableDouble3 r = new MutableDouble3().set(l).subtractScaled(n, 2 * l.dotProduct(n));
+        assertEquals(l.subtract(n.scale(2 * l.dotProduct(n))), r.toVector(), "Wrong reflected vector");
+
+        // =============== Boundary Values Tests ==================
+
+        // TC11: A zero triad is not a vector
+        assertThrows(IllegalArgumentException.class, () -> new MutableDouble3().toVector(),
+                "A zero triad must not become a vector");
+    }
+}
@@ -0,0 +1,72 @@
+package primitives;
+
+import geometries.Sphere;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Testing RayBatch */
+class RayBatchTests {
+
+    /**
+     * Test method for {@link primitives.RayBatch#add(primitives.Ray)}.
+     */
+    @Test
+    void testAdd() {
+        RayBatch batch = new RayBatch(2);
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: A ray is added with its origin and direction, endless and with no hit
+        int k = batch.add(new Ray(new Point(1, 2, 3), new Vector(0, 0, 2)));
+        assertEquals(0, k, "Wrong index of the first ray");
+        assertEquals(1, batch.size(), "Wrong amount of rays");
+        assertEquals(new Ray(new Point(1, 2, 3), new Vector(0, 0, 1)), batch.ray(k), "Wrong ray");
+        assertEquals(Double.POSITIVE_INFINITY, batch.tMax[k], "A ray must be endless");
+        assertNull(batch.hit[k], "A new ray must have no hit");
+
+        // =============== Boundary Values Tests ==================
+
+        // TC11: A full batch
+        batch.add(0, 0, 0, 1, 0, 0, 0, 1);
+        assertThrows(IllegalStateException.class, () -> batch.add(0, 0, 0, 1, 0, 0, 0, 1),
+                "A full batch must not accept rays");
+
+        // TC12: A cleared batch accepts rays again
+        batch.clear();
+        assertEquals(0, batch.size(), "A cleared batch must be empty");
+        assertEquals(0, batch.add(0, 0, 0, 1, 0, 0, 0, 1), "Wrong index after clear");
+    }
+
+    /**
+     * Test method for {@link primitives.RayBatch#hit(int, geometries.Geometry, double)}.
+     */
+    @Test
+    void testHit() {
+        RayBatch batch = new RayBatch(1);
+        int k = batch.add(0, 0, 0, 1, 0, 0, 2, 10);
+        Sphere far = new Sphere(1, new Point(8, 0, 0));
+        Sphere near = new Sphere(1, new Point(4, 0, 0));
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: The first hit ends the ray
+        batch.hit(k, far, 7);
+        assertSame(far, batch.hit[k], "Wrong geometry of the hit");
+        assertEquals(new Point(7, 0, 0), batch.hitPoint(k), "Wrong point of the hit");
+
+        // TC02: A closer hit replaces it
+        batch.hit(k, near, 3);
+        assertSame(near, batch.hit[k], "A closer hit must replace the hit");
+
+        // TC03: A farther hit does not
+        batch.hit(k, far, 7);
+        assertSame(near, batch.hit[k], "A farther hit must not replace the hit");
+        assertEquals(3, batch.tMax[k], "Wrong end of the ray");
+
+        // =============== Boundary Values Tests ==================
+
+        // TC11: The ray object starts at the start of the ray
+        assertEquals(new Point(2, 0, 0), batch.ray(k).getP0(), "Wrong origin of the ray object");
+    }
+}
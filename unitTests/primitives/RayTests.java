@@ -1,5 +1,6 @@
 package primitives;
 
+import geometries.Intersectable.GeoPoint;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 import java.util.LinkedList;
@@ -46,4 +47,58 @@ class RayTests {
         result.add(p2);
         assertEquals(result.get(1), ray.findClosestPoint(result), "The point is not the closest");
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link primitives.Ray#findClosestGeoPoint(java.util.List<GeoPoint>)}.
+     */
+    @Test
+    void testFindClosestGeoPoint() {
+        Ray ray = new Ray(new Point(1, 0, 0), new Vector(1, 0, 0));
+        GeoPoint near = new GeoPoint(null, new Point(2, 0, 0), 1);
+        GeoPoint far = new GeoPoint(null, new Point(4, 0, 0), 3);
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Intersection points are compared by the distances they keep
+        assertSame(near, ray.findClosestGeoPoint(List.of(far, near)), "The point is not the closest");
+        GeoPoint claimed = new GeoPoint(null, new Point(9, 0, 0), 0.5);
+        assertSame(claimed, ray.findClosestGeoPoint(List.of(near, claimed)), "The kept distance was not used");
+
+        // =============== Boundary Values Tests ==================
+
+        // TC11: The distance of a point that does not keep it is calculated
+        GeoPoint unknown = new GeoPoint(null, new Point(1.5, 0, 0));
+        assertSame(unknown, ray.findClosestGeoPoint(List.of(far, unknown, near)), "The point is not the closest");
+    }
+
+    /**
+     * Test method for {@link primitives.Ray#getOctant()} and the inverses of the direction.
+     */
+    @Test
+    void testGetOctant() {
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: A direction with negative and positive components
+        Ray ray = new Ray(new Point(1, 2, 3), new Vector(-2, 0, 0).add(new Vector(0, 2, -1)));
+        assertEquals(0b101, ray.getOctant(), "Wrong octant");
+        assertEquals(1 / ray.getDir().getX(), ray.getInvX(), "Wrong inverse of x");
+        assertEquals(1 / ray.getDir().getY(), ray.getInvY(), "Wrong inverse of y");
+        assertEquals(1 / ray.getDir().getZ(), ray.getInvZ(), "Wrong inverse of z");
+
+        // TC02: The direction is normalized by the constructors, and taken as it is when known to be normalized
+        assertEquals(new Vector(0, 0, 1), new Ray(new Point(0, 0, 0), new Vector(0, 0, 5)).getDir(),
+                "The direction must be normalized");
+        Vector unit = new Vector(0, 0.6, 0.8);
+        assertSame(unit, new Ray(new Point(0, 0, 0), unit, true).getDir(), "A normalized direction must be kept");
+        assertSame(unit, new Ray(new Point(0, 0, 0), unit, new Vector(0, 0, 1), true).getDir(),
+                "A normalized direction must be kept");
+
+        // =============== Boundary Values Tests ==================
+
+        // TC11: Components along the axes - a zero component has an infinite inverse of its sign
+        ray = new Ray(new Point(0, 0, 0), new Vector(0, -1, 0));
+        assertEquals(0b010, ray.getOctant(), "Wrong octant of an axis direction");
+        assertEquals(Double.POSITIVE_INFINITY, ray.getInvX(), "Wrong inverse of a zero component");
+        assertEquals(-1, ray.getInvY(), "Wrong inverse of y");
+    }
+}
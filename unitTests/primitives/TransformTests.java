@@ -0,0 +1,87 @@
+package primitives;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for primitives.Transform class
+ */
+class TransformTests {
+
+    /**
+     * Checks that two points are equal up to rounding errors
+     * @param expected the expected point
+     * @param actual   the actual point
+     * @param message  the message of the failure
+     */
+    private static void assertNear(Point expected, Point actual, String message) {
+        assertEquals(0, expected.distance(actual), 1e-9, message);
+    }
+
+    /**
+     * Test method for {@link primitives.Transform#Transform(double[][])}.
+     */
+    @Test
+    void testConstructor() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Affine matrix
+        assertDoesNotThrow(() -> new Transform(new double[][]{{1, 0, 0, 1}, {0, 2, 0, 2}, {0, 0, 3, 3}, {0, 0, 0, 1}}),
+                "Failed constructing an affine transform");
+
+        // TC02: Projective matrix
+        assertThrows(IllegalArgumentException.class,
+                () -> new Transform(new double[][]{{1, 0, 0, 0}, {0, 1, 0, 0}, {0, 0, 1, 0}, {0, 0, 1, 0}}),
+                "Constructed a projective transform");
+
+        // TC03: Matrix that is not 4x4
+        assertThrows(IllegalArgumentException.class,
+                () -> new Transform(new double[][]{{1, 0, 0}, {0, 1, 0}, {0, 0, 1}}),
+                "Constructed a transform from a 3x3 matrix");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Singular matrix
+        assertThrows(IllegalArgumentException.class,
+                () -> new Transform(new double[][]{{1, 0, 0, 0}, {0, 1, 0, 0}, {1, 1, 0, 0}, {0, 0, 0, 1}}),
+                "Constructed a transform without an inverse");
+        assertThrows(IllegalArgumentException.class, () -> Transform.scaling(1, 0, 1),
+                "Constructed a scaling by zero");
+    }
+
+    /**
+     * Test method for {@link primitives.Transform#apply(primitives.Point)}.
+     */
+    @Test
+    void testApply() {
+        Transform transform = Transform.scaling(2, 2, 2).then(Transform.rotation(new Vector(0, 0, 1), 90))
+                .then(Transform.translation(new Vector(1, 2, 3)));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Scaling, rotation and translation of a point
+        assertNear(new Point(1, 4, 3), transform.apply(new Point(1, 0, 0)), "Wrong transformed point");
+
+        // TC02: The translation does not move a direction
+        assertNear(new Vector(0, 2, 0), transform.applyToVector(new Vector(1, 0, 0)), "Wrong transformed direction");
+
+        // TC03: The inverse transform brings the point back
+        assertNear(new Point(1, 0, 0), transform.inverse().apply(new Point(1, 4, 3)), "Wrong inverse transform");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Identity
+        assertNear(new Point(1, 2, 3), Transform.IDENTITY.apply(new Point(1, 2, 3)), "Wrong identity transform");
+    }
+
+    /**
+     * Test method for {@link primitives.Transform#applyToNormal(primitives.Vector)}.
+     */
+    @Test
+    void testApplyToNormal() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The normal of the plane x + y = 0 stays orthogonal to the plane after a non-uniform scaling
+        Transform transform = Transform.scaling(2, 1, 1);
+        Vector inPlane = transform.applyToVector(new Vector(1, -1, 0));
+        Vector normal = transform.applyToNormal(new Vector(1, 1, 0));
+        assertEquals(0, inPlane.dotProduct(normal), 1e-9, "Transformed normal is not orthogonal to the plane");
+        assertEquals(1, normal.length(), 1e-9, "Transformed normal is not normalized");
+    }
+}
@@ -0,0 +1,46 @@
+package renderer;
+
+import geometries.Geometries;
+import geometries.Sphere;
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+import scene.Scene;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Testing RayTracerBasic */
+class RayTracerBasicTests {
+
+    /** The background color of the scene */
+    private static final Color BACKGROUND = new Color(20, 40, 60);
+
+    /** The color of the sphere of the scene */
+    private static final Color EMISSION = new Color(100, 50, 25);
+
+    /**
+     * Test method for {@link renderer.RayTracerBasic#traceRay(primitives.Ray)}
+     * and {@link renderer.RayTracerBasic#tracePacket(primitives.Ray[])}.
+     */
+    @Test
+    void testTraceWithoutCamera() {
+        Scene scene = new Scene.SceneBuilder("Tracer").setBackground(BACKGROUND)
+                .setGeometries(new Geometries(new Sphere(1, new Point(0, 0, -5)).setEmission(EMISSION))).build();
+        Ray hit = new Ray(new Point(0, 0, 0), new Vector(0, 0, -1));
+        Ray miss = new Ray(new Point(0, 0, 0), new Vector(0, 1, 0));
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: A ray traced before the scene is compiled compiles it
+        assertEquals(EMISSION.getColor(), new RayTracerBasic(scene).traceRay(hit).getColor(), "Wrong color of a hit");
+        assertEquals(BACKGROUND.getColor(), new RayTracerBasic(scene).traceRay(miss).getColor(),
+                "Wrong color of a miss");
+
+        // TC02: A packet traced before the scene is compiled compiles it
+        Color[] colors = new RayTracerBasic(scene).tracePacket(new Ray[]{hit, miss});
+        assertEquals(EMISSION.getColor(), colors[0].getColor(), "Wrong color of a hit in a packet");
+        assertEquals(BACKGROUND.getColor(), colors[1].getColor(), "Wrong color of a miss in a packet");
+    }
+}
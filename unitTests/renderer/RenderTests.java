@@ -151,18 +151,13 @@ public class RenderTests {
     }
 
     /**
-     * Produce a picture of sphere and cube in a room, illuminated by two narrow beamed spotLights.
-     * Includes transparency and reflection properties of the room, and the geometries inside it.
-     * Additionally, camera rotation fetcher to capture the inside of the room from a different angle.
+     * Builds a room with a sphere and a cube, illuminated by two narrow beamed spotLights.
+     * The room and the geometries inside it reflect light, and the cube lets light through.
+     * @return the room scene
      */
-    @Test
-    public void myTestRoomWithSphereAndCube() {
+    public static Scene roomScene() {
         Scene scene = new Scene.SceneBuilder("Test scene").build();
 
-        Camera camera = new Camera(new Point(0, 0, 350), new Vector(0, 0, -1),
-                new Vector(0, 1, 0)).setVPSize(150, 150).setVPDistance(150).setThreadsCount(4)
-                .setAdaptive(true).setDensity(5);
-
         scene.setAmbientLight(new AmbientLight(new Color(WHITE), 0.01));
 
         //------------Geometries------------//
@@ -301,6 +296,21 @@ public class RenderTests {
         scene.getLights().add( // Spot from the right
                 new SpotLight(new Color(GRAY), new Point(130, 100, 150), new Vector(-1, 0, -1)).setNarrowBeam(3)
         );
+        return scene;
+    }
+
+    /**
+     * Produce a picture of sphere and cube in a room, illuminated by two narrow beamed spotLights.
+     * Includes transparency and reflection properties of the room, and the geometries inside it.
+     * Additionally, camera rotation fetcher to capture the inside of the room from a different angle.
+     */
+    @Test
+    public void myTestRoomWithSphereAndCube() {
+        Scene scene = roomScene();
+
+        Camera camera = new Camera(new Point(0, 0, 350), new Vector(0, 0, -1),
+                new Vector(0, 1, 0)).setVPSize(150, 150).setVPDistance(150).setThreadsCount(4)
+                .setAdaptive(true).setDensity(5);
 
         //------------Write to image------------//
         ImageWriter imageWriter = new ImageWriter("roomWithSphereAndCube", 1200, 1200);